@@ -16,16 +16,16 @@ import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JSeparator;
+import javax.swing.SwingUtilities;
 
 import atlantis.engine.graphics3d.Camera;
 import atlantis.engine.graphics3d.Mesh;
 import atlantis.engine.graphics3d.Renderer;
-import atlantis.engine.graphics3d.geometry.CubeGeometry;
+import atlantis.engine.graphics3d.geometry.GeometryCache;
 import atlantis.engine.graphics3d.geometry.MeshGeometry;
 import atlantis.engine.graphics3d.geometry.PlaneGeometry;
-import atlantis.engine.graphics3d.geometry.QuadGeometry;
-import atlantis.engine.graphics3d.geometry.Pyramid3Geometry;
 import atlantis.engine.input.MouseComponent;
+import atlantis.framework.RayHit;
 import atlantis.framework.Vector2;
 import atlantis.framework.Vector3;
 import atlantis.framework.graphics.RenderTarget2D;
@@ -36,6 +36,7 @@ import atlantis.framework.platform.JPanelRenderer;
 
 public class EditorWindow extends JFrame implements IGameWindow, Runnable, ActionListener {
 	private static final long serialVersionUID = 2755458791729206299L;
+	private static final String EditorTitle = "Atlantis 3D Editor";
 	private Thread gameThread;
 	private RenderTarget2D renderTarget;
 	private boolean isRunning;
@@ -59,13 +60,15 @@ public class EditorWindow extends JFrame implements IGameWindow, Runnable, Actio
 	protected Renderer renderer;
 	protected Camera camera;
 	protected Mesh[] meshes;
+	protected Mesh selectedMesh;
+	private RayHit pickingHit;
 
 	private MouseManager mouseManager;
 	private MouseComponent mouseComponent;
 	
 	public EditorWindow() {
 		this.isRunning = true;
-		this.setTitle("Atlantis 3D Editor");
+		this.setTitle(EditorTitle);
 		this.setSize(800, 600);
 		this.setLocationRelativeTo(null);
 		this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -153,6 +156,7 @@ public class EditorWindow extends JFrame implements IGameWindow, Runnable, Actio
 		this.camera.position.z = 20;
 		this.meshes = new Mesh[1];
 		this.meshes[0] = new Mesh("grid", new PlaneGeometry(10, 10));
+		this.pickingHit = new RayHit();
 		
 		this.gameThread = new Thread(this);
 		this.gameThread.start();
@@ -171,6 +175,41 @@ public class EditorWindow extends JFrame implements IGameWindow, Runnable, Actio
 			this.camera.position.y += vec.y;
 			System.out.println(this.camera.position);
 		}
+		
+		if (this.mouseComponent.justClicked(MouseEvent.BUTTON3)) {
+			this.select(this.mouseComponent.getX(), this.mouseComponent.getY());
+		}
+	}
+	
+	/**
+	 * Select the mesh under a point of the renderer, the selected mesh is drawn in wireframe.
+	 * @param x The X coordinate on the renderer.
+	 * @param y The Y coordinate on the renderer.
+	 */
+	private void select(int x, int y) {
+		if (this.selectedMesh != null) {
+			this.selectedMesh.setWireframeMode(false);
+		}
+		
+		int index = this.renderer.pick(this.camera, this.meshes, x, y, this.pickingHit);
+		final Mesh selection = (index > -1) ? this.meshes[index] : null;
+		final String title = (selection != null) ? EditorTitle + " - " + selection.getName() + ", face " + this.pickingHit.index : EditorTitle;
+		this.selectedMesh = selection;
+		
+		if (selection != null) {
+			selection.setWireframeMode(true);
+		}
+		
+		// It's called by the game loop, the components are updated on the event dispatch thread.
+		SwingUtilities.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				if (selection != null) {
+					inspector.SetupTransform(selection.getPosition(), selection.getRotation(), selection.getScale());
+				}
+				setTitle(title);
+			}
+		});
 	}
 
 	public void run() {
@@ -221,13 +260,13 @@ public class EditorWindow extends JFrame implements IGameWindow, Runnable, Actio
 		MeshGeometry geometry = null;
 		
 		if (arg0.getSource() == this.cubeAddItem) {
-			geometry = new CubeGeometry();
+			geometry = GeometryCache.getCube();
 		}
 		else if (arg0.getSource() == this.planeAddItem) {
-			geometry = new QuadGeometry();
+			geometry = GeometryCache.getQuad();
 		}
 		else if (arg0.getSource() == this.pyramidAddItem) {
-			geometry = new Pyramid3Geometry();
+			geometry = GeometryCache.getPyramid3();
 		}
 		
 		Mesh mesh = new Mesh("mesh", geometry);
@@ -252,6 +291,7 @@ public class EditorWindow extends JFrame implements IGameWindow, Runnable, Actio
 		public void actionPerformed(ActionEvent e) {
 			if (e.getSource() == EditorWindow.this.newItemMenu) {
 				EditorWindow.this.meshes = new Mesh[0];
+				EditorWindow.this.selectedMesh = null;
 			}
 			else if (e.getSource() == EditorWindow.this.openItemMenu) {
 				
@@ -275,13 +315,13 @@ public class EditorWindow extends JFrame implements IGameWindow, Runnable, Actio
 				MeshGeometry geometry = null;
 				
 				if (e.getSource() == EditorWindow.this.cubeAddItem) {
-					geometry = new CubeGeometry();
+					geometry = GeometryCache.getCube();
 				}
 				else if (e.getSource() == EditorWindow.this.planeAddItem) {
-					geometry = new QuadGeometry();
+					geometry = GeometryCache.getQuad();
 				}
 				else if (e.getSource() == EditorWindow.this.pyramidAddItem) {
-					geometry = new Pyramid3Geometry();
+					geometry = GeometryCache.getPyramid3();
 				}
 				
 				Mesh mesh = new Mesh("mesh", geometry);
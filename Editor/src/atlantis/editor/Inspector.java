@@ -28,6 +28,6 @@ public class Inspector extends JPanel {
 	}
 	
 	public void SetupTransform(Vector3 position, Vector3 rotation, Vector3 scale) {
-		
+		this.transformComponent.Setup(position, rotation, scale);
 	}
 }
\ No newline at end of file
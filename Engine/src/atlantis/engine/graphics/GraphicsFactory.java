@@ -2,36 +2,30 @@ package atlantis.engine.graphics;
 
 import java.awt.Color;
 import java.awt.Graphics;
-import java.awt.image.BufferedImage;
-import java.awt.image.DataBuffer;
+import java.util.Arrays;
 import java.util.Random;
 import atlantis.framework.Rectangle;
 import atlantis.framework.graphics.Texture2D;
 
 public class GraphicsFactory {
 	/**
-	 * Create a procedural texture.
+	 * Create a procedural texture in the format of the display.
 	 * @param width Desired width.
 	 * @param height Desired height.
 	 * @param color Desired color.
 	 * @return Return a new texture.
 	 */
 	public static Texture2D createTexture(int width, int height, Color color) {
-		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_4BYTE_ABGR);
-		DataBuffer buffer = image.getRaster().getDataBuffer();
+		int[] pixels = new int[width * height];
+		Arrays.fill(pixels, color.getRGB());
 		
-		for (int i = 0, l = buffer.getSize(); i < l; i += 4) {
-			buffer.setElem(i, color.getAlpha());
-			buffer.setElem(i + 1, color.getBlue());
-			buffer.setElem(i + 2, color.getGreen());
-			buffer.setElem(i + 3, color.getRed());
-		}
-
-		return new Texture2D(buffer, image.getWidth(), image.getHeight(), image.getType());
+		Texture2D texture = new Texture2D(width, height, Texture2D.getDisplayType());
+		texture.setPixels(pixels);
+		return texture;
 	}
 	
 	/**
-	 * Create a random texture with specified size.
+	 * Create a random texture with specified size, in the format of the display.
 	 * @param width Desired width.
 	 * @param height Desired height.
 	 * @return Return a new texture.
@@ -39,17 +33,15 @@ public class GraphicsFactory {
 	 */
 	public static Texture2D createRandomTexture(int width, int height) throws Exception {
 		Random random = new Random();
-		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_4BYTE_ABGR);
-		DataBuffer buffer = image.getRaster().getDataBuffer();
+		int[] pixels = new int[width * height];
 		
-		for (int i = 0, l = buffer.getSize(); i < l; i += 4) {
-			buffer.setElem(i, random.nextInt(255));
-			buffer.setElem(i + 1, random.nextInt(255));
-			buffer.setElem(i + 2, random.nextInt(255));
-			buffer.setElem(i + 3, random.nextInt(255));
+		for (int i = 0; i < pixels.length; i++) {
+			pixels[i] = (random.nextInt(255) << 24) | (random.nextInt(255) << 16) | (random.nextInt(255) << 8) | random.nextInt(255);
 		}
 		
-		return new Texture2D(buffer, image.getWidth(), image.getHeight(), image.getType());
+		Texture2D texture = new Texture2D(width, height, Texture2D.getDisplayType());
+		texture.setPixels(pixels);
+		return texture;
 	}
 	
 	/**
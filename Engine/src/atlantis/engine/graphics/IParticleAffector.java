@@ -0,0 +1,20 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.engine.graphics;
+
+/**
+ * An affector changes the particles of a particle system on each update, before they move.
+ * @author Yannick
+ */
+public interface IParticleAffector {
+	/**
+	 * Change a range of particles. The ranges of a system can be updated by several threads at the same time,
+	 * an affector must only write the particles of its range.
+	 * @param particleSystem The particle system, its arrays are read and written directly.
+	 * @param start The first particle (inclusive).
+	 * @param end The last particle (exclusive).
+	 * @param elapsed The elapsed time since the last update, in seconds.
+	 */
+	public void affect(ParticleSystem particleSystem, int start, int end, float elapsed);
+}
@@ -0,0 +1,204 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.engine.graphics;
+
+import java.util.Random;
+
+/**
+ * An emitter creates the particles of a particle system, continuously at a rate or by bursts (see burst). A particle
+ * is born at a random point of the area of the emitter, with a random direction, speed, life and size in the ranges
+ * of the emitter. An area of a single point makes an explosion, a line above the screen makes the rain.
+ * @author Yannick
+ */
+public class ParticleEmitter {
+	protected float x;
+	protected float y;
+	protected float width;
+	protected float height;
+	protected float rate;
+	protected boolean enabled;
+	protected float minAngle;
+	protected float maxAngle;
+	protected float minSpeed;
+	protected float maxSpeed;
+	protected float minLife;
+	protected float maxLife;
+	protected float minSize;
+	protected float maxSize;
+	protected int color;
+	protected Random random;
+	// The part of a particle not emitted yet, so the low rates emit on some frames only.
+	private float pendingParticles;
+
+	/**
+	 * Create an emitter at a point. The particles go in all directions at 50 to 100 pixels per second,
+	 * live 1 to 2 seconds and have a size of 4 pixels.
+	 * @param x The position on X axis.
+	 * @param y The position on Y axis.
+	 * @param rate The number of particles per second, 0 to only emit by bursts.
+	 */
+	public ParticleEmitter(float x, float y, float rate) {
+		this.x = x;
+		this.y = y;
+		this.width = 0.0f;
+		this.height = 0.0f;
+		this.rate = rate;
+		this.enabled = true;
+		this.minAngle = 0.0f;
+		this.maxAngle = (float)(Math.PI * 2.0);
+		this.minSpeed = 50.0f;
+		this.maxSpeed = 100.0f;
+		this.minLife = 1.0f;
+		this.maxLife = 2.0f;
+		this.minSize = 4.0f;
+		this.maxSize = 4.0f;
+		this.color = 0xFFFFFFFF;
+		this.random = new Random();
+		this.pendingParticles = 0.0f;
+	}
+
+	/**
+	 * Emit the particles of the elapsed time, it's called by the particle system on each update.
+	 * @param particleSystem The particle system.
+	 * @param elapsed The elapsed time since the last update, in seconds.
+	 */
+	public void emit(ParticleSystem particleSystem, float elapsed) {
+		if (!this.enabled || this.rate <= 0.0f) {
+			return;
+		}
+
+		this.pendingParticles += this.rate * elapsed;
+		int count = (int)this.pendingParticles;
+		this.pendingParticles -= count;
+		this.burst(particleSystem, count);
+	}
+
+	/**
+	 * Emit a number of particles at once, the particles that don't fit in the system are lost.
+	 * @param particleSystem The particle system.
+	 * @param count The number of particles.
+	 */
+	public void burst(ParticleSystem particleSystem, int count) {
+		Random random = this.random;
+
+		for (int i = 0; i < count; i++) {
+			float angle = this.minAngle + random.nextFloat() * (this.maxAngle - this.minAngle);
+			float speed = this.minSpeed + random.nextFloat() * (this.maxSpeed - this.minSpeed);
+			float life = this.minLife + random.nextFloat() * (this.maxLife - this.minLife);
+			float size = this.minSize + random.nextFloat() * (this.maxSize - this.minSize);
+
+			if (!particleSystem.emit(this.x + random.nextFloat() * this.width, this.y + random.nextFloat() * this.height,
+					(float)Math.cos(angle) * speed, (float)Math.sin(angle) * speed, life, size, this.color)) {
+				return;
+			}
+		}
+	}
+
+	// ---
+	// --- Getters and setters
+	// ---
+
+	public float getX() {
+		return this.x;
+	}
+
+	public float getY() {
+		return this.y;
+	}
+
+	public void setPosition(float x, float y) {
+		this.x = x;
+		this.y = y;
+	}
+
+	/**
+	 * Sets the area where the particles are born, from the position of the emitter.
+	 * @param width The width of the area, 0 for a point or a vertical line.
+	 * @param height The height of the area, 0 for a point or an horizontal line.
+	 */
+	public void setArea(float width, float height) {
+		this.width = width;
+		this.height = height;
+	}
+
+	public float getRate() {
+		return this.rate;
+	}
+
+	public void setRate(float rate) {
+		this.rate = rate;
+	}
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	/**
+	 * Start or stop the continuous emission, the bursts are always emitted.
+	 * @param enabled Sets to false to stop the emission.
+	 */
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Sets the range of the directions of the particles.
+	 * @param minAngle The minimum angle in radians, 0 goes right and PI / 2 goes down.
+	 * @param maxAngle The maximum angle in radians.
+	 */
+	public void setDirection(float minAngle, float maxAngle) {
+		this.minAngle = minAngle;
+		this.maxAngle = maxAngle;
+	}
+
+	/**
+	 * Sets the range of the speeds of the particles.
+	 * @param minSpeed The minimum speed in pixels per second.
+	 * @param maxSpeed The maximum speed in pixels per second.
+	 */
+	public void setSpeed(float minSpeed, float maxSpeed) {
+		this.minSpeed = minSpeed;
+		this.maxSpeed = maxSpeed;
+	}
+
+	/**
+	 * Sets the range of the lives of the particles.
+	 * @param minLife The minimum life in seconds.
+	 * @param maxLife The maximum life in seconds.
+	 */
+	public void setLife(float minLife, float maxLife) {
+		this.minLife = minLife;
+		this.maxLife = maxLife;
+	}
+
+	/**
+	 * Sets the range of the sizes of the particles.
+	 * @param minSize The minimum size in pixels.
+	 * @param maxSize The maximum size in pixels.
+	 */
+	public void setSize(float minSize, float maxSize) {
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+	}
+
+	public int getColor() {
+		return this.color;
+	}
+
+	/**
+	 * Sets the color of the new particles.
+	 * @param color An ARGB color (0xAARRGGBB).
+	 */
+	public void setColor(int color) {
+		this.color = color;
+	}
+
+	/**
+	 * Sets the seed of the random values of the particles, to emit the same particles again.
+	 * @param seed The seed.
+	 */
+	public void setSeed(long seed) {
+		this.random.setSeed(seed);
+	}
+}
@@ -0,0 +1,68 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.engine.graphics;
+
+/**
+ * Fade the particles out and scale them over their life: the alpha and the size at birth are multiplied by a factor
+ * that goes from 1 to the end factor when the particle dies.
+ * @author Yannick
+ */
+public class ParticleFadeAffector implements IParticleAffector {
+	protected float endAlpha;
+	protected float endScale;
+
+	/**
+	 * Create an affector that fades the particles out without scaling them.
+	 */
+	public ParticleFadeAffector() {
+		this(0.0f, 1.0f);
+	}
+
+	/**
+	 * Create an affector.
+	 * @param endAlpha The factor of the alpha when a particle dies, between 0 and 1.
+	 * @param endScale The factor of the size when a particle dies.
+	 */
+	public ParticleFadeAffector(float endAlpha, float endScale) {
+		this.endAlpha = endAlpha;
+		this.endScale = endScale;
+	}
+
+	@Override
+	public void affect(ParticleSystem particleSystem, int start, int end, float elapsed) {
+		float[] lives = particleSystem.getLives();
+		float[] lifetimes = particleSystem.getLifetimes();
+		float[] colors = particleSystem.getColors();
+		float[] startColors = particleSystem.getStartColors();
+		float[] sizes = particleSystem.getSizes();
+		float[] startSizes = particleSystem.getStartSizes();
+
+		for (int i = start; i < end; i++) {
+			// The part of the life that remains, from 1 at birth to 0.
+			float remaining = Math.max(0.0f, lives[i] / lifetimes[i]);
+			colors[i * 4 + 3] = startColors[i * 4 + 3] * (this.endAlpha + (1.0f - this.endAlpha) * remaining);
+			sizes[i] = startSizes[i] * (this.endScale + (1.0f - this.endScale) * remaining);
+		}
+	}
+
+	// ---
+	// --- Getters and setters
+	// ---
+
+	public float getEndAlpha() {
+		return this.endAlpha;
+	}
+
+	public void setEndAlpha(float endAlpha) {
+		this.endAlpha = endAlpha;
+	}
+
+	public float getEndScale() {
+		return this.endScale;
+	}
+
+	public void setEndScale(float endScale) {
+		this.endScale = endScale;
+	}
+}
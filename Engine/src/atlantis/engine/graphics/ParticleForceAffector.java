@@ -0,0 +1,52 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.engine.graphics;
+
+/**
+ * An acceleration applied to all the particles, like the gravity or the wind.
+ * @author Yannick
+ */
+public class ParticleForceAffector implements IParticleAffector {
+	protected float accelerationX;
+	protected float accelerationY;
+
+	/**
+	 * Create a force.
+	 * @param accelerationX The acceleration on X axis, in pixels per second per second.
+	 * @param accelerationY The acceleration on Y axis, in pixels per second per second.
+	 */
+	public ParticleForceAffector(float accelerationX, float accelerationY) {
+		this.accelerationX = accelerationX;
+		this.accelerationY = accelerationY;
+	}
+
+	@Override
+	public void affect(ParticleSystem particleSystem, int start, int end, float elapsed) {
+		float[] velocities = particleSystem.getVelocities();
+		float dx = this.accelerationX * elapsed;
+		float dy = this.accelerationY * elapsed;
+
+		for (int i = start * 2, l = end * 2; i < l; i += 2) {
+			velocities[i] += dx;
+			velocities[i + 1] += dy;
+		}
+	}
+
+	// ---
+	// --- Getters and setters
+	// ---
+
+	public float getAccelerationX() {
+		return this.accelerationX;
+	}
+
+	public float getAccelerationY() {
+		return this.accelerationY;
+	}
+
+	public void setAcceleration(float accelerationX, float accelerationY) {
+		this.accelerationX = accelerationX;
+		this.accelerationY = accelerationY;
+	}
+}
@@ -0,0 +1,385 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.engine.graphics;
+
+import java.util.ArrayList;
+
+import atlantis.framework.GameTime;
+import atlantis.framework.IParallelTask;
+import atlantis.framework.Parallel;
+import atlantis.framework.Rectangle;
+import atlantis.framework.graphics.GraphicsDevice;
+import atlantis.framework.graphics.SpriteBatch;
+import atlantis.framework.graphics.Texture2D;
+
+/**
+ * A system of particles drawn with the texture of the sprite, for the explosions, the star fields or the weather.
+ * The particles aren't objects, each value of a particle is stored in an array with the same value of the other
+ * particles (position, velocity, life, color and size), so a system of a hundred thousand particles is a few arrays.
+ * The alive particles are the first ones of the arrays: a dead particle is replaced by the last one, and a new
+ * particle takes the slot after the last one, no memory is allocated once the system is created.
+ * <p>
+ * On each update the emitters create the new particles, the affectors change the particles and the particles move by
+ * their velocity. The particles are updated in ranges by all the cores when there are enough of them (see
+ * Parallel.forRange), then the whole system is drawn by a single call to the sprite batch. The colors are tints,
+ * they're only applied by the software rendering of the sprite batch.
+ * <p>
+ * The positions of the particles are on screen, the position of the sprite isn't used.
+ * @author Yannick
+ */
+public class ParticleSystem extends Sprite {
+	// The minimum number of particles updated by a thread.
+	private static final int ParallelCount = 8192;
+
+	protected int capacity;
+	protected int particleCount;
+	protected boolean parallelUpdate;
+	protected ArrayList<ParticleEmitter> emitters;
+	protected ArrayList<IParticleAffector> affectors;
+
+	// The particles, 2 values per vector, 4 values per color (red, green, blue and alpha between 0 and 1).
+	protected float[] positions;
+	protected float[] velocities;
+	protected float[] lives;
+	protected float[] lifetimes;
+	protected float[] colors;
+	protected float[] startColors;
+	protected float[] sizes;
+	protected float[] startSizes;
+	protected int[] packedColors;
+
+	private float elapsed;
+	private IParallelTask updateTask;
+	private Rectangle tempSourceRectangle;
+
+	/**
+	 * Create an empty system, the particles are drawn once a texture is set (see setTexture).
+	 * @param capacity The maximum number of particles.
+	 */
+	public ParticleSystem(int capacity) {
+		this.capacity = capacity;
+		this.particleCount = 0;
+		this.parallelUpdate = true;
+		this.emitters = new ArrayList<ParticleEmitter>();
+		this.affectors = new ArrayList<IParticleAffector>();
+		this.positions = new float[capacity * 2];
+		this.velocities = new float[capacity * 2];
+		this.lives = new float[capacity];
+		this.lifetimes = new float[capacity];
+		this.colors = new float[capacity * 4];
+		this.startColors = new float[capacity * 4];
+		this.sizes = new float[capacity];
+		this.startSizes = new float[capacity];
+		this.packedColors = new int[capacity];
+		this.tempSourceRectangle = new Rectangle();
+		this.updateTask = new IParallelTask() {
+			@Override
+			public void run(int start, int end) {
+				updateParticles(start, end, elapsed);
+			}
+		};
+	}
+
+	/**
+	 * Create an empty system with a texture loaded by the content manager.
+	 * @param textureName The name of the texture of the particles.
+	 * @param capacity The maximum number of particles.
+	 */
+	public ParticleSystem(String textureName, int capacity) {
+		this(capacity);
+		this.textureName = textureName;
+	}
+
+	/**
+	 * Add a particle, it's called by the emitters.
+	 * @param x The position on X axis.
+	 * @param y The position on Y axis.
+	 * @param velocityX The velocity on X axis, in pixels per second.
+	 * @param velocityY The velocity on Y axis, in pixels per second.
+	 * @param life The life in seconds.
+	 * @param size The size in pixels.
+	 * @param color An ARGB color (0xAARRGGBB).
+	 * @return Return false if the system is full.
+	 */
+	public boolean emit(float x, float y, float velocityX, float velocityY, float life, float size, int color) {
+		if (this.particleCount == this.capacity || life <= 0.0f) {
+			return false;
+		}
+
+		int i = this.particleCount++;
+		this.positions[i * 2] = x;
+		this.positions[i * 2 + 1] = y;
+		this.velocities[i * 2] = velocityX;
+		this.velocities[i * 2 + 1] = velocityY;
+		this.lives[i] = life;
+		this.lifetimes[i] = life;
+		this.sizes[i] = size;
+		this.startSizes[i] = size;
+		this.startColors[i * 4] = ((color >> 16) & 0xFF) / 255.0f;
+		this.startColors[i * 4 + 1] = ((color >> 8) & 0xFF) / 255.0f;
+		this.startColors[i * 4 + 2] = (color & 0xFF) / 255.0f;
+		this.startColors[i * 4 + 3] = (color >>> 24) / 255.0f;
+		System.arraycopy(this.startColors, i * 4, this.colors, i * 4, 4);
+		this.packedColors[i] = color;
+		return true;
+	}
+
+	/**
+	 * Update the particles: remove the dead ones, emit the new ones, then apply the affectors and the velocities.
+	 */
+	@Override
+	public void update(GameTime gameTime) {
+		if (!this.enabled) {
+			return;
+		}
+
+		float elapsed = gameTime.getElapsedTime() / 1000.0f;
+		this.removeDeadParticles();
+
+		for (int i = 0, l = this.emitters.size(); i < l; i++) {
+			this.emitters.get(i).emit(this, elapsed);
+		}
+
+		this.elapsed = elapsed;
+
+		if (this.parallelUpdate) {
+			Parallel.forRange(0, this.particleCount, ParallelCount, this.updateTask);
+		}
+		else {
+			this.updateParticles(0, this.particleCount, elapsed);
+		}
+	}
+
+	/**
+	 * Replace each dead particle by the last particle.
+	 */
+	private void removeDeadParticles() {
+		int count = this.particleCount;
+		int i = 0;
+
+		while (i < count) {
+			if (this.lives[i] > 0.0f) {
+				i++;
+				continue;
+			}
+
+			int last = --count;
+			this.positions[i * 2] = this.positions[last * 2];
+			this.positions[i * 2 + 1] = this.positions[last * 2 + 1];
+			this.velocities[i * 2] = this.velocities[last * 2];
+			this.velocities[i * 2 + 1] = this.velocities[last * 2 + 1];
+			this.lives[i] = this.lives[last];
+			this.lifetimes[i] = this.lifetimes[last];
+			this.sizes[i] = this.sizes[last];
+			this.startSizes[i] = this.startSizes[last];
+			System.arraycopy(this.colors, last * 4, this.colors, i * 4, 4);
+			System.arraycopy(this.startColors, last * 4, this.startColors, i * 4, 4);
+			this.packedColors[i] = this.packedColors[last];
+		}
+
+		this.particleCount = count;
+	}
+
+	/**
+	 * Update a range of particles, several ranges can be updated at the same time.
+	 */
+	protected void updateParticles(int start, int end, float elapsed) {
+		for (int i = 0, l = this.affectors.size(); i < l; i++) {
+			this.affectors.get(i).affect(this, start, end, elapsed);
+		}
+
+		float[] positions = this.positions;
+		float[] velocities = this.velocities;
+		float[] lives = this.lives;
+		float[] colors = this.colors;
+		int[] packedColors = this.packedColors;
+
+		for (int i = start; i < end; i++) {
+			positions[i * 2] += velocities[i * 2] * elapsed;
+			positions[i * 2 + 1] += velocities[i * 2 + 1] * elapsed;
+			lives[i] -= elapsed;
+
+			// The affectors can push a channel out of [0, 1], it's clamped so it doesn't overflow in the next byte.
+			int c = i * 4;
+			packedColors[i] = (toByte(colors[c + 3]) << 24) | (toByte(colors[c]) << 16) | (toByte(colors[c + 1]) << 8) | toByte(colors[c + 2]);
+		}
+	}
+
+	/**
+	 * Draw the particles in one call to the sprite batch.
+	 */
+	@Override
+	public void draw(GameTime gameTime, SpriteBatch spriteBatch) {
+		Texture2D texture = this.texture;
+
+		if (!this.visible || texture == null || this.particleCount == 0) {
+			return;
+		}
+
+		Rectangle source = null;
+		if (this.textureRegion != null && !this.textureRegion.isWholeTexture()) {
+			source = this.textureRegion.getSourceRectangle(null, this.tempSourceRectangle);
+		}
+
+		spriteBatch.drawQuads(texture, source, this.positions, this.sizes, this.packedColors, this.particleCount, this.layerDepth);
+	}
+
+	/**
+	 * Report the bounds of the particles of the last frame and of this frame.
+	 */
+	@Override
+	public void reportChanges(GraphicsDevice graphicsDevice) {
+		this.invalidate(graphicsDevice);
+
+		if (this.visible && this.texture != null && this.particleCount > 0) {
+			float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+			float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+
+			for (int i = 0; i < this.particleCount; i++) {
+				float half = this.sizes[i] * 0.5f;
+				minX = Math.min(minX, this.positions[i * 2] - half);
+				minY = Math.min(minY, this.positions[i * 2 + 1] - half);
+				maxX = Math.max(maxX, this.positions[i * 2] + half);
+				maxY = Math.max(maxY, this.positions[i * 2 + 1] + half);
+			}
+
+			// The quads are rounded to pixels when they're drawn.
+			int left = (int)Math.floor(minX) - 1;
+			int top = (int)Math.floor(minY) - 1;
+			this.drawnBounds.set(left, top, (int)Math.ceil(maxX) + 1 - left, (int)Math.ceil(maxY) + 1 - top);
+			this.drawn = true;
+			graphicsDevice.addDirtyRegion(this.drawnBounds);
+		}
+	}
+
+	/**
+	 * Add an emitter.
+	 * @param emitter The emitter.
+	 */
+	public void addEmitter(ParticleEmitter emitter) {
+		this.emitters.add(emitter);
+	}
+
+	public boolean removeEmitter(ParticleEmitter emitter) {
+		return this.emitters.remove(emitter);
+	}
+
+	/**
+	 * Add an affector, the affectors are applied in the order they're added.
+	 * @param affector The affector.
+	 */
+	public void addAffector(IParticleAffector affector) {
+		this.affectors.add(affector);
+	}
+
+	public boolean removeAffector(IParticleAffector affector) {
+		return this.affectors.remove(affector);
+	}
+
+	/**
+	 * Remove all the particles.
+	 */
+	public void clear() {
+		this.particleCount = 0;
+	}
+
+	/**
+	 * Convert a channel between 0 and 1 to a byte, the values out of the range are clamped.
+	 */
+	private static int toByte(float value) {
+		return Math.min(255, Math.max(0, (int)(value * 255.0f + 0.5f)));
+	}
+
+	// ---
+	// --- Getters and setters
+	// ---
+
+	/**
+	 * Gets the number of alive particles, they're the first ones of the arrays.
+	 * @return Return the number of particles.
+	 */
+	public int getParticleCount() {
+		return this.particleCount;
+	}
+
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Gets the positions of the particles, the centers of their quads.
+	 * @return Return an array of 2 values per particle (x, y).
+	 */
+	public float[] getPositions() {
+		return this.positions;
+	}
+
+	/**
+	 * Gets the velocities of the particles.
+	 * @return Return an array of 2 values per particle (x, y), in pixels per second.
+	 */
+	public float[] getVelocities() {
+		return this.velocities;
+	}
+
+	/**
+	 * Gets the remaining lives of the particles.
+	 * @return Return an array of a value per particle, in seconds.
+	 */
+	public float[] getLives() {
+		return this.lives;
+	}
+
+	/**
+	 * Gets the lives of the particles at their birth.
+	 * @return Return an array of a value per particle, in seconds.
+	 */
+	public float[] getLifetimes() {
+		return this.lifetimes;
+	}
+
+	/**
+	 * Gets the colors of the particles.
+	 * @return Return an array of 4 values per particle (red, green, blue, alpha), between 0 and 1.
+	 */
+	public float[] getColors() {
+		return this.colors;
+	}
+
+	/**
+	 * Gets the colors of the particles at their birth.
+	 * @return Return an array of 4 values per particle (red, green, blue, alpha), between 0 and 1.
+	 */
+	public float[] getStartColors() {
+		return this.startColors;
+	}
+
+	/**
+	 * Gets the sizes of the particles.
+	 * @return Return an array of a value per particle, in pixels.
+	 */
+	public float[] getSizes() {
+		return this.sizes;
+	}
+
+	/**
+	 * Gets the sizes of the particles at their birth.
+	 * @return Return an array of a value per particle, in pixels.
+	 */
+	public float[] getStartSizes() {
+		return this.startSizes;
+	}
+
+	public boolean isParallelUpdate() {
+		return this.parallelUpdate;
+	}
+
+	/**
+	 * Sets whether the large systems are updated by all the cores (enabled by default).
+	 * @param parallelUpdate Sets to false to update the particles on the calling thread.
+	 */
+	public void setParallelUpdate(boolean parallelUpdate) {
+		this.parallelUpdate = parallelUpdate;
+	}
+}
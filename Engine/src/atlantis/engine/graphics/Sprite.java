@@ -8,20 +8,27 @@ import atlantis.framework.GameTime;
 import atlantis.framework.Rectangle;
 import atlantis.framework.Vector2;
 import atlantis.framework.content.ContentManager;
+import atlantis.framework.graphics.GraphicsDevice;
 import atlantis.framework.graphics.SpriteBatch;
 import atlantis.framework.graphics.SpriteEffect;
 import atlantis.framework.graphics.Texture2D;
+import atlantis.framework.graphics.TextureRegion;
 
 /**
  * A sprite is a graphical object which can be a simple image or a more complex animated entity.
+ * <p>
+ * When the graphics device draws only its dirty regions, the sprite reports the area it covered on the last frame 
+ * and the area it covers now when it moved, changed its frame, its appearance or its visibility (see reportChanges).
  * @author Yannick
  */
 public class Sprite extends BaseEntity implements ICollidable2 {
 	protected Rectangle rectangle;
 	protected Vector2 position;
 	protected Texture2D texture;
+	protected TextureRegion textureRegion;
 	protected String textureName;
 	protected Rectangle sourceRectangle;
+	protected Rectangle regionRectangle;
 	protected float rotation;
 	protected int color;
 	protected int spriteEffect;
@@ -37,6 +44,16 @@ public class Sprite extends BaseEntity implements ICollidable2 {
 	protected boolean hasAnimation; // Todo : move it in SpriteAnimator
 	protected ISpriteMouseListener spriteMouseListener;
 	protected boolean hovered;
+	// The last reported frame: the bounds on screen and the values used to draw the sprite.
+	protected Rectangle drawnBounds;
+	protected boolean drawn;
+	private Rectangle drawnRectangle;
+	private Rectangle drawnSource;
+	private Texture2D drawnTexture;
+	private int drawnColor;
+	private float drawnRotation;
+	private int drawnEffect;
+	private boolean postUpdated;
 	
 	public Sprite() {
 		this.rectangle = new Rectangle();
@@ -44,10 +61,12 @@ public class Sprite extends BaseEntity implements ICollidable2 {
 		this.texture = null;
 		this.textureName = "";
 		this.sourceRectangle = new Rectangle();
+		this.regionRectangle = new Rectangle();
+		this.textureRegion = null;
 		this.rotation = 0.0f;
 		this.spriteEffect = SpriteEffect.None;
 		this.layerDepth = 1.0f;
-		this.color = 0;
+		this.color = 0xFFFFFFFF;
 		this.direction = new Vector2();
 		this.lastPosition = new Vector2();
 		this.lastDistance = new Vector2();
@@ -59,6 +78,11 @@ public class Sprite extends BaseEntity implements ICollidable2 {
 		this.hasAnimation = false;
 		this.spriteMouseListener = null;
 		this.hovered = false;
+		this.drawnBounds = new Rectangle();
+		this.drawn = false;
+		this.drawnRectangle = new Rectangle();
+		this.drawnSource = new Rectangle();
+		this.postUpdated = false;
 	}
 	
 	public Sprite(String textureName) {
@@ -68,9 +92,10 @@ public class Sprite extends BaseEntity implements ICollidable2 {
 	
 	public void loadContent(ContentManager content) {
 		if (this.textureName != "" && this.assetLoaded == false) {
-			this.texture = content.loadTexture(this.textureName);
-			this.rectangle.width = this.texture.getWidth();
-			this.rectangle.height = this.texture.getHeight();
+			this.textureRegion = content.loadTextureRegion(this.textureName);
+			this.texture = this.textureRegion.texture;
+			this.rectangle.width = this.textureRegion.width;
+			this.rectangle.height = this.textureRegion.height;
 			this.assetLoaded = true;
 		}
 	}
@@ -189,20 +214,125 @@ public class Sprite extends BaseEntity implements ICollidable2 {
 		
 	@Override
 	public void draw(GameTime gameTime, SpriteBatch spriteBatch) {
-		if (this.enabled) {
+		if (this.enabled && !this.postUpdated) {
 			this.postUpdate();
 		}
+		this.postUpdated = false;
 		
 		if (this.visible && this.assetLoaded) {
-            if (this.hasAnimation) {
-                spriteBatch.draw(this.texture, this.rectangle, this.sourceRectangle, this.color, this.rotation);
-            }
-            else {
-            	spriteBatch.draw(this.texture, this.rectangle);
-            }
+        	Rectangle source = this.hasAnimation ? this.sourceRectangle : null;
+        	
+        	// The frames of the animations are relative to the region of the sprite in its texture.
+        	if (this.textureRegion != null && !this.textureRegion.isWholeTexture()) {
+        		source = this.textureRegion.getSourceRectangle(source, this.regionRectangle);
+        	}
+        	
+        	spriteBatch.draw(this.texture, this.rectangle, source, this.color, this.rotation, null, this.spriteEffect, 1);
         }
 	}
 	
+	// ---
+	// --- Dirty regions
+	// ---
+	
+	/**
+	 * Report the changes since the last frame to a graphics device in dirty region mode. It's called before the
+	 * frame is cleared, so the sprite is post updated here instead of by the draw method.
+	 * @param graphicsDevice The graphics device that receives the dirty regions.
+	 */
+	public void reportChanges(GraphicsDevice graphicsDevice) {
+		if (this.enabled) {
+			this.postUpdate();
+			this.postUpdated = true;
+		}
+		
+		if (this.visible && this.assetLoaded) {
+			if (!this.drawn || this.hasChanged()) {
+				this.invalidate(graphicsDevice);
+				this.saveDrawnState();
+				graphicsDevice.addDirtyRegion(this.drawnBounds);
+			}
+		}
+		else {
+			this.invalidate(graphicsDevice);
+		}
+	}
+	
+	/**
+	 * Report the area covered on the last frame as dirty, the sprite is hidden or removed from its scene.
+	 * @param graphicsDevice The graphics device that receives the dirty regions.
+	 */
+	public void invalidate(GraphicsDevice graphicsDevice) {
+		if (this.drawn) {
+			graphicsDevice.addDirtyRegion(this.drawnBounds);
+			this.drawn = false;
+		}
+	}
+	
+	/**
+	 * Indicates whether the sprite is drawn differently than on the last reported frame.
+	 */
+	private boolean hasChanged() {
+		Rectangle source = this.hasAnimation ? this.sourceRectangle : null;
+		Rectangle rectangle = this.rectangle;
+		Rectangle drawnRectangle = this.drawnRectangle;
+		
+		if (source != null) {
+			if (source.x != this.drawnSource.x || source.y != this.drawnSource.y 
+					|| source.width != this.drawnSource.width || source.height != this.drawnSource.height) {
+				return true;
+			}
+		}
+		else if (this.drawnSource.width >= 0) {
+			return true;
+		}
+		
+		return rectangle.x != drawnRectangle.x || rectangle.y != drawnRectangle.y 
+				|| rectangle.width != drawnRectangle.width || rectangle.height != drawnRectangle.height
+				|| this.texture != this.drawnTexture || this.color != this.drawnColor 
+				|| this.rotation != this.drawnRotation || this.spriteEffect != this.drawnEffect;
+	}
+	
+	/**
+	 * Keep the values used to draw the sprite and its bounds on screen, the bounds of its rotated rectangle
+	 * when it's rotated around its top left corner.
+	 */
+	private void saveDrawnState() {
+		Rectangle rectangle = this.rectangle;
+		Rectangle source = this.hasAnimation ? this.sourceRectangle : null;
+		
+		this.drawnRectangle.set(rectangle.x, rectangle.y, rectangle.width, rectangle.height);
+		
+		if (source != null) {
+			this.drawnSource.set(source.x, source.y, source.width, source.height);
+		}
+		else {
+			this.drawnSource.set(0, 0, -1, -1);
+		}
+		
+		this.drawnTexture = this.texture;
+		this.drawnColor = this.color;
+		this.drawnRotation = this.rotation;
+		this.drawnEffect = this.spriteEffect;
+		this.drawn = true;
+		
+		if (this.rotation == 0.0f) {
+			this.drawnBounds.set(rectangle.x, rectangle.y, rectangle.width, rectangle.height);
+		}
+		else {
+			float cos = (float)Math.cos(this.rotation);
+			float sin = (float)Math.sin(this.rotation);
+			float minX = Math.min(0.0f, cos * rectangle.width) + Math.min(0.0f, -sin * rectangle.height);
+			float maxX = Math.max(0.0f, cos * rectangle.width) + Math.max(0.0f, -sin * rectangle.height);
+			float minY = Math.min(0.0f, sin * rectangle.width) + Math.min(0.0f, cos * rectangle.height);
+			float maxY = Math.max(0.0f, sin * rectangle.width) + Math.max(0.0f, cos * rectangle.height);
+			// A pixel more on each side for the rounding of the edges.
+			int left = rectangle.x + (int)Math.floor(minX) - 1;
+			int top = rectangle.y + (int)Math.floor(minY) - 1;
+			this.drawnBounds.set(left, top, rectangle.x + (int)Math.ceil(maxX) + 1 - left, rectangle.y + (int)Math.ceil(maxY) + 1 - top);
+		}
+	}
+	
 	// ---
 	// --- Animation methods
 	// ---
@@ -214,7 +344,7 @@ public class Sprite extends BaseEntity implements ICollidable2 {
 	 */
 	public void prepareAnimation(int width, int height) {
 		this.hasAnimation = true;
-		this.spriteAnimator.initialize(width, height, this.texture.getWidth(), this.texture.getHeight());
+		this.spriteAnimator.initialize(width, height, this.textureRegion.width, this.textureRegion.height);
 		this.rectangle.width = width;
 		this.rectangle.height = height;
 	}
@@ -265,7 +395,7 @@ public class Sprite extends BaseEntity implements ICollidable2 {
 	 * @param moveToVector Vector that will be added to the current position.
 	 */
 	public void move(Vector2 moveToVector) {
-		this.setPosition(Vector2.add(this.position, moveToVector));
+		this.setPosition(this.position.x + moveToVector.x, this.position.y + moveToVector.y);
 	}
 	
 	// ---
@@ -378,11 +508,25 @@ public class Sprite extends BaseEntity implements ICollidable2 {
 	}
 
 	/**
-	 * @param color the color to set
+	 * @param color the color to set, an ARGB tint (0xAARRGGBB), white to keep the colors of the texture
 	 */
 	public final void setColor(int color) {
 		this.color = color;
 	}
+	
+	/**
+	 * @return the flips of the sprite, a combination of SpriteEffect values
+	 */
+	public final int getSpriteEffect() {
+		return this.spriteEffect;
+	}
+	
+	/**
+	 * @param spriteEffect the flips of the sprite, a combination of SpriteEffect values
+	 */
+	public final void setSpriteEffect(int spriteEffect) {
+		this.spriteEffect = spriteEffect;
+	}
 
 	/**
 	 * Set the position of the entity on the screen
@@ -478,12 +622,21 @@ public class Sprite extends BaseEntity implements ICollidable2 {
 		this.viewport.height = height;
 	}
 	
+	/**
+	 * Gets the region of the texture used by the sprite, the whole texture or an image of a texture atlas.
+	 * @return Return the region of the texture.
+	 */
+	public TextureRegion getTextureRegion() {
+		return this.textureRegion;
+	}
+	
 	/**
 	 * Sets the texture used for this sprite.
 	 * @param texture A texture to use.
 	 */
 	public void setTexture(Texture2D texture) {
 		this.texture = texture;
+		this.textureRegion = new TextureRegion(texture);
 		this.rectangle.setSize(texture.getWidth(), texture.getHeight());
 	}
 
@@ -9,6 +9,7 @@ import java.util.List;
 import atlantis.engine.Application;
 import atlantis.framework.GameTime;
 import atlantis.framework.content.ContentManager;
+import atlantis.framework.graphics.GraphicsDevice;
 import atlantis.framework.graphics.SpriteBatch;
 
 /**
@@ -79,6 +80,31 @@ public class SpriteGroup extends Sprite {
 		}
 	}
 	
+	/**
+	 * Report the changes of the entities, they're all hidden when the group is hidden.
+	 */
+	@Override
+	public void reportChanges(GraphicsDevice graphicsDevice) {
+		for (int i = 0, l = this.entities.size(); i < l; i++) {
+			if (this.visible) {
+				this.entities.get(i).reportChanges(graphicsDevice);
+			}
+			else {
+				this.entities.get(i).invalidate(graphicsDevice);
+			}
+		}
+	}
+	
+	/**
+	 * Report the areas of the entities on the last frame as dirty.
+	 */
+	@Override
+	public void invalidate(GraphicsDevice graphicsDevice) {
+		for (int i = 0, l = this.entities.size(); i < l; i++) {
+			this.entities.get(i).invalidate(graphicsDevice);
+		}
+	}
+	
 	/**
 	 * Gets entities
 	 * @return
@@ -116,6 +142,11 @@ public class SpriteGroup extends Sprite {
 	 * @param entity
 	 */
 	public boolean remove(Sprite entity) {
+		// The area of the entity is redrawn by the next frame in dirty region mode.
+		if (Application.game != null) {
+			entity.invalidate(Application.game.graphicsDevice());
+		}
+		
 		return this.entities.remove(entity);
 	}
 	
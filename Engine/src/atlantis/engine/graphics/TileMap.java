@@ -0,0 +1,420 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.engine.graphics;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.util.Arrays;
+
+import atlantis.framework.GameTime;
+import atlantis.framework.Rectangle;
+import atlantis.framework.content.ContentManager;
+import atlantis.framework.graphics.GraphicsDevice;
+import atlantis.framework.graphics.SpriteBatch;
+import atlantis.framework.graphics.SpriteEffect;
+import atlantis.framework.graphics.Texture2D;
+import atlantis.framework.graphics.TextureRegion;
+
+/**
+ * A layer of tiles on a grid. A tile is a short in a grid of columns and rows, the index of a tile type of the tileset:
+ * a region of a texture, often an image of a texture atlas, and whether the tile is solid. The tile 0 is empty.
+ * <p>
+ * The tiles are drawn in chunks of tiles, each chunk is drawn once in a texture and drawn again only when one of its
+ * tiles changes, so a frame draws a texture per visible chunk instead of a sprite per tile. The collisions are tested
+ * on the cells touched by a rectangle, the cost doesn't depend on the number of tiles of the map.
+ * <p>
+ * The position of the map is the position of its top left corner, the map can be moved like a sprite.
+ * @author Yannick
+ */
+public class TileMap extends Sprite {
+	public static final int Empty = 0;
+	private static final int DefaultChunkSize = 16;
+	private static final Color Transparent = new Color(0, 0, 0, 0);
+
+	protected int columns;
+	protected int rows;
+	protected int tileWidth;
+	protected int tileHeight;
+	protected short[] tiles;
+
+	// The tileset, indexed by tile, the index 0 is the empty tile.
+	protected TextureRegion[] tileRegions;
+	protected boolean[] solidTiles;
+	protected int tileTypeCount;
+
+	// The chunks, a texture per chunk, null when the chunk is empty.
+	protected int chunkSize;
+	protected int chunkColumns;
+	protected int chunkRows;
+	protected Texture2D[] chunks;
+	protected boolean[] chunksChanged;
+	protected int visibleChunkCount;
+
+	// The tiles changed since the last report of the dirty regions, in pixels relative to the map.
+	private Rectangle changedArea;
+	private Rectangle tempChunkRectangle;
+
+	/**
+	 * Create an empty map with chunks of 16x16 tiles.
+	 * @param columns The number of columns.
+	 * @param rows The number of rows.
+	 * @param tileWidth The width of a tile.
+	 * @param tileHeight The height of a tile.
+	 */
+	public TileMap(int columns, int rows, int tileWidth, int tileHeight) {
+		this(columns, rows, tileWidth, tileHeight, DefaultChunkSize);
+	}
+
+	/**
+	 * Create an empty map.
+	 * @param columns The number of columns.
+	 * @param rows The number of rows.
+	 * @param tileWidth The width of a tile.
+	 * @param tileHeight The height of a tile.
+	 * @param chunkSize The number of columns and rows of a chunk.
+	 */
+	public TileMap(int columns, int rows, int tileWidth, int tileHeight, int chunkSize) {
+		this.columns = columns;
+		this.rows = rows;
+		this.tileWidth = tileWidth;
+		this.tileHeight = tileHeight;
+		this.tiles = new short[columns * rows];
+		this.tileRegions = new TextureRegion[8];
+		this.solidTiles = new boolean[8];
+		this.tileTypeCount = 1;
+		this.chunkSize = chunkSize;
+		this.chunkColumns = (columns + chunkSize - 1) / chunkSize;
+		this.chunkRows = (rows + chunkSize - 1) / chunkSize;
+		this.chunks = new Texture2D[this.chunkColumns * this.chunkRows];
+		this.chunksChanged = new boolean[this.chunks.length];
+		this.visibleChunkCount = 0;
+		this.changedArea = new Rectangle();
+		this.tempChunkRectangle = new Rectangle();
+		this.rectangle.setSize(columns * tileWidth, rows * tileHeight);
+		Arrays.fill(this.chunksChanged, true);
+	}
+
+	/**
+	 * Add a tile type to the tileset.
+	 * @param region The region of a texture drawn by the tiles of this type.
+	 * @param solid Sets to true if the tiles of this type collide.
+	 * @return Return the tile of this type, from 1 in the order of the calls.
+	 */
+	public int addTileType(TextureRegion region, boolean solid) {
+		if (this.tileTypeCount == this.tileRegions.length) {
+			this.tileRegions = Arrays.copyOf(this.tileRegions, this.tileTypeCount * 2);
+			this.solidTiles = Arrays.copyOf(this.solidTiles, this.tileTypeCount * 2);
+		}
+
+		this.tileRegions[this.tileTypeCount] = region;
+		this.solidTiles[this.tileTypeCount] = solid;
+		return this.tileTypeCount++;
+	}
+
+	/**
+	 * Draw the chunks in their textures, it's done when the map is added to a loaded scene.
+	 */
+	@Override
+	public void loadContent(ContentManager content) {
+		for (int i = 0; i < this.chunks.length; i++) {
+			this.updateChunk(i);
+		}
+
+		this.assetLoaded = true;
+	}
+
+	/**
+	 * The tiles don't move by themselves.
+	 */
+	@Override
+	public void update(GameTime gameTime) {
+	}
+
+	/**
+	 * Draw the chunks that intersect the viewport of the sprite batch.
+	 */
+	@Override
+	public void draw(GameTime gameTime, SpriteBatch spriteBatch) {
+		this.visibleChunkCount = 0;
+
+		if (!this.visible || !this.assetLoaded) {
+			return;
+		}
+
+		Rectangle viewport = spriteBatch.getViewport();
+		int chunkWidth = this.chunkSize * this.tileWidth;
+		int chunkHeight = this.chunkSize * this.tileHeight;
+		int firstColumn = Math.max(0, floorDiv(viewport.x - this.rectangle.x, chunkWidth));
+		int firstRow = Math.max(0, floorDiv(viewport.y - this.rectangle.y, chunkHeight));
+		int lastColumn = Math.min(this.chunkColumns - 1, floorDiv(viewport.x + viewport.width - 1 - this.rectangle.x, chunkWidth));
+		int lastRow = Math.min(this.chunkRows - 1, floorDiv(viewport.y + viewport.height - 1 - this.rectangle.y, chunkHeight));
+
+		for (int y = firstRow; y <= lastRow; y++) {
+			for (int x = firstColumn; x <= lastColumn; x++) {
+				int index = y * this.chunkColumns + x;
+
+				if (this.chunksChanged[index]) {
+					this.updateChunk(index);
+				}
+
+				Texture2D chunk = this.chunks[index];
+
+				if (chunk != null) {
+					this.tempChunkRectangle.set(this.rectangle.x + x * chunkWidth, this.rectangle.y + y * chunkHeight, chunk.getWidth(), chunk.getHeight());
+					spriteBatch.draw(chunk, this.tempChunkRectangle, null, this.color, 0.0f, null, SpriteEffect.None, this.layerDepth);
+					this.visibleChunkCount++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Draw the tiles of a chunk in its texture, the texture is released when the chunk is empty.
+	 */
+	protected void updateChunk(int index) {
+		int firstColumn = (index % this.chunkColumns) * this.chunkSize;
+		int firstRow = (index / this.chunkColumns) * this.chunkSize;
+		int lastColumn = Math.min(this.columns, firstColumn + this.chunkSize);
+		int lastRow = Math.min(this.rows, firstRow + this.chunkSize);
+		Graphics2D graphics = null;
+
+		for (int row = firstRow; row < lastRow; row++) {
+			for (int column = firstColumn; column < lastColumn; column++) {
+				TextureRegion region = this.tileRegions[this.tiles[row * this.columns + column]];
+
+				if (region == null) {
+					continue;
+				}
+
+				if (graphics == null) {
+					graphics = this.createChunk(index, lastColumn - firstColumn, lastRow - firstRow);
+				}
+
+				int x = (column - firstColumn) * this.tileWidth;
+				int y = (row - firstRow) * this.tileHeight;
+				graphics.drawImage(region.texture, x, y, x + region.width, y + region.height,
+						region.x, region.y, region.x + region.width, region.y + region.height, null);
+			}
+		}
+
+		if (graphics != null) {
+			graphics.dispose();
+			this.chunks[index].invalidatePixels();
+		}
+		else {
+			this.chunks[index] = null;
+		}
+
+		this.chunksChanged[index] = false;
+	}
+
+	/**
+	 * Gets a transparent texture for a chunk, the previous one is reused.
+	 */
+	private Graphics2D createChunk(int index, int columns, int rows) {
+		Texture2D chunk = this.chunks[index];
+		int width = columns * this.tileWidth;
+		int height = rows * this.tileHeight;
+
+		if (chunk == null || chunk.getWidth() != width || chunk.getHeight() != height) {
+			chunk = new Texture2D(width, height, Texture2D.getDisplayType());
+			this.chunks[index] = chunk;
+		}
+
+		Graphics2D graphics = chunk.createGraphics();
+		graphics.setBackground(Transparent);
+		graphics.clearRect(0, 0, width, height);
+		return graphics;
+	}
+
+	// ---
+	// --- Collisions
+	// ---
+
+	/**
+	 * Find the first solid tile touched by a rectangle, the cells are tested row by row from the top left.
+	 * The cells go from the cell of the top left pixel to the cell of the bottom right pixel (x + width - 1,
+	 * y + height - 1), so an area with a negative size gives an empty or a partial range instead of an error.
+	 * @param area A rectangle on screen.
+	 * @param result The rectangle that receives the bounds of the tile on screen.
+	 * @return Return true if a solid tile is found.
+	 */
+	public boolean findSolidTile(Rectangle area, Rectangle result) {
+		int firstColumn = Math.max(0, this.getColumn(area.x));
+		int firstRow = Math.max(0, this.getRow(area.y));
+		int lastColumn = Math.min(this.columns - 1, this.getColumn(area.x + area.width - 1));
+		int lastRow = Math.min(this.rows - 1, this.getRow(area.y + area.height - 1));
+
+		for (int row = firstRow; row <= lastRow; row++) {
+			for (int column = firstColumn; column <= lastColumn; column++) {
+				if (this.solidTiles[this.tiles[row * this.columns + column]]) {
+					result.set(this.rectangle.x + column * this.tileWidth, this.rectangle.y + row * this.tileHeight, this.tileWidth, this.tileHeight);
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Indicates whether a point of the screen is on a solid tile.
+	 * @param x The position on X axis.
+	 * @param y The position on Y axis.
+	 * @return Return true if the tile under the point is solid.
+	 */
+	public boolean isSolidAt(float x, float y) {
+		return this.isSolid(this.getColumn((int)Math.floor(x)), this.getRow((int)Math.floor(y)));
+	}
+
+	/**
+	 * Indicates whether a tile is solid.
+	 * @param column The column of the tile.
+	 * @param row The row of the tile.
+	 * @return Return true if the tile is solid, false for an empty tile or a cell outside of the map.
+	 */
+	public boolean isSolid(int column, int row) {
+		return this.solidTiles[this.getTile(column, row)];
+	}
+
+	/**
+	 * Gets the column of a position on screen.
+	 * @param x The position on X axis.
+	 * @return Return the column, it can be outside of the map.
+	 */
+	public int getColumn(int x) {
+		return floorDiv(x - this.rectangle.x, this.tileWidth);
+	}
+
+	/**
+	 * Gets the row of a position on screen.
+	 * @param y The position on Y axis.
+	 * @return Return the row, it can be outside of the map.
+	 */
+	public int getRow(int y) {
+		return floorDiv(y - this.rectangle.y, this.tileHeight);
+	}
+
+	private static int floorDiv(int a, int b) {
+		int quotient = a / b;
+		return (a % b != 0 && (a < 0) != (b < 0)) ? quotient - 1 : quotient;
+	}
+
+	// ---
+	// --- Dirty regions
+	// ---
+
+	/**
+	 * Report the bounds of the map when it moved or its visibility changed, otherwise the changed tiles.
+	 */
+	@Override
+	public void reportChanges(GraphicsDevice graphicsDevice) {
+		Rectangle rectangle = this.rectangle;
+
+		if (this.visible && this.assetLoaded) {
+			if (!this.drawn || rectangle.x != this.drawnBounds.x || rectangle.y != this.drawnBounds.y) {
+				this.invalidate(graphicsDevice);
+				this.drawnBounds.set(rectangle.x, rectangle.y, rectangle.width, rectangle.height);
+				this.drawn = true;
+				graphicsDevice.addDirtyRegion(this.drawnBounds);
+			}
+			else if (this.changedArea.width > 0) {
+				graphicsDevice.addDirtyRegion(rectangle.x + this.changedArea.x, rectangle.y + this.changedArea.y, this.changedArea.width, this.changedArea.height);
+			}
+		}
+		else {
+			this.invalidate(graphicsDevice);
+		}
+
+		this.changedArea.set(0, 0, 0, 0);
+	}
+
+	// ---
+	// --- Getters and setters
+	// ---
+
+	/**
+	 * Gets a tile.
+	 * @param column The column of the tile.
+	 * @param row The row of the tile.
+	 * @return Return the tile, Empty for a cell outside of the map.
+	 */
+	public int getTile(int column, int row) {
+		if (column < 0 || row < 0 || column >= this.columns || row >= this.rows) {
+			return Empty;
+		}
+
+		return this.tiles[row * this.columns + column];
+	}
+
+	/**
+	 * Sets a tile, its chunk is drawn again before the next draw. A cell outside of the map is ignored,
+	 * like it's always Empty for getTile.
+	 * @param column The column of the tile.
+	 * @param row The row of the tile.
+	 * @param tile A tile returned by addTileType or Empty.
+	 * @throws IllegalArgumentException if the tile hasn't been returned by addTileType.
+	 */
+	public void setTile(int column, int row, int tile) {
+		if (tile < 0 || tile >= this.tileTypeCount) {
+			throw new IllegalArgumentException("The tile " + tile + " hasn't been added with addTileType");
+		}
+
+		if (column < 0 || row < 0 || column >= this.columns || row >= this.rows) {
+			return;
+		}
+
+		int index = row * this.columns + column;
+
+		if (this.tiles[index] == tile) {
+			return;
+		}
+
+		this.tiles[index] = (short)tile;
+		this.chunksChanged[(row / this.chunkSize) * this.chunkColumns + column / this.chunkSize] = true;
+
+		int x = column * this.tileWidth;
+		int y = row * this.tileHeight;
+
+		if (this.changedArea.width == 0) {
+			this.changedArea.set(x, y, this.tileWidth, this.tileHeight);
+		}
+		else {
+			int right = Math.max(this.changedArea.getRight(), x + this.tileWidth);
+			int bottom = Math.max(this.changedArea.getBottom(), y + this.tileHeight);
+			this.changedArea.x = Math.min(this.changedArea.x, x);
+			this.changedArea.y = Math.min(this.changedArea.y, y);
+			this.changedArea.width = right - this.changedArea.x;
+			this.changedArea.height = bottom - this.changedArea.y;
+		}
+	}
+
+	public int getColumns() {
+		return this.columns;
+	}
+
+	public int getRows() {
+		return this.rows;
+	}
+
+	public int getTileWidth() {
+		return this.tileWidth;
+	}
+
+	public int getTileHeight() {
+		return this.tileHeight;
+	}
+
+	public int getChunkSize() {
+		return this.chunkSize;
+	}
+
+	/**
+	 * Gets the number of chunks drawn by the last frame.
+	 * @return Return the number of visible chunks that have tiles.
+	 */
+	public int getVisibleChunkCount() {
+		return this.visibleChunkCount;
+	}
+}
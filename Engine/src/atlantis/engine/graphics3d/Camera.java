@@ -15,6 +15,9 @@ public class Camera {
 	public Vector3 rotation;
 	public Vector3 target;
 	protected Vector3 reference;
+	private Matrix rotationMatrix;
+	private Vector3 transformedReference;
+	private Vector3 upVector;
 	
 	/**
 	 * Create a camera with a position of (0, 0, 10).
@@ -24,6 +27,9 @@ public class Camera {
 		this.rotation = new Vector3();
 		this.target = new Vector3();
 		this.reference = new Vector3(0.0f, 0.0f, 10.0f);
+		this.rotationMatrix = new Matrix();
+		this.transformedReference = new Vector3();
+		this.upVector = Vector3.UnitY();
 	}
 	
 	/**
@@ -33,9 +39,10 @@ public class Camera {
 	 * @param z The Z value.
 	 */
 	public void translate(float x, float y, float z) {
-		Vector3 move = new Vector3(x, y, z);
-		Matrix forwardMovement = Matrix.createRotationY(this.rotation.y);
-		Vector3 v = Vector3.transformCoordinate(move, forwardMovement);
+		Vector3 v = this.transformedReference;
+		v.set(x, y, z);
+		Matrix.createRotationY(this.rotation.y, this.rotationMatrix);
+		Vector3.transformCoordinate(v, this.rotationMatrix, v);
 		this.position.x += v.x;
 		this.position.y += v.y;
 		this.position.z += v.z;
@@ -58,11 +65,23 @@ public class Camera {
 	 * @return Return a view matrix.
 	 */
 	public Matrix getViewMatrix() {
-		Matrix rotationMatrix = Matrix.createRotationYawPitchRoll(this.rotation.y, this.rotation.x, this.rotation.z);
-        Vector3 transformedRef = Vector3.transformCoordinate(this.reference, rotationMatrix);
+		Matrix matrix = new Matrix();
+		this.getViewMatrix(matrix);
+		return matrix;
+	}
+	
+	/**
+	 * Gets the view matrix for this camera without allocation.
+	 * @param result The matrix that receives the view matrix.
+	 */
+	public void getViewMatrix(Matrix result) {
+		Matrix.createRotationYawPitchRoll(this.rotation.y, this.rotation.x, this.rotation.z, this.rotationMatrix);
+        Vector3 transformedRef = this.transformedReference;
+        Vector3.transformCoordinate(this.reference, this.rotationMatrix, transformedRef);
         this.target.x = this.position.x + transformedRef.x;
         this.target.y = this.position.y + transformedRef.y;
         this.target.z = this.position.z + transformedRef.z; 
-        return Matrix.createLookAt(this.position, this.target, Vector3.UnitY());
+        this.upVector.set(0.0f, 1.0f, 0.0f);
+        Matrix.createLookAt(this.position, this.target, this.upVector, result);
 	}
 }
@@ -0,0 +1,147 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.engine.graphics3d;
+
+/**
+ * A compact geometry buffer used by the deferred mode of the renderer.
+ * The raster pass only writes surface attributes here, the lighting and texturing are
+ * done later once per visible pixel.
+ * @author Yannick
+ */
+public class GBuffer {
+	/**
+	 * Material id of a pixel that hasn't been covered by a triangle.
+	 */
+	public static final int NoMaterial = -1;
+
+	protected int width;
+	protected int height;
+	protected float[] depth;
+	protected int[] normal;
+	protected float[] lightFactor;
+	protected boolean[] bakedLighting;
+	protected float[] u;
+	protected float[] v;
+	protected int[] color;
+	protected int[] materialId;
+
+	/**
+	 * Create a geometry buffer.
+	 * @param width Width of the buffer.
+	 * @param height Height of the buffer.
+	 * @param depth The depth buffer to share with the renderer.
+	 */
+	public GBuffer(int width, int height, float[] depth) {
+		int size = width * height;
+		this.width = width;
+		this.height = height;
+		this.depth = depth;
+		this.normal = new int[size];
+		this.lightFactor = new float[size];
+		this.bakedLighting = new boolean[size];
+		this.u = new float[size];
+		this.v = new float[size];
+		this.color = new int[size];
+		this.materialId = new int[size];
+		this.clear();
+	}
+
+	/**
+	 * Mark all pixels as empty. The depth buffer is owned by the renderer and is not cleared here.
+	 */
+	public void clear() {
+		for (int i = 0, l = this.materialId.length; i < l; i++) {
+			this.materialId[i] = NoMaterial;
+		}
+	}
+
+	/**
+	 * Pack a normal into an integer with 8 signed bits per component (X in bits 16-23, Y in 8-15 and Z in 0-7).
+	 * The normal doesn't need to be normalized.
+	 * @param x The X component.
+	 * @param y The Y component.
+	 * @param z The Z component.
+	 * @return Return the packed normal.
+	 */
+	public static int packNormal(float x, float y, float z) {
+		float length = (float)Math.sqrt(x * x + y * y + z * z);
+		float factor = (length != 0) ? 127.0f / length : 0.0f;
+		return ((Math.round(x * factor) & 0xFF) << 16) | ((Math.round(y * factor) & 0xFF) << 8) | (Math.round(z * factor) & 0xFF);
+	}
+
+	/**
+	 * Gets the X component of a packed normal.
+	 * @param packed A packed normal.
+	 * @return Return a value between -1 and 1.
+	 */
+	public static float unpackNormalX(int packed) {
+		return (byte)(packed >> 16) / 127.0f;
+	}
+
+	/**
+	 * Gets the Y component of a packed normal.
+	 * @param packed A packed normal.
+	 * @return Return a value between -1 and 1.
+	 */
+	public static float unpackNormalY(int packed) {
+		return (byte)(packed >> 8) / 127.0f;
+	}
+
+	/**
+	 * Gets the Z component of a packed normal.
+	 * @param packed A packed normal.
+	 * @return Return a value between -1 and 1.
+	 */
+	public static float unpackNormalZ(int packed) {
+		return (byte)packed / 127.0f;
+	}
+
+	// ---
+	// --- Getters
+	// ---
+
+	public int getWidth() {
+		return this.width;
+	}
+
+	public int getHeight() {
+		return this.height;
+	}
+
+	public float[] getDepth() {
+		return this.depth;
+	}
+
+	public int[] getNormal() {
+		return this.normal;
+	}
+
+	public float[] getLightFactor() {
+		return this.lightFactor;
+	}
+
+	/**
+	 * Gets the pixels whose light factor comes from the baked lighting, they aren't lit again per pixel.
+	 * @return Return a flag per pixel.
+	 */
+	public boolean[] getBakedLighting() {
+		return this.bakedLighting;
+	}
+
+	public float[] getU() {
+		return this.u;
+	}
+
+	public float[] getV() {
+		return this.v;
+	}
+
+	public int[] getColor() {
+		return this.color;
+	}
+
+	public int[] getMaterialId() {
+		return this.materialId;
+	}
+}
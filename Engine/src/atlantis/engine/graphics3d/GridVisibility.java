@@ -0,0 +1,502 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.engine.graphics3d;
+
+import atlantis.framework.Matrix;
+import atlantis.framework.Vector3;
+
+/**
+ * Cell and portal visibility for levels built on a regular grid (seen from above, X and Z axis).
+ * Each open cell is a convex room and each edge shared by two open cells is a portal. From the camera cell,
+ * the horizontal view frustum is clipped against the portals while the visibility flows away from the camera,
+ * so only the cells that can be seen are visited. Meshes are registered in the cell that contains them
+ * and only the meshes of the visible cells are returned.
+ * @author Yannick
+ */
+public class GridVisibility {
+	private static final float Epsilon = 0.0001f;
+
+	protected int width;
+	protected int depth;
+	protected float cellSize;
+	protected float originX;
+	protected float originZ;
+	protected float wallHeight;
+	protected boolean[] opaque;
+
+	// Meshes of each cell, arrays are created when a cell receives its first mesh.
+	protected Mesh[][] cellMeshes;
+	protected int[] cellMeshCount;
+	protected Mesh[] globalMeshes;
+	protected int globalMeshCount;
+
+	// Visibility state, a cell has been reached in the current update if its stamp is equal to the frame stamp.
+	private int[] stamp;
+	private int frameStamp;
+	private float[] wedges;
+	private float[] frustumWedge;
+	private Matrix rotationMatrix;
+	private Vector3 forward;
+	private int[] queue;
+	private int[] visibleCells;
+	private int visibleCellCount;
+	private Mesh[] visibleMeshes;
+	private int visibleMeshCount;
+
+	/**
+	 * Create an empty grid, all cells are open.
+	 * @param width Number of cells on X axis.
+	 * @param depth Number of cells on Z axis.
+	 * @param cellSize Size of a cell in world units.
+	 * @param originX Position of the first cell corner on X axis.
+	 * @param originZ Position of the first cell corner on Z axis.
+	 */
+	public GridVisibility(int width, int depth, float cellSize, float originX, float originZ) {
+		int size = width * depth;
+		this.width = width;
+		this.depth = depth;
+		this.cellSize = cellSize;
+		this.originX = originX;
+		this.originZ = originZ;
+		this.wallHeight = Float.MAX_VALUE;
+		this.opaque = new boolean[size];
+		this.cellMeshes = new Mesh[size][];
+		this.cellMeshCount = new int[size];
+		this.globalMeshes = new Mesh[4];
+		this.stamp = new int[size];
+		this.wedges = new float[size * 4];
+		this.frustumWedge = new float[4];
+		this.rotationMatrix = new Matrix();
+		this.forward = new Vector3();
+		this.queue = new int[size];
+		this.visibleCells = new int[size];
+		this.visibleMeshes = new Mesh[16];
+	}
+
+	/**
+	 * Create a grid from a level description, the first index of the level is the Z axis.
+	 * @param level The level grid.
+	 * @param cellSize Size of a cell in world units.
+	 * @param originX Position of the first cell corner on X axis.
+	 * @param originZ Position of the first cell corner on Z axis.
+	 * @param opaqueValues Values of the level that block the view.
+	 * @return Return a visibility grid.
+	 */
+	public static GridVisibility createFromLevel(int[][] level, float cellSize, float originX, float originZ, int[] opaqueValues) {
+		GridVisibility visibility = new GridVisibility(level[0].length, level.length, cellSize, originX, originZ);
+
+		for (int z = 0; z < level.length; z++) {
+			for (int x = 0; x < level[z].length; x++) {
+				for (int i = 0; i < opaqueValues.length; i++) {
+					if (level[z][x] == opaqueValues[i]) {
+						visibility.setOpaque(x, z, true);
+					}
+				}
+			}
+		}
+
+		return visibility;
+	}
+
+	/**
+	 * Register a mesh in the cell that contains its position.
+	 * A mesh outside of the grid is always visible.
+	 * @param mesh A mesh.
+	 */
+	public void addMesh(Mesh mesh) {
+		int cell = this.getCell(mesh.getPosition().x, mesh.getPosition().z);
+
+		if (cell == -1) {
+			this.addGlobalMesh(mesh);
+		}
+		else {
+			this.addMesh(mesh, cell % this.width, cell / this.width);
+		}
+	}
+
+	/**
+	 * Register a mesh in a cell.
+	 * @param mesh A mesh.
+	 * @param x Cell on X axis.
+	 * @param z Cell on Z axis.
+	 */
+	public void addMesh(Mesh mesh, int x, int z) {
+		int cell = x + z * this.width;
+		Mesh[] meshes = this.cellMeshes[cell];
+
+		if (meshes == null) {
+			meshes = new Mesh[1];
+		}
+		else if (this.cellMeshCount[cell] == meshes.length) {
+			Mesh[] temp = new Mesh[meshes.length * 2];
+			System.arraycopy(meshes, 0, temp, 0, meshes.length);
+			meshes = temp;
+		}
+
+		meshes[this.cellMeshCount[cell]++] = mesh;
+		this.cellMeshes[cell] = meshes;
+	}
+
+	/**
+	 * Register a mesh that is always visible (a ground, a sky...).
+	 * @param mesh A mesh.
+	 */
+	public void addGlobalMesh(Mesh mesh) {
+		if (this.globalMeshCount == this.globalMeshes.length) {
+			Mesh[] temp = new Mesh[this.globalMeshCount * 2];
+			System.arraycopy(this.globalMeshes, 0, temp, 0, this.globalMeshCount);
+			this.globalMeshes = temp;
+		}
+		this.globalMeshes[this.globalMeshCount++] = mesh;
+	}
+
+	/**
+	 * Gets the cell that contains a position.
+	 * @param x Position on X axis.
+	 * @param z Position on Z axis.
+	 * @return Return the index of the cell or -1 if the position is outside of the grid.
+	 */
+	public int getCell(float x, float z) {
+		int cellX = (int)Math.floor((x - this.originX) / this.cellSize);
+		int cellZ = (int)Math.floor((z - this.originZ) / this.cellSize);
+
+		if (cellX < 0 || cellZ < 0 || cellX >= this.width || cellZ >= this.depth) {
+			return -1;
+		}
+
+		return cellX + cellZ * this.width;
+	}
+
+	/**
+	 * Compute the visible cells and meshes.
+	 * @param camera The camera.
+	 * @param fieldOfView The vertical field of view of the projection.
+	 * @param aspectRatio The aspect ratio of the projection.
+	 */
+	public void update(Camera camera, float fieldOfView, float aspectRatio) {
+		this.frameStamp++;
+		this.visibleCellCount = 0;
+
+		float cameraX = camera.position.x;
+		float cameraZ = camera.position.z;
+		int cameraCell = this.getCell(cameraX, cameraZ);
+
+		if (cameraCell == -1 || camera.position.y > this.wallHeight) {
+			// Nothing blocks the view, all the cells can be seen.
+			for (int i = 0, l = this.width * this.depth; i < l; i++) {
+				this.visibleCells[this.visibleCellCount++] = i;
+			}
+		}
+		else {
+			// The camera must not be on a grid line, the portals that contain it would be degenerated.
+			float localX = (cameraX - this.originX) / this.cellSize;
+			float localZ = (cameraZ - this.originZ) / this.cellSize;
+			if (localX - (float)Math.floor(localX) < Epsilon) {
+				cameraX += this.cellSize * Epsilon * 2;
+			}
+			if (localZ - (float)Math.floor(localZ) < Epsilon) {
+				cameraZ += this.cellSize * Epsilon * 2;
+			}
+			this.traverse(cameraCell, cameraX, cameraZ, camera, fieldOfView, aspectRatio);
+		}
+
+		this.collectMeshes();
+	}
+
+	/**
+	 * Flow the view from the camera cell to the cells that can be seen. A cell is only entered
+	 * through an edge that faces away from the camera, so a cell at N steps from the camera cell is
+	 * reached only from cells at N - 1 steps: with a FIFO queue, the wedge of a cell is complete
+	 * when it's processed. The wedge of a cell is the hull of the wedges coming through its portals.
+	 */
+	private void traverse(int cameraCell, float cameraX, float cameraZ, Camera camera, float fieldOfView, float aspectRatio) {
+		float[] frustum = this.computeFrustumWedge(camera, fieldOfView, aspectRatio);
+		int head = 0;
+		int tail = 0;
+
+		this.stamp[cameraCell] = this.frameStamp;
+		this.queue[tail++] = cameraCell;
+
+		while (head < tail) {
+			int cell = this.queue[head++];
+			int cellX = cell % this.width;
+			int cellZ = cell / this.width;
+			boolean isCameraCell = (cell == cameraCell);
+			this.visibleCells[this.visibleCellCount++] = cell;
+
+			if (this.opaque[cell] && !isCameraCell) {
+				continue;
+			}
+
+			float minX = this.originX + cellX * this.cellSize;
+			float minZ = this.originZ + cellZ * this.cellSize;
+			float maxX = minX + this.cellSize;
+			float maxZ = minZ + this.cellSize;
+
+			// Only the edges that face away from the camera.
+			if (cameraX < maxX && cellX + 1 < this.width) {
+				tail = this.enter(cell, cell + 1, maxX, minZ, maxX, maxZ, cameraX, cameraZ, isCameraCell, frustum, tail);
+			}
+			if (cameraX > minX && cellX > 0) {
+				tail = this.enter(cell, cell - 1, minX, minZ, minX, maxZ, cameraX, cameraZ, isCameraCell, frustum, tail);
+			}
+			if (cameraZ < maxZ && cellZ + 1 < this.depth) {
+				tail = this.enter(cell, cell + this.width, minX, maxZ, maxX, maxZ, cameraX, cameraZ, isCameraCell, frustum, tail);
+			}
+			if (cameraZ > minZ && cellZ > 0) {
+				tail = this.enter(cell, cell - this.width, minX, minZ, maxX, minZ, cameraX, cameraZ, isCameraCell, frustum, tail);
+			}
+		}
+	}
+
+	/**
+	 * Clip the wedge of a cell against a portal and give the result to the neighbour cell.
+	 * @return Return the new tail of the queue.
+	 */
+	private int enter(int cell, int neighbour, float x0, float z0, float x1, float z1, float cameraX, float cameraZ, boolean fromCameraCell, float[] frustum, int tail) {
+		// Wedge of the portal seen from the camera, the right bound is the most clockwise direction.
+		float ax = x0 - cameraX;
+		float az = z0 - cameraZ;
+		float bx = x1 - cameraX;
+		float bz = z1 - cameraZ;
+
+		if (cross(ax, az, bx, bz) < 0) {
+			float tx = ax;
+			float tz = az;
+			ax = bx;
+			az = bz;
+			bx = tx;
+			bz = tz;
+		}
+
+		float rx = ax;
+		float rz = az;
+		float lx = bx;
+		float lz = bz;
+
+		// Wedge of the current cell, the camera cell uses the frustum (null when the view is not limited).
+		float[] source = fromCameraCell ? frustum : this.wedges;
+		int offset = fromCameraCell ? 0 : cell * 4;
+
+		if (source != null) {
+			float srx = source[offset];
+			float srz = source[offset + 1];
+			float slx = source[offset + 2];
+			float slz = source[offset + 3];
+			boolean portalRightInside = isInside(rx, rz, srx, srz, slx, slz);
+			boolean sourceRightInside = isInside(srx, srz, rx, rz, lx, lz);
+
+			if (!portalRightInside && !sourceRightInside) {
+				return tail;
+			}
+
+			if (!portalRightInside) {
+				rx = srx;
+				rz = srz;
+			}
+
+			if (!isInside(lx, lz, srx, srz, slx, slz)) {
+				lx = slx;
+				lz = slz;
+			}
+
+			if (cross(rx, rz, lx, lz) <= 0) {
+				return tail;
+			}
+		}
+
+		int w = neighbour * 4;
+
+		if (this.stamp[neighbour] != this.frameStamp) {
+			this.stamp[neighbour] = this.frameStamp;
+			this.wedges[w] = rx;
+			this.wedges[w + 1] = rz;
+			this.wedges[w + 2] = lx;
+			this.wedges[w + 3] = lz;
+			this.queue[tail++] = neighbour;
+		}
+		else {
+			// All the wedges of a cell lie in its angular extent (less than a half turn), the hull is well defined.
+			if (cross(rx, rz, this.wedges[w], this.wedges[w + 1]) > 0) {
+				this.wedges[w] = rx;
+				this.wedges[w + 1] = rz;
+			}
+			if (cross(this.wedges[w + 2], this.wedges[w + 3], lx, lz) > 0) {
+				this.wedges[w + 2] = lx;
+				this.wedges[w + 3] = lz;
+			}
+		}
+
+		return tail;
+	}
+
+	/**
+	 * Compute the horizontal wedge that contains the view frustum.
+	 * @return Return an array with the right and left directions, or null if the wedge is larger than a half turn.
+	 */
+	private float[] computeFrustumWedge(Camera camera, float fieldOfView, float aspectRatio) {
+		Matrix rotation = this.rotationMatrix;
+		Vector3 forward = this.forward;
+		Matrix.createRotationYawPitchRoll(camera.rotation.y, camera.rotation.x, camera.rotation.z, rotation);
+		Vector3.transformCoordinate(camera.reference, rotation, forward);
+		forward.normalize();
+
+		// The right handed projection is combined with a left handed view matrix, so the visible
+		// side (positive W) is the opposite of the camera target.
+		forward.x = -forward.x;
+		forward.y = -forward.y;
+		forward.z = -forward.z;
+
+		float horizontalLength = (float)Math.sqrt(forward.x * forward.x + forward.z * forward.z);
+
+		if (horizontalLength < Epsilon) {
+			return null;
+		}
+
+		// Basis of the view, the orientation of right and up doesn't matter because both signs are used.
+		float rightX = forward.z / horizontalLength;
+		float rightZ = -forward.x / horizontalLength;
+		float upX = -forward.y * rightZ;
+		float upY = rightZ * forward.x - rightX * forward.z;
+		float upZ = forward.y * rightX;
+		float tanY = (float)Math.tan(fieldOfView / 2.0f);
+		float tanX = tanY * aspectRatio;
+		float hx = forward.x / horizontalLength;
+		float hz = forward.z / horizontalLength;
+		float minAngle = 0.0f;
+		float maxAngle = 0.0f;
+
+		for (int corner = 0; corner < 4; corner++) {
+			float sx = ((corner & 1) == 0) ? -tanX : tanX;
+			float sy = ((corner & 2) == 0) ? -tanY : tanY;
+			float cx = forward.x + rightX * sx + upX * sy;
+			float cy = forward.y + upY * sy;
+			float cz = forward.z + rightZ * sx + upZ * sy;
+
+			if (cx * cx + cz * cz < Epsilon * (cx * cx + cy * cy + cz * cz)) {
+				return null;
+			}
+
+			float angle = (float)Math.atan2(cross(hx, hz, cx, cz), hx * cx + hz * cz);
+			minAngle = Math.min(minAngle, angle);
+			maxAngle = Math.max(maxAngle, angle);
+		}
+
+		if (maxAngle - minAngle >= Math.PI - Epsilon) {
+			return null;
+		}
+
+		// Rotate the forward direction in the orientation given by the cross product. It uses Math and not the table
+		// of MathHelper, an approximated wedge could be narrower than the frustum and hide visible cells.
+		float cosMin = (float)Math.cos(minAngle);
+		float sinMin = (float)Math.sin(minAngle);
+		float cosMax = (float)Math.cos(maxAngle);
+		float sinMax = (float)Math.sin(maxAngle);
+
+		float[] wedge = this.frustumWedge;
+		wedge[0] = hx * cosMin - hz * sinMin;
+		wedge[1] = hz * cosMin + hx * sinMin;
+		wedge[2] = hx * cosMax - hz * sinMax;
+		wedge[3] = hz * cosMax + hx * sinMax;
+		return wedge;
+	}
+
+	private void collectMeshes() {
+		int count = this.globalMeshCount;
+
+		for (int i = 0; i < this.visibleCellCount; i++) {
+			count += this.cellMeshCount[this.visibleCells[i]];
+		}
+
+		if (this.visibleMeshes.length < count) {
+			this.visibleMeshes = new Mesh[Math.max(count, this.visibleMeshes.length * 2)];
+		}
+
+		System.arraycopy(this.globalMeshes, 0, this.visibleMeshes, 0, this.globalMeshCount);
+		this.visibleMeshCount = this.globalMeshCount;
+
+		for (int i = 0; i < this.visibleCellCount; i++) {
+			int cell = this.visibleCells[i];
+			int cellCount = this.cellMeshCount[cell];
+
+			if (cellCount > 0) {
+				System.arraycopy(this.cellMeshes[cell], 0, this.visibleMeshes, this.visibleMeshCount, cellCount);
+				this.visibleMeshCount += cellCount;
+			}
+		}
+	}
+
+	private static float cross(float ax, float az, float bx, float bz) {
+		return ax * bz - az * bx;
+	}
+
+	/**
+	 * Test if a direction is inside a wedge (bounds included).
+	 */
+	private static boolean isInside(float x, float z, float rx, float rz, float lx, float lz) {
+		return cross(rx, rz, x, z) >= 0 && cross(x, z, lx, lz) >= 0;
+	}
+
+	// ---
+	// --- Getters and setters
+	// ---
+
+	/**
+	 * Sets if a cell blocks the view.
+	 * @param x Cell on X axis.
+	 * @param z Cell on Z axis.
+	 * @param opaque Sets to true if the cell is a wall.
+	 */
+	public void setOpaque(int x, int z, boolean opaque) {
+		this.opaque[x + z * this.width] = opaque;
+	}
+
+	public boolean isOpaque(int x, int z) {
+		return this.opaque[x + z * this.width];
+	}
+
+	/**
+	 * Sets the height of the walls. When the camera is above, the walls don't block the view.
+	 * @param wallHeight The height of the walls.
+	 */
+	public void setWallHeight(float wallHeight) {
+		this.wallHeight = wallHeight;
+	}
+
+	public float getWallHeight() {
+		return this.wallHeight;
+	}
+
+	public int getWidth() {
+		return this.width;
+	}
+
+	public int getDepth() {
+		return this.depth;
+	}
+
+	/**
+	 * Gets the visible cells of the last update.
+	 * @return Return an array of cell indices, only the first getVisibleCellCount() values are used.
+	 */
+	public int[] getVisibleCells() {
+		return this.visibleCells;
+	}
+
+	public int getVisibleCellCount() {
+		return this.visibleCellCount;
+	}
+
+	/**
+	 * Gets the visible meshes of the last update.
+	 * @return Return an array of meshes, only the first getVisibleMeshCount() values are used.
+	 */
+	public Mesh[] getVisibleMeshes() {
+		return this.visibleMeshes;
+	}
+
+	public int getVisibleMeshCount() {
+		return this.visibleMeshCount;
+	}
+}
@@ -5,14 +5,31 @@ package atlantis.engine.graphics3d;
 
 import atlantis.framework.Vector3;
 
+/**
+ * A point light. A light with a range of 0 has no attenuation and lights the whole scene.
+ * @author Yannick
+ */
 public class Light extends Object3D {
 	protected boolean enableFlatShading;
 	protected boolean enabled;
+	protected float range;
 
 	public Light(float x, float y, float z) {
+        this(x, y, z, 0.0f);
+    }
+	
+	/**
+	 * Create a point light with a limited range. The intensity decreases linearly with the distance.
+	 * @param x Position on X axis.
+	 * @param y Position on Y axis.
+	 * @param z Position on Z axis.
+	 * @param range Distance at which the light has no effect, 0 for an infinite range.
+	 */
+	public Light(float x, float y, float z, float range) {
         this.position.set(x, y, z);
         this.enableFlatShading = true;
         this.enabled = true;
+        this.range = range;
     }
 
     public Vector3 normalize() {
@@ -40,4 +57,18 @@ public class Light extends Object3D {
 	public final void setEnabled(boolean enabled) {
 		this.enabled = enabled;
 	}
+
+	/**
+	 * @return the range of the light, 0 if the range is infinite.
+	 */
+	public final float getRange() {
+		return range;
+	}
+
+	/**
+	 * @param range the range to set, 0 for an infinite range.
+	 */
+	public final void setRange(float range) {
+		this.range = range;
+	}
 }
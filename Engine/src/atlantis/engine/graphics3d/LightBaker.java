@@ -0,0 +1,97 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.engine.graphics3d;
+
+import java.util.List;
+
+import atlantis.framework.IParallelTask;
+import atlantis.framework.Matrix;
+import atlantis.framework.Parallel;
+
+/**
+ * Precompute the lighting of static meshes. The light factor of each vertex (smooth shading)
+ * and of each face (flat shading) is stored into the mesh, so the renderer doesn't have
+ * to evaluate the lights of these meshes at each frame.
+ * @author Yannick
+ */
+public class LightBaker {
+
+	/**
+	 * Bake the lighting of all the meshes flagged as static. The work is split across all the cores.
+	 * @param meshes A collection of meshes, non static meshes are ignored.
+	 * @param lights The lights of the scene.
+	 */
+	public static void bake(Mesh[] meshes, List<Light> lights) {
+		LightGrid lightGrid = new LightGrid(1, 1, 1);
+		lightGrid.setLights(lights);
+
+		for (int i = 0, l = meshes.length; i < l; i++) {
+			if (meshes[i].isStatic()) {
+				bake(meshes[i], lightGrid);
+			}
+		}
+	}
+
+	/**
+	 * Bake the lighting of a mesh, even if it isn't flagged as static.
+	 * @param mesh The mesh to bake.
+	 * @param lightGrid A light grid that contains the lights of the scene.
+	 */
+	protected static void bake(final Mesh mesh, final LightGrid lightGrid) {
+		final Matrix world = mesh.getWorldMatrix();
+		final Vertex[] vertices = mesh.getVertices();
+		final Face3[] faces = mesh.getFaces();
+		final float[] worldPositions = new float[vertices.length * 3];
+		final float[] worldNormals = new float[vertices.length * 3];
+		final float[] vertexLighting = new float[vertices.length];
+		final float[] faceLighting = new float[faces.length];
+
+		Parallel.forRange(0, vertices.length, 256, new IParallelTask() {
+			@Override
+			public void run(int start, int end) {
+				for (int i = start; i < end; i++) {
+					float x = vertices[i].position.x;
+					float y = vertices[i].position.y;
+					float z = vertices[i].position.z;
+					float nx = vertices[i].normal.x;
+					float ny = vertices[i].normal.y;
+					float nz = vertices[i].normal.z;
+					int i3 = i * 3;
+
+					worldPositions[i3] = (x * world.M11) + (y * world.M21) + (z * world.M31) + world.M41;
+					worldPositions[i3 + 1] = (x * world.M12) + (y * world.M22) + (z * world.M32) + world.M42;
+					worldPositions[i3 + 2] = (x * world.M13) + (y * world.M23) + (z * world.M33) + world.M43;
+					worldNormals[i3] = (nx * world.M11) + (ny * world.M21) + (nz * world.M31);
+					worldNormals[i3 + 1] = (nx * world.M12) + (ny * world.M22) + (nz * world.M32);
+					worldNormals[i3 + 2] = (nx * world.M13) + (ny * world.M23) + (nz * world.M33);
+
+					vertexLighting[i] = lightGrid.computeLighting(
+							worldPositions[i3], worldPositions[i3 + 1], worldPositions[i3 + 2],
+							worldNormals[i3], worldNormals[i3 + 1], worldNormals[i3 + 2], -1);
+				}
+			}
+		});
+
+		Parallel.forRange(0, faces.length, 256, new IParallelTask() {
+			@Override
+			public void run(int start, int end) {
+				for (int i = start; i < end; i++) {
+					int a = faces[i].a * 3;
+					int b = faces[i].b * 3;
+					int c = faces[i].c * 3;
+
+					faceLighting[i] = lightGrid.computeLighting(
+							(worldPositions[a] + worldPositions[b] + worldPositions[c]) / 3.0f,
+							(worldPositions[a + 1] + worldPositions[b + 1] + worldPositions[c + 1]) / 3.0f,
+							(worldPositions[a + 2] + worldPositions[b + 2] + worldPositions[c + 2]) / 3.0f,
+							worldNormals[a] + worldNormals[b] + worldNormals[c],
+							worldNormals[a + 1] + worldNormals[b + 1] + worldNormals[c + 1],
+							worldNormals[a + 2] + worldNormals[b + 2] + worldNormals[c + 2], -1);
+				}
+			}
+		});
+
+		mesh.setBakedLighting(vertexLighting, faceLighting);
+	}
+}
@@ -0,0 +1,260 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.engine.graphics3d;
+
+import java.util.List;
+
+import atlantis.framework.Matrix;
+
+/**
+ * A screen space grid of tiles used to cull lights. Each light is assigned to the tiles covered
+ * by the projection of its bounding sphere, so a pixel (or a vertex) only evaluates the lights
+ * that can reach it. Lights without range are assigned to every tile.
+ * @author Yannick
+ */
+public class LightGrid {
+	public static final int DefaultTileSize = 32;
+
+	protected int tileSize;
+	protected int tilesX;
+	protected int tilesY;
+	protected int screenWidth;
+	protected int screenHeight;
+	protected int[] tileLightCount;
+	protected int[] tileLights;
+	protected int tileCapacity;
+
+	// Light data copied at each update so the grid can be read by several threads.
+	protected int lightCount;
+	protected float[] lightX;
+	protected float[] lightY;
+	protected float[] lightZ;
+	protected float[] lightRange;
+
+	/**
+	 * Create a light grid.
+	 * @param screenWidth Width of the back buffer.
+	 * @param screenHeight Height of the back buffer.
+	 * @param tileSize Size of a tile in pixels.
+	 */
+	public LightGrid(int screenWidth, int screenHeight, int tileSize) {
+		this.screenWidth = screenWidth;
+		this.screenHeight = screenHeight;
+		this.tileSize = tileSize;
+		this.tilesX = (screenWidth + tileSize - 1) / tileSize;
+		this.tilesY = (screenHeight + tileSize - 1) / tileSize;
+		this.tileLightCount = new int[this.tilesX * this.tilesY];
+		this.ensureCapacity(4);
+	}
+
+	public LightGrid(int screenWidth, int screenHeight) {
+		this(screenWidth, screenHeight, DefaultTileSize);
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (this.tileLights == null || capacity > this.tileCapacity) {
+			this.tileCapacity = capacity;
+			this.tileLights = new int[this.tilesX * this.tilesY * capacity];
+			this.lightX = new float[capacity];
+			this.lightY = new float[capacity];
+			this.lightZ = new float[capacity];
+			this.lightRange = new float[capacity];
+		}
+	}
+
+	/**
+	 * Assign the enabled lights to the tiles they touch.
+	 * @param lights The lights of the scene.
+	 * @param viewProjection The view projection matrix of the frame.
+	 */
+	public void update(List<Light> lights, Matrix viewProjection) {
+		this.setLights(lights);
+
+		for (int i = 0; i < this.lightCount; i++) {
+			if (this.lightRange[i] <= 0) {
+				this.addToTiles(i, 0, 0, this.tilesX - 1, this.tilesY - 1);
+			}
+			else {
+				this.cullSphere(i, this.lightX[i], this.lightY[i], this.lightZ[i], this.lightRange[i], viewProjection);
+			}
+		}
+	}
+
+	/**
+	 * Copy the enabled lights without assigning them to tiles. Only computeLighting with
+	 * a tile of -1 can be used after this call.
+	 * @param lights The lights of the scene.
+	 */
+	public void setLights(List<Light> lights) {
+		this.ensureCapacity(lights.size());
+		this.lightCount = 0;
+
+		for (int i = 0, l = this.tileLightCount.length; i < l; i++) {
+			this.tileLightCount[i] = 0;
+		}
+
+		for (int i = 0, l = lights.size(); i < l; i++) {
+			Light light = lights.get(i);
+
+			if (light.enabled) {
+				this.lightX[this.lightCount] = light.position.x;
+				this.lightY[this.lightCount] = light.position.y;
+				this.lightZ[this.lightCount] = light.position.z;
+				this.lightRange[this.lightCount] = light.range;
+				this.lightCount++;
+			}
+		}
+	}
+
+	/**
+	 * Project the bounding box of a light sphere and add the light to the covered tiles.
+	 */
+	private void cullSphere(int index, float x, float y, float z, float range, Matrix m) {
+		float minX = Float.MAX_VALUE;
+		float minY = Float.MAX_VALUE;
+		float maxX = -Float.MAX_VALUE;
+		float maxY = -Float.MAX_VALUE;
+		int behind = 0;
+
+		for (int corner = 0; corner < 8; corner++) {
+			float cx = ((corner & 1) == 0) ? x - range : x + range;
+			float cy = ((corner & 2) == 0) ? y - range : y + range;
+			float cz = ((corner & 4) == 0) ? z - range : z + range;
+
+			float w = (cx * m.M14) + (cy * m.M24) + (cz * m.M34) + m.M44;
+
+			if (w <= 0.0001f) {
+				behind++;
+				continue;
+			}
+
+			float sx = ((cx * m.M11) + (cy * m.M21) + (cz * m.M31) + m.M41) / w;
+			float sy = ((cx * m.M12) + (cy * m.M22) + (cz * m.M32) + m.M42) / w;
+			sx = sx * this.screenWidth + (this.screenWidth / 2.0f);
+			sy = -sy * this.screenHeight + (this.screenHeight / 2.0f);
+
+			minX = Math.min(minX, sx);
+			maxX = Math.max(maxX, sx);
+			minY = Math.min(minY, sy);
+			maxY = Math.max(maxY, sy);
+		}
+
+		if (behind == 8) {
+			return;
+		}
+
+		if (behind > 0) {
+			// The sphere crosses the camera plane, its projection is unbounded.
+			this.addToTiles(index, 0, 0, this.tilesX - 1, this.tilesY - 1);
+			return;
+		}
+
+		if (maxX < 0 || maxY < 0 || minX >= this.screenWidth || minY >= this.screenHeight) {
+			return;
+		}
+
+		int tileMinX = Math.max(0, (int)minX / this.tileSize);
+		int tileMinY = Math.max(0, (int)minY / this.tileSize);
+		int tileMaxX = Math.min(this.tilesX - 1, (int)maxX / this.tileSize);
+		int tileMaxY = Math.min(this.tilesY - 1, (int)maxY / this.tileSize);
+		this.addToTiles(index, tileMinX, tileMinY, tileMaxX, tileMaxY);
+	}
+
+	private void addToTiles(int lightIndex, int tileMinX, int tileMinY, int tileMaxX, int tileMaxY) {
+		for (int ty = tileMinY; ty <= tileMaxY; ty++) {
+			for (int tx = tileMinX; tx <= tileMaxX; tx++) {
+				int tile = tx + ty * this.tilesX;
+				this.tileLights[tile * this.tileCapacity + this.tileLightCount[tile]] = lightIndex;
+				this.tileLightCount[tile]++;
+			}
+		}
+	}
+
+	/**
+	 * Gets the tile that contains a screen position.
+	 * @param x Position on X axis.
+	 * @param y Position on Y axis.
+	 * @return Return the index of the tile or -1 if the position is outside of the screen.
+	 */
+	public int getTile(float x, float y) {
+		if (x < 0 || y < 0 || x >= this.screenWidth || y >= this.screenHeight) {
+			return -1;
+		}
+		return ((int)x / this.tileSize) + ((int)y / this.tileSize) * this.tilesX;
+	}
+
+	/**
+	 * Compute the sum of the diffuse contributions of the lights that touch a tile.
+	 * @param px Position of the surface on X axis (world space).
+	 * @param py Position of the surface on Y axis (world space).
+	 * @param pz Position of the surface on Z axis (world space).
+	 * @param nx Normal of the surface on X axis, it doesn't need to be normalized.
+	 * @param ny Normal of the surface on Y axis.
+	 * @param nz Normal of the surface on Z axis.
+	 * @param tile The tile to use, -1 to evaluate all the lights.
+	 * @return Return a light factor between 0 and 1.
+	 */
+	public float computeLighting(float px, float py, float pz, float nx, float ny, float nz, int tile) {
+		float normalLength = (float)Math.sqrt(nx * nx + ny * ny + nz * nz);
+
+		if (normalLength == 0) {
+			return 0.0f;
+		}
+
+		int count = (tile < 0) ? this.lightCount : this.tileLightCount[tile];
+		int offset = tile * this.tileCapacity;
+		float total = 0.0f;
+
+		for (int i = 0; i < count; i++) {
+			int light = (tile < 0) ? i : this.tileLights[offset + i];
+			float dx = this.lightX[light] - px;
+			float dy = this.lightY[light] - py;
+			float dz = this.lightZ[light] - pz;
+			float distanceSquared = dx * dx + dy * dy + dz * dz;
+			float range = this.lightRange[light];
+
+			if (distanceSquared == 0 || (range > 0 && distanceSquared >= range * range)) {
+				continue;
+			}
+
+			float distance = (float)Math.sqrt(distanceSquared);
+			float nDotL = (nx * dx + ny * dy + nz * dz) / (distance * normalLength);
+
+			if (nDotL > 0) {
+				total += (range > 0) ? nDotL * (1.0f - distance / range) : nDotL;
+			}
+		}
+
+		return Math.min(1.0f, total);
+	}
+
+	/**
+	 * Gets the number of enabled lights.
+	 * @return Return the number of lights used at the last update.
+	 */
+	public int getLightCount() {
+		return this.lightCount;
+	}
+
+	/**
+	 * Gets the number of lights assigned to a tile.
+	 * @param tile A tile index.
+	 * @return Return the number of lights of the tile.
+	 */
+	public int getTileLightCount(int tile) {
+		return this.tileLightCount[tile];
+	}
+
+	public int getTileSize() {
+		return this.tileSize;
+	}
+
+	public int getTilesX() {
+		return this.tilesX;
+	}
+
+	public int getTilesY() {
+		return this.tilesY;
+	}
+}
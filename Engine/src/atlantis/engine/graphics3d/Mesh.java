@@ -7,6 +7,11 @@ import java.awt.Color;
 import java.util.Random;
 
 import atlantis.engine.graphics3d.geometry.MeshGeometry;
+import atlantis.framework.BoundingVolumeHierarchy;
+import atlantis.framework.Matrix;
+import atlantis.framework.Ray;
+import atlantis.framework.RayHit;
+import atlantis.framework.Vector2;
 import atlantis.framework.Vector3;
 
 /**
@@ -18,6 +23,15 @@ public class Mesh extends Object3D {
 	protected Face3[] faces;
 	protected boolean wireframe;
 	protected Material material;
+	protected boolean isStatic;
+	protected float[] bakedVertexLighting;
+	protected float[] bakedFaceLighting;
+	protected MeshGeometry geometry;
+	protected boolean sharedVertices;
+	protected boolean sharedFaces;
+	protected BoundingVolumeHierarchy pickingTree;
+	private Matrix pickingMatrix = new Matrix();
+	private Ray pickingRay = new Ray();
 	
 	private Mesh() {
 		this.position = new Vector3();
@@ -41,20 +55,20 @@ public class Mesh extends Object3D {
 		this.faces = faces;
 	}
 	
+	/**
+	 * Create a mesh with a geometry. The vertices and faces of the geometry are shared with the other 
+	 * meshes that use it (see GeometryCache), they are copied the first time the mesh modifies them.
+	 * @param name The name of the mesh.
+	 * @param geometry The geometry.
+	 */
 	public Mesh(String name, MeshGeometry geometry) {
 		this();
 		this.name = name;
-		
-		Vector3[] vPosition = geometry.getVertices();
-		this.vertices = new Vertex[vPosition.length];
-		for (int i = 0, l = vPosition.length; i < l; i++) {
-			this.vertices[i] = new Vertex();
-			this.vertices[i].position = vPosition[i];
-		}
-		
+		this.geometry = geometry;
+		this.vertices = geometry.getMeshVertices();
 		this.faces = geometry.getFaces();
-		
-		computeNormals(vertices, faces);
+		this.sharedVertices = true;
+		this.sharedFaces = true;
 	}
 	
 	public static void computeNormals(Vertex[] vertices, Face3[] faces) {
@@ -62,10 +76,10 @@ public class Mesh extends Object3D {
 			vertices[i].normal = Vector3.Zero();
 		}
 
-		for (int i = 0; i < faces.length / 3; i++) {
-			int index1 = faces[i * 3].a;
-			int index2 = faces[i * 3].b;
-			int index3 = faces[i * 3].c;
+		for (int i = 0; i < faces.length; i++) {
+			int index1 = faces[i].a;
+			int index2 = faces[i].b;
+			int index3 = faces[i].c;
 
 			// Select the face
 			Vector3 side1 = Vector3.subtract(vertices[index1].position, vertices[index3].position);
@@ -82,11 +96,132 @@ public class Mesh extends Object3D {
 		}
 	}
 	
+	/**
+	 * Reorder faces and vertices to improve the vertex cache efficiency (see VertexCacheOptimizer).
+	 * The order of the faces changes so it must be called before coloring faces by index.
+	 * The baked lighting is cleared because the vertex order changes. The gain can be measured with computeACMR.
+	 */
+	public void optimizeVertexCache() {
+		this.makeUnique();
+		this.clearBakedLighting();
+		this.invalidatePickingTree();
+		VertexCacheOptimizer.optimize(this.vertices, this.faces);
+	}
+	
+	/**
+	 * Gets the average cache miss ratio of the faces.
+	 * @return Return the number of transformed vertices per face with a FIFO cache.
+	 */
+	public float computeACMR() {
+		return VertexCacheOptimizer.computeACMR(this.faces, this.vertices.length);
+	}
+	
+	/**
+	 * Gets the closest face hit by a ray. The ray is moved into the space of the mesh with the inverse of the world 
+	 * matrix, without normalizing its direction, so the distance of the hit is the distance in world space and 
+	 * the hits of several meshes can be compared. Only the faces closer than the distance of the hit are tested, 
+	 * call hit.reset() before a new query.
+	 * @param ray A ray in world space.
+	 * @param hit The closest hit, the index is the index of the face.
+	 * @return Return true if a closer face is hit.
+	 */
+	public boolean intersects(Ray ray, RayHit hit) {
+		this.getWorldMatrix(this.pickingMatrix);
+		Matrix.invert(this.pickingMatrix, this.pickingMatrix);
+		Vector3.transformCoordinate(ray.getPosition(), this.pickingMatrix, this.pickingRay.getPosition());
+		Vector3.transformNormal(ray.getDirection(), this.pickingMatrix, this.pickingRay.getDirection());
+		return this.getPickingTree().intersects(this.pickingRay, hit);
+	}
+	
+	/**
+	 * Gets the bounding volume hierarchy of the faces used to pick the mesh, it's built on the first call.
+	 * @return Return the picking tree of the mesh in local space.
+	 */
+	public BoundingVolumeHierarchy getPickingTree() {
+		if (this.pickingTree == null) {
+			float[] positions = new float[this.vertices.length * 3];
+			int[] indices = new int[this.faces.length * 3];
+			
+			for (int i = 0, l = this.vertices.length; i < l; i++) {
+				Vector3 position = this.vertices[i].position;
+				positions[i * 3] = position.x;
+				positions[i * 3 + 1] = position.y;
+				positions[i * 3 + 2] = position.z;
+			}
+			
+			for (int i = 0, l = this.faces.length; i < l; i++) {
+				indices[i * 3] = this.faces[i].a;
+				indices[i * 3 + 1] = this.faces[i].b;
+				indices[i * 3 + 2] = this.faces[i].c;
+			}
+			
+			this.pickingTree = new BoundingVolumeHierarchy(positions, indices, this.faces.length);
+		}
+		return this.pickingTree;
+	}
+	
+	/**
+	 * Remove the picking tree, it's built again on the next pick. The methods of the mesh that change 
+	 * the positions or the faces call it, it must be called after changing the vertices directly.
+	 */
+	public void invalidatePickingTree() {
+		this.pickingTree = null;
+	}
+	
+	/**
+	 * Copy the vertices and the faces shared with the geometry, the mesh can then be modified 
+	 * without changing the other meshes. It's done automatically by the methods of the mesh.
+	 */
+	public void makeUnique() {
+		this.makeVerticesUnique();
+		this.makeFacesUnique();
+	}
+	
+	protected void makeVerticesUnique() {
+		if (this.sharedVertices) {
+			Vertex[] copy = new Vertex[this.vertices.length];
+			for (int i = 0, l = copy.length; i < l; i++) {
+				Vertex vertex = this.vertices[i];
+				copy[i] = new Vertex(new Vector3(vertex.position), new Vector3(vertex.normal), 
+						new Vector3(vertex.worldCoordinate), new Vector2(vertex.textureCoordinate));
+			}
+			this.vertices = copy;
+			this.sharedVertices = false;
+		}
+	}
+	
+	protected void makeFacesUnique() {
+		if (this.sharedFaces) {
+			Face3[] copy = new Face3[this.faces.length];
+			for (int i = 0, l = copy.length; i < l; i++) {
+				copy[i] = new Face3(this.faces[i]);
+				copy[i].color = this.faces[i].color;
+			}
+			this.faces = copy;
+			this.sharedFaces = false;
+		}
+	}
+	
+	/**
+	 * Indicates if the vertices or the faces are shared with other meshes.
+	 * @return Return true if the mesh uses the data of its geometry.
+	 */
+	public boolean isShared() {
+		return this.sharedVertices || this.sharedFaces;
+	}
+	
 	// ---
 	// --- Gettters and setters
 	// --- 
 	
 	public void setFacesColor(Color color) {
+		if (this.sharedFaces && this.geometry != null) {
+			// All the meshes of the geometry with this color use the same faces.
+			this.faces = this.geometry.getFaces(color);
+			return;
+		}
+		
+		this.makeFacesUnique();
 		for (int i = 0, l = this.faces.length; i < l; i++) {
 			this.faces[i].color = color;
 		}
@@ -95,6 +230,7 @@ public class Mesh extends Object3D {
 	public void setFace4Color(int index, Color color) {
 		int workingIndex = (index >= this.faces.length - 1) ? this.faces.length - 2 : index;
 		
+		this.makeFacesUnique();
 		this.faces[workingIndex].color = color;
 		this.faces[workingIndex + 1].color = color;
 	}
@@ -104,6 +240,8 @@ public class Mesh extends Object3D {
 		int step = twoFaces ? 2 : 1;
 		Color current;
 		
+		this.makeFacesUnique();
+		
 		Random random = new Random();
 		Color faceAColor = new Color(random.nextFloat(), random.nextFloat(), random.nextFloat());
 		Color faceBColor = new Color(random.nextFloat(), random.nextFloat(), random.nextFloat());
@@ -123,6 +261,10 @@ public class Mesh extends Object3D {
 	}
 	
 	public void randomizeHeight(Vector3 upVector) {
+		this.makeVerticesUnique();
+		
+		this.invalidatePickingTree();
+		
 		Random random = new Random();
 		
 		for (int i = 0, l = this.faces.length - 2; i < l; i += 2) {
@@ -136,12 +278,18 @@ public class Mesh extends Object3D {
 		}
 	}
 	
+	/**
+	 * Gets the vertices of the mesh. They can be shared with other meshes, call makeUnique() before modifying them.
+	 * @return Return an array of vertex.
+	 */
 	public Vertex[] getVertices() {
 		return this.vertices;
 	}
 	
 	public void setVertices(Vertex[] vertices) {
 		this.vertices = vertices;
+		this.sharedVertices = false;
+		this.invalidatePickingTree();
 	}
 	
 	public Vertex getVertex(int index) {
@@ -149,15 +297,32 @@ public class Mesh extends Object3D {
 	}
 	
 	public void setVertex(int index, Vertex vertex) {
+		this.makeVerticesUnique();
 		this.vertices[index] = vertex;
+		this.invalidatePickingTree();
 	}
 	
+	/**
+	 * Gets the faces of the mesh. They can be shared with other meshes, call makeUnique() before modifying them.
+	 * @return Return an array of faces.
+	 */
 	public Face3[] getFaces() {
 		return this.faces;
 	}
 	
 	public void setFaces(Face3[] faces) {
+		this.setFaces(faces, false);
+	}
+	
+	/**
+	 * Sets the faces of the mesh.
+	 * @param faces An array of faces.
+	 * @param shared Sets to true if the faces are used by other meshes, they are copied the first time the mesh modifies them.
+	 */
+	public void setFaces(Face3[] faces, boolean shared) {
 		this.faces = faces;
+		this.sharedFaces = shared;
+		this.invalidatePickingTree();
 	}
 	
 	public Face3 getFace(int index) {
@@ -165,7 +330,9 @@ public class Mesh extends Object3D {
 	}
 	
 	public void setFace(int index, Face3 face) {
+		this.makeFacesUnique();
 		this.faces[index] = face;
+		this.invalidatePickingTree();
 	}
 	
 	public Material getMaterial() {
@@ -176,6 +343,55 @@ public class Mesh extends Object3D {
 		this.material = material;
 	}
 	
+	/**
+	 * Flag the mesh as static. The lighting of a static mesh can be baked with LightBaker
+	 * and the renderer will use the baked values instead of the dynamic lighting.
+	 * The lighting must be baked again if the mesh or the lights move.
+	 * @param isStatic Sets to true to flag the mesh as static.
+	 */
+	public void setStatic(boolean isStatic) {
+		this.isStatic = isStatic;
+	}
+	
+	public boolean isStatic() {
+		return this.isStatic;
+	}
+	
+	/**
+	 * Sets the precomputed lighting of the mesh.
+	 * @param vertexLighting A light factor per vertex (smooth shading).
+	 * @param faceLighting A light factor per face (flat shading).
+	 */
+	public void setBakedLighting(float[] vertexLighting, float[] faceLighting) {
+		this.bakedVertexLighting = vertexLighting;
+		this.bakedFaceLighting = faceLighting;
+	}
+	
+	/**
+	 * Remove the baked lighting, the mesh will be lit dynamically.
+	 */
+	public void clearBakedLighting() {
+		this.bakedVertexLighting = null;
+		this.bakedFaceLighting = null;
+	}
+	
+	/**
+	 * Indicates if the renderer can use the baked lighting of this mesh.
+	 * @return Return true if the mesh is static and its lighting is baked.
+	 */
+	public boolean hasBakedLighting() {
+		return this.isStatic && this.bakedVertexLighting != null && this.bakedVertexLighting.length == this.vertices.length 
+				&& this.bakedFaceLighting != null && this.bakedFaceLighting.length == this.faces.length;
+	}
+	
+	public float[] getBakedVertexLighting() {
+		return this.bakedVertexLighting;
+	}
+	
+	public float[] getBakedFaceLighting() {
+		return this.bakedFaceLighting;
+	}
+	
 	public void setWireframeMode(boolean isWireframe) {
 		this.wireframe = isWireframe;
 	}
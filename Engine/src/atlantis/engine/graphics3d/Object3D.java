@@ -15,6 +15,8 @@ public abstract class Object3D {
     protected Vector3 position = Vector3.Zero();
     protected Vector3 rotation = Vector3.Zero();
     protected Vector3 scale = Vector3.One();
+    private Matrix translationMatrix = new Matrix();
+    private Vector3 translationVector = new Vector3();
 
     public void move(float x, float y, float z) {
         this.move(new Vector3(x, y, z));
@@ -27,11 +29,14 @@ public abstract class Object3D {
     }
 
     public void translate(float x, float y, float z) {
-        this.translate(new Vector3(x, y, z));
+        this.translationVector.set(x, y, z);
+        this.translate(this.translationVector);
     }
 
     public void translate(Vector3 translation) {
-        Vector3 transform = Vector3.transformCoordinate(translation, Matrix.createRotationY(this.rotation.y));
+        Matrix.createRotationY(this.rotation.y, this.translationMatrix);
+        Vector3 transform = this.translationVector;
+        Vector3.transformCoordinate(translation, this.translationMatrix, transform);
         this.position.x += transform.x;
         this.position.y += transform.y;
         this.position.z += transform.z;
@@ -57,6 +62,24 @@ public abstract class Object3D {
     	this.scale.add(scale);
     }
 
+    /**
+     * Gets the world matrix of the object (scale, rotation then translation).
+     * @return Return a new world matrix.
+     */
+    public Matrix getWorldMatrix() {
+    	Matrix matrix = new Matrix();
+    	this.getWorldMatrix(matrix);
+    	return matrix;
+    }
+    
+    /**
+     * Gets the world matrix of the object (scale, rotation then translation) without allocation.
+     * @param result The matrix that receives the world matrix.
+     */
+    public void getWorldMatrix(Matrix result) {
+    	Matrix.createWorld(this.scale, this.rotation.y, this.rotation.x, this.rotation.z, this.position, result);
+    }
+
     // ---
     // --- Getters and setters
     // ---
@@ -7,8 +7,15 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferByte;
+import java.util.ArrayList;
+import java.util.Arrays;
 
+import atlantis.engine.graphics3d.geometry.Terrain;
+import atlantis.framework.IParallelTask;
 import atlantis.framework.Matrix;
+import atlantis.framework.Parallel;
+import atlantis.framework.Ray;
+import atlantis.framework.RayHit;
 import atlantis.framework.Vector3;
 import atlantis.framework.graphics.Texture2D;
 
@@ -27,6 +34,25 @@ public class Renderer {
 	protected Color autoClearColor;
 	protected boolean autoClear;
 	protected Light light;
+	protected ArrayList<Light> lights;
+	protected boolean deferred;
+	private GBuffer gBuffer;
+	protected boolean spanBufferEnabled;
+	private SpanBuffer spanBuffer;
+	protected boolean depthPrepass;
+	protected boolean sortFrontToBack;
+	protected boolean statisticsEnabled;
+	private boolean depthOnly;
+	private boolean depthEqual;
+	private Mesh[] sortedMeshes;
+	private long[] sortKeys;
+	private int shadedPixelCount;
+	private int writtenPixelCount;
+	private ArrayList<Material> frameMaterials;
+	private int currentMaterialId;
+	private boolean currentBakedLighting;
+	private LightGrid lightGrid;
+	private boolean lightingEnabled;
 
 	protected float fieldOfView;
 	protected float aspectRatio;
@@ -37,6 +63,14 @@ public class Renderer {
 	private Matrix projectionMatrix;
 	private Matrix worldMeshMatrix;
 	private Matrix worldViewProjectionMatrix;
+	private Matrix inverseViewProjectionMatrix;
+	private Matrix viewProjectionMatrix;
+	private Matrix pickingMatrix;
+	private Ray pickingRay;
+	private Vertex projectedVertexA;
+	private Vertex projectedVertexB;
+	private Vertex projectedVertexC;
+	private ScanLineData scanLineData;
 	
 	/**
 	 * Create a software renderer. The front and back buffer have the same size.
@@ -67,6 +101,17 @@ public class Renderer {
 		this.autoClear = autoClear;
 		this.autoClearColor = Color.black;
 		this.light = new Light(0, 50, 50);
+		this.lights = new ArrayList<Light>();
+		this.lights.add(this.light);
+		this.lightGrid = new LightGrid(this.backBufferWidth, this.backBufferHeight);
+		this.deferred = false;
+		this.spanBufferEnabled = false;
+		this.depthPrepass = false;
+		this.sortFrontToBack = false;
+		this.statisticsEnabled = false;
+		this.sortedMeshes = new Mesh[0];
+		this.sortKeys = new long[0];
+		this.frameMaterials = new ArrayList<Material>();
 		this.clear(Color.black);
 		this.fieldOfView = (float) Math.PI / 4;
         this.aspectRatio = (float)this.backBufferWidth / (float)this.backBufferHeight;
@@ -75,6 +120,14 @@ public class Renderer {
         this.viewMatrix = new Matrix();
         this.worldMeshMatrix = new Matrix();
         this.worldViewProjectionMatrix = new Matrix();
+        this.viewProjectionMatrix = new Matrix();
+        this.inverseViewProjectionMatrix = new Matrix();
+        this.pickingMatrix = new Matrix();
+        this.pickingRay = new Ray();
+        this.projectedVertexA = new Vertex();
+        this.projectedVertexB = new Vertex();
+        this.projectedVertexC = new Vertex();
+        this.scanLineData = new ScanLineData();
         this.projectionMatrix = Matrix.createPerspectiveFieldOfViewRH(this.fieldOfView, this.aspectRatio, this.nearClip, this.farClip);
 	}
 	
@@ -98,10 +151,29 @@ public class Renderer {
 	 * @return Return a value between 0 and 1.
 	 */
 	public float computeNDotLight(Vector3 vertex, Vector3 normal, Vector3 lightPosition) {
-		Vector3 lightDirection = Vector3.subtract(lightPosition, vertex);
-		normal.normalize();
-		lightDirection.normalize();
-		return Math.max(0,  Vector3.dot(normal, lightDirection));
+		float dx = lightPosition.x - vertex.x;
+		float dy = lightPosition.y - vertex.y;
+		float dz = lightPosition.z - vertex.z;
+		float length = (float)Math.sqrt((dx * dx + dy * dy + dz * dz) * (normal.x * normal.x + normal.y * normal.y + normal.z * normal.z));
+		
+		if (length == 0) {
+			return 0.0f;
+		}
+		
+		return Math.max(0, (normal.x * dx + normal.y * dy + normal.z * dz) / length);
+	}
+	
+	/**
+	 * Gets the intensity of all the lights that reach a projected vertex. Only the lights
+	 * assigned to the screen tile of the vertex are evaluated.
+	 * @param vertex A projected vertex.
+	 * @return Return a value between 0 and 1.
+	 */
+	protected float computeVertexLighting(Vertex vertex) {
+		Vector3 p = vertex.worldCoordinate;
+		Vector3 n = vertex.normal;
+		int tile = this.lightGrid.getTile(vertex.position.x, vertex.position.y);
+		return this.lightGrid.computeLighting(p.x, p.y, p.z, n.x, n.y, n.z, tile);
 	}
 	
 	// ---
@@ -142,6 +214,13 @@ public class Renderer {
 		for (int i = 0, l = this.depthBuffer.length; i < l; i++) {
 			this.depthBuffer[i] = Float.MAX_VALUE;
 		}
+		
+		if (this.gBuffer != null) {
+			this.gBuffer.clear();
+		}
+		this.frameMaterials.clear();
+		this.shadedPixelCount = 0;
+		this.writtenPixelCount = 0;
 	}
 	
 	/**
@@ -177,6 +256,17 @@ public class Renderer {
 	 * @param color Desired pixel color for this pixel.
 	 */
 	protected void drawPixel(int x, int y, float z, Color color) {
+		this.drawPixel(x, y, z, color.getRGB());
+	}
+	
+	/**
+	 * Draw a pixel with a packed ARGB color.
+	 * @param x X coordinate.
+	 * @param y Y coordinate.
+	 * @param z Depth of the pixel.
+	 * @param color An ARGB color (0xAARRGGBB).
+	 */
+	protected void drawPixel(int x, int y, float z, int color) {
 		int index = (x + y * this.backBufferWidth);
 		int index4 = index * 4;
 		
@@ -186,10 +276,10 @@ public class Renderer {
 		
 		this.depthBuffer[index] = z;
 		
-		this.backBuffer[index4] = color.getAlpha();
-		this.backBuffer[index4 + 1] = color.getBlue();
-		this.backBuffer[index4 + 2] = color.getGreen();
-		this.backBuffer[index4 + 3] = color.getRed();
+		this.backBuffer[index4] = color >>> 24;
+		this.backBuffer[index4 + 1] = color & 0xFF;
+		this.backBuffer[index4 + 2] = (color >> 8) & 0xFF;
+		this.backBuffer[index4 + 3] = (color >> 16) & 0xFF;
 	}
 	
 	/**
@@ -234,54 +324,90 @@ public class Renderer {
     }
 	
 	/**
-	 * Draw a triangle in back buffer.
-	 * @param pointA First point of the triangle.
-	 * @param pointB Second point of the triangle.
-	 * @param pointC Third point of the triangle.
+	 * Draw a triangle in back buffer. The light is computed for the triangle then it's rasterized.
+	 * @param vertexA First vertex of the triangle.
+	 * @param vertexB Second vertex of the triangle.
+	 * @param vertexC Third vertex of the triangle.
 	 * @param color The color that be used to fill the triangle on screen.
+	 * @param texture The texture to apply or null.
 	 */
 	protected void drawTriangle(Vertex vertexA, Vertex vertexB, Vertex vertexC, Color color, Texture2D texture) {
-		//this.sortPoints(pointA, pointB, pointC);
+		float nl1 = 1.0f;
+        float nl2 = 1.0f;
+        float nl3 = 1.0f;
+		
+		if (this.lightingEnabled && light.enableFlatShading) {
+			Vector3 wA = vertexA.worldCoordinate;
+			Vector3 wB = vertexB.worldCoordinate;
+			Vector3 wC = vertexC.worldCoordinate;
+			int tile = this.lightGrid.getTile(
+					(vertexA.position.x + vertexB.position.x + vertexC.position.x) / 3.0f, 
+					(vertexA.position.y + vertexB.position.y + vertexC.position.y) / 3.0f);
+			nl1 = this.lightGrid.computeLighting(
+					(wA.x + wB.x + wC.x) / 3.0f, (wA.y + wB.y + wC.y) / 3.0f, (wA.z + wB.z + wC.z) / 3.0f,
+					vertexA.normal.x + vertexB.normal.x + vertexC.normal.x, 
+					vertexA.normal.y + vertexB.normal.y + vertexC.normal.y, 
+					vertexA.normal.z + vertexB.normal.z + vertexC.normal.z, 
+					tile);
+			nl2 = nl1;
+			nl3 = nl1;
+        }
+        else if (this.lightingEnabled) {
+        	nl1 = computeVertexLighting(vertexA);
+    		nl2 = computeVertexLighting(vertexB);
+    		nl3 = computeVertexLighting(vertexC);
+        }
+		
+		this.drawTriangle(vertexA, nl1, vertexB, nl2, vertexC, nl3, color, texture);
+	}
+	
+	/**
+	 * Draw a triangle in back buffer with known light factors.
+	 * @param vertexA First vertex of the triangle.
+	 * @param lightA Light factor of the first vertex.
+	 * @param vertexB Second vertex of the triangle.
+	 * @param lightB Light factor of the second vertex.
+	 * @param vertexC Third vertex of the triangle.
+	 * @param lightC Light factor of the third vertex.
+	 * @param color The color that be used to fill the triangle on screen.
+	 * @param texture The texture to apply or null.
+	 */
+	protected void drawTriangle(Vertex vertexA, float lightA, Vertex vertexB, float lightB, Vertex vertexC, float lightC, Color color, Texture2D texture) {
 		if (vertexA.position.y > vertexB.position.y) {
 		    Vertex temp = vertexB;
 		    vertexB = vertexA;
 		    vertexA = temp;
+		    float tempLight = lightB;
+		    lightB = lightA;
+		    lightA = tempLight;
 		}
 
 		if (vertexB.position.y > vertexC.position.y) {
 			Vertex temp = vertexB;
 			vertexB = vertexC;
 			vertexC = temp;
+			float tempLight = lightB;
+		    lightB = lightC;
+		    lightC = tempLight;
 		}
 
 		if (vertexA.position.y > vertexB.position.y) {
 		    Vertex temp = vertexB;
 		    vertexB = vertexA;
 		    vertexA = temp;
+		    float tempLight = lightB;
+		    lightB = lightA;
+		    lightA = tempLight;
 		}
 		
 		Vector3 pointA = vertexA.position;
 		Vector3 pointB = vertexB.position;
 		Vector3 pointC = vertexC.position;
 		
-		// Compute light
-		ScanLineData data = new ScanLineData();
-		
-		
-		float nl1 = 1.0f;
-        float nl2 = 1.0f;
-        float nl3 = 1.0f;
-		
-		if (light.enableFlatShading) {
-			Vector3 vnFace = Vector3.divide(Vector3.add(Vector3.add(vertexA.normal, vertexB.normal), vertexC.normal), new Vector3(3));
-			Vector3 centerPoint = Vector3.divide(Vector3.add(Vector3.add(vertexA.worldCoordinate, vertexB.worldCoordinate), vertexC.worldCoordinate), new Vector3(3));
-			nl1 = computeNDotLight(centerPoint, vnFace, light.getPosition());
-        }
-        else {
-        	nl1 = computeNDotLight(vertexA.worldCoordinate, vertexA.normal, light.getPosition());
-    		nl2 = computeNDotLight(vertexB.worldCoordinate, vertexB.normal, light.getPosition());
-    		nl3 = computeNDotLight(vertexC.worldCoordinate, vertexC.normal, light.getPosition());
-        }
+		ScanLineData data = this.scanLineData;
+		float nl1 = lightA;
+		float nl2 = lightB;
+		float nl3 = lightC;
 		
 		// Invert slopes
 		float dP1P2 = 0.0f;
@@ -400,76 +526,387 @@ public class Renderer {
 		float startNormal = interpolate(data.nDotLa, data.nDotLb, gradiant1);
         float endNormal = interpolate(data.nDotLc, data.nDotLd, gradiant2);
 		
+        if (this.depthOnly) {
+        	this.writeDepthScanLine(data.y, startX, endX, z1, z2);
+        	return;
+        }
+        
         float startU = interpolate(data.UA, data.UB, gradiant1);
         float endU = interpolate(data.UC, data.UD, gradiant2);
         float startV = interpolate(data.VA, data.VB, gradiant1);
         float endV = interpolate(data.VC, data.VD, gradiant2);
         
+        if (this.spanBufferEnabled) {
+        	if (!this.lightingEnabled) {
+        		startNormal = 1.0f;
+        		endNormal = 1.0f;
+        	}
+        	else if (light.isEnableFlatShading()) {
+        		startNormal = data.nDotLa;
+        		endNormal = data.nDotLa;
+        	}
+        	this.spanBuffer.insert(data.y, startX, endX, z1, z2, startNormal, endNormal, startU, endU, startV, endV, color.getRGB(), this.currentMaterialId);
+        	return;
+        }
+        
+        if (this.deferred) {
+        	this.writeScanLine(data, vertexA, vertexB, vertexC, vertexD, gradiant1, gradiant2, startX, endX, z1, z2, startNormal, endNormal, startU, endU, startV, endV, color);
+        	return;
+        }
+        
+        if (data.y < 0 || data.y >= this.backBufferHeight) {
+        	return;
+        }
+        
         // Temp var
 		float z = Float.MIN_VALUE;
 		float gradiant = 0.0f;
 		float lightFactor = 1.0f;
-		Color vertexColor = color;
+		int packedColor = color.getRGB();
+		int vertexColor = packedColor;
+		int rowIndex = data.y * this.backBufferWidth;
 	
-		for (int x = startX; x < endX; x++) {
+		for (int x = Math.max(0, startX), l = Math.min(endX, this.backBufferWidth); x < l; x++) {
 			gradiant = ((float)(x - startX) / (float)(endX - startX)); 
 			z = interpolate(z1, z2, gradiant);
 			
-			if (this.light.enabled) {
+			// Early depth test, hidden pixels are not shaded. After a depth prepass only
+			// the fragments that produced the stored depth are kept.
+			float depth = this.depthBuffer[rowIndex + x];
+			if (this.depthEqual ? depth != z : depth < z) {
+				continue;
+			}
+			
+			if (this.lightingEnabled) {
 				lightFactor = light.isEnableFlatShading() ? data.nDotLa : interpolate(startNormal, endNormal, gradiant);
-				vertexColor = colorAddValue(color, lightFactor, false);
+				vertexColor = colorAddValue(packedColor, lightFactor);
 			}
 			
 			float u = interpolate(startU, endU, gradiant);
 			float v = interpolate(startV, endV, gradiant);
 			 
 			if (texture != null) {
-				vertexColor = colorAddColor(vertexColor, texture.getColorUV(u, v), false);
+				vertexColor = colorAddColor(vertexColor, texture.getPackedColorUV(u, v));
 			}
 			
-			this.drawPoint(x, data.y, z, vertexColor);
+			this.shadedPixelCount++;
+			this.drawPixel(x, data.y, z, vertexColor);
 		}
 	}
 	
-	private Color colorAddValue(Color color, float value, boolean multiplyAlpha) {
-		float r = (float)color.getRed() / 255.0f;
-		float g = (float)color.getGreen() / 255.0f;
-		float b = (float)color.getBlue() / 255.0f;
-		float a = (float)color.getAlpha() / 255.0f;
-
-		float nr = (r * value) % 255;
-		float ng = (g * value) % 255;
-		float nb = (b * value) % 255;
-		float na = (a * value) % 255;
-
-		if (!multiplyAlpha) {
-			na = (float)color.getAlpha() / 255.0f;
+	/**
+	 * Depth only version of the scan line used by the depth prepass.
+	 */
+	private void writeDepthScanLine(int y, int startX, int endX, float z1, float z2) {
+		if (y < 0 || y >= this.backBufferHeight) {
+			return;
+		}
+		
+		int rowIndex = y * this.backBufferWidth;
+		
+		for (int x = Math.max(0, startX), l = Math.min(endX, this.backBufferWidth); x < l; x++) {
+			float z = interpolate(z1, z2, ((float)(x - startX) / (float)(endX - startX)));
+			
+			if (this.depthBuffer[rowIndex + x] > z) {
+				this.depthBuffer[rowIndex + x] = z;
+			}
 		}
-
-		return new Color(nr, ng, nb, na);
 	}
 	
-	private Color colorAddColor(Color color1, Color color2, boolean multiplyAlpha) {
-		float r1 = (float)color1.getRed() / 255.0f;
-		float g1 = (float)color1.getGreen() / 255.0f;
-		float b1 = (float)color1.getBlue() / 255.0f;
-		float a1 = (float)color1.getAlpha() / 255.0f;
+	/**
+	 * Deferred version of the scan line: surface attributes are written to the G-buffer
+	 * and the shading is done later by shadeGBuffer, only for the pixels that stay visible.
+	 */
+	private void writeScanLine(ScanLineData data, Vertex vertexA, Vertex vertexB, Vertex vertexC, Vertex vertexD, float gradiant1, float gradiant2, 
+			int startX, int endX, float z1, float z2, float startNormal, float endNormal, float startU, float endU, float startV, float endV, Color color) {
+		if (data.y < 0 || data.y >= this.backBufferHeight) {
+			return;
+		}
 		
-		float r2 = (float)color2.getRed() / 255.0f;
-		float g2 = (float)color2.getGreen() / 255.0f;
-		float b2 = (float)color2.getBlue() / 255.0f;
-		float a2 = (float)color2.getAlpha() / 255.0f;
-
-		float nr = (r1 * r2) % 255;
-		float ng = (g1 * g2) % 255;
-		float nb = (b1 * b2) % 255;
-		float na = (a1 * a2) % 255;
+		float startNX = interpolate(vertexA.normal.x, vertexB.normal.x, gradiant1);
+		float startNY = interpolate(vertexA.normal.y, vertexB.normal.y, gradiant1);
+		float startNZ = interpolate(vertexA.normal.z, vertexB.normal.z, gradiant1);
+		float endNX = interpolate(vertexC.normal.x, vertexD.normal.x, gradiant2);
+		float endNY = interpolate(vertexC.normal.y, vertexD.normal.y, gradiant2);
+		float endNZ = interpolate(vertexC.normal.z, vertexD.normal.z, gradiant2);
+		
+		boolean lightEnabled = this.lightingEnabled;
+		boolean flatShading = this.light.isEnableFlatShading();
+		int packedColor = color.getRGB();
+		int rowIndex = data.y * this.backBufferWidth;
+		float[] depth = this.gBuffer.depth;
+		float gradiant = 0.0f;
+		float z = 0.0f;
 		
-		if (!multiplyAlpha) {
-			na = (float)color1.getAlpha() / 255.0f;
+		for (int x = Math.max(0, startX), l = Math.min(endX, this.backBufferWidth); x < l; x++) {
+			gradiant = ((float)(x - startX) / (float)(endX - startX));
+			z = interpolate(z1, z2, gradiant);
+			int index = rowIndex + x;
+			
+			if (depth[index] < z) {
+				continue;
+			}
+			
+			depth[index] = z;
+			this.gBuffer.color[index] = packedColor;
+			this.gBuffer.materialId[index] = this.currentMaterialId;
+			this.gBuffer.lightFactor[index] = !lightEnabled ? 1.0f : (flatShading ? data.nDotLa : interpolate(startNormal, endNormal, gradiant));
+			this.gBuffer.bakedLighting[index] = this.currentBakedLighting;
+			this.gBuffer.u[index] = interpolate(startU, endU, gradiant);
+			this.gBuffer.v[index] = interpolate(startV, endV, gradiant);
+			this.gBuffer.normal[index] = GBuffer.packNormal(
+					interpolate(startNX, endNX, gradiant), 
+					interpolate(startNY, endNY, gradiant), 
+					interpolate(startNZ, endNZ, gradiant));
 		}
-
-		return new Color(nr, ng, nb, na);
+	}
+	
+	/**
+	 * Shade the visible pixels of the G-buffer into the back buffer. Rows are shaded in parallel.
+	 */
+	protected void shadeGBuffer() {
+		final Texture2D[] textures = this.getFrameTextures();
+		
+		Parallel.forRange(0, this.backBufferHeight, 16, new IParallelTask() {
+			@Override
+			public void run(int start, int end) {
+				addShadedPixels(shadeRows(start, end, textures));
+			}
+		});
+	}
+	
+	/**
+	 * Shade a band of rows from the G-buffer.
+	 * @param startY First row (inclusive).
+	 * @param endY Last row (exclusive).
+	 * @param textures Textures indexed by material id.
+	 * @return Return the number of shaded pixels.
+	 */
+	protected int shadeRows(int startY, int endY, Texture2D[] textures) {
+		int shaded = 0;
+		int[] materialId = this.gBuffer.materialId;
+		int[] colors = this.gBuffer.color;
+		int[] normals = this.gBuffer.normal;
+		float[] depth = this.gBuffer.depth;
+		float[] lightFactor = this.gBuffer.lightFactor;
+		boolean[] bakedLighting = this.gBuffer.bakedLighting;
+		boolean perPixelLighting = this.lightingEnabled && !this.light.isEnableFlatShading();
+		Matrix m = this.inverseViewProjectionMatrix;
+		float halfWidth = this.backBufferWidth / 2.0f;
+		float halfHeight = this.backBufferHeight / 2.0f;
+		
+		for (int y = startY; y < endY; y++) {
+			float ndcY = (halfHeight - y) / this.backBufferHeight;
+			
+			for (int x = 0, i = y * this.backBufferWidth; x < this.backBufferWidth; x++, i++) {
+				int id = materialId[i];
+				
+				if (id == GBuffer.NoMaterial) {
+					continue;
+				}
+				
+				int color = colors[i];
+				float factor = lightFactor[i];
+				
+				// The baked light factor of the static meshes is kept.
+				if (perPixelLighting && !bakedLighting[i]) {
+					// Rebuild the world position of the pixel from its depth.
+					float ndcX = (x - halfWidth) / this.backBufferWidth;
+					float ndcZ = depth[i];
+					float w = 1.0f / ((ndcX * m.M14) + (ndcY * m.M24) + (ndcZ * m.M34) + m.M44);
+					float px = ((ndcX * m.M11) + (ndcY * m.M21) + (ndcZ * m.M31) + m.M41) * w;
+					float py = ((ndcX * m.M12) + (ndcY * m.M22) + (ndcZ * m.M32) + m.M42) * w;
+					float pz = ((ndcX * m.M13) + (ndcY * m.M23) + (ndcZ * m.M33) + m.M43) * w;
+					int normal = normals[i];
+					factor = this.lightGrid.computeLighting(px, py, pz, 
+							GBuffer.unpackNormalX(normal), GBuffer.unpackNormalY(normal), GBuffer.unpackNormalZ(normal), 
+							this.lightGrid.getTile(x, y));
+				}
+				
+				this.shadePixel(i, color, factor, textures[id], this.gBuffer.u[i], this.gBuffer.v[i]);
+				shaded++;
+			}
+		}
+		
+		return shaded;
+	}
+	
+	/**
+	 * Resolve the span buffer into the back buffer. Each pixel covered by a span is shaded once,
+	 * rows are resolved in parallel. The span buffer is emptied for the next render.
+	 */
+	protected void resolveSpanBuffer() {
+		final Texture2D[] textures = this.getFrameTextures();
+		
+		Parallel.forRange(0, this.backBufferHeight, 16, new IParallelTask() {
+			@Override
+			public void run(int start, int end) {
+				addShadedPixels(resolveSpanRows(start, end, textures));
+			}
+		});
+		
+		this.spanBuffer.clear();
+	}
+	
+	/**
+	 * Resolve a band of rows from the span buffer. The depth buffer is still tested
+	 * so the spans are composed with what has been drawn before this render.
+	 * @param startY First row (inclusive).
+	 * @param endY Last row (exclusive).
+	 * @param textures Textures indexed by material id.
+	 * @return Return the number of shaded pixels.
+	 */
+	protected int resolveSpanRows(int startY, int endY, Texture2D[] textures) {
+		int shaded = 0;
+		SpanBuffer spans = this.spanBuffer;
+		float[] lights = spans.getSegmentLight();
+		float[] uvs = spans.getSegmentUV();
+		int[] colors = spans.getSegmentColor();
+		int[] materials = spans.getSegmentMaterial();
+		
+		for (int y = startY; y < endY; y++) {
+			int rowIndex = y * this.backBufferWidth;
+			
+			for (int s = 0, l = spans.getSpanCount(y); s < l; s++) {
+				int segment = spans.getSpanSegment(y, s);
+				int color = colors[segment];
+				Texture2D texture = textures[materials[segment]];
+				float light1 = lights[segment * 2];
+				float light2 = lights[segment * 2 + 1];
+				int uv = segment * 4;
+				
+				for (int x = spans.getSpanStart(y, s), e = spans.getSpanEnd(y, s); x < e; x++) {
+					int index = rowIndex + x;
+					float gradiant = spans.getGradiant(segment, x);
+					float z = spans.getDepth(segment, x);
+					
+					if (this.depthBuffer[index] < z) {
+						continue;
+					}
+					
+					this.depthBuffer[index] = z;
+					this.shadePixel(index, color, light1 + (light2 - light1) * gradiant, texture,
+							uvs[uv] + (uvs[uv + 1] - uvs[uv]) * gradiant,
+							uvs[uv + 2] + (uvs[uv + 3] - uvs[uv + 2]) * gradiant);
+					shaded++;
+				}
+			}
+		}
+		
+		return shaded;
+	}
+	
+	private synchronized void addShadedPixels(int count) {
+		this.shadedPixelCount += count;
+	}
+	
+	/**
+	 * Count the pixels of the back buffer covered by a triangle.
+	 */
+	private void countWrittenPixels() {
+		int count = 0;
+		for (int i = 0, l = this.depthBuffer.length; i < l; i++) {
+			if (this.depthBuffer[i] != Float.MAX_VALUE) {
+				count++;
+			}
+		}
+		this.writtenPixelCount = count;
+	}
+	
+	/**
+	 * Write a lit and textured pixel to the back buffer.
+	 * @param index Index of the pixel.
+	 * @param color Packed ARGB color of the face.
+	 * @param factor Light factor.
+	 * @param texture The texture to apply or null.
+	 * @param u U texture coordinate.
+	 * @param v V texture coordinate.
+	 */
+	private void shadePixel(int index, int color, float factor, Texture2D texture, float u, float v) {
+		float red = ((color >> 16) & 0xFF) * factor;
+		float green = ((color >> 8) & 0xFF) * factor;
+		float blue = (color & 0xFF) * factor;
+		
+		if (texture != null) {
+			int texel = texture.getPackedColorUV(u, v);
+			red *= ((texel >> 16) & 0xFF) / 255.0f;
+			green *= ((texel >> 8) & 0xFF) / 255.0f;
+			blue *= (texel & 0xFF) / 255.0f;
+		}
+		
+		int index4 = index * 4;
+		this.backBuffer[index4] = (color >>> 24);
+		this.backBuffer[index4 + 1] = Math.min(255, (int)(blue + 0.5f));
+		this.backBuffer[index4 + 2] = Math.min(255, (int)(green + 0.5f));
+		this.backBuffer[index4 + 3] = Math.min(255, (int)(red + 0.5f));
+	}
+	
+	/**
+	 * Gets the textures of the materials used in the current frame.
+	 * @return Return an array of textures indexed by material id.
+	 */
+	private Texture2D[] getFrameTextures() {
+		Texture2D[] textures = new Texture2D[this.frameMaterials.size()];
+		for (int i = 0; i < textures.length; i++) {
+			textures[i] = this.frameMaterials.get(i).getTexture();
+		}
+		return textures;
+	}
+	
+	/**
+	 * Gets the id of a material for the current frame, the material is registered if needed.
+	 * @param material A material.
+	 * @return Return the id of the material in the G-buffer.
+	 */
+	private int getMaterialId(Material material) {
+		int id = this.frameMaterials.indexOf(material);
+		
+		if (id == -1) {
+			id = this.frameMaterials.size();
+			this.frameMaterials.add(material);
+		}
+		
+		return id;
+	}
+	
+	/**
+	 * Multiply the RGB components of a packed ARGB color by a light factor, the alpha is kept.
+	 * It gives the same values as the components of a java.awt.Color without creating one.
+	 */
+	private static int colorAddValue(int color, float value) {
+		float r = (float)((color >> 16) & 0xFF) / 255.0f;
+		float g = (float)((color >> 8) & 0xFF) / 255.0f;
+		float b = (float)(color & 0xFF) / 255.0f;
+		
+		return (color & 0xFF000000) 
+				| (toColorComponent((r * value) % 255) << 16) 
+				| (toColorComponent((g * value) % 255) << 8) 
+				| toColorComponent((b * value) % 255);
+	}
+	
+	/**
+	 * Multiply the RGB components of two packed ARGB colors, the alpha of the first color is kept.
+	 */
+	private static int colorAddColor(int color1, int color2) {
+		float r1 = (float)((color1 >> 16) & 0xFF) / 255.0f;
+		float g1 = (float)((color1 >> 8) & 0xFF) / 255.0f;
+		float b1 = (float)(color1 & 0xFF) / 255.0f;
+		
+		float r2 = (float)((color2 >> 16) & 0xFF) / 255.0f;
+		float g2 = (float)((color2 >> 8) & 0xFF) / 255.0f;
+		float b2 = (float)(color2 & 0xFF) / 255.0f;
+		
+		return (color1 & 0xFF000000) 
+				| (toColorComponent((r1 * r2) % 255) << 16) 
+				| (toColorComponent((g1 * g2) % 255) << 8) 
+				| toColorComponent((b1 * b2) % 255);
+	}
+	
+	/**
+	 * Convert a component in [0, 1] to [0, 255] with the rounding of java.awt.Color.
+	 */
+	private static int toColorComponent(float value) {
+		return (int)(value * 255 + 0.5);
 	}
 	
 	/**
@@ -479,16 +916,134 @@ public class Renderer {
 	 * @return Return 2D coordinates.
 	 */
 	protected Vertex project(Vertex vertex, Matrix transformMatrix, Matrix worldMatrix) {
-		Vector3 point2d = Vector3.transformCoordinate(vertex.position, transformMatrix);
-		Vector3 point3d = Vector3.transformCoordinate(vertex.position, worldMatrix);
-		Vector3 normal3d = Vector3.transformCoordinate(vertex.normal, worldMatrix);
-		
+		Vertex result = new Vertex();
+		this.project(vertex, transformMatrix, worldMatrix, result);
+		return result;
+	}
+	
+	/**
+	 * Gets 2D coordinates from 3D coordinates without allocation.
+	 * @param vertex The vertex to project.
+	 * @param transformMatrix The world view projection matrix.
+	 * @param worldMatrix The world matrix.
+	 * @param result The vertex that receives the screen position, the world position and normal. 
+	 * Its vectors are written, the texture coordinate is shared with the source vertex.
+	 */
+	protected void project(Vertex vertex, Matrix transformMatrix, Matrix worldMatrix, Vertex result) {
+		this.projectPosition(vertex.position, transformMatrix, result.position);
+		Vector3.transformCoordinate(vertex.position, worldMatrix, result.worldCoordinate);
+		Vector3.transformNormal(vertex.normal, worldMatrix, result.normal);
+		result.textureCoordinate = vertex.textureCoordinate;
+	}
+	
+	/**
+	 * Gets the screen coordinates of a position, the depth is stored on Z.
+	 * @param position A position in model space.
+	 * @param transformMatrix The world view projection matrix.
+	 * @return Return the screen coordinates.
+	 */
+	protected Vector3 projectPosition(Vector3 position, Matrix transformMatrix) {
 		Vector3 projection = new Vector3();
-		projection.x = point2d.x * this.backBufferWidth + (this.backBufferWidth / 2.0f);
-		projection.y = -point2d.y * this.backBufferHeight + (this.backBufferHeight / 2.0f);
-		projection.z = point2d.z;
+		this.projectPosition(position, transformMatrix, projection);
+		return projection;
+	}
+	
+	/**
+	 * Gets the screen coordinates of a position without allocation, the depth is stored on Z.
+	 * @param position A position in model space.
+	 * @param transformMatrix The world view projection matrix.
+	 * @param result The vector that receives the screen coordinates, it can be the position.
+	 */
+	protected void projectPosition(Vector3 position, Matrix transformMatrix, Vector3 result) {
+		Vector3.transformCoordinate(position, transformMatrix, result);
+		result.x = result.x * this.backBufferWidth + (this.backBufferWidth / 2.0f);
+		result.y = -result.y * this.backBufferHeight + (this.backBufferHeight / 2.0f);
+	}
+	
+	/**
+	 * Fill the depth buffer with the opaque meshes, without lighting nor texturing.
+	 * @param meshes A collection of meshes.
+	 * @param count The number of meshes to use.
+	 */
+	protected void renderDepth(Mesh[] meshes, int count) {
+		this.depthOnly = true;
+		
+		for (int i = 0; i < count; i++) {
+			if (!this.isOpaque(meshes[i])) {
+				continue;
+			}
+			
+			meshes[i].getWorldMatrix(this.worldMeshMatrix);
+			Matrix transformMatrix = this.worldViewProjectionMatrix;
+			Matrix.multiply(this.worldMeshMatrix, this.viewMatrix, this.projectionMatrix, transformMatrix);
+			Vertex[] vertices = meshes[i].getVertices();
+			Vertex pVertA = this.projectedVertexA;
+			Vertex pVertB = this.projectedVertexB;
+			Vertex pVertC = this.projectedVertexC;
+			
+			for (int j = 0, m = meshes[i].faces.length; j < m; j++) {
+				Face3 face = meshes[i].faces[j];
+				Vertex vertA = vertices[face.a];
+				Vertex vertB = vertices[face.b];
+				Vertex vertC = vertices[face.c];
+				
+				this.projectPosition(vertA.position, transformMatrix, pVertA.position);
+				this.projectPosition(vertB.position, transformMatrix, pVertB.position);
+				this.projectPosition(vertC.position, transformMatrix, pVertC.position);
+				this.drawTriangle(pVertA, 1.0f, pVertB, 1.0f, pVertC, 1.0f, face.color, null);
+			}
+		}
 		
-		return new Vertex(projection, normal3d, point3d, vertex.textureCoordinate);
+		this.depthOnly = false;
+	}
+	
+	/**
+	 * Sort the opaque meshes from front to back by their depth in view space so the early depth test
+	 * rejects most of the hidden pixels. The other meshes are drawn after, in their original order.
+	 * @param meshes A collection of meshes.
+	 * @param count The number of meshes to sort.
+	 * @param viewProjection The view projection matrix of the frame.
+	 * @return Return the sorted meshes, the array is reused between frames.
+	 */
+	protected Mesh[] sortFrontToBack(Mesh[] meshes, int count, Matrix viewProjection) {
+		if (this.sortedMeshes.length < count) {
+			this.sortedMeshes = new Mesh[count];
+			this.sortKeys = new long[count];
+		}
+		
+		Matrix m = viewProjection;
+		int opaqueCount = 0;
+		
+		for (int i = 0; i < count; i++) {
+			if (this.isOpaque(meshes[i])) {
+				Vector3 p = meshes[i].getPosition();
+				// W of the projected position is the distance to the camera along the view axis.
+				float depth = (p.x * m.M14) + (p.y * m.M24) + (p.z * m.M34) + m.M44;
+				// The bits of a float ordered like the float on the high part, the index on the low part
+				// so the sort of the keys is stable.
+				int bits = Float.floatToIntBits(depth);
+				bits ^= (bits >> 31) & 0x7FFFFFFF;
+				this.sortKeys[opaqueCount++] = ((long)bits << 32) | i;
+			}
+		}
+		
+		Arrays.sort(this.sortKeys, 0, opaqueCount);
+		
+		for (int i = 0; i < opaqueCount; i++) {
+			this.sortedMeshes[i] = meshes[(int)this.sortKeys[i]];
+		}
+		
+		for (int i = 0; i < count; i++) {
+			if (!this.isOpaque(meshes[i])) {
+				this.sortedMeshes[opaqueCount++] = meshes[i];
+			}
+		}
+		
+		return this.sortedMeshes;
+	}
+	
+	private boolean isOpaque(Mesh mesh) {
+		return !mesh.isWireframe() && mesh.getMaterial().getAlpha() >= 1.0f;
 	}
 	
 	/**
@@ -497,34 +1052,87 @@ public class Renderer {
 	 * @param meshes A collection of 3D objects. (will be a scene later)
 	 */
 	protected void internalRender(Camera camera, Mesh[] meshes) {
-		this.viewMatrix = camera.getViewMatrix();
-		
-		for (int i = 0, l = meshes.length; i < l; i++) {
-			this.worldMeshMatrix = Matrix.multiply(
-					Matrix.createScale(meshes[i].scale), 
-					Matrix.createRotationYawPitchRoll(meshes[i].rotation.y, meshes[i].rotation.x, meshes[i].rotation.z),
-					Matrix.createTranslation(meshes[i].position));
-			this.worldViewProjectionMatrix = Matrix.multiply(this.worldMeshMatrix, this.viewMatrix, this.projectionMatrix);
+		this.internalRender(camera, meshes, meshes.length);
+	}
+	
+	/**
+	 * Render the first meshes of an array to back buffer.
+	 * @param camera The current camera.
+	 * @param meshes A collection of 3D objects.
+	 * @param count The number of meshes to render.
+	 */
+	protected void internalRender(Camera camera, Mesh[] meshes, int count) {
+		camera.getViewMatrix(this.viewMatrix);
+		
+		Matrix viewProjectionMatrix = this.viewProjectionMatrix;
+		Matrix.multiplyTo(this.viewMatrix, this.projectionMatrix, viewProjectionMatrix);
+		this.lightGrid.update(this.lights, viewProjectionMatrix);
+		this.lightingEnabled = this.lightGrid.getLightCount() > 0;
+		
+		if (this.deferred) {
+			Matrix.invert(viewProjectionMatrix, this.inverseViewProjectionMatrix);
+		}
+		
+		if (this.sortFrontToBack) {
+			meshes = this.sortFrontToBack(meshes, count, viewProjectionMatrix);
+		}
+		
+		// The deferred and span buffer modes already shade each pixel once.
+		boolean prepass = this.depthPrepass && !this.deferred && !this.spanBufferEnabled;
+		
+		if (prepass) {
+			this.renderDepth(meshes, count);
+		}
+		
+		for (int i = 0; i < count; i++) {
+			// Only the meshes written by the prepass can test for an equal depth, the others use the normal test.
+			this.depthEqual = prepass && this.isOpaque(meshes[i]);
+			meshes[i].getWorldMatrix(this.worldMeshMatrix);
+			Matrix.multiply(this.worldMeshMatrix, this.viewMatrix, this.projectionMatrix, this.worldViewProjectionMatrix);
+			
+			if (this.deferred || this.spanBufferEnabled) {
+				this.currentMaterialId = this.getMaterialId(meshes[i].getMaterial());
+			}
+			
+			// Static meshes with baked lighting skip the dynamic lighting.
+			boolean bakedLighting = this.lightingEnabled && meshes[i].hasBakedLighting();
+			boolean flatShading = this.light.isEnableFlatShading();
+			this.currentBakedLighting = bakedLighting;
 
 			for (int j = 0, m = meshes[i].faces.length; j < m; j++) {
 				 Vertex vertA = meshes[i].getVertex(meshes[i].faces[j].a);
                  Vertex vertB = meshes[i].getVertex(meshes[i].faces[j].b);
                  Vertex vertC = meshes[i].getVertex(meshes[i].faces[j].c);
 
-                 Vertex pVertA = project(vertA, this.worldViewProjectionMatrix, this.worldMeshMatrix);
-                 Vertex pVertB = project(vertB, this.worldViewProjectionMatrix, this.worldMeshMatrix);
-                 Vertex pVertC = project(vertC, this.worldViewProjectionMatrix, this.worldMeshMatrix);
+                 Vertex pVertA = this.projectedVertexA;
+                 Vertex pVertB = this.projectedVertexB;
+                 Vertex pVertC = this.projectedVertexC;
+                 project(vertA, this.worldViewProjectionMatrix, this.worldMeshMatrix, pVertA);
+                 project(vertB, this.worldViewProjectionMatrix, this.worldMeshMatrix, pVertB);
+                 project(vertC, this.worldViewProjectionMatrix, this.worldMeshMatrix, pVertC);
                  
                  if (meshes[i].isWireframe()) {
 		             drawLine(pVertA.position, pVertB.position, meshes[i].faces[j].color);
 		             drawLine(pVertB.position, pVertC.position, meshes[i].faces[j].color);
 		             drawLine(pVertC.position, pVertA.position, meshes[i].faces[j].color);
                  }
+                 else if (bakedLighting) {
+                	 Face3 face = meshes[i].faces[j];
+                	 float[] lighting = flatShading ? meshes[i].bakedFaceLighting : meshes[i].bakedVertexLighting;
+                	 this.drawTriangle(
+                			 pVertA, flatShading ? lighting[j] : lighting[face.a], 
+                			 pVertB, flatShading ? lighting[j] : lighting[face.b], 
+                			 pVertC, flatShading ? lighting[j] : lighting[face.c], 
+                			 face.color, meshes[i].getMaterial().getTexture());
+                 }
                  else {
                 	 this.drawTriangle(pVertA, pVertB, pVertC, meshes[i].faces[j].color, meshes[i].getMaterial().getTexture());
                  }
 			}
 		}
+		
+		this.depthEqual = false;
+		this.currentBakedLighting = false;
 	}
 	
 	/**
@@ -534,14 +1142,104 @@ public class Renderer {
 	 * @param meshes A collection of meshes. // TODO will be a scene object later.
 	 */
 	public void render(Graphics graphics, Camera camera, Mesh[] meshes) {
+		this.render(graphics, camera, meshes, meshes.length);
+	}
+	
+	/**
+	 * Render the meshes of the cells that can be seen from the camera.
+	 * @param graphics The graphics context.
+	 * @param camera The active camera to use.
+	 * @param visibility The visibility grid of the level, it's updated with the camera.
+	 */
+	public void render(Graphics graphics, Camera camera, GridVisibility visibility) {
+		visibility.update(camera, this.fieldOfView, this.aspectRatio);
+		this.render(graphics, camera, visibility.getVisibleMeshes(), visibility.getVisibleMeshCount());
+	}
+	
+	/**
+	 * Render the chunks of a terrain that are in the view frustum.
+	 * @param graphics The graphics context.
+	 * @param camera The active camera to use.
+	 * @param terrain The terrain, its chunks and levels are updated with the camera.
+	 */
+	public void render(Graphics graphics, Camera camera, Terrain terrain) {
+		terrain.update(camera, this.projectionMatrix);
+		this.render(graphics, camera, terrain.getVisibleChunks(), terrain.getVisibleChunkCount());
+	}
+	
+	private void render(Graphics graphics, Camera camera, Mesh[] meshes, int count) {
 		if (this.autoClear) {
 			this.clear(this.autoClearColor);
 		}
-		this.internalRender(camera, meshes);
+		this.internalRender(camera, meshes, count);
+		if (this.spanBufferEnabled) {
+			this.resolveSpanBuffer();
+		}
+		else if (this.deferred) {
+			this.shadeGBuffer();
+		}
+		if (this.statisticsEnabled) {
+			this.countWrittenPixels();
+		}
 		this.present();
 		graphics.drawImage(this.frontBuffer, 0, 0, this.width, this.height, null);
 	}
 	
+	/**
+	 * Create the ray that goes through a point of the screen, from the near plane to the far plane.
+	 * The point is unprojected at the near and far depths with the inverse of the view projection matrix.
+	 * @param camera The camera used to render the scene.
+	 * @param x The X coordinate on the screen.
+	 * @param y The Y coordinate on the screen.
+	 * @param result The ray that receives the world position on the near plane and the normalized direction.
+	 */
+	public void createPickingRay(Camera camera, int x, int y, Ray result) {
+		Matrix m = this.pickingMatrix;
+		camera.getViewMatrix(m);
+		Matrix.multiplyTo(m, this.projectionMatrix, m);
+		Matrix.invert(m, m);
+		
+		// The screen is scaled from the back buffer.
+		float backBufferX = (x + 0.5f) * this.backBufferWidth / this.width;
+		float backBufferY = (y + 0.5f) * this.backBufferHeight / this.height;
+		float ndcX = (backBufferX - this.backBufferWidth / 2.0f) / this.backBufferWidth;
+		float ndcY = (this.backBufferHeight / 2.0f - backBufferY) / this.backBufferHeight;
+		
+		Vector3 near = result.getPosition();
+		Vector3 direction = result.getDirection();
+		near.set(ndcX, ndcY, 0.0f);
+		direction.set(ndcX, ndcY, 1.0f);
+		Vector3.transformCoordinate(near, m, near);
+		Vector3.transformCoordinate(direction, m, direction);
+		direction.subtract(near);
+		direction.normalize();
+	}
+	
+	/**
+	 * Gets the mesh and the face under a point of the screen.
+	 * @param camera The camera used to render the scene.
+	 * @param meshes A collection of meshes.
+	 * @param x The X coordinate on the screen.
+	 * @param y The Y coordinate on the screen.
+	 * @param hit The closest hit, the index is the index of the face in the mesh and the distance is in world units.
+	 * @return Return the index of the mesh that is hit, or -1.
+	 */
+	public int pick(Camera camera, Mesh[] meshes, int x, int y, RayHit hit) {
+		Ray ray = this.pickingRay;
+		this.createPickingRay(camera, x, y, ray);
+		
+		int index = -1;
+		hit.reset();
+		
+		for (int i = 0; i < meshes.length; i++) {
+			if (meshes[i].intersects(ray, hit)) {
+				index = i;
+			}
+		}
+		
+		return index;
+	}
+	
 	// ---
 	// --- Getters and setters
 	// ---
@@ -582,7 +1280,162 @@ public class Renderer {
 		return this.autoClearColor;
 	}
 	
+	/**
+	 * Gets the main light, it's the first light of the light list.
+	 * @return Return the main light.
+	 */
 	public Light getLight() {
 		return this.light;
 	}
+	
+	/**
+	 * Add a light to the scene. Lights are culled per screen tile using their range.
+	 * @param light A light to add.
+	 */
+	public void addLight(Light light) {
+		this.lights.add(light);
+	}
+	
+	/**
+	 * Remove a light from the scene.
+	 * @param light The light to remove.
+	 * @return Return true if the light was removed.
+	 */
+	public boolean removeLight(Light light) {
+		return this.lights.remove(light);
+	}
+	
+	/**
+	 * Gets the lights of the scene.
+	 * @return Return the list of lights.
+	 */
+	public ArrayList<Light> getLights() {
+		return this.lights;
+	}
+	
+	/**
+	 * Bake the lighting of the static meshes with the lights of the renderer. 
+	 * It should be called at load time, or when the lights or the static meshes move.
+	 * @param meshes A collection of meshes, only the static ones are baked.
+	 */
+	public void bakeStaticLighting(Mesh[] meshes) {
+		LightBaker.bake(meshes, this.lights);
+	}
+	
+	/**
+	 * Gets the grid used to cull lights per screen tile.
+	 * @return Return the light grid.
+	 */
+	public LightGrid getLightGrid() {
+		return this.lightGrid;
+	}
+	
+	/**
+	 * Enable or disable the deferred mode. When enabled, the raster pass only fills a G-buffer
+	 * (depth, normal, light factor, UV and material) and the lighting and texturing are computed once 
+	 * per visible pixel, so the overdraw doesn't multiply the shading cost anymore.
+	 * @param deferred Sets to true to enable the deferred mode.
+	 */
+	public void setDeferred(boolean deferred) {
+		if (deferred && this.gBuffer == null) {
+			this.gBuffer = new GBuffer(this.backBufferWidth, this.backBufferHeight, this.depthBuffer);
+		}
+		else if (deferred && !this.deferred) {
+			this.gBuffer.clear();
+		}
+		this.deferred = deferred;
+	}
+	
+	public boolean isDeferred() {
+		return this.deferred;
+	}
+	
+	/**
+	 * Gets the G-buffer used by the deferred mode.
+	 * @return Return the G-buffer or null if the deferred mode has never been enabled.
+	 */
+	public GBuffer getGBuffer() {
+		return this.gBuffer;
+	}
+	
+	/**
+	 * Enable or disable the span buffer mode. When enabled, the scanlines of the triangles are merged into
+	 * sorted spans without overlap and each visible pixel is filled once, there is no overdraw at all.
+	 * It takes precedence over the deferred mode and can be changed between two frames.
+	 * @param enabled Sets to true to enable the span buffer mode.
+	 */
+	public void setSpanBufferEnabled(boolean enabled) {
+		if (enabled && this.spanBuffer == null) {
+			this.spanBuffer = new SpanBuffer(this.backBufferWidth, this.backBufferHeight);
+		}
+		this.spanBufferEnabled = enabled;
+	}
+	
+	public boolean isSpanBufferEnabled() {
+		return this.spanBufferEnabled;
+	}
+	
+	/**
+	 * Gets the span buffer.
+	 * @return Return the span buffer or null if the span buffer mode has never been enabled.
+	 */
+	public SpanBuffer getSpanBuffer() {
+		return this.spanBuffer;
+	}
+	
+	/**
+	 * Enable or disable the depth prepass. The opaque meshes are first rasterized into the depth buffer
+	 * (positions only), then the color pass only shades the fragments whose depth is equal to the stored depth.
+	 * It's ignored in deferred and span buffer modes.
+	 * @param depthPrepass Sets to true to enable the depth prepass.
+	 */
+	public void setDepthPrepass(boolean depthPrepass) {
+		this.depthPrepass = depthPrepass;
+	}
+	
+	public boolean isDepthPrepass() {
+		return this.depthPrepass;
+	}
+	
+	/**
+	 * Enable or disable the sort of the opaque meshes from front to back before rendering.
+	 * @param sortFrontToBack Sets to true to sort the meshes.
+	 */
+	public void setSortFrontToBack(boolean sortFrontToBack) {
+		this.sortFrontToBack = sortFrontToBack;
+	}
+	
+	public boolean isSortFrontToBack() {
+		return this.sortFrontToBack;
+	}
+	
+	/**
+	 * Enable or disable the statistics of the renderer. The written pixels are counted with a pass over the depth buffer
+	 * after each render, so it's only done when the statistics are enabled.
+	 * @param statisticsEnabled Sets to true to count the written pixels.
+	 */
+	public void setStatisticsEnabled(boolean statisticsEnabled) {
+		this.statisticsEnabled = statisticsEnabled;
+	}
+	
+	public boolean isStatisticsEnabled() {
+		return this.statisticsEnabled;
+	}
+	
+	/**
+	 * Gets the number of pixels shaded (lighting and texturing) since the last clear.
+	 * @return Return the number of shaded pixels.
+	 */
+	public int getShadedPixelCount() {
+		return this.shadedPixelCount;
+	}
+	
+	/**
+	 * Gets the number of pixels of the back buffer written by a triangle at the last render, it's only counted
+	 * when the statistics are enabled. The ratio between shaded and written pixels is the shading overdraw.
+	 * @return Return the number of written pixels.
+	 */
+	public int getWrittenPixelCount() {
+		return this.writtenPixelCount;
+	}
 }
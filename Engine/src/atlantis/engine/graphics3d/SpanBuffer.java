@@ -0,0 +1,317 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.engine.graphics3d;
+
+/**
+ * A span buffer (S-buffer). For each scanline it keeps a sorted list of non overlapping spans.
+ * A triangle scanline is inserted as a segment, the depth is compared per span (the depth
+ * is linear along a segment so two segments cross at most once) and only the visible parts are kept.
+ * When all triangles are inserted, each pixel is covered by exactly one span and is shaded once.
+ * @author Yannick
+ */
+public class SpanBuffer {
+	protected int width;
+	protected int height;
+
+	// Spans of each row, sorted by X.
+	protected int[][] spanStart;
+	protected int[][] spanEnd;
+	protected int[][] spanSegment;
+	protected int[] spanCount;
+
+	// Merge buffers.
+	private int[] mergeStart;
+	private int[] mergeEnd;
+	private int[] mergeSegment;
+
+	// Segments (one per inserted triangle scanline).
+	protected int segmentCount;
+	protected int[] segmentStartX;
+	protected int[] segmentEndX;
+	protected float[] segmentZ;
+	protected float[] segmentLight;
+	protected float[] segmentUV;
+	protected int[] segmentColor;
+	protected int[] segmentMaterial;
+
+	/**
+	 * Create a span buffer.
+	 * @param width Width of the back buffer.
+	 * @param height Height of the back buffer.
+	 */
+	public SpanBuffer(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.spanStart = new int[height][8];
+		this.spanEnd = new int[height][8];
+		this.spanSegment = new int[height][8];
+		this.spanCount = new int[height];
+		this.mergeStart = new int[16];
+		this.mergeEnd = new int[16];
+		this.mergeSegment = new int[16];
+		this.allocateSegments(1024);
+	}
+
+	private void allocateSegments(int capacity) {
+		int[] startX = new int[capacity];
+		int[] endX = new int[capacity];
+		float[] z = new float[capacity * 2];
+		float[] light = new float[capacity * 2];
+		float[] uv = new float[capacity * 4];
+		int[] color = new int[capacity];
+		int[] material = new int[capacity];
+
+		if (this.segmentStartX != null) {
+			System.arraycopy(this.segmentStartX, 0, startX, 0, this.segmentCount);
+			System.arraycopy(this.segmentEndX, 0, endX, 0, this.segmentCount);
+			System.arraycopy(this.segmentZ, 0, z, 0, this.segmentCount * 2);
+			System.arraycopy(this.segmentLight, 0, light, 0, this.segmentCount * 2);
+			System.arraycopy(this.segmentUV, 0, uv, 0, this.segmentCount * 4);
+			System.arraycopy(this.segmentColor, 0, color, 0, this.segmentCount);
+			System.arraycopy(this.segmentMaterial, 0, material, 0, this.segmentCount);
+		}
+
+		this.segmentStartX = startX;
+		this.segmentEndX = endX;
+		this.segmentZ = z;
+		this.segmentLight = light;
+		this.segmentUV = uv;
+		this.segmentColor = color;
+		this.segmentMaterial = material;
+	}
+
+	/**
+	 * Remove all spans and segments.
+	 */
+	public void clear() {
+		for (int i = 0; i < this.height; i++) {
+			this.spanCount[i] = 0;
+		}
+		this.segmentCount = 0;
+	}
+
+	/**
+	 * Insert the scanline of a triangle. Attributes are linear between startX and endX.
+	 * @param y The row.
+	 * @param startX The first pixel of the scanline.
+	 * @param endX The pixel after the last pixel of the scanline.
+	 * @param z1 Depth at startX.
+	 * @param z2 Depth at endX.
+	 * @param light1 Light factor at startX.
+	 * @param light2 Light factor at endX.
+	 * @param u1 U coordinate at startX.
+	 * @param u2 U coordinate at endX.
+	 * @param v1 V coordinate at startX.
+	 * @param v2 V coordinate at endX.
+	 * @param color Packed ARGB color of the face.
+	 * @param material Material id of the face.
+	 */
+	public void insert(int y, int startX, int endX, float z1, float z2, float light1, float light2, float u1, float u2, float v1, float v2, int color, int material) {
+		int xs = Math.max(0, startX);
+		int xe = Math.min(this.width, endX);
+
+		if (y < 0 || y >= this.height || xs >= xe) {
+			return;
+		}
+
+		if (this.segmentCount == this.segmentStartX.length) {
+			this.allocateSegments(this.segmentCount * 2);
+		}
+
+		int segment = this.segmentCount++;
+		this.segmentStartX[segment] = startX;
+		this.segmentEndX[segment] = endX;
+		this.segmentZ[segment * 2] = z1;
+		this.segmentZ[segment * 2 + 1] = z2;
+		this.segmentLight[segment * 2] = light1;
+		this.segmentLight[segment * 2 + 1] = light2;
+		this.segmentUV[segment * 4] = u1;
+		this.segmentUV[segment * 4 + 1] = u2;
+		this.segmentUV[segment * 4 + 2] = v1;
+		this.segmentUV[segment * 4 + 3] = v2;
+		this.segmentColor[segment] = color;
+		this.segmentMaterial[segment] = material;
+
+		this.merge(y, xs, xe, segment);
+	}
+
+	/**
+	 * Merge a segment into the sorted spans of a row.
+	 */
+	private void merge(int y, int xs, int xe, int segment) {
+		int[] starts = this.spanStart[y];
+		int[] ends = this.spanEnd[y];
+		int[] segments = this.spanSegment[y];
+		int count = this.spanCount[y];
+		int k = 0;
+		int cur = xs;
+
+		if (this.mergeStart.length < count * 2 + 2) {
+			this.mergeStart = new int[count * 2 + 2];
+			this.mergeEnd = new int[count * 2 + 2];
+			this.mergeSegment = new int[count * 2 + 2];
+		}
+
+		int output = 0;
+
+		while (k < count && ends[k] <= xs) {
+			output = this.emit(output, starts[k], ends[k], segments[k]);
+			k++;
+		}
+
+		while (cur < xe) {
+			if (k >= count || starts[k] >= xe) {
+				output = this.emit(output, cur, xe, segment);
+				break;
+			}
+
+			if (starts[k] > cur) {
+				// Gap before the next span.
+				output = this.emit(output, cur, starts[k], segment);
+				cur = starts[k];
+				continue;
+			}
+
+			if (starts[k] < cur) {
+				output = this.emit(output, starts[k], cur, segments[k]);
+			}
+
+			int overlapEnd = Math.min(ends[k], xe);
+			float deltaStart = this.getDepth(segment, cur) - this.getDepth(segments[k], cur);
+			float deltaEnd = this.getDepth(segment, overlapEnd - 1) - this.getDepth(segments[k], overlapEnd - 1);
+
+			if (deltaStart <= 0 && deltaEnd <= 0) {
+				output = this.emit(output, cur, overlapEnd, segment);
+			}
+			else if (deltaStart > 0 && deltaEnd > 0) {
+				output = this.emit(output, cur, overlapEnd, segments[k]);
+			}
+			else {
+				// The two segments cross, split the overlap where the depths are equal.
+				int crossing = cur + 1 + (int)((overlapEnd - 1 - cur) * (deltaStart / (deltaStart - deltaEnd)));
+				crossing = Math.max(cur + 1, Math.min(overlapEnd - 1, crossing));
+				output = this.emit(output, cur, crossing, deltaStart <= 0 ? segment : segments[k]);
+				output = this.emit(output, crossing, overlapEnd, deltaStart <= 0 ? segments[k] : segment);
+			}
+
+			if (ends[k] > overlapEnd) {
+				output = this.emit(output, overlapEnd, ends[k], segments[k]);
+			}
+
+			cur = overlapEnd;
+			k++;
+		}
+
+		while (k < count) {
+			output = this.emit(output, starts[k], ends[k], segments[k]);
+			k++;
+		}
+
+		if (starts.length < output) {
+			int capacity = Math.max(output, starts.length * 2);
+			this.spanStart[y] = starts = new int[capacity];
+			this.spanEnd[y] = ends = new int[capacity];
+			this.spanSegment[y] = segments = new int[capacity];
+		}
+
+		System.arraycopy(this.mergeStart, 0, starts, 0, output);
+		System.arraycopy(this.mergeEnd, 0, ends, 0, output);
+		System.arraycopy(this.mergeSegment, 0, segments, 0, output);
+		this.spanCount[y] = output;
+	}
+
+	/**
+	 * Append a span to the merge buffer, adjacent spans of the same segment are joined.
+	 */
+	private int emit(int output, int start, int end, int segment) {
+		if (start >= end) {
+			return output;
+		}
+
+		if (output > 0 && this.mergeSegment[output - 1] == segment && this.mergeEnd[output - 1] == start) {
+			this.mergeEnd[output - 1] = end;
+			return output;
+		}
+
+		if (output == this.mergeStart.length) {
+			int[] starts = new int[output * 2];
+			int[] ends = new int[output * 2];
+			int[] segments = new int[output * 2];
+			System.arraycopy(this.mergeStart, 0, starts, 0, output);
+			System.arraycopy(this.mergeEnd, 0, ends, 0, output);
+			System.arraycopy(this.mergeSegment, 0, segments, 0, output);
+			this.mergeStart = starts;
+			this.mergeEnd = ends;
+			this.mergeSegment = segments;
+		}
+
+		this.mergeStart[output] = start;
+		this.mergeEnd[output] = end;
+		this.mergeSegment[output] = segment;
+		return output + 1;
+	}
+
+	/**
+	 * Gets the interpolation factor of a pixel on a segment.
+	 * @param segment A segment.
+	 * @param x A pixel.
+	 * @return Return a value between 0 and 1.
+	 */
+	public float getGradiant(int segment, int x) {
+		int startX = this.segmentStartX[segment];
+		float gradiant = (float)(x - startX) / (float)(this.segmentEndX[segment] - startX);
+		return Math.max(0, Math.min(gradiant, 1));
+	}
+
+	/**
+	 * Gets the depth of a segment at a pixel.
+	 * @param segment A segment.
+	 * @param x A pixel.
+	 * @return Return the depth.
+	 */
+	public float getDepth(int segment, int x) {
+		float z1 = this.segmentZ[segment * 2];
+		return z1 + (this.segmentZ[segment * 2 + 1] - z1) * this.getGradiant(segment, x);
+	}
+
+	// ---
+	// --- Getters
+	// ---
+
+	public int getSpanCount(int y) {
+		return this.spanCount[y];
+	}
+
+	public int getSpanStart(int y, int index) {
+		return this.spanStart[y][index];
+	}
+
+	public int getSpanEnd(int y, int index) {
+		return this.spanEnd[y][index];
+	}
+
+	public int getSpanSegment(int y, int index) {
+		return this.spanSegment[y][index];
+	}
+
+	public int getSegmentCount() {
+		return this.segmentCount;
+	}
+
+	public float[] getSegmentLight() {
+		return this.segmentLight;
+	}
+
+	public float[] getSegmentUV() {
+		return this.segmentUV;
+	}
+
+	public int[] getSegmentColor() {
+		return this.segmentColor;
+	}
+
+	public int[] getSegmentMaterial() {
+		return this.segmentMaterial;
+	}
+}
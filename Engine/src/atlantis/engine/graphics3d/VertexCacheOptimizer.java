@@ -0,0 +1,288 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.engine.graphics3d;
+
+/**
+ * Reorder the faces and the vertices of a mesh to improve the post-transform vertex cache
+ * efficiency. Faces are sorted with the linear-speed algorithm of Tom Forsyth, then vertices are
+ * sorted by first use so they are read in memory order.
+ * @author Yannick
+ */
+public class VertexCacheOptimizer {
+	/**
+	 * Size of the simulated cache used to compute the ACMR.
+	 */
+	public static final int DefaultCacheSize = 16;
+
+	private static final int MaxCacheSize = 32;
+	private static final float CacheDecayPower = 1.5f;
+	private static final float LastTriangleScore = 0.75f;
+	private static final float ValenceBoostScale = 2.0f;
+	private static final float ValenceBoostPower = 0.5f;
+
+	/**
+	 * Compute the average cache miss ratio (transformed vertices per triangle) with a FIFO cache.
+	 * A value of 0.5 is the best case for a regular grid, 3 is the worst case.
+	 * @param faces The faces of the mesh.
+	 * @param vertexCount The number of vertices of the mesh.
+	 * @param cacheSize The size of the simulated cache.
+	 * @return Return the ACMR of the faces.
+	 */
+	public static float computeACMR(Face3[] faces, int vertexCount, int cacheSize) {
+		if (faces.length == 0) {
+			return 0.0f;
+		}
+
+		// Timestamp of the insertion of each vertex in the FIFO, a vertex is in the cache
+		// if less than cacheSize vertices have been inserted since.
+		int[] insertion = new int[vertexCount];
+		int counter = 0;
+		int misses = 0;
+
+		for (int i = 0; i < vertexCount; i++) {
+			insertion[i] = Integer.MIN_VALUE / 2;
+		}
+
+		for (int i = 0; i < faces.length; i++) {
+			for (int j = 0; j < 3; j++) {
+				int index = (j == 0) ? faces[i].a : ((j == 1) ? faces[i].b : faces[i].c);
+				if (counter - insertion[index] >= cacheSize) {
+					insertion[index] = ++counter;
+					misses++;
+				}
+			}
+		}
+
+		return (float)misses / (float)faces.length;
+	}
+
+	public static float computeACMR(Face3[] faces, int vertexCount) {
+		return computeACMR(faces, vertexCount, DefaultCacheSize);
+	}
+
+	/**
+	 * Optimize the faces then the vertices of a mesh. Arrays are modified in place.
+	 * Call computeACMR before and after to measure the gain.
+	 * @param vertices The vertices of the mesh.
+	 * @param faces The faces of the mesh.
+	 */
+	public static void optimize(Vertex[] vertices, Face3[] faces) {
+		optimizeFaces(faces, vertices.length);
+		optimizeVertices(vertices, faces);
+	}
+
+	/**
+	 * Reorder the faces for the vertex cache. The array is modified in place.
+	 * @param faces The faces to reorder.
+	 * @param vertexCount The number of vertices referenced by the faces.
+	 */
+	public static void optimizeFaces(Face3[] faces, int vertexCount) {
+		int faceCount = faces.length;
+
+		if (faceCount < 2) {
+			return;
+		}
+
+		// Triangles adjacent to each vertex, stored in a compact array.
+		int[] remaining = new int[vertexCount];
+		int[] offsets = new int[vertexCount + 1];
+		int[] adjacency = new int[faceCount * 3];
+
+		for (int i = 0; i < faceCount; i++) {
+			remaining[faces[i].a]++;
+			remaining[faces[i].b]++;
+			remaining[faces[i].c]++;
+		}
+
+		for (int i = 0; i < vertexCount; i++) {
+			offsets[i + 1] = offsets[i] + remaining[i];
+		}
+
+		int[] fill = new int[vertexCount];
+		for (int i = 0; i < faceCount; i++) {
+			int a = faces[i].a;
+			int b = faces[i].b;
+			int c = faces[i].c;
+			adjacency[offsets[a] + fill[a]++] = i;
+			adjacency[offsets[b] + fill[b]++] = i;
+			adjacency[offsets[c] + fill[c]++] = i;
+		}
+
+		int[] cachePosition = new int[vertexCount];
+		float[] vertexScore = new float[vertexCount];
+		for (int i = 0; i < vertexCount; i++) {
+			cachePosition[i] = -1;
+			vertexScore[i] = getVertexScore(-1, remaining[i]);
+		}
+
+		boolean[] added = new boolean[faceCount];
+		float[] faceScore = new float[faceCount];
+		for (int i = 0; i < faceCount; i++) {
+			faceScore[i] = vertexScore[faces[i].a] + vertexScore[faces[i].b] + vertexScore[faces[i].c];
+		}
+
+		Face3[] ordered = new Face3[faceCount];
+		int[] cache = new int[MaxCacheSize + 3];
+		int[] newCache = new int[MaxCacheSize + 3];
+		int cacheCount = 0;
+		int scanCursor = 0;
+		int bestFace = -1;
+
+		for (int output = 0; output < faceCount; output++) {
+			if (bestFace == -1) {
+				// No candidate in the cache, take the best remaining face.
+				float bestScore = -1.0f;
+				while (scanCursor < faceCount && added[scanCursor]) {
+					scanCursor++;
+				}
+				for (int i = scanCursor; i < faceCount; i++) {
+					if (!added[i] && faceScore[i] > bestScore) {
+						bestScore = faceScore[i];
+						bestFace = i;
+					}
+				}
+			}
+
+			Face3 face = faces[bestFace];
+			ordered[output] = face;
+			added[bestFace] = true;
+
+			int[] indices = { face.a, face.b, face.c };
+
+			// Remove the face from the adjacency of its vertices.
+			for (int j = 0; j < 3; j++) {
+				int vertex = indices[j];
+				int start = offsets[vertex];
+				int end = start + remaining[vertex];
+				for (int k = start; k < end; k++) {
+					if (adjacency[k] == bestFace) {
+						adjacency[k] = adjacency[end - 1];
+						break;
+					}
+				}
+				remaining[vertex]--;
+			}
+
+			// Push the vertices of the face on top of the LRU cache.
+			int newCount = 0;
+			for (int j = 0; j < 3; j++) {
+				newCache[newCount++] = indices[j];
+			}
+			for (int j = 0; j < cacheCount; j++) {
+				int vertex = cache[j];
+				if (vertex != indices[0] && vertex != indices[1] && vertex != indices[2]) {
+					newCache[newCount++] = vertex;
+				}
+			}
+
+			int[] swap = cache;
+			cache = newCache;
+			newCache = swap;
+			cacheCount = newCount;
+
+			// Update the scores of the vertices in the cache and of their faces.
+			for (int j = 0; j < cacheCount; j++) {
+				int vertex = cache[j];
+				cachePosition[vertex] = (j < MaxCacheSize) ? j : -1;
+				vertexScore[vertex] = getVertexScore(cachePosition[vertex], remaining[vertex]);
+			}
+
+			bestFace = -1;
+			float bestScore = -1.0f;
+
+			for (int j = 0; j < cacheCount; j++) {
+				int vertex = cache[j];
+				for (int k = offsets[vertex], l = offsets[vertex] + remaining[vertex]; k < l; k++) {
+					int adjacent = adjacency[k];
+					Face3 adjacentFace = faces[adjacent];
+					float score = vertexScore[adjacentFace.a] + vertexScore[adjacentFace.b] + vertexScore[adjacentFace.c];
+					faceScore[adjacent] = score;
+					if (score > bestScore) {
+						bestScore = score;
+						bestFace = adjacent;
+					}
+				}
+			}
+
+			if (cacheCount > MaxCacheSize) {
+				cacheCount = MaxCacheSize;
+			}
+		}
+
+		System.arraycopy(ordered, 0, faces, 0, faceCount);
+	}
+
+	/**
+	 * Reorder the vertices by first use in the faces and remap the faces.
+	 * Vertices that are not used by any face are moved at the end. Arrays are modified in place.
+	 * @param vertices The vertices to reorder.
+	 * @param faces The faces that reference the vertices.
+	 * @return Return the remap table (old index to new index).
+	 */
+	public static int[] optimizeVertices(Vertex[] vertices, Face3[] faces) {
+		int[] remap = new int[vertices.length];
+		int counter = 0;
+
+		for (int i = 0; i < remap.length; i++) {
+			remap[i] = -1;
+		}
+
+		for (int i = 0; i < faces.length; i++) {
+			if (remap[faces[i].a] == -1) {
+				remap[faces[i].a] = counter++;
+			}
+			if (remap[faces[i].b] == -1) {
+				remap[faces[i].b] = counter++;
+			}
+			if (remap[faces[i].c] == -1) {
+				remap[faces[i].c] = counter++;
+			}
+		}
+
+		for (int i = 0; i < remap.length; i++) {
+			if (remap[i] == -1) {
+				remap[i] = counter++;
+			}
+		}
+
+		Vertex[] ordered = new Vertex[vertices.length];
+		for (int i = 0; i < vertices.length; i++) {
+			ordered[remap[i]] = vertices[i];
+		}
+		System.arraycopy(ordered, 0, vertices, 0, vertices.length);
+
+		for (int i = 0; i < faces.length; i++) {
+			faces[i].a = remap[faces[i].a];
+			faces[i].b = remap[faces[i].b];
+			faces[i].c = remap[faces[i].c];
+		}
+
+		return remap;
+	}
+
+	/**
+	 * Score of a vertex from its position in the cache and the number of faces that still use it.
+	 */
+	private static float getVertexScore(int cachePosition, int remainingFaces) {
+		if (remainingFaces == 0) {
+			return -1.0f;
+		}
+
+		float score = 0.0f;
+
+		if (cachePosition >= 0) {
+			if (cachePosition < 3) {
+				// The vertices of the last face have a fixed score to avoid favoring one of them.
+				score = LastTriangleScore;
+			}
+			else {
+				float scaler = 1.0f / (MaxCacheSize - 3);
+				score = (float)Math.pow(1.0f - (cachePosition - 3) * scaler, CacheDecayPower);
+			}
+		}
+
+		score += ValenceBoostScale * (float)Math.pow(remainingFaces, -ValenceBoostPower);
+		return score;
+	}
+}
@@ -1,7 +1,5 @@
 package atlantis.engine.graphics3d.geometry;
 
-import java.util.Random;
-
 import atlantis.engine.graphics3d.Face3;
 import atlantis.framework.MathHelper;
 import atlantis.framework.Vector2;
@@ -15,7 +13,6 @@ public class CylinderGeometry extends MeshGeometry {
     private int nbSegments;
     private int nbSlices;
     private boolean invertFaces;
-    private static Random random = new Random();
     
 	public CylinderGeometry(Vector3 start, Vector3 end, float startRadius, float endRadius, boolean invertFaces, int nbSegments, int nbSlices) {
         this.startPosition = start;
@@ -32,12 +29,17 @@ public class CylinderGeometry extends MeshGeometry {
 		this.nbSegments = Math.max(1, this.nbSegments);
         this.nbSlices = Math.max(3, this.nbSlices);
 
-        // this vector should not be between start and end
-        Vector3 p = new Vector3(random.nextFloat(), random.nextFloat(), random.nextFloat());
-
-        // derive two points on the plane formed by [end - start]
-        Vector3 r = Vector3.cross(Vector3.subtract(p, this.startPosition), Vector3.subtract(this.endPosition, this.startPosition));
-        Vector3 s = Vector3.cross(r, Vector3.subtract(this.endPosition, this.startPosition));
+        // this direction should not be parallel to [end - start], the axis with the smallest
+        // component is used so the same parameters always give the same geometry
+        Vector3 axis = Vector3.subtract(this.endPosition, this.startPosition);
+        float ax = Math.abs(axis.x);
+        float ay = Math.abs(axis.y);
+        float az = Math.abs(axis.z);
+        Vector3 p = (ax <= ay && ax <= az) ? new Vector3(1, 0, 0) : ((ay <= az) ? new Vector3(0, 1, 0) : new Vector3(0, 0, 1));
+
+        // derive two directions on the plane formed by [end - start]
+        Vector3 r = Vector3.cross(p, axis);
+        Vector3 s = Vector3.cross(r, axis);
         r.normalize();
         s.normalize();
 
@@ -49,6 +51,15 @@ public class CylinderGeometry extends MeshGeometry {
         this.uvs = new Vector2[((this.nbSegments + 1) * (this.nbSlices + 1)) + 2];
         this.faces = new Face3[(this.nbSlices + (this.nbSlices * this.nbSegments)) * 2];
 
+        // the angles are the same for all the segments, built once with Math so the last slice closes the cylinder exactly
+        float[] cosTheta = new float[this.nbSlices + 1];
+        float[] sinTheta = new float[this.nbSlices + 1];
+        for (int i = 0; i <= this.nbSlices; i++) {
+            float theta = (float)(i * MathHelper.TwoPi * invSlices);
+            cosTheta[i] = (float)Math.cos(theta);
+            sinTheta[i] = (float)Math.sin(theta);
+        }
+
         for (int j = 0; j <= this.nbSegments; j++) {
             Vector3 center = Vector3.lerp(this.startPosition, this.endPosition, j * invSegments);
             float radius = MathHelper.lerp(this.startRadius, this.endRadius, j * invSegments);
@@ -60,9 +71,8 @@ public class CylinderGeometry extends MeshGeometry {
             }
 
             for (int i = 0; i <= this.nbSlices; i++) {
-                float theta = (float)(i * MathHelper.TwoPi * invSlices);
-                float rCosTheta = radius * (float)Math.cos(theta);
-                float rSinTheta = radius * (float)Math.sin(theta);
+                float rCosTheta = radius * cosTheta[i];
+                float rSinTheta = radius * sinTheta[i];
 
                 this.vertices[vertexCount++] = new Vector3(
                 		center.x + rCosTheta * r.x + rSinTheta * s.x, 
@@ -0,0 +1,198 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.engine.graphics3d.geometry;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import atlantis.framework.Vector3;
+
+/**
+ * A cache of procedural geometries. A geometry is created once for a type and its parameters, then
+ * all the meshes created with it share its vertices and faces. A mesh copies them only when it modifies them.
+ * <pre>
+ * Mesh wall = new Mesh("wall", GeometryCache.getCube());
+ * </pre>
+ * @author Yannick
+ */
+public class GeometryCache {
+	private static final int Cube = 0;
+	private static final int Quad = 1;
+	private static final int Plane = 2;
+	private static final int Pyramid3 = 3;
+	private static final int Pyramid4 = 4;
+	private static final int Cylinder = 5;
+	
+	private static HashMap<GeometryKey, MeshGeometry> geometries = new HashMap<GeometryKey, MeshGeometry>();
+
+	/**
+	 * The type of a geometry and its parameters.
+	 */
+	private static final class GeometryKey {
+		private final int type;
+		private final float[] values;
+		private final int hash;
+
+		public GeometryKey(int type, float[] values) {
+			this.type = type;
+			this.values = values;
+			this.hash = type * 31 + Arrays.hashCode(values);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (!(object instanceof GeometryKey)) {
+				return false;
+			}
+			GeometryKey key = (GeometryKey)object;
+			return this.type == key.type && Arrays.equals(this.values, key.values);
+		}
+	}
+
+	/**
+	 * Gets a cube geometry.
+	 * @param width The width of the cube.
+	 * @param height The height of the cube.
+	 * @param depth The depth of the cube.
+	 * @return Return a shared cube geometry.
+	 */
+	public static synchronized MeshGeometry getCube(float width, float height, float depth) {
+		GeometryKey key = new GeometryKey(Cube, new float[] { width, height, depth });
+		MeshGeometry geometry = geometries.get(key);
+
+		if (geometry == null) {
+			geometry = new CubeGeometry(width, height, depth);
+			geometries.put(key, geometry);
+		}
+
+		return geometry;
+	}
+
+	public static MeshGeometry getCube() {
+		return getCube(1.0f, 1.0f, 1.0f);
+	}
+
+	/**
+	 * Gets a quad geometry.
+	 * @param width The width of the quad.
+	 * @param depth The depth of the quad.
+	 * @return Return a shared quad geometry.
+	 */
+	public static synchronized MeshGeometry getQuad(float width, float depth) {
+		GeometryKey key = new GeometryKey(Quad, new float[] { width, depth });
+		MeshGeometry geometry = geometries.get(key);
+
+		if (geometry == null) {
+			geometry = new QuadGeometry(width, depth);
+			geometries.put(key, geometry);
+		}
+
+		return geometry;
+	}
+
+	public static MeshGeometry getQuad() {
+		return getQuad(1.0f, 1.0f);
+	}
+
+	/**
+	 * Gets a plane geometry.
+	 * @param width The number of vertices on X axis.
+	 * @param depth The number of vertices on Z axis.
+	 * @return Return a shared plane geometry.
+	 */
+	public static synchronized MeshGeometry getPlane(int width, int depth) {
+		GeometryKey key = new GeometryKey(Plane, new float[] { width, depth });
+		MeshGeometry geometry = geometries.get(key);
+
+		if (geometry == null) {
+			geometry = new PlaneGeometry(width, depth);
+			geometries.put(key, geometry);
+		}
+
+		return geometry;
+	}
+
+	/**
+	 * Gets a pyramid geometry with a triangle base.
+	 * @param width The width of the pyramid.
+	 * @param height The height of the pyramid.
+	 * @param depth The depth of the pyramid.
+	 * @return Return a shared pyramid geometry.
+	 */
+	public static synchronized MeshGeometry getPyramid3(float width, float height, float depth) {
+		GeometryKey key = new GeometryKey(Pyramid3, new float[] { width, height, depth });
+		MeshGeometry geometry = geometries.get(key);
+
+		if (geometry == null) {
+			geometry = new Pyramid3Geometry(width, height, depth);
+			geometries.put(key, geometry);
+		}
+
+		return geometry;
+	}
+
+	public static MeshGeometry getPyramid3() {
+		return getPyramid3(1.0f, 1.0f, 1.0f);
+	}
+
+	/**
+	 * Gets a pyramid geometry with a square base.
+	 * @return Return a shared pyramid geometry.
+	 */
+	public static synchronized MeshGeometry getPyramid4() {
+		GeometryKey key = new GeometryKey(Pyramid4, new float[0]);
+		MeshGeometry geometry = geometries.get(key);
+
+		if (geometry == null) {
+			geometry = new Pyramid4Geometry();
+			geometries.put(key, geometry);
+		}
+
+		return geometry;
+	}
+
+	/**
+	 * Gets a cylinder geometry.
+	 * @param start The center of the start cap.
+	 * @param end The center of the end cap.
+	 * @param startRadius The radius of the start cap.
+	 * @param endRadius The radius of the end cap.
+	 * @param invertFaces Sets to true to invert the faces.
+	 * @param nbSegments The number of segments between the caps.
+	 * @param nbSlices The number of slices around the axis.
+	 * @return Return a shared cylinder geometry.
+	 */
+	public static synchronized MeshGeometry getCylinder(Vector3 start, Vector3 end, float startRadius, float endRadius, boolean invertFaces, int nbSegments, int nbSlices) {
+		GeometryKey key = new GeometryKey(Cylinder, new float[] { start.x, start.y, start.z, end.x, end.y, end.z, 
+				startRadius, endRadius, invertFaces ? 1 : 0, nbSegments, nbSlices });
+		MeshGeometry geometry = geometries.get(key);
+
+		if (geometry == null) {
+			geometry = new CylinderGeometry(new Vector3(start), new Vector3(end), startRadius, endRadius, invertFaces, nbSegments, nbSlices);
+			geometries.put(key, geometry);
+		}
+
+		return geometry;
+	}
+
+	/**
+	 * Remove all the geometries from the cache. Meshes that use them are not changed.
+	 */
+	public static synchronized void clear() {
+		geometries.clear();
+	}
+
+	/**
+	 * Gets the number of geometries in the cache.
+	 * @return Return the number of cached geometries.
+	 */
+	public static synchronized int size() {
+		return geometries.size();
+	}
+}
@@ -3,13 +3,20 @@
 // file 'LICENSE', which is part of this source code package.
 package atlantis.engine.graphics3d.geometry;
 
+import java.awt.Color;
+import java.util.HashMap;
+
 import atlantis.engine.graphics3d.Face3;
+import atlantis.engine.graphics3d.Mesh;
+import atlantis.engine.graphics3d.Vertex;
 import atlantis.framework.Vector2;
 import atlantis.framework.Vector3;
 
 /**
  * A mesh geometry is an abstract class that contains vertices and faces who are
- * used by a mesh to represent a 3D object.
+ * used by a mesh to represent a 3D object. The vertices and faces of a geometry are shared
+ * by the meshes created with it and must not be modified once a mesh uses them, a mesh makes 
+ * its own copy before any modification.
  * @author Yannick
  *
  */
@@ -21,6 +28,8 @@ public abstract class MeshGeometry {
 	protected Vector3 [] normals;
 	protected Vector2 [] uvs;
 	protected Face3 [] faces;
+	private Vertex [] meshVertices;
+	private HashMap<Color, Face3[]> coloredFaces;
 
 	protected void computeVertices() {
 		for (int i = 0, l = vertices.length; i < l; i++) {
@@ -43,4 +52,46 @@ public abstract class MeshGeometry {
 	public Face3[] getFaces() {
 		return faces;
 	}
+	
+	/**
+	 * Gets the vertices used by the meshes created with this geometry. They are created 
+	 * with their normals on the first call and shared by all the meshes.
+	 * @return Return an array of vertex that must not be modified.
+	 */
+	public synchronized Vertex[] getMeshVertices() {
+		if (this.meshVertices == null) {
+			Vertex[] vertices = new Vertex[this.vertices.length];
+			for (int i = 0, l = vertices.length; i < l; i++) {
+				vertices[i] = new Vertex();
+				vertices[i].position = this.vertices[i];
+			}
+			Mesh.computeNormals(vertices, this.faces);
+			this.meshVertices = vertices;
+		}
+		return this.meshVertices;
+	}
+	
+	/**
+	 * Gets a copy of the faces with another color. Copies are created once per color and shared.
+	 * @param color The color of the faces.
+	 * @return Return an array of faces that must not be modified.
+	 */
+	public synchronized Face3[] getFaces(Color color) {
+		if (this.coloredFaces == null) {
+			this.coloredFaces = new HashMap<Color, Face3[]>();
+		}
+		
+		Face3[] faces = this.coloredFaces.get(color);
+		
+		if (faces == null) {
+			faces = new Face3[this.faces.length];
+			for (int i = 0, l = faces.length; i < l; i++) {
+				faces[i] = new Face3(this.faces[i]);
+				faces[i].color = color;
+			}
+			this.coloredFaces.put(color, faces);
+		}
+		
+		return faces;
+	}
 }
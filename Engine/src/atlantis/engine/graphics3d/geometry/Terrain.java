@@ -0,0 +1,428 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.engine.graphics3d.geometry;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import atlantis.engine.graphics3d.Camera;
+import atlantis.engine.graphics3d.Face3;
+import atlantis.engine.graphics3d.Material;
+import atlantis.engine.graphics3d.Mesh;
+import atlantis.engine.graphics3d.Vertex;
+import atlantis.framework.BoundingBox;
+import atlantis.framework.Matrix;
+import atlantis.framework.ScratchPool;
+import atlantis.framework.Vector2;
+import atlantis.framework.Vector3;
+
+/**
+ * A terrain split into square chunks with geomipmapping. Each chunk is a mesh that can be drawn with
+ * a step of 1, 2, 4... vertices (the LOD level) chosen with the distance to the camera. When two neighbour
+ * chunks don't use the same level, the border vertices of the finer chunk are snapped on the vertices of the
+ * coarser one so there is no crack. The faces only depend on the levels of a chunk and of its neighbours,
+ * so they are shared by all the chunks. Chunks outside of the view frustum are not drawn.
+ * The terrain is extended to a multiple of the chunk size by repeating the heights of the border.
+ * @author Yannick
+ */
+public class Terrain {
+	protected TerrainGeometry geometry;
+	protected int chunkSize;
+	protected int chunkCountX;
+	protected int chunkCountZ;
+	protected int levelCount;
+	protected float lodDistance;
+	protected float drawDistance;
+	protected Color color;
+	protected Mesh[] chunks;
+	protected BoundingBox[] bounds;
+	protected HashMap<Integer, Face3[]> faceCache;
+
+	private int[] levels;
+	private float[] distances;
+	private Mesh[] visibleChunks;
+	private float[] visibleDistances;
+	private int visibleChunkCount;
+
+	/**
+	 * Create a terrain.
+	 * @param geometry The terrain geometry.
+	 * @param chunkSize The number of cells of a chunk side, it must be a power of two.
+	 * @param levelCount The number of LOD levels, level N uses one vertex every 2^N.
+	 * @param lodDistance The distance under which the chunks use the full resolution. It doubles at each level.
+	 */
+	public Terrain(TerrainGeometry geometry, int chunkSize, int levelCount, float lodDistance) {
+		if (chunkSize <= 0 || (chunkSize & (chunkSize - 1)) != 0) {
+			throw new IllegalArgumentException("The chunk size must be a power of two.");
+		}
+
+		this.geometry = geometry;
+		this.chunkSize = chunkSize;
+		this.levelCount = Math.max(1, Math.min(levelCount, Integer.numberOfTrailingZeros(chunkSize) + 1));
+		this.lodDistance = lodDistance;
+		this.drawDistance = Float.MAX_VALUE;
+		this.color = Color.lightGray;
+		this.chunkCountX = (geometry.getVertexCountX() - 1 + chunkSize - 1) / chunkSize;
+		this.chunkCountZ = (geometry.getVertexCountZ() - 1 + chunkSize - 1) / chunkSize;
+		this.faceCache = new HashMap<Integer, Face3[]>();
+
+		int count = this.chunkCountX * this.chunkCountZ;
+		this.chunks = new Mesh[count];
+		this.bounds = new BoundingBox[count];
+		this.levels = new int[count];
+		this.distances = new float[count];
+		this.visibleChunks = new Mesh[count];
+		this.visibleDistances = new float[count];
+
+		for (int z = 0; z < this.chunkCountZ; z++) {
+			for (int x = 0; x < this.chunkCountX; x++) {
+				this.createChunk(x, z);
+			}
+		}
+	}
+
+	public Terrain(TerrainGeometry geometry) {
+		this(geometry, 16, 4, 50.0f);
+	}
+
+	private void createChunk(int chunkX, int chunkZ) {
+		int side = this.chunkSize + 1;
+		int startX = chunkX * this.chunkSize;
+		int startZ = chunkZ * this.chunkSize;
+		float lastX = this.geometry.getVertexCountX() - 1;
+		float lastZ = this.geometry.getVertexCountZ() - 1;
+		Vertex[] vertices = new Vertex[side * side];
+		Vector3 min = new Vector3(Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE);
+		Vector3 max = new Vector3(-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE);
+
+		for (int j = 0; j < side; j++) {
+			for (int i = 0; i < side; i++) {
+				int x = startX + i;
+				int z = startZ + j;
+				Vector3 position = this.geometry.getPosition(x, z);
+				Vertex vertex = new Vertex(position, this.geometry.getNormal(x, z), Vector3.Zero(),
+						new Vector2(Math.min(x / lastX, 1.0f), Math.min(z / lastZ, 1.0f)));
+				vertices[i + j * side] = vertex;
+
+				min.x = Math.min(min.x, position.x);
+				min.y = Math.min(min.y, position.y);
+				min.z = Math.min(min.z, position.z);
+				max.x = Math.max(max.x, position.x);
+				max.y = Math.max(max.y, position.y);
+				max.z = Math.max(max.z, position.z);
+			}
+		}
+
+		int index = chunkX + chunkZ * this.chunkCountX;
+		// The faces of a level are shared by the chunks, a chunk copies them before modifying them.
+		this.chunks[index] = new Mesh("terrain_" + chunkX + "_" + chunkZ, vertices, null);
+		this.chunks[index].setFaces(this.getFaces(0, 0, 0, 0, 0), true);
+		this.bounds[index] = new BoundingBox(min, max);
+	}
+
+	/**
+	 * Select the visible chunks and their levels for a frame. Visible chunks are sorted from front to back.
+	 * @param camera The camera.
+	 * @param projection The projection matrix of the renderer.
+	 */
+	public void update(Camera camera, Matrix projection) {
+		ScratchPool pool = ScratchPool.get();
+		int mark = pool.mark();
+		Matrix viewProjection = pool.matrix();
+		camera.getViewMatrix(viewProjection);
+		viewProjection.multiply(projection);
+		Vector3 eye = camera.position;
+		int maxLevel = this.levelCount - 1;
+
+		// The levels of all the chunks are needed to stitch the visible ones.
+		for (int i = 0, l = this.chunks.length; i < l; i++) {
+			float distance = this.getDistance(this.bounds[i], eye);
+			int level = 0;
+			float limit = this.lodDistance;
+
+			while (level < maxLevel && distance >= limit) {
+				level++;
+				limit *= 2.0f;
+			}
+
+			this.levels[i] = level;
+			this.distances[i] = distance;
+		}
+
+		this.visibleChunkCount = 0;
+
+		for (int z = 0; z < this.chunkCountZ; z++) {
+			for (int x = 0; x < this.chunkCountX; x++) {
+				int index = x + z * this.chunkCountX;
+				float distance = this.distances[index];
+
+				if (distance > this.drawDistance || !this.isInFrustum(this.bounds[index], viewProjection)) {
+					continue;
+				}
+
+				int level = this.levels[index];
+				int left = (x > 0) ? Math.max(level, this.levels[index - 1]) : level;
+				int right = (x < this.chunkCountX - 1) ? Math.max(level, this.levels[index + 1]) : level;
+				int bottom = (z > 0) ? Math.max(level, this.levels[index - this.chunkCountX]) : level;
+				int top = (z < this.chunkCountZ - 1) ? Math.max(level, this.levels[index + this.chunkCountX]) : level;
+				Mesh chunk = this.chunks[index];
+				chunk.setFaces(this.getFaces(level, left, right, bottom, top), true);
+
+				// Insertion sort on the distance.
+				int j = this.visibleChunkCount - 1;
+				while (j >= 0 && this.visibleDistances[j] > distance) {
+					this.visibleChunks[j + 1] = this.visibleChunks[j];
+					this.visibleDistances[j + 1] = this.visibleDistances[j];
+					j--;
+				}
+				this.visibleChunks[j + 1] = chunk;
+				this.visibleDistances[j + 1] = distance;
+				this.visibleChunkCount++;
+			}
+		}
+
+		pool.reset(mark);
+	}
+
+	/**
+	 * Gets the faces of a chunk for a level and the levels of its four borders.
+	 * Faces are created once and shared by all the chunks.
+	 */
+	protected Face3[] getFaces(int level, int left, int right, int bottom, int top) {
+		Integer key = Integer.valueOf(level | (left << 4) | (right << 8) | (bottom << 12) | (top << 16));
+		Face3[] faces = this.faceCache.get(key);
+
+		if (faces == null) {
+			faces = this.createFaces(level, left, right, bottom, top);
+			this.faceCache.put(key, faces);
+		}
+
+		return faces;
+	}
+
+	private Face3[] createFaces(int level, int left, int right, int bottom, int top) {
+		int n = this.chunkSize;
+		int side = n + 1;
+		int step = 1 << level;
+		ArrayList<Face3> faces = new ArrayList<Face3>();
+
+		for (int j = 0; j < n; j += step) {
+			for (int i = 0; i < n; i += step) {
+				int lowerLeft = this.snap(i, j, left, right, bottom, top, side);
+				int lowerRight = this.snap(i + step, j, left, right, bottom, top, side);
+				int topLeft = this.snap(i, j + step, left, right, bottom, top, side);
+				int topRight = this.snap(i + step, j + step, left, right, bottom, top, side);
+
+				this.addFace(faces, topLeft, lowerLeft, lowerRight);
+				this.addFace(faces, topLeft, lowerRight, topRight);
+			}
+		}
+
+		Face3[] result = new Face3[faces.size()];
+		return faces.toArray(result);
+	}
+
+	/**
+	 * Gets the index of a chunk vertex, a vertex on a border is moved on the nearest vertex of the border level.
+	 * The snap keeps the order of the vertices along the border, so the triangles of a border strip become a fan.
+	 */
+	private int snap(int i, int j, int left, int right, int bottom, int top, int side) {
+		int n = side - 1;
+
+		if (i == 0) {
+			j = snapCoordinate(j, 1 << left);
+		}
+		else if (i == n) {
+			j = snapCoordinate(j, 1 << right);
+		}
+
+		if (j == 0) {
+			i = snapCoordinate(i, 1 << bottom);
+		}
+		else if (j == n) {
+			i = snapCoordinate(i, 1 << top);
+		}
+
+		return i + j * side;
+	}
+
+	private static int snapCoordinate(int value, int step) {
+		return ((value + (step - 1) / 2) / step) * step;
+	}
+
+	private void addFace(ArrayList<Face3> faces, int a, int b, int c) {
+		if (a != b && b != c && a != c) {
+			Face3 face = new Face3(a, b, c);
+			face.color = this.color;
+			faces.add(face);
+		}
+	}
+
+	/**
+	 * Gets the distance between a point and a box, 0 if the point is inside.
+	 */
+	private float getDistance(BoundingBox box, Vector3 point) {
+		float dx = Math.max(0, Math.max(box.min.x - point.x, point.x - box.max.x));
+		float dy = Math.max(0, Math.max(box.min.y - point.y, point.y - box.max.y));
+		float dz = Math.max(0, Math.max(box.min.z - point.z, point.z - box.max.z));
+		return (float)Math.sqrt(dx * dx + dy * dy + dz * dz);
+	}
+
+	/**
+	 * Test a box against the view frustum in clip space. The renderer maps X and Y between -W/2 and W/2 on screen
+	 * and only draws points with a positive W. The box is culled if all its corners are out of the same plane.
+	 */
+	private boolean isInFrustum(BoundingBox box, Matrix m) {
+		int outLeft = 0;
+		int outRight = 0;
+		int outBottom = 0;
+		int outTop = 0;
+		int behind = 0;
+
+		for (int corner = 0; corner < 8; corner++) {
+			float x = ((corner & 1) == 0) ? box.min.x : box.max.x;
+			float y = ((corner & 2) == 0) ? box.min.y : box.max.y;
+			float z = ((corner & 4) == 0) ? box.min.z : box.max.z;
+
+			float cx = (x * m.M11) + (y * m.M21) + (z * m.M31) + m.M41;
+			float cy = (x * m.M12) + (y * m.M22) + (z * m.M32) + m.M42;
+			float w = (x * m.M14) + (y * m.M24) + (z * m.M34) + m.M44;
+			float halfW = w * 0.5f;
+
+			if (w <= 0) {
+				behind++;
+			}
+			if (cx < -halfW) {
+				outLeft++;
+			}
+			if (cx > halfW) {
+				outRight++;
+			}
+			if (cy < -halfW) {
+				outBottom++;
+			}
+			if (cy > halfW) {
+				outTop++;
+			}
+		}
+
+		return behind < 8 && outLeft < 8 && outRight < 8 && outBottom < 8 && outTop < 8;
+	}
+
+	// ---
+	// --- Getters and setters
+	// ---
+
+	/**
+	 * Gets the chunks selected by the last update, from front to back.
+	 * @return Return an array of meshes, only the first getVisibleChunkCount() values are used.
+	 */
+	public Mesh[] getVisibleChunks() {
+		return this.visibleChunks;
+	}
+
+	public int getVisibleChunkCount() {
+		return this.visibleChunkCount;
+	}
+
+	/**
+	 * Gets the number of triangles of the chunks selected by the last update.
+	 * @return Return the number of triangles to draw.
+	 */
+	public int getVisibleTriangleCount() {
+		int count = 0;
+		for (int i = 0; i < this.visibleChunkCount; i++) {
+			count += this.visibleChunks[i].getFaces().length;
+		}
+		return count;
+	}
+
+	/**
+	 * Gets all the chunks of the terrain.
+	 * @return Return an array of meshes.
+	 */
+	public Mesh[] getChunks() {
+		return this.chunks;
+	}
+
+	/**
+	 * Gets the bounds of a chunk.
+	 * @param x Chunk on X axis.
+	 * @param z Chunk on Z axis.
+	 * @return Return the bounding box of the chunk.
+	 */
+	public BoundingBox getChunkBounds(int x, int z) {
+		return this.bounds[x + z * this.chunkCountX];
+	}
+
+	/**
+	 * Gets the LOD level of a chunk at the last update.
+	 * @param x Chunk on X axis.
+	 * @param z Chunk on Z axis.
+	 * @return Return the level of the chunk.
+	 */
+	public int getChunkLevel(int x, int z) {
+		return this.levels[x + z * this.chunkCountX];
+	}
+
+	public int getChunkCountX() {
+		return this.chunkCountX;
+	}
+
+	public int getChunkCountZ() {
+		return this.chunkCountZ;
+	}
+
+	public TerrainGeometry getGeometry() {
+		return this.geometry;
+	}
+
+	/**
+	 * Sets the material of all the chunks.
+	 * @param material A material.
+	 */
+	public void setMaterial(Material material) {
+		for (int i = 0; i < this.chunks.length; i++) {
+			this.chunks[i].setMaterial(material);
+		}
+	}
+
+	/**
+	 * Sets the color of the faces of all the chunks.
+	 * @param color A color.
+	 */
+	public void setColor(Color color) {
+		this.color = color;
+		for (Face3[] faces : this.faceCache.values()) {
+			for (int i = 0; i < faces.length; i++) {
+				faces[i].color = color;
+			}
+		}
+	}
+
+	/**
+	 * Sets the distance under which the chunks use the full resolution.
+	 * @param lodDistance A distance, it doubles at each level.
+	 */
+	public void setLodDistance(float lodDistance) {
+		this.lodDistance = lodDistance;
+	}
+
+	public float getLodDistance() {
+		return this.lodDistance;
+	}
+
+	/**
+	 * Sets the maximum distance of the visible chunks.
+	 * @param drawDistance A distance.
+	 */
+	public void setDrawDistance(float drawDistance) {
+		this.drawDistance = drawDistance;
+	}
+
+	public float getDrawDistance() {
+		return this.drawDistance;
+	}
+}
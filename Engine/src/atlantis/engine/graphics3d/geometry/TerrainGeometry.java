@@ -0,0 +1,168 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.engine.graphics3d.geometry;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import atlantis.engine.graphics3d.Face3;
+import atlantis.framework.Vector3;
+
+/**
+ * A grid of vertices whose heights are read from a heightmap image, one vertex per pixel.
+ * The brightness of a pixel gives the height of the vertex. It can be used as a single mesh or split
+ * into chunks with a Terrain.
+ * @author Yannick
+ */
+public class TerrainGeometry extends MeshGeometry {
+	protected int vertexCountX;
+	protected int vertexCountZ;
+	protected float cellSize;
+	protected float heightScale;
+	protected float[] heights;
+
+	/**
+	 * Create a terrain geometry from a heightmap.
+	 * @param heightmap The heightmap image, black is the lowest height and white the highest.
+	 * @param cellSize The distance between two vertices.
+	 * @param heightScale The height of a white pixel.
+	 */
+	public TerrainGeometry(BufferedImage heightmap, float cellSize, float heightScale) {
+		this.vertexCountX = heightmap.getWidth();
+		this.vertexCountZ = heightmap.getHeight();
+		this.cellSize = cellSize;
+		this.heightScale = heightScale;
+		this.width = (this.vertexCountX - 1) * cellSize;
+		this.height = heightScale;
+		this.depth = (this.vertexCountZ - 1) * cellSize;
+		this.heights = new float[this.vertexCountX * this.vertexCountZ];
+
+		for (int z = 0; z < this.vertexCountZ; z++) {
+			for (int x = 0; x < this.vertexCountX; x++) {
+				int rgb = heightmap.getRGB(x, z);
+				float brightness = (((rgb >> 16) & 0xFF) + ((rgb >> 8) & 0xFF) + (rgb & 0xFF)) / (3.0f * 255.0f);
+				this.heights[x + z * this.vertexCountX] = brightness * heightScale;
+			}
+		}
+
+		this.createVertices();
+	}
+
+	/**
+	 * Load a heightmap from a file and create a terrain geometry.
+	 * @param path The path of the heightmap image.
+	 * @param cellSize The distance between two vertices.
+	 * @param heightScale The height of a white pixel.
+	 * @return Return a terrain geometry or null if the image can't be loaded.
+	 */
+	public static TerrainGeometry createFromPath(String path, float cellSize, float heightScale) {
+		try {
+			return new TerrainGeometry(ImageIO.read(new File(path)), cellSize, heightScale);
+		}
+		catch (IOException e) {
+			System.err.println("[TerrainGeometry] Can't load " + path + " heightmap !");
+		}
+		return null;
+	}
+
+	protected void createVertices() {
+		this.vertices = new Vector3[this.vertexCountX * this.vertexCountZ];
+
+		for (int z = 0; z < this.vertexCountZ; z++) {
+			for (int x = 0; x < this.vertexCountX; x++) {
+				this.vertices[x + z * this.vertexCountX] = this.getPosition(x, z);
+			}
+		}
+
+		this.faces = new Face3[(this.vertexCountX - 1) * (this.vertexCountZ - 1) * 2];
+		int counter = 0;
+
+		for (int z = 0; z < this.vertexCountZ - 1; z++) {
+			for (int x = 0; x < this.vertexCountX - 1; x++) {
+				int lowerLeft = x + z * this.vertexCountX;
+				int lowerRight = lowerLeft + 1;
+				int topLeft = lowerLeft + this.vertexCountX;
+				int topRight = topLeft + 1;
+
+				this.faces[counter++] = new Face3(topLeft, lowerLeft, lowerRight);
+				this.faces[counter++] = new Face3(topLeft, lowerRight, topRight);
+			}
+		}
+	}
+
+	/**
+	 * Gets the height of a vertex of the grid. Coordinates outside of the grid are clamped.
+	 * @param x Vertex on X axis.
+	 * @param z Vertex on Z axis.
+	 * @return Return the height of the vertex.
+	 */
+	public float getHeight(int x, int z) {
+		x = Math.max(0, Math.min(x, this.vertexCountX - 1));
+		z = Math.max(0, Math.min(z, this.vertexCountZ - 1));
+		return this.heights[x + z * this.vertexCountX];
+	}
+
+	/**
+	 * Gets the height of the terrain under a position with a bilinear interpolation.
+	 * @param x Position on X axis.
+	 * @param z Position on Z axis.
+	 * @return Return the height of the terrain.
+	 */
+	public float getHeightAt(float x, float z) {
+		float gridX = x / this.cellSize;
+		float gridZ = z / this.cellSize;
+		int cellX = (int)Math.floor(gridX);
+		int cellZ = (int)Math.floor(gridZ);
+		float fx = gridX - cellX;
+		float fz = gridZ - cellZ;
+
+		float h0 = this.getHeight(cellX, cellZ) + (this.getHeight(cellX + 1, cellZ) - this.getHeight(cellX, cellZ)) * fx;
+		float h1 = this.getHeight(cellX, cellZ + 1) + (this.getHeight(cellX + 1, cellZ + 1) - this.getHeight(cellX, cellZ + 1)) * fx;
+		return h0 + (h1 - h0) * fz;
+	}
+
+	/**
+	 * Gets the position of a vertex of the grid. Coordinates outside of the grid keep the height of the border.
+	 * @param x Vertex on X axis.
+	 * @param z Vertex on Z axis.
+	 * @return Return a new position.
+	 */
+	public Vector3 getPosition(int x, int z) {
+		return new Vector3(x * this.cellSize, this.getHeight(x, z), z * this.cellSize);
+	}
+
+	/**
+	 * Gets the normal of a vertex of the grid from the heights of its neighbours.
+	 * @param x Vertex on X axis.
+	 * @param z Vertex on Z axis.
+	 * @return Return a new normalized normal.
+	 */
+	public Vector3 getNormal(int x, int z) {
+		Vector3 normal = new Vector3(
+				this.getHeight(x - 1, z) - this.getHeight(x + 1, z),
+				2.0f * this.cellSize,
+				this.getHeight(x, z - 1) - this.getHeight(x, z + 1));
+		normal.normalize();
+		return normal;
+	}
+
+	public int getVertexCountX() {
+		return this.vertexCountX;
+	}
+
+	public int getVertexCountZ() {
+		return this.vertexCountZ;
+	}
+
+	public float getCellSize() {
+		return this.cellSize;
+	}
+
+	public float getHeightScale() {
+		return this.heightScale;
+	}
+}
@@ -23,7 +23,22 @@ import atlantis.framework.Vector3;
  * @author Yannick
  */
 public class BabylonImporter {
+	/**
+	 * Load a babylon scene. Meshes are optimized for the vertex cache.
+	 * @param filename The path of the scene.
+	 * @return Return the meshes of the scene.
+	 */
 	public static Mesh[] loadBabyonScene(String filename) {
+		return loadBabyonScene(filename, true);
+	}
+	
+	/**
+	 * Load a babylon scene.
+	 * @param filename The path of the scene.
+	 * @param optimize Sets to true to reorder faces and vertices for the vertex cache.
+	 * @return Return the meshes of the scene.
+	 */
+	public static Mesh[] loadBabyonScene(String filename, boolean optimize) {
 		Mesh[] mesh = null;
 		BufferedReader reader = null;
 		StringBuilder jsonString = new StringBuilder();
@@ -43,7 +58,7 @@ public class BabylonImporter {
 				builder.append("/");
 			}
 			
-			return getMeshes(createBabylonScene(jsonString.toString(), builder.toString()));
+			return getMeshes(createBabylonScene(jsonString.toString(), builder.toString()), optimize);
 			
 		} catch (IOException e) {
 			e.printStackTrace();
@@ -77,7 +92,7 @@ public class BabylonImporter {
 			scene.materials[i].alpha = (float)bMaterial.getDouble("alpha");
 			scene.materials[i].backFaceCulling = bMaterial.getBoolean("backFaceCulling");
 			
-			JSONObject dTexture = bMaterial.getJSONObject("diffuseTexture");
+			JSONObject dTexture = bMaterial.optJSONObject("diffuseTexture");
 			if (dTexture != null) {
 				scene.materials[i].diffuseTexture = new BabylonTexture();
 				scene.materials[i].diffuseTexture.name = path + dTexture.getString("name");
@@ -181,6 +196,16 @@ public class BabylonImporter {
 	}
 	
 	public static Mesh[] getMeshes(BabylonScene scene) {
+		return getMeshes(scene, true);
+	}
+	
+	/**
+	 * Create meshes from a babylon scene.
+	 * @param scene The babylon scene.
+	 * @param optimize Sets to true to reorder faces and vertices for the vertex cache.
+	 * @return Return the meshes of the scene.
+	 */
+	public static Mesh[] getMeshes(BabylonScene scene, boolean optimize) {
 		Mesh[] meshesCollection = new Mesh[scene.meshes.length];
 
         for (int i = 0, l = scene.meshes.length; i < l; i++) {
@@ -231,6 +256,10 @@ public class BabylonImporter {
             	mesh.setMaterial(getMaterialById(scene.materials, scene.meshes[i].materialId));
             }
 
+            if (optimize) {
+            	mesh.optimizeVertexCache();
+            }
+
             mesh.setPosition(new Vector3(scene.meshes[i].position[0], scene.meshes[i].position[1], scene.meshes[i].position[2]));
             mesh.setRotation(new Vector3(scene.meshes[i].rotation[0], scene.meshes[i].rotation[1], scene.meshes[i].rotation[2]));
             mesh.setScale(new Vector3(scene.meshes[i].scaling[0], scene.meshes[i].scaling[1], scene.meshes[i].scaling[2]));
@@ -9,6 +9,7 @@ import atlantis.framework.GameTime;
 import atlantis.framework.IDrawable;
 import atlantis.framework.IUpdateable;
 import atlantis.framework.content.ContentManager;
+import atlantis.framework.graphics.GraphicsDevice;
 import atlantis.framework.graphics.SpriteBatch;
 
 /**
@@ -67,6 +68,21 @@ public class State implements IUpdateable, IDrawable {
 		}
 	}
 
+	/**
+	 * Report the areas of the scene that changed since the last frame, it's called before the frame is 
+	 * cleared when the graphics device draws only its dirty regions. A state that draws more than its scene 
+	 * adds the changed areas of these drawings to the graphics device.
+	 * @param graphicsDevice The graphics device that receives the dirty regions.
+	 */
+	public void reportChanges(GraphicsDevice graphicsDevice) {
+		if (this.visible) {
+			this.scene.reportChanges(graphicsDevice);
+		}
+		else {
+			this.scene.invalidate(graphicsDevice);
+		}
+	}
+
 	/**
 	 * Gets the scene
 	 * @return
@@ -3,11 +3,13 @@
 // file 'LICENSE', which is part of this source code package.
 package atlantis.engine.state;
 
+import java.awt.Color;
 import java.util.ArrayList;
 
 import atlantis.framework.DrawableGameComponent;
 import atlantis.framework.Game;
 import atlantis.framework.GameTime;
+import atlantis.framework.graphics.GraphicsDevice;
 
 /**
  * A State manager that is responsible to manage game states.
@@ -48,6 +50,18 @@ public class StateManager extends DrawableGameComponent {
 
 	@Override
 	public void draw(GameTime gameTime) {
+		// The states are drawn over each other on the render target of the device.
+		GraphicsDevice graphicsDevice = this.game.graphicsDevice();
+		
+		// In dirty region mode, the changes are known before the dirty regions are cleared.
+		if (graphicsDevice.isDirtyRegionsEnabled()) {
+			for (int i = 0, l = this.states.size(); i < l; i++) {
+				this.states.get(i).reportChanges(graphicsDevice);
+			}
+		}
+		
+		graphicsDevice.clear(Color.black);
+		
 		for (int i = 0, l = this.states.size(); i < l; i++) {
 			if (this.states.get(i).isVisible()) {
 				this.states.get(i).draw(gameTime);
@@ -147,6 +161,7 @@ public class StateManager extends DrawableGameComponent {
 	 * @param state The state to remove.
 	 */
 	public void remove(State state) {
+		state.getScene().invalidate(this.game.graphicsDevice());
 		this.states.remove(state);
 	}
 	
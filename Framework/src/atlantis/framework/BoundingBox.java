@@ -32,6 +32,72 @@ public class BoundingBox {
 		return 2;
 	}
 	
+	/**
+	 * Test if the bounding box contains a point.
+	 * @param point A point.
+	 * @return Return true if the point is in the box or on its sides.
+	 */
+	public boolean contains(Vector3 point) {
+		return point.x >= this.min.x && point.x <= this.max.x && 
+				point.y >= this.min.y && point.y <= this.max.y && 
+				point.z >= this.min.z && point.z <= this.max.z;
+	}
+	
+	/**
+	 * Test if the bounding box overlaps another bounding box.
+	 * @param box A bounding box.
+	 * @return Return true if the boxes overlap or touch.
+	 */
+	public boolean intersects(BoundingBox box) {
+		return box.max.x >= this.min.x && box.min.x <= this.max.x && 
+				box.max.y >= this.min.y && box.min.y <= this.max.y && 
+				box.max.z >= this.min.z && box.min.z <= this.max.z;
+	}
+	
+	/**
+	 * Test if the bounding box overlaps a sphere.
+	 * @param sphere A bounding sphere.
+	 * @return Return true if the sphere and the box overlap.
+	 */
+	public boolean intersects(BoundingSphere sphere) {
+		return sphere.intersects(this);
+	}
+	
+	/**
+	 * Gets the distance between a ray and the box.
+	 * @param ray A ray.
+	 * @return Return the distance along the ray, or -1 if the ray misses the box.
+	 */
+	public float intersects(Ray ray) {
+		return ray.intersects(this);
+	}
+	
+	/**
+	 * Create the smallest box that contains packed positions.
+	 * @param positions An array of positions, 3 floats per position.
+	 * @param offset The index of the first position in the array.
+	 * @param count The number of positions.
+	 * @return Return a bounding box.
+	 */
+	public static BoundingBox createFromPoints(float[] positions, int offset, int count) {
+		BoundingBox box = new BoundingBox(new Vector3(Float.POSITIVE_INFINITY), new Vector3(Float.NEGATIVE_INFINITY));
+		
+		for (int i = offset, l = offset + count * 3; i < l; i += 3) {
+			box.min.x = Math.min(box.min.x, positions[i]);
+			box.min.y = Math.min(box.min.y, positions[i + 1]);
+			box.min.z = Math.min(box.min.z, positions[i + 2]);
+			box.max.x = Math.max(box.max.x, positions[i]);
+			box.max.y = Math.max(box.max.y, positions[i + 1]);
+			box.max.z = Math.max(box.max.z, positions[i + 2]);
+		}
+		
+		return box;
+	}
+	
+	public String toString() {
+		return "Min: " + this.min.toString() + " Max: " + this.max.toString();
+	}
+	
 	public Vector3[] getCorners() {
         return new Vector3[] {
             new Vector3(this.min.x, this.max.y, this.max.z), 
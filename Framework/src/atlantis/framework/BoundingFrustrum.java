@@ -1,5 +1,9 @@
 package atlantis.framework;
 
+/**
+ * A view frustum defined by a view projection matrix. The planes are extracted from the matrix (Gribb and Hartmann)
+ * for a clip space where X and Y are between -W and W and Z is between 0 and W. Their normals point inside the frustum.
+ */
 public class BoundingFrustrum {
 	protected Matrix matrix;
 	protected Plane bottom;
@@ -8,21 +12,199 @@ public class BoundingFrustrum {
 	protected Plane right;
 	protected Plane near;
 	protected Plane top;
+	protected Plane[] planes;
 	protected Vector3[] corners;
-	
+
 	public BoundingFrustrum(Matrix value) {
 		this.matrix = value;
 		this.createPlanes();
 		this.createCorners();
 	}
-	
+
 	public void createPlanes()
 	{
-		
+		Matrix m = this.matrix;
+		this.left = new Plane(m.M14 + m.M11, m.M24 + m.M21, m.M34 + m.M31, m.M44 + m.M41);
+		this.right = new Plane(m.M14 - m.M11, m.M24 - m.M21, m.M34 - m.M31, m.M44 - m.M41);
+		this.bottom = new Plane(m.M14 + m.M12, m.M24 + m.M22, m.M34 + m.M32, m.M44 + m.M42);
+		this.top = new Plane(m.M14 - m.M12, m.M24 - m.M22, m.M34 - m.M32, m.M44 - m.M42);
+		this.near = new Plane(m.M13, m.M23, m.M33, m.M43);
+		this.far = new Plane(m.M14 - m.M13, m.M24 - m.M23, m.M34 - m.M33, m.M44 - m.M43);
+		this.planes = new Plane[] { this.near, this.far, this.left, this.right, this.top, this.bottom };
+
+		for (int i = 0; i < this.planes.length; i++) {
+			this.planes[i].normalize();
+		}
 	}
-	
+
 	public void createCorners()
 	{
-		
+		Matrix inverse = Matrix.invert(this.matrix);
+		this.corners = new Vector3[BoundingBox.cornerCount];
+
+		// The near corners then the far corners, clockwise from the top left.
+		float[] xs = { -1, 1, 1, -1 };
+		float[] ys = { 1, 1, -1, -1 };
+
+		for (int i = 0; i < 8; i++) {
+			Vector3 corner = new Vector3(xs[i % 4], ys[i % 4], i < 4 ? 0 : 1);
+			Vector3.transformCoordinate(corner, inverse, corner);
+			this.corners[i] = corner;
+		}
+	}
+
+	/**
+	 * Test if the frustum contains a point.
+	 * @param point A point.
+	 * @return Return true if the point is inside the frustum or on its sides.
+	 */
+	public boolean contains(Vector3 point) {
+		for (int i = 0; i < 6; i++) {
+			if (this.planes[i].dotCoordinate(point) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Test if the frustum contains a sphere.
+	 * @param sphere A bounding sphere.
+	 * @return Return 0 if not contains, 1 if contains and 2 if intersects
+	 */
+	public int contains(BoundingSphere sphere) {
+		boolean intersects = false;
+
+		for (int i = 0; i < 6; i++) {
+			float distance = this.planes[i].dotCoordinate(sphere.center);
+
+			if (distance < -sphere.radius) {
+				return 0;
+			}
+			else if (distance < sphere.radius) {
+				intersects = true;
+			}
+		}
+
+		return intersects ? 2 : 1;
+	}
+
+	/**
+	 * Test if the frustum contains a box.
+	 * @param box A bounding box.
+	 * @return Return 0 if not contains, 1 if contains and 2 if intersects
+	 */
+	public int contains(BoundingBox box) {
+		boolean intersects = false;
+
+		for (int i = 0; i < 6; i++) {
+			Vector3 normal = this.planes[i].normal;
+			float d = this.planes[i].D;
+
+			// The corners of the box that are the furthest along the normal and the furthest behind.
+			float front = d + (normal.x * (normal.x >= 0 ? box.max.x : box.min.x))
+					+ (normal.y * (normal.y >= 0 ? box.max.y : box.min.y))
+					+ (normal.z * (normal.z >= 0 ? box.max.z : box.min.z));
+
+			if (front < 0) {
+				return 0;
+			}
+
+			float back = d + (normal.x * (normal.x >= 0 ? box.min.x : box.max.x))
+					+ (normal.y * (normal.y >= 0 ? box.min.y : box.max.y))
+					+ (normal.z * (normal.z >= 0 ? box.min.z : box.max.z));
+
+			if (back < 0) {
+				intersects = true;
+			}
+		}
+
+		return intersects ? 2 : 1;
+	}
+
+	/**
+	 * Test if a sphere is inside the frustum or crosses it. The test is conservative, a large sphere
+	 * near a corner of the frustum can pass it.
+	 * @param sphere A bounding sphere.
+	 * @return Return true if the sphere can be seen.
+	 */
+	public boolean intersects(BoundingSphere sphere) {
+		return this.contains(sphere) != 0;
+	}
+
+	/**
+	 * Test if a box is inside the frustum or crosses it. The test is conservative, like the sphere test.
+	 * @param box A bounding box.
+	 * @return Return true if the box can be seen.
+	 */
+	public boolean intersects(BoundingBox box) {
+		return this.contains(box) != 0;
+	}
+
+	/**
+	 * Gets the distance between a ray and the frustum.
+	 * @param ray A ray.
+	 * @return Return the distance along the ray, 0 if the ray starts inside, or -1 if it misses the frustum.
+	 */
+	public float intersects(Ray ray) {
+		return ray.intersects(this);
+	}
+
+	// ---
+	// --- Getters and setters
+	// ---
+
+	public Matrix getMatrix() {
+		return this.matrix;
+	}
+
+	/**
+	 * Sets the view projection matrix and update the planes and the corners.
+	 * @param matrix A view projection matrix.
+	 */
+	public void setMatrix(Matrix matrix) {
+		this.matrix = matrix;
+		this.createPlanes();
+		this.createCorners();
+	}
+
+	/**
+	 * Gets the planes of the frustum.
+	 * @return Return the near, far, left, right, top and bottom planes.
+	 */
+	public Plane[] getPlanes() {
+		return this.planes;
+	}
+
+	public Plane getNear() {
+		return this.near;
+	}
+
+	public Plane getFar() {
+		return this.far;
+	}
+
+	public Plane getLeft() {
+		return this.left;
+	}
+
+	public Plane getRight() {
+		return this.right;
+	}
+
+	public Plane getTop() {
+		return this.top;
+	}
+
+	public Plane getBottom() {
+		return this.bottom;
+	}
+
+	/**
+	 * Gets the corners of the frustum.
+	 * @return Return the 4 corners of the near plane followed by the 4 corners of the far plane.
+	 */
+	public Vector3[] getCorners() {
+		return this.corners;
 	}
 }
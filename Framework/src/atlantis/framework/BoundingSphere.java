@@ -80,4 +80,42 @@ public class BoundingSphere {
         
         return 2;
 	}
+	
+	/**
+	 * Test if the sphere overlaps another sphere.
+	 * @param sphere A bounding sphere.
+	 * @return Return true if the spheres overlap or touch.
+	 */
+	public boolean intersects(BoundingSphere sphere) {
+		float dx = sphere.center.x - this.center.x;
+		float dy = sphere.center.y - this.center.y;
+		float dz = sphere.center.z - this.center.z;
+		float radius = sphere.radius + this.radius;
+		return (dx * dx) + (dy * dy) + (dz * dz) <= radius * radius;
+	}
+	
+	/**
+	 * Test if the sphere overlaps a box, with the distance between the center and the closest point of the box.
+	 * @param box A bounding box.
+	 * @return Return true if the sphere and the box overlap.
+	 */
+	public boolean intersects(BoundingBox box) {
+		float dx = Math.max(0, Math.max(box.min.x - this.center.x, this.center.x - box.max.x));
+		float dy = Math.max(0, Math.max(box.min.y - this.center.y, this.center.y - box.max.y));
+		float dz = Math.max(0, Math.max(box.min.z - this.center.z, this.center.z - box.max.z));
+		return (dx * dx) + (dy * dy) + (dz * dz) <= this.radius * this.radius;
+	}
+	
+	/**
+	 * Gets the distance between a ray and the sphere.
+	 * @param ray A ray.
+	 * @return Return the distance along the ray, or -1 if the ray misses the sphere.
+	 */
+	public float intersects(Ray ray) {
+		return ray.intersects(this);
+	}
+	
+	public String toString() {
+		return "Center: " + this.center.toString() + " Radius: " + this.radius;
+	}
 }
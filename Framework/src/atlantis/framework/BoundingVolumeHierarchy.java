@@ -0,0 +1,311 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.framework;
+
+/**
+ * A bounding volume hierarchy over triangles, for ray queries on large meshes. Each node is a box that contains
+ * its triangles, the triangles of a node are split in two halves on the longest axis of their centers until
+ * a node has a few triangles. A ray query only tests the triangles of the boxes crossed by the ray,
+ * from the nearest box to the farthest, so a mesh of 100k triangles is picked with a few hundred tests.
+ * <p>
+ * The tree is stored in flat arrays and the triangles are copied in the order of the leaves, 9 floats per
+ * triangle. It's a snapshot: it must be built again when the positions change. A tree can be queried by one
+ * thread at a time.
+ * @author Yannick
+ */
+public class BoundingVolumeHierarchy {
+	private static final int LeafSize = 4;
+	private static final int MaxDepth = 64;
+
+	// The triangles in the order of the leaves and their index in the source.
+	protected float[] triangles;
+	protected int[] triangleIndices;
+	protected int triangleCount;
+
+	// 6 floats per node: the minimum then the maximum of its box.
+	protected float[] bounds;
+	// 2 ints per node: the first child and 0 for a node, the first triangle and the count for a leaf.
+	protected int[] nodes;
+	protected int nodeCount;
+	protected int depth;
+
+	private int[] stack;
+
+	/**
+	 * Build a tree over indexed triangles.
+	 * @param positions An array of positions, 3 floats per vertex.
+	 * @param indices An array of indices, 3 vertex indices per triangle.
+	 * @param triangleCount The number of triangles.
+	 */
+	public BoundingVolumeHierarchy(float[] positions, int[] indices, int triangleCount) {
+		float[] triangles = new float[triangleCount * 9];
+
+		for (int i = 0, p = 0; i < triangleCount * 3; i++, p += 3) {
+			int index = indices[i] * 3;
+			triangles[p] = positions[index];
+			triangles[p + 1] = positions[index + 1];
+			triangles[p + 2] = positions[index + 2];
+		}
+
+		this.build(triangles, triangleCount);
+	}
+
+	/**
+	 * Build a tree over packed triangles.
+	 * @param triangles An array of triangles, 9 floats per triangle: the positions of the 3 vertices.
+	 * @param triangleCount The number of triangles.
+	 */
+	public BoundingVolumeHierarchy(float[] triangles, int triangleCount) {
+		float[] copy = new float[triangleCount * 9];
+		System.arraycopy(triangles, 0, copy, 0, copy.length);
+		this.build(copy, triangleCount);
+	}
+
+	private void build(float[] source, int triangleCount) {
+		this.triangleCount = triangleCount;
+		this.stack = new int[MaxDepth];
+
+		int[] order = new int[triangleCount];
+		float[] centers = new float[triangleCount * 3];
+
+		for (int i = 0, p = 0; i < triangleCount; i++, p += 9) {
+			order[i] = i;
+			centers[i * 3] = (source[p] + source[p + 3] + source[p + 6]) / 3.0f;
+			centers[i * 3 + 1] = (source[p + 1] + source[p + 4] + source[p + 7]) / 3.0f;
+			centers[i * 3 + 2] = (source[p + 2] + source[p + 5] + source[p + 8]) / 3.0f;
+		}
+
+		// A binary tree with at least one triangle per leaf has less than 2n nodes.
+		int maxNodes = Math.max(1, triangleCount * 2);
+		this.bounds = new float[maxNodes * 6];
+		this.nodes = new int[maxNodes * 2];
+		this.nodeCount = 1;
+		this.depth = 0;
+		this.buildNode(0, source, centers, order, 0, triangleCount, 1);
+
+		// The leaves reference ranges of the order, the triangles are copied in that order.
+		this.triangles = new float[triangleCount * 9];
+		this.triangleIndices = order;
+
+		for (int i = 0; i < triangleCount; i++) {
+			System.arraycopy(source, order[i] * 9, this.triangles, i * 9, 9);
+		}
+	}
+
+	private void buildNode(int node, float[] source, float[] centers, int[] order, int start, int end, int depth) {
+		this.depth = Math.max(this.depth, depth);
+
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+		float centerMinX = Float.POSITIVE_INFINITY, centerMinY = Float.POSITIVE_INFINITY, centerMinZ = Float.POSITIVE_INFINITY;
+		float centerMaxX = Float.NEGATIVE_INFINITY, centerMaxY = Float.NEGATIVE_INFINITY, centerMaxZ = Float.NEGATIVE_INFINITY;
+
+		for (int i = start; i < end; i++) {
+			int p = order[i] * 9;
+
+			for (int k = 0; k < 9; k += 3) {
+				minX = Math.min(minX, source[p + k]);
+				minY = Math.min(minY, source[p + k + 1]);
+				minZ = Math.min(minZ, source[p + k + 2]);
+				maxX = Math.max(maxX, source[p + k]);
+				maxY = Math.max(maxY, source[p + k + 1]);
+				maxZ = Math.max(maxZ, source[p + k + 2]);
+			}
+
+			int c = order[i] * 3;
+			centerMinX = Math.min(centerMinX, centers[c]);
+			centerMinY = Math.min(centerMinY, centers[c + 1]);
+			centerMinZ = Math.min(centerMinZ, centers[c + 2]);
+			centerMaxX = Math.max(centerMaxX, centers[c]);
+			centerMaxY = Math.max(centerMaxY, centers[c + 1]);
+			centerMaxZ = Math.max(centerMaxZ, centers[c + 2]);
+		}
+
+		int b = node * 6;
+		this.bounds[b] = minX;
+		this.bounds[b + 1] = minY;
+		this.bounds[b + 2] = minZ;
+		this.bounds[b + 3] = maxX;
+		this.bounds[b + 4] = maxY;
+		this.bounds[b + 5] = maxZ;
+
+		// The depth limit keeps the traversal stack small, it's only reached by degenerate inputs.
+		if (end - start <= LeafSize || depth >= MaxDepth - 1) {
+			this.nodes[node * 2] = start;
+			this.nodes[node * 2 + 1] = end - start;
+			return;
+		}
+
+		float extentX = centerMaxX - centerMinX;
+		float extentY = centerMaxY - centerMinY;
+		float extentZ = centerMaxZ - centerMinZ;
+		int axis = (extentX >= extentY && extentX >= extentZ) ? 0 : (extentY >= extentZ ? 1 : 2);
+		int middle = (start + end) >>> 1;
+
+		select(centers, axis, order, start, end - 1, middle);
+
+		int left = this.nodeCount;
+		this.nodeCount += 2;
+		this.nodes[node * 2] = left;
+		this.nodes[node * 2 + 1] = 0;
+
+		this.buildNode(left, source, centers, order, start, middle, depth + 1);
+		this.buildNode(left + 1, source, centers, order, middle, end, depth + 1);
+	}
+
+	/**
+	 * Reorder a range so the triangle at the nth position has the nth center on an axis,
+	 * the centers before are smaller or equal and the centers after are greater or equal (quickselect).
+	 */
+	private static void select(float[] centers, int axis, int[] order, int low, int high, int nth) {
+		while (high > low) {
+			float pivot = centers[order[(low + high) >>> 1] * 3 + axis];
+			int i = low;
+			int j = high;
+
+			while (i <= j) {
+				while (centers[order[i] * 3 + axis] < pivot) {
+					i++;
+				}
+				while (centers[order[j] * 3 + axis] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					int temp = order[i];
+					order[i] = order[j];
+					order[j] = temp;
+					i++;
+					j--;
+				}
+			}
+
+			if (nth <= j) {
+				high = j;
+			}
+			else if (nth >= i) {
+				low = i;
+			}
+			else {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Gets the closest triangle hit by a ray. Only the triangles closer than the distance of the hit are tested,
+	 * call hit.reset() before a new query.
+	 * @param ray A ray in the space of the positions.
+	 * @param hit The closest hit, the index is the index of the triangle in the source arrays.
+	 * @return Return true if a closer triangle is hit.
+	 */
+	public boolean intersects(Ray ray, RayHit hit) {
+		if (this.triangleCount == 0) {
+			return false;
+		}
+
+		Vector3 direction = ray.getDirection();
+		float inverseX = 1.0f / direction.x;
+		float inverseY = 1.0f / direction.y;
+		float inverseZ = 1.0f / direction.z;
+		float[] bounds = this.bounds;
+		int[] nodes = this.nodes;
+		int[] stack = this.stack;
+		int stackSize = 0;
+		boolean found = false;
+
+		if (ray.intersectsBox(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5],
+				inverseX, inverseY, inverseZ, hit.distance) < 0.0f) {
+			return false;
+		}
+
+		int node = 0;
+
+		while (true) {
+			int count = nodes[node * 2 + 1];
+
+			if (count > 0) {
+				for (int i = nodes[node * 2], l = i + count; i < l; i++) {
+					int p = i * 9;
+					found |= ray.intersectsTriangle(this.triangles, p, p + 3, p + 6, this.triangleIndices[i], hit);
+				}
+			}
+			else {
+				int left = nodes[node * 2];
+				int right = left + 1;
+				int b = left * 6;
+				float leftDistance = ray.intersectsBox(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5],
+						inverseX, inverseY, inverseZ, hit.distance);
+				b += 6;
+				float rightDistance = ray.intersectsBox(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5],
+						inverseX, inverseY, inverseZ, hit.distance);
+
+				// Visit the nearest child first, the farthest one is often skipped once a triangle is hit.
+				if (leftDistance >= 0.0f && rightDistance >= 0.0f) {
+					if (leftDistance <= rightDistance) {
+						stack[stackSize++] = right;
+						node = left;
+					}
+					else {
+						stack[stackSize++] = left;
+						node = right;
+					}
+					continue;
+				}
+				else if (leftDistance >= 0.0f) {
+					node = left;
+					continue;
+				}
+				else if (rightDistance >= 0.0f) {
+					node = right;
+					continue;
+				}
+			}
+
+			// Pop the next node that is still closer than the hit.
+			node = -1;
+			while (stackSize > 0) {
+				int candidate = stack[--stackSize];
+				int b = candidate * 6;
+				if (ray.intersectsBox(bounds[b], bounds[b + 1], bounds[b + 2], bounds[b + 3], bounds[b + 4], bounds[b + 5],
+						inverseX, inverseY, inverseZ, hit.distance) >= 0.0f) {
+					node = candidate;
+					break;
+				}
+			}
+
+			if (node < 0) {
+				return found;
+			}
+		}
+	}
+
+	// ---
+	// --- Getters and setters
+	// ---
+
+	/**
+	 * Gets the box that contains all the triangles.
+	 * @return Return a new bounding box.
+	 */
+	public BoundingBox getBounds() {
+		return new BoundingBox(new Vector3(this.bounds[0], this.bounds[1], this.bounds[2]),
+				new Vector3(this.bounds[3], this.bounds[4], this.bounds[5]));
+	}
+
+	public int getTriangleCount() {
+		return this.triangleCount;
+	}
+
+	public int getNodeCount() {
+		return this.nodeCount;
+	}
+
+	/**
+	 * Gets the depth of the tree.
+	 * @return Return the number of levels, 1 if the root is a leaf.
+	 */
+	public int getDepth() {
+		return this.depth;
+	}
+}
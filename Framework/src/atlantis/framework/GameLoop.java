@@ -3,7 +3,10 @@
 // file 'LICENSE', which is part of this source code package.
 package atlantis.framework;
 
+import atlantis.framework.graphics.DirtyRegions;
+import atlantis.framework.graphics.GraphicsDevice;
 import atlantis.framework.platform.GameWindow;
+import atlantis.framework.platform.JPanelRenderer;
 
 /**
  * The game loop 
@@ -26,7 +29,8 @@ public class GameLoop implements Runnable {
 			//for (int i = 0; i < 2; i++)
 			this.game.update(this.game.gameTime);
 			this.game.draw(this.game.gameTime);
-			this.gameWindow.getRenderer().repaint();
+			ScratchPool.get().reset();
+			this.present();
 			
 			// TODO : Use a correct value
 			try {
@@ -37,4 +41,26 @@ public class GameLoop implements Runnable {
 			}
 		}
 	}
+	
+	/**
+	 * Repaint the window, only the dirty regions of the frame in dirty region mode.
+	 */
+	private void present() {
+		GraphicsDevice graphicsDevice = this.game.graphicsDevice;
+		JPanelRenderer renderer = this.gameWindow.getRenderer();
+		
+		if (graphicsDevice.isDirtyRegionsEnabled()) {
+			DirtyRegions dirtyRegions = graphicsDevice.getDirtyRegions();
+			
+			for (int i = 0, l = dirtyRegions.getCount(); i < l; i++) {
+				Rectangle region = dirtyRegions.get(i);
+				renderer.repaint(region.x, region.y, region.width, region.height);
+			}
+			
+			dirtyRegions.clear();
+		}
+		else {
+			renderer.repaint();
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.framework;
+
+/**
+ * A task that can be split and executed on several threads by Parallel.
+ * @author Yannick
+ */
+public interface IParallelTask {
+	/**
+	 * Process a range of items.
+	 * @param start The first index (inclusive).
+	 * @param end The last index (exclusive).
+	 */
+	public void run(int start, int end);
+}
@@ -12,7 +12,14 @@ public class MathHelper {
 	public static double Pi = Math.PI;
 	public static double PiOver2 = Math.PI / 2;
 	public static double PiOver4 = Math.PI / 4;
-	public static double TwoPi = Math.PI * Math.PI;
+	public static double TwoPi = Math.PI * 2;
+	
+	private static final double InverseTwoPi = 1.0 / (Math.PI * 2);
+	private static final int DefaultTableSize = 4096;
+	
+	private static boolean fastTrigonometry = false;
+	// Sine over [0, 2PI] with one more value so the interpolation never wraps.
+	private static float[] sinTable = createSinTable(DefaultTableSize);
 	
 	/**
 	 * Restricts a value to be within a specified range.
@@ -95,4 +102,182 @@ public class MathHelper {
 	public static boolean isPowerOfTwo(int value) {
 		return (value > 0) && ((value & (value - 1)) == 0);
 	}
+	
+	// ---
+	// --- Trigonometry
+	// ---
+	
+	/**
+	 * Gets the sine of an angle. It uses the lookup table when the fast trigonometry is enabled, otherwise Math.sin.
+	 * @param angle An angle in radians.
+	 * @return Return the sine of the angle.
+	 */
+	public static float sin(float angle) {
+		return fastTrigonometry ? fastSin(angle) : (float)Math.sin(angle);
+	}
+	
+	/**
+	 * Gets the cosine of an angle. It uses the lookup table when the fast trigonometry is enabled, otherwise Math.cos.
+	 * @param angle An angle in radians.
+	 * @return Return the cosine of the angle.
+	 */
+	public static float cos(float angle) {
+		return fastTrigonometry ? fastCos(angle) : (float)Math.cos(angle);
+	}
+	
+	/**
+	 * Gets the cosine and the sine of an angle in one call, it's the point of the unit circle at this angle.
+	 * @param angle An angle in radians.
+	 * @param result The vector that receives the cosine on X and the sine on Y.
+	 */
+	public static void sinCos(float angle, Vector2 result) {
+		if (fastTrigonometry) {
+			fastSinCos(angle, result);
+		}
+		else {
+			result.x = (float)Math.cos(angle);
+			result.y = (float)Math.sin(angle);
+		}
+	}
+	
+	/**
+	 * Gets the sine of an angle from the lookup table with a linear interpolation.
+	 * The maximum error is given by getFastTrigonometryError(), angles should stay in [-100000, 100000].
+	 * @param angle An angle in radians.
+	 * @return Return an approximation of the sine.
+	 */
+	public static float fastSin(float angle) {
+		float[] table = sinTable;
+		int size = table.length - 1;
+		// The position is in double so large angles keep the precision of the fraction.
+		double position = angle * (size * InverseTwoPi);
+		int index = (int)Math.floor(position);
+		float amount = (float)(position - index);
+		index &= size - 1;
+		return table[index] + (table[index + 1] - table[index]) * amount;
+	}
+	
+	/**
+	 * Gets the cosine of an angle from the lookup table with a linear interpolation.
+	 * @param angle An angle in radians.
+	 * @return Return an approximation of the cosine.
+	 * @see #fastSin(float)
+	 */
+	public static float fastCos(float angle) {
+		float[] table = sinTable;
+		int size = table.length - 1;
+		// cos(a) = sin(a + PI / 2), a quarter of the table.
+		double position = angle * (size * InverseTwoPi) + (size >> 2);
+		int index = (int)Math.floor(position);
+		float amount = (float)(position - index);
+		index &= size - 1;
+		return table[index] + (table[index + 1] - table[index]) * amount;
+	}
+	
+	/**
+	 * Gets the cosine and the sine of an angle from the lookup table, the position in the table is computed once.
+	 * @param angle An angle in radians.
+	 * @param result The vector that receives the cosine on X and the sine on Y.
+	 * @see #fastSin(float)
+	 */
+	public static void fastSinCos(float angle, Vector2 result) {
+		float[] table = sinTable;
+		int size = table.length - 1;
+		int mask = size - 1;
+		double position = angle * (size * InverseTwoPi);
+		int index = (int)Math.floor(position);
+		float amount = (float)(position - index);
+		int sinIndex = index & mask;
+		int cosIndex = (index + (size >> 2)) & mask;
+		result.x = table[cosIndex] + (table[cosIndex + 1] - table[cosIndex]) * amount;
+		result.y = table[sinIndex] + (table[sinIndex + 1] - table[sinIndex]) * amount;
+	}
+	
+	/**
+	 * Sets the number of values of the sine table used by the fast trigonometry. 
+	 * A bigger table is more precise but uses more memory and cache. Call it at startup, before other threads use the table.
+	 * @param size A power of two greater or equal to 4 (4096 by default).
+	 */
+	public static void setFastTrigonometryTableSize(int size) {
+		if (size < 4 || !isPowerOfTwo(size)) {
+			throw new IllegalArgumentException("The size of the table must be a power of two greater or equal to 4");
+		}
+		sinTable = createSinTable(size);
+	}
+	
+	public static int getFastTrigonometryTableSize() {
+		return sinTable.length - 1;
+	}
+	
+	/**
+	 * Gets the maximum absolute error of fastSin, fastCos and fastSinCos with the current table.
+	 * The error of a linear interpolation of the sine is at most h^2 / 8 with h the step of the table, 
+	 * plus the rounding of the float values.
+	 * @return Return the maximum error (about 5.3e-7 with the default table).
+	 */
+	public static float getFastTrigonometryError() {
+		double step = (Math.PI * 2) / (sinTable.length - 1);
+		return (float)(step * step / 8.0) + 2.0f * Math.ulp(1.0f);
+	}
+	
+	/**
+	 * Sets to true to use the lookup table in sin, cos and sinCos. Matrix and Quaternion rotations use them.
+	 * @param enabled Sets to true to enable the fast trigonometry (false by default).
+	 */
+	public static void setFastTrigonometry(boolean enabled) {
+		fastTrigonometry = enabled;
+	}
+	
+	public static boolean isFastTrigonometry() {
+		return fastTrigonometry;
+	}
+	
+	private static float[] createSinTable(int size) {
+		float[] table = new float[size + 1];
+		for (int i = 0; i <= size; i++) {
+			table[i] = (float)Math.sin(i * (Math.PI * 2) / size);
+		}
+		return table;
+	}
+	
+	/**
+	 * Gets an approximation of 1 / sqrt(value) with the bit trick of Quake III and one Newton iteration.
+	 * The relative error is lower than 0.2%, use it for normalizations that don't need the full precision.
+	 * @param value A positive value.
+	 * @return Return an approximation of the inverse square root.
+	 */
+	public static float fastInverseSqrt(float value) {
+		float half = value * 0.5f;
+		int bits = 0x5f375a86 - (Float.floatToRawIntBits(value) >> 1);
+		float result = Float.intBitsToFloat(bits);
+		return result * (1.5f - half * result * result);
+	}
+	
+	/**
+	 * Gets an approximation of Math.atan2 with a polynomial, the maximum error is about 0.0015 radians (0.09 degrees).
+	 * @param y The ordinate.
+	 * @param x The abscissa.
+	 * @return Return the angle of the point (x, y) in [-PI, PI].
+	 */
+	public static float fastAtan2(float y, float x) {
+		float absX = Math.abs(x);
+		float absY = Math.abs(y);
+		
+		if (absX == 0.0f && absY == 0.0f) {
+			return 0.0f;
+		}
+		
+		// atan(z) = PI / 4 * z - z * (|z| - 1) * (0.2447 + 0.0663 * |z|) for |z| <= 1.
+		boolean swap = absY > absX;
+		float z = swap ? absX / absY : absY / absX;
+		float angle = 0.7853982f * z - z * (z - 1.0f) * (0.2447f + 0.0663f * z);
+		
+		if (swap) {
+			angle = 1.5707964f - angle;
+		}
+		if (x < 0.0f) {
+			angle = 3.1415927f - angle;
+		}
+		return (y < 0.0f) ? -angle : angle;
+	}
 }
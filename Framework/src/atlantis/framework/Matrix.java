@@ -31,13 +31,6 @@ public class Matrix {
 	 * Create an empty matrix with all field at 0.0f.
 	 */
 	public Matrix() {
-		float[] values = {
-			0.0f, 0.0f, 0.0f, 0.0f,
-			0.0f, 0.0f, 0.0f, 0.0f,
-			0.0f, 0.0f, 0.0f, 0.0f,
-			0.0f, 0.0f, 0.0f, 0.0f
-		};
-		this.set(values);
 	}
 	
 	/**
@@ -45,7 +38,7 @@ public class Matrix {
 	 * @param matrix A matrix.
 	 */
 	public Matrix(Matrix matrix) {
-		this.set(matrix.toArray());
+		this.set(matrix);
 	}
 	
 	/**
@@ -73,6 +66,29 @@ public class Matrix {
 		}
 	}
 	
+	/**
+	 * Set all values of the matrix from a packed array of matrices.
+	 * @param values An array that contains 16 values from M11 to M44 at the offset.
+	 * @param offset Index of M11 in the array.
+	 */
+	public void set(float[] values, int offset) {
+		this.M11 = values[offset]; this.M12 = values[offset + 1]; this.M13 = values[offset + 2]; this.M14 = values[offset + 3];
+		this.M21 = values[offset + 4]; this.M22 = values[offset + 5]; this.M23 = values[offset + 6]; this.M24 = values[offset + 7];
+		this.M31 = values[offset + 8]; this.M32 = values[offset + 9]; this.M33 = values[offset + 10]; this.M34 = values[offset + 11];
+		this.M41 = values[offset + 12]; this.M42 = values[offset + 13]; this.M43 = values[offset + 14]; this.M44 = values[offset + 15];
+	}
+	
+	/**
+	 * Copy the values of a matrix.
+	 * @param matrix The matrix to copy.
+	 */
+	public void set(Matrix matrix) {
+		this.M11 = matrix.M11; this.M12 = matrix.M12; this.M13 = matrix.M13; this.M14 = matrix.M14;
+		this.M21 = matrix.M21; this.M22 = matrix.M22; this.M23 = matrix.M23; this.M24 = matrix.M24;
+		this.M31 = matrix.M31; this.M32 = matrix.M32; this.M33 = matrix.M33; this.M34 = matrix.M34;
+		this.M41 = matrix.M41; this.M42 = matrix.M42; this.M43 = matrix.M43; this.M44 = matrix.M44;
+	}
+	
 	// ---
 	// --- Getters and setters
 	// ---
@@ -81,7 +97,20 @@ public class Matrix {
 	 * Sets the matrix to identity
 	 */
 	public void setIdentity () {
-		set(getIdentityValues());
+		this.M11 = 1.0f; this.M12 = 0.0f; this.M13 = 0.0f; this.M14 = 0.0f;
+		this.M21 = 0.0f; this.M22 = 1.0f; this.M23 = 0.0f; this.M24 = 0.0f;
+		this.M31 = 0.0f; this.M32 = 0.0f; this.M33 = 1.0f; this.M34 = 0.0f;
+		this.M41 = 0.0f; this.M42 = 0.0f; this.M43 = 0.0f; this.M44 = 1.0f;
+	}
+	
+	/**
+	 * Sets all the values of the matrix to 0.
+	 */
+	public void setZero() {
+		this.M11 = 0.0f; this.M12 = 0.0f; this.M13 = 0.0f; this.M14 = 0.0f;
+		this.M21 = 0.0f; this.M22 = 0.0f; this.M23 = 0.0f; this.M24 = 0.0f;
+		this.M31 = 0.0f; this.M32 = 0.0f; this.M33 = 0.0f; this.M34 = 0.0f;
+		this.M41 = 0.0f; this.M42 = 0.0f; this.M43 = 0.0f; this.M44 = 0.0f;
 	}
 	
 	/**
@@ -142,6 +171,16 @@ public class Matrix {
 		return vector;
 	}
 	
+	/**
+	 * Gets the left of the matrix.
+	 * @param result The vector that receives the left vector of the matrix.
+	 */
+	public void getLeft(Vector3 result) {
+		result.x = -this.M11;
+		result.y = -this.M12;
+		result.z = -this.M13;
+	}
+	
 	/**
 	 * Sets the right of the matrix.
 	 * @param vector
@@ -164,6 +203,16 @@ public class Matrix {
 		return vector;
 	}
 	
+	/**
+	 * Gets the right of the matrix.
+	 * @param result The vector that receives the right vector of the matrix.
+	 */
+	public void getRight(Vector3 result) {
+		result.x = this.M11;
+		result.y = this.M12;
+		result.z = this.M13;
+	}
+	
 	/**
 	 * Sets the up of the matrix.
 	 * @param vector
@@ -186,6 +235,16 @@ public class Matrix {
 		return vector;
 	}
 	
+	/**
+	 * Gets the up of the matrix.
+	 * @param result The vector that receives the up vector of the matrix.
+	 */
+	public void getUp(Vector3 result) {
+		result.x = this.M21;
+		result.y = this.M22;
+		result.z = this.M23;
+	}
+	
 	/**
 	 * Sets the down of the matrix.
 	 * @param vector
@@ -208,6 +267,16 @@ public class Matrix {
 		return vector;
 	}
 	
+	/**
+	 * Gets the down of the matrix.
+	 * @param result The vector that receives the down vector of the matrix.
+	 */
+	public void getDown(Vector3 result) {
+		result.x = -this.M21;
+		result.y = -this.M22;
+		result.z = -this.M23;
+	}
+	
 	/**
 	 * Sets the backward of the matrix.
 	 * @param vector
@@ -230,6 +299,16 @@ public class Matrix {
 		return vector;
 	}
 	
+	/**
+	 * Gets the backward of the matrix.
+	 * @param result The vector that receives the backward vector of the matrix.
+	 */
+	public void getBackward(Vector3 result) {
+		result.x = this.M31;
+		result.y = this.M32;
+		result.z = this.M33;
+	}
+	
 	/**
 	 * Sets the forward of the matrix.
 	 * @param vector
@@ -252,6 +331,16 @@ public class Matrix {
 		return vector;
 	}
 	
+	/**
+	 * Gets the forward of the matrix.
+	 * @param result The vector that receives the forward vector of the matrix.
+	 */
+	public void getForward(Vector3 result) {
+		result.x = -this.M31;
+		result.y = -this.M32;
+		result.z = -this.M33;
+	}
+	
 	/**
 	 * Sets translation
 	 * @param position The position to set.
@@ -270,6 +359,12 @@ public class Matrix {
 		return vector;
 	}
 	
+	public void getTranslation(Vector3 result) {
+		result.x = this.M41;
+		result.y = this.M42;
+		result.z = this.M43;
+	}
+	
 	public void setScale(Vector3 scale) {
 		this.M11 = scale.x;
 		this.M22 = scale.y;
@@ -284,6 +379,12 @@ public class Matrix {
 		return vector;
 	}
 	
+	public void getScale(Vector3 result) {
+		result.x = this.M11;
+		result.y = this.M22;
+		result.z = this.M33;
+	}
+	
 	/**
 	 * Gets values of matrix in array. Start at M11 to M44.
 	 * @return An array of values.
@@ -299,6 +400,26 @@ public class Matrix {
 		return values;
 	}
 	
+	/**
+	 * Copy the values of matrix in an array. Start at M11 to M44.
+	 * @param values An array of 16 values at least.
+	 */
+	public void toArray(float[] values) {
+		this.toArray(values, 0);
+	}
+	
+	/**
+	 * Copy the values of matrix in a packed array of matrices. Start at M11 to M44.
+	 * @param values An array with 16 values at least after the offset.
+	 * @param offset Index of M11 in the array.
+	 */
+	public void toArray(float[] values, int offset) {
+		values[offset] = M11; values[offset + 1] = M12; values[offset + 2] = M13; values[offset + 3] = M14;
+		values[offset + 4] = M21; values[offset + 5] = M22; values[offset + 6] = M23; values[offset + 7] = M24;
+		values[offset + 8] = M31; values[offset + 9] = M32; values[offset + 10] = M33; values[offset + 11] = M34;
+		values[offset + 12] = M41; values[offset + 13] = M42; values[offset + 14] = M43; values[offset + 15] = M44;
+	}
+	
 	// ---
 	// --- Methods declaration
 	// ---
@@ -308,13 +429,7 @@ public class Matrix {
 	 * @param matrix A matrix to add.
 	 */
 	public void add(Matrix matrix) {
-		float [] mValues = this.toArray();
-		float [] eValues = matrix.toArray();
-		
-		for(int i = 0; i < 16; i++) {
-			mValues[i] += eValues[i];
-		}
-		this.set(mValues);
+		add(this, matrix, this);
 	}
 	
 	/**
@@ -324,13 +439,37 @@ public class Matrix {
 	 * @return Return a new matrix.
 	 */
 	public static Matrix add(Matrix matA, Matrix matB) {
-		Matrix matrix = new Matrix(matA);
-		matrix.add(matB);
+		Matrix matrix = new Matrix();
+		add(matA, matB, matrix);
 		return matrix;
 	}
 	
+	/**
+	 * Add two matrix.
+	 * @param matA A matrix
+	 * @param matB Another matrix to add with the first
+	 * @param result The matrix that receives the result, it can be one of the operands.
+	 */
+	public static void add(Matrix matA, Matrix matB, Matrix result) {
+		result.M11 = matA.M11 + matB.M11; result.M12 = matA.M12 + matB.M12; result.M13 = matA.M13 + matB.M13; result.M14 = matA.M14 + matB.M14;
+		result.M21 = matA.M21 + matB.M21; result.M22 = matA.M22 + matB.M22; result.M23 = matA.M23 + matB.M23; result.M24 = matA.M24 + matB.M24;
+		result.M31 = matA.M31 + matB.M31; result.M32 = matA.M32 + matB.M32; result.M33 = matA.M33 + matB.M33; result.M34 = matA.M34 + matB.M34;
+		result.M41 = matA.M41 + matB.M41; result.M42 = matA.M42 + matB.M42; result.M43 = matA.M43 + matB.M43; result.M44 = matA.M44 + matB.M44;
+	}
+	
 	public static Matrix createFromQuaternion(Quaternion quaternion) {
-		Matrix result = Matrix.getMatrixIdentity();
+		Matrix result = new Matrix();
+		createFromQuaternion(quaternion, result);
+		return result;
+	}
+	
+	/**
+	 * Create a rotation matrix from a quaternion
+	 * @param quaternion A quaternion to use
+	 * @param result The matrix that receives the rotation.
+	 */
+	public static void createFromQuaternion(Quaternion quaternion, Matrix result) {
+		result.setIdentity();
 		
 		float xx = quaternion.x * quaternion.x;
         float yy = quaternion.y * quaternion.y;
@@ -351,8 +490,6 @@ public class Matrix {
         result.M31 = 2.0f * (zx + yw);
         result.M32 = 2.0f * (yz - xw);
         result.M33 = 1.0f - (2.0f * (yy + xx));
-        
-        return result;
 	}
 	
 	/**
@@ -361,17 +498,31 @@ public class Matrix {
 	 * @return Return a rotation matrix on X axis.
 	 */
 	public static Matrix createRotationX(float rotation) {
-		Matrix matrix = getMatrixIdentity();
-		
-		float cos = (float)Math.cos(rotation);
-		float sin = (float)Math.sin(rotation);
+		Matrix matrix = new Matrix();
+		createRotationX(rotation, matrix);
+		return matrix;
+	}
+	
+	/**
+	 * Create a rotation matrix on X axis.
+	 * @param rotation An angle in radians
+	 * @param result The matrix that receives the rotation.
+	 */
+	public static void createRotationX(float rotation, Matrix result) {
+		result.setIdentity();
 		
-		matrix.M22 = cos;
-		matrix.M23 = sin;
-		matrix.M32 = -sin;
-		matrix.M33 = cos;
+		ScratchPool pool = ScratchPool.get();
+		int mark = pool.mark();
+		Vector2 sinCos = pool.vector2();
+		MathHelper.sinCos(rotation, sinCos);
+		float cos = sinCos.x;
+		float sin = sinCos.y;
+		pool.reset(mark);
 		
-		return matrix;
+		result.M22 = cos;
+		result.M23 = sin;
+		result.M32 = -sin;
+		result.M33 = cos;
 	}
 	
 	/**
@@ -380,17 +531,31 @@ public class Matrix {
 	 * @return Return a rotation matrix on Y axis.
 	 */
 	public static Matrix createRotationY(float rotation) {
-		Matrix matrix = getMatrixIdentity();
-		
-		float cos = (float)Math.cos(rotation);
-		float sin = (float)Math.sin(rotation);
+		Matrix matrix = new Matrix();
+		createRotationY(rotation, matrix);
+		return matrix;
+	}
+	
+	/**
+	 * Create a rotation matrix on Y axis.
+	 * @param rotation An angle in radians
+	 * @param result The matrix that receives the rotation.
+	 */
+	public static void createRotationY(float rotation, Matrix result) {
+		result.setIdentity();
 		
-		matrix.M11 = cos;
-		matrix.M13 = -sin;
-		matrix.M31 = sin;
-		matrix.M33 = cos;
+		ScratchPool pool = ScratchPool.get();
+		int mark = pool.mark();
+		Vector2 sinCos = pool.vector2();
+		MathHelper.sinCos(rotation, sinCos);
+		float cos = sinCos.x;
+		float sin = sinCos.y;
+		pool.reset(mark);
 		
-		return matrix;
+		result.M11 = cos;
+		result.M13 = -sin;
+		result.M31 = sin;
+		result.M33 = cos;
 	}
 	
 	/**
@@ -399,17 +564,31 @@ public class Matrix {
 	 * @return Return a rotation matrix on Z axis.
 	 */
 	public static Matrix createRotationZ(float rotation) {
-		Matrix matrix = getMatrixIdentity();
-		
-		float cos = (float)Math.cos(rotation);
-		float sin = (float)Math.sin(rotation);
+		Matrix matrix = new Matrix();
+		createRotationZ(rotation, matrix);
+		return matrix;
+	}
+	
+	/**
+	 * Create a rotation matrix on Z axis.
+	 * @param rotation An angle in radians
+	 * @param result The matrix that receives the rotation.
+	 */
+	public static void createRotationZ(float rotation, Matrix result) {
+		result.setIdentity();
 		
-		matrix.M11 = cos;
-		matrix.M13 = sin;
-		matrix.M31 = -sin;
-		matrix.M33 = cos;
+		ScratchPool pool = ScratchPool.get();
+		int mark = pool.mark();
+		Vector2 sinCos = pool.vector2();
+		MathHelper.sinCos(rotation, sinCos);
+		float cos = sinCos.x;
+		float sin = sinCos.y;
+		pool.reset(mark);
 		
-		return matrix;
+		result.M11 = cos;
+		result.M13 = sin;
+		result.M31 = -sin;
+		result.M33 = cos;
 	}
 	
 	/**
@@ -419,17 +598,31 @@ public class Matrix {
 	 */
 	public static Matrix createRotationFromQuaternion(Quaternion quaternion) {
 		Matrix result = new Matrix();
+		createRotationFromQuaternion(quaternion, result);
+		return result;
+	}
+	
+	/**
+	 * Create a rotation matrix from a quaternion
+	 * @param quaternion A quaternion to use
+	 * @param result The matrix that receives the rotation.
+	 */
+	public static void createRotationFromQuaternion(Quaternion quaternion, Matrix result) {
+		setRotation(quaternion.x, quaternion.y, quaternion.z, quaternion.w, result);
+	}
+	
+	private static void setRotation(float x, float y, float z, float w, Matrix result) {
 		result.setIdentity();
 		
-		float xx = quaternion.x * quaternion.x;
-        float yy = quaternion.y * quaternion.y;
-        float zz = quaternion.z * quaternion.z;
-        float xy = quaternion.x * quaternion.y;
-        float zw = quaternion.z * quaternion.w;
-        float zx = quaternion.z * quaternion.x;
-        float yw = quaternion.y * quaternion.w;
-        float yz = quaternion.y * quaternion.z;
-        float xw = quaternion.x * quaternion.w;
+		float xx = x * x;
+        float yy = y * y;
+        float zz = z * z;
+        float xy = x * y;
+        float zw = z * w;
+        float zx = z * x;
+        float yw = y * w;
+        float yz = y * z;
+        float xw = x * w;
 
         result.M11 = 1.0f - (2.0f * (yy + zz));
         result.M12 = 2.0f * (xy + zw);
@@ -440,8 +633,6 @@ public class Matrix {
         result.M31 = 2.0f * (zx + yw);
         result.M32 = 2.0f * (yz - xw);
         result.M33 = 1.0f - (2.0f * (yy + xx));
-		
-		return result;
 	}
 	
 	/**
@@ -452,8 +643,44 @@ public class Matrix {
 	 * @return
 	 */
 	public static Matrix createRotationYawPitchRoll(float yaw, float pitch, float roll) {
-		Quaternion quaternion = Quaternion.createFromYawPitchRoll(yaw, pitch, roll);
-		return createRotationFromQuaternion(quaternion);
+		Matrix result = new Matrix();
+		createRotationYawPitchRoll(yaw, pitch, roll, result);
+		return result;
+	}
+	
+	/**
+	 * Create a rotation matrix with three rotations.
+	 * @param yaw
+	 * @param pitch
+	 * @param roll
+	 * @param result The matrix that receives the rotation.
+	 */
+	public static void createRotationYawPitchRoll(float yaw, float pitch, float roll, Matrix result) {
+		// Same as Quaternion.createFromYawPitchRoll without the quaternion.
+		float halfYaw = yaw * 0.5f;
+		float halfPitch = pitch * 0.5f;
+		float halfRoll = roll * 0.5f;
+		
+		ScratchPool pool = ScratchPool.get();
+		int mark = pool.mark();
+		Vector2 sinCos = pool.vector2();
+		MathHelper.sinCos(halfYaw, sinCos);
+		float sinYaw = sinCos.y;
+		float cosYaw = sinCos.x;
+		MathHelper.sinCos(halfPitch, sinCos);
+		float sinPitch = sinCos.y;
+		float cosPitch = sinCos.x;
+		MathHelper.sinCos(halfRoll, sinCos);
+		float sinRoll = sinCos.y;
+		float cosRoll = sinCos.x;
+		pool.reset(mark);
+		
+		float x = (cosYaw * sinPitch * cosRoll) + (sinYaw * cosPitch * sinRoll);
+		float y = (sinYaw * cosPitch * cosRoll) - (cosYaw * sinPitch * sinRoll);
+		float z = (cosYaw * cosPitch * sinRoll) - (sinYaw * sinPitch * cosRoll);
+		float w = (cosYaw * cosPitch * cosRoll) - (sinYaw * sinPitch * sinRoll);
+		
+		setRotation(x, y, z, w, result);
 	}
 	
 	/**
@@ -482,13 +709,34 @@ public class Matrix {
 	 * @return Return a scale matrix.
 	 */
 	public static Matrix createScale(float sx, float sy, float sz) {
-		Matrix matrix = getMatrixIdentity();
-		matrix.M11 = sx;
-		matrix.M22 = sy;
-		matrix.M33 = sz;
+		Matrix matrix = new Matrix();
+		createScale(sx, sy, sz, matrix);
 		return matrix;
 	}
 	
+	/**
+	 * Create a scale matrix.
+	 * @param sx Desired scale on X axis.
+	 * @param sy Desired scale on Y axis.
+	 * @param sz Desired scale on Z axis.
+	 * @param result The matrix that receives the scale.
+	 */
+	public static void createScale(float sx, float sy, float sz, Matrix result) {
+		result.setIdentity();
+		result.M11 = sx;
+		result.M22 = sy;
+		result.M33 = sz;
+	}
+	
+	/**
+	 * Create a scale matrix.
+	 * @param scale Scale to use.
+	 * @param result The matrix that receives the scale.
+	 */
+	public static void createScale(Vector3 scale, Matrix result) {
+		createScale(scale.x, scale.y, scale.z, result);
+	}
+	
 	/**
 	 * Create a translation matrix.
 	 * @param x Position on X axis.
@@ -497,13 +745,34 @@ public class Matrix {
 	 * @return Return a matrix translation.
 	 */
 	public static Matrix createTranslation(float x, float y, float z) {
-		Matrix matrix = getMatrixIdentity();
-		matrix.M41 = x;
-		matrix.M42 = y;
-		matrix.M43 = z;
+		Matrix matrix = new Matrix();
+		createTranslation(x, y, z, matrix);
 		return matrix;
 	}
 	
+	/**
+	 * Create a translation matrix.
+	 * @param x Position on X axis.
+	 * @param y Position on Y axis.
+	 * @param z Position on Z axis.
+	 * @param result The matrix that receives the translation.
+	 */
+	public static void createTranslation(float x, float y, float z, Matrix result) {
+		result.setIdentity();
+		result.M41 = x;
+		result.M42 = y;
+		result.M43 = z;
+	}
+	
+	/**
+	 * Create a translation matrix.
+	 * @param vector A vector to use for translation.
+	 * @param result The matrix that receives the translation.
+	 */
+	public static void createTranslation(Vector3 vector, Matrix result) {
+		createTranslation(vector.x, vector.y, vector.z, result);
+	}
+	
 	/**
 	 * Create a translation matrix.
 	 * @param vector A vector to use for translation.
@@ -522,22 +791,99 @@ public class Matrix {
 	 */
 	public static Matrix createWorld(Vector3 position, Vector3 forward, Vector3 upVector) {
 		Matrix matrix = new Matrix();
+		createWorld(position, forward, upVector, matrix);
+		return matrix;
+	}
+	
+	/**
+	 * Create a world matrix.
+	 * @param position
+	 * @param forward
+	 * @param upVector
+	 * @param result The matrix that receives the world matrix.
+	 */
+	public static void createWorld(Vector3 position, Vector3 forward, Vector3 upVector, Matrix result) {
+		// x = forward ^ up, y = x ^ forward, z = forward
+		float xx = (forward.y * upVector.z) - (upVector.y * forward.z);
+		float xy = -((forward.x * upVector.z) - (upVector.x * forward.z));
+		float xz = (forward.x * upVector.y) - (upVector.x * forward.y);
+		float yx = (xy * forward.z) - (forward.y * xz);
+		float yy = -((xx * forward.z) - (forward.x * xz));
+		float yz = (xx * forward.y) - (forward.x * xy);
+		float xFactor = normalizeFactor(xx, xy, xz);
+		float yFactor = normalizeFactor(yx, yy, yz);
+		float zFactor = normalizeFactor(forward.x, forward.y, forward.z);
 		
-		Vector3 x = Vector3.cross(forward, upVector);
-		Vector3 y = Vector3.cross(x, forward);
-		Vector3 z = Vector3.normalize(forward);
-		x.normalize();
-		y.normalize();
-		
-		matrix.setRight(x);
-		matrix.setUp(y);
-		matrix.setForward(z);
-		matrix.setTranslation(position);
-		matrix.M44 = 1.0f;
-		
+		result.setZero();
+		result.M11 = xx * xFactor;
+		result.M12 = xy * xFactor;
+		result.M13 = xz * xFactor;
+		result.M21 = yx * yFactor;
+		result.M22 = yy * yFactor;
+		result.M23 = yz * yFactor;
+		result.M31 = -(forward.x * zFactor);
+		result.M32 = -(forward.y * zFactor);
+		result.M33 = -(forward.z * zFactor);
+		result.M41 = position.x;
+		result.M42 = position.y;
+		result.M43 = position.z;
+		result.M44 = 1.0f;
+	}
+	
+	/**
+	 * Create a world matrix from a scale, a rotation and a translation. It gives the same result as
+	 * Scale * RotationYawPitchRoll * Translation without the intermediate matrices and the two multiplications.
+	 * @param scale The scale.
+	 * @param yaw Rotation on Y axis.
+	 * @param pitch Rotation on X axis.
+	 * @param roll Rotation on Z axis.
+	 * @param translation The translation.
+	 * @return Return a new world matrix.
+	 */
+	public static Matrix createWorld(Vector3 scale, float yaw, float pitch, float roll, Vector3 translation) {
+		Matrix matrix = new Matrix();
+		createWorld(scale, yaw, pitch, roll, translation, matrix);
 		return matrix;
 	}
 	
+	/**
+	 * Create a world matrix from a scale, a rotation and a translation. 
+	 * The scale and the translation are applied directly on the rows of the rotation matrix.
+	 * @param scale The scale.
+	 * @param yaw Rotation on Y axis.
+	 * @param pitch Rotation on X axis.
+	 * @param roll Rotation on Z axis.
+	 * @param translation The translation.
+	 * @param result The matrix that receives the world matrix.
+	 */
+	public static void createWorld(Vector3 scale, float yaw, float pitch, float roll, Vector3 translation, Matrix result) {
+		createRotationYawPitchRoll(yaw, pitch, roll, result);
+		result.M11 *= scale.x;
+		result.M12 *= scale.x;
+		result.M13 *= scale.x;
+		result.M21 *= scale.y;
+		result.M22 *= scale.y;
+		result.M23 *= scale.y;
+		result.M31 *= scale.z;
+		result.M32 *= scale.z;
+		result.M33 *= scale.z;
+		result.M41 = translation.x;
+		result.M42 = translation.y;
+		result.M43 = translation.z;
+		result.M44 = 1.0f;
+	}
+	
+	/**
+	 * Gets the factor used by Vector3.normalize() for a vector.
+	 */
+	private static float normalizeFactor(float x, float y, float z) {
+		double dx = x;
+		double dy = y;
+		double dz = z;
+		float factor = (float)Math.sqrt((dx * dx) + (dy * dy) + (dz * dz));
+		return (factor != 0) ? 1.0f / factor : 1.0f;
+	}
+	
 	/**
 	 * Create a view matrix
 	 * @param position The position of the camera.
@@ -546,32 +892,60 @@ public class Matrix {
 	 * @return Return a view camera.
 	 */
 	public static Matrix createLookAt(Vector3 position, Vector3 target, Vector3 upVector) {
-		Vector3 zAxis = Vector3.subtract(target, position);
-		zAxis.normalize();
-		Vector3 xAxis = Vector3.cross(upVector, zAxis);
-		xAxis.normalize();
-		Vector3 yAxis = Vector3.cross(zAxis, xAxis);
-		yAxis.normalize();
+		Matrix matrix = new Matrix();
+		createLookAt(position, target, upVector, matrix);
+		return matrix;
+	}
+	
+	/**
+	 * Create a view matrix
+	 * @param position The position of the camera.
+	 * @param target The target of the camera.
+	 * @param upVector Vector up
+	 * @param result The matrix that receives the view matrix.
+	 */
+	public static void createLookAt(Vector3 position, Vector3 target, Vector3 upVector, Matrix result) {
+		float zx = target.x - position.x;
+		float zy = target.y - position.y;
+		float zz = target.z - position.z;
+		float factor = normalizeFactor(zx, zy, zz);
+		zx *= factor;
+		zy *= factor;
+		zz *= factor;
+		
+		float xx = (upVector.y * zz) - (zy * upVector.z);
+		float xy = -((upVector.x * zz) - (zx * upVector.z));
+		float xz = (upVector.x * zy) - (zx * upVector.y);
+		factor = normalizeFactor(xx, xy, xz);
+		xx *= factor;
+		xy *= factor;
+		xz *= factor;
 		
-		Matrix matrix = getMatrixIdentity();
+		float yx = (zy * xz) - (xy * zz);
+		float yy = -((zx * xz) - (xx * zz));
+		float yz = (zx * xy) - (xx * zy);
+		factor = normalizeFactor(yx, yy, yz);
+		yx *= factor;
+		yy *= factor;
+		yz *= factor;
 		
-		matrix.M11 = xAxis.x;
-		matrix.M21 = xAxis.y;
-		matrix.M31 = xAxis.z;
+		result.setIdentity();
 		
-		matrix.M12 = yAxis.x;
-		matrix.M22 = yAxis.y;
-		matrix.M32 = yAxis.z;
+		result.M11 = xx;
+		result.M21 = xy;
+		result.M31 = xz;
 		
-		matrix.M13 = zAxis.x;
-		matrix.M23 = zAxis.y;
-		matrix.M33 = zAxis.z;
+		result.M12 = yx;
+		result.M22 = yy;
+		result.M32 = yz;
 		
-		matrix.M41 = -Vector3.dot(xAxis, position);
-		matrix.M42 = -Vector3.dot(yAxis, position);
-		matrix.M43 = -Vector3.dot(zAxis, position);
+		result.M13 = zx;
+		result.M23 = zy;
+		result.M33 = zz;
 		
-		return matrix;
+		result.M41 = -((xx * position.x) + (xy * position.y) + (xz * position.z));
+		result.M42 = -((yx * position.x) + (yy * position.y) + (yz * position.z));
+		result.M43 = -((zx * position.x) + (zy * position.y) + (zz * position.z));
 	}
 	
 	/**
@@ -584,18 +958,30 @@ public class Matrix {
 	 */
 	public static Matrix createOrthographic(float width, float height, float zNear, float zFar) {
 		Matrix matrix = new Matrix();
-	    matrix.M11 = 2.0f / width;
-	    matrix.M12 = matrix.M13 = matrix.M14 = 0.0f;
-	    matrix.M22 = 2.0f / height;
-	    matrix.M21 = matrix.M23 = matrix.M24 = 0.0f;
-	    matrix.M33 = 1.0f / (zNear - zFar);
-	    matrix.M31 = matrix.M32 = matrix.M34 = 0.0f;
-	    matrix.M41 = matrix.M42 = 0.0f;
-	    matrix.M43 = zNear / (zNear - zFar);
-	    matrix.M44 = 1.0f;
+		createOrthographic(width, height, zNear, zFar, matrix);
 	    return matrix;
 	}
 	
+	/**
+	 * Create an orthogonal projection matrix.
+	 * @param width
+	 * @param height
+	 * @param zNear
+	 * @param zFar
+	 * @param result The matrix that receives the projection.
+	 */
+	public static void createOrthographic(float width, float height, float zNear, float zFar, Matrix result) {
+	    result.M11 = 2.0f / width;
+	    result.M12 = result.M13 = result.M14 = 0.0f;
+	    result.M22 = 2.0f / height;
+	    result.M21 = result.M23 = result.M24 = 0.0f;
+	    result.M33 = 1.0f / (zNear - zFar);
+	    result.M31 = result.M32 = result.M34 = 0.0f;
+	    result.M41 = result.M42 = 0.0f;
+	    result.M43 = zNear / (zNear - zFar);
+	    result.M44 = 1.0f;
+	}
+	
 	/**
 	 * Create a customized orthogonal projection matrix.
 	 * @param width
@@ -606,6 +992,21 @@ public class Matrix {
 	 */
 	public static Matrix createOrthographicOffCenter(float left, float right, float bottom, float top, float zNear, float zFar) {
 		Matrix matrix = new Matrix();
+		createOrthographicOffCenter(left, right, bottom, top, zNear, zFar, matrix);
+		return matrix;
+	}
+	
+	/**
+	 * Create a customized orthogonal projection matrix.
+	 * @param left
+	 * @param right
+	 * @param bottom
+	 * @param top
+	 * @param zNear
+	 * @param zFar
+	 * @param matrix The matrix that receives the projection.
+	 */
+	public static void createOrthographicOffCenter(float left, float right, float bottom, float top, float zNear, float zFar, Matrix matrix) {
 		matrix.M11 = (float)(2.0 / ((double)right - (double)left));
 		matrix.M12 = 0.0f;
 		matrix.M13 = 0.0f;
@@ -622,8 +1023,7 @@ public class Matrix {
 		matrix.M42 = (float)(((double)top + (double)bottom) / ((double)bottom - (double)top));
 		matrix.M43 = (float)((double)zNear / ((double)zNear - (double)zFar));
 		matrix.M44 = 1.0f;
-		return matrix;
-	};
+	}
 	
 	/**
 	 * Create a perspective field of view matrix with Left hand notation.
@@ -634,12 +1034,26 @@ public class Matrix {
 	 * @return Return a matrix of this type of perspective.
 	 */
 	public static Matrix createPerspectiveFieldOfView(float fov, float aspect, float zNear, float zFar) {
+		Matrix matrix = new Matrix();
+		createPerspectiveFieldOfView(fov, aspect, zNear, zFar, matrix);
+		return matrix;
+	}
+	
+	/**
+	 * Create a perspective field of view matrix with Left hand notation.
+	 * @param fov Desired field of view (Math.PI / 4 is a good value)
+	 * @param aspect Desired aspect ratio (Screen width / height)
+	 * @param near Near clip
+	 * @param far Far clip
+	 * @param result The matrix that receives the projection.
+	 */
+	public static void createPerspectiveFieldOfView(float fov, float aspect, float zNear, float zFar, Matrix result) {
 		float yScale = (float)(1.0f / Math.tan(fov * 0.5f));
 		float xScale = yScale / aspect;
 		float halfWidth = zNear / xScale;
 		float halfHeight = zNear / yScale;
 		
-		return createPerspectiveOffCenter(-halfWidth, halfWidth, -halfHeight, halfHeight, zNear, zFar);
+		createPerspectiveOffCenter(-halfWidth, halfWidth, -halfHeight, halfHeight, zNear, zFar, result);
 	}
 	
 	/**
@@ -651,12 +1065,26 @@ public class Matrix {
 	 * @return Return a matrix of this type of perspective.
 	 */
 	public static Matrix createPerspectiveFieldOfViewRH(float fov, float aspect, float zNear, float zFar) {
+		Matrix matrix = new Matrix();
+		createPerspectiveFieldOfViewRH(fov, aspect, zNear, zFar, matrix);
+		return matrix;
+	}
+	
+	/**
+	 * Create a perspective field of view matrix with Right hand notation.
+	 * @param fov Desired field of view (Math.PI / 4 is a good value)
+	 * @param aspect Desired aspect ratio (Screen width / height)
+	 * @param near Near clip
+	 * @param far Far clip
+	 * @param result The matrix that receives the projection.
+	 */
+	public static void createPerspectiveFieldOfViewRH(float fov, float aspect, float zNear, float zFar, Matrix result) {
 		float yScale = (float)(1.0f / Math.tan(fov * 0.5f));
 		float xScale = yScale / aspect;
 		float halfWidth = zNear / xScale;
 		float halfHeight = zNear / yScale;
 		
-		return createPerspectiveOffCenterRH(-halfWidth, halfWidth, -halfHeight, halfHeight, zNear, zFar);
+		createPerspectiveOffCenterRH(-halfWidth, halfWidth, -halfHeight, halfHeight, zNear, zFar, result);
 	}
 	
 	/**
@@ -670,28 +1098,48 @@ public class Matrix {
 	 * @return Return a new custom perspective matrix.
 	 */
 	public static Matrix createPerspectiveOffCenter(float left, float right, float bottom, float top, float zNear, float zFar) {
-		float zRange = zFar / (zFar - zNear);
-		
 		Matrix matrix = new Matrix();
-		matrix.M11 = 2.0f * zNear / (right - left);
-		matrix.M22 = 2.0f * zNear / (top - bottom);
-		matrix.M31 = (left + right) / (left - right);
-		matrix.M32 = (top + bottom) / (bottom - top);
-		matrix.M33 = zRange;
-		matrix.M34 = 1.0f;
-		matrix.M43 = -zNear * zRange;
+		createPerspectiveOffCenter(left, right, bottom, top, zNear, zFar, matrix);
 		return matrix;
 	}
 	
+	/**
+	 * Create a custom perspective matrix.
+	 * @param left Minimum X value of the viewing volume.
+	 * @param right Maximum X value of the viewing volume.
+	 * @param bottom Minimum Y value of the viewing volume.
+	 * @param top Maximum Y value of the viewing volume.
+	 * @param zNear Minimum Z value of the viewing volume.
+	 * @param zFar Maximum Z value of the viewing volume.
+	 * @param result The matrix that receives the projection.
+	 */
+	public static void createPerspectiveOffCenter(float left, float right, float bottom, float top, float zNear, float zFar, Matrix result) {
+		float zRange = zFar / (zFar - zNear);
+		
+		result.setZero();
+		result.M11 = 2.0f * zNear / (right - left);
+		result.M22 = 2.0f * zNear / (top - bottom);
+		result.M31 = (left + right) / (left - right);
+		result.M32 = (top + bottom) / (bottom - top);
+		result.M33 = zRange;
+		result.M34 = 1.0f;
+		result.M43 = -zNear * zRange;
+	}
+	
 	public static Matrix createPerspectiveOffCenterRH(float left, float right, float bottom, float top, float zNear, float zFar) {
-		Matrix matrix = createPerspectiveOffCenter(left, right, bottom, top, zNear, zFar);
-		matrix.M31 *= -1.0f;
-		matrix.M32 *= -1.0f;
-		matrix.M33 *= -1.0f;
-		matrix.M34 *= -1.0f;
+		Matrix matrix = new Matrix();
+		createPerspectiveOffCenterRH(left, right, bottom, top, zNear, zFar, matrix);
 		return matrix;
 	}
 	
+	public static void createPerspectiveOffCenterRH(float left, float right, float bottom, float top, float zNear, float zFar, Matrix result) {
+		createPerspectiveOffCenter(left, right, bottom, top, zNear, zFar, result);
+		result.M31 *= -1.0f;
+		result.M32 *= -1.0f;
+		result.M33 *= -1.0f;
+		result.M34 *= -1.0f;
+	}
+	
 	/**
 	 * Invert the current Matrix.
 	 */
@@ -711,7 +1159,7 @@ public class Matrix {
         float det = this.M11 * d11 - this.M12 * d12 + this.M13 * d13 - this.M14 * d14;
         
         if (Math.abs(det) == 0.0f) {
-            this.set(this.getZeroValues());
+            this.setZero();
             return;
         }
 
@@ -756,44 +1204,65 @@ public class Matrix {
 		return mat;
 	}
 	
+	/**
+	 * Calculate the inverse of the specified matrix.
+	 * @param matrix The matrix to use.
+	 * @param result The matrix that receives the inverse, it can be the matrix itself.
+	 */
+	public static void invert(Matrix matrix, Matrix result) {
+		result.set(matrix);
+		result.invert();
+	}
+	
 	/**
 	 * Multiply this matrix by another matrix.
 	 * @param matrix A matrix to multiply.
 	 */
 	public void multiply(Matrix matrix) {
-		float m11 = (((this.M11 * matrix.M11) + (this.M12 * matrix.M21)) + (this.M13 * matrix.M31)) + (this.M14 * matrix.M41);
-        float m12 = (((this.M11 * matrix.M12) + (this.M12 * matrix.M22)) + (this.M13 * matrix.M32)) + (this.M14 * matrix.M42);
-        float m13 = (((this.M11 * matrix.M13) + (this.M12 * matrix.M23)) + (this.M13 * matrix.M33)) + (this.M14 * matrix.M43);
-        float m14 = (((this.M11 * matrix.M14) + (this.M12 * matrix.M24)) + (this.M13 * matrix.M34)) + (this.M14 * matrix.M44);
-        float m21 = (((this.M21 * matrix.M11) + (this.M22 * matrix.M21)) + (this.M23 * matrix.M31)) + (this.M24 * matrix.M41);
-        float m22 = (((this.M21 * matrix.M12) + (this.M22 * matrix.M22)) + (this.M23 * matrix.M32)) + (this.M24 * matrix.M42);
-        float m23 = (((this.M21 * matrix.M13) + (this.M22 * matrix.M23)) + (this.M23 * matrix.M33)) + (this.M24 * matrix.M43);
-        float m24 = (((this.M21 * matrix.M14) + (this.M22 * matrix.M24)) + (this.M23 * matrix.M34)) + (this.M24 * matrix.M44);
-        float m31 = (((this.M31 * matrix.M11) + (this.M32 * matrix.M21)) + (this.M33 * matrix.M31)) + (this.M34 * matrix.M41);
-        float m32 = (((this.M31 * matrix.M12) + (this.M32 * matrix.M22)) + (this.M33 * matrix.M32)) + (this.M34 * matrix.M42);
-        float m33 = (((this.M31 * matrix.M13) + (this.M32 * matrix.M23)) + (this.M33 * matrix.M33)) + (this.M34 * matrix.M43);
-        float m34 = (((this.M31 * matrix.M14) + (this.M32 * matrix.M24)) + (this.M33 * matrix.M34)) + (this.M34 * matrix.M44);
-        float m41 = (((this.M41 * matrix.M11) + (this.M42 * matrix.M21)) + (this.M43 * matrix.M31)) + (this.M44 * matrix.M41);
-        float m42 = (((this.M41 * matrix.M12) + (this.M42 * matrix.M22)) + (this.M43 * matrix.M32)) + (this.M44 * matrix.M42);
-        float m43 = (((this.M41 * matrix.M13) + (this.M42 * matrix.M23)) + (this.M43 * matrix.M33)) + (this.M44 * matrix.M43);
-       	float m44 = (((this.M41 * matrix.M14) + (this.M42 * matrix.M24)) + (this.M43 * matrix.M34)) + (this.M44 * matrix.M44);
+		multiplyTo(this, matrix, this);
+	}
+	
+	/**
+	 * Multiply two matrix. It's named multiplyTo because multiply(Matrix, Matrix, Matrix) already
+	 * multiplies three matrix.
+	 * @param matrixA A matrix.
+	 * @param matrixB Another matrix.
+	 * @param result The matrix that receives the result, it can be one of the operands.
+	 */
+	public static void multiplyTo(Matrix matrixA, Matrix matrixB, Matrix result) {
+		float m11 = (((matrixA.M11 * matrixB.M11) + (matrixA.M12 * matrixB.M21)) + (matrixA.M13 * matrixB.M31)) + (matrixA.M14 * matrixB.M41);
+        float m12 = (((matrixA.M11 * matrixB.M12) + (matrixA.M12 * matrixB.M22)) + (matrixA.M13 * matrixB.M32)) + (matrixA.M14 * matrixB.M42);
+        float m13 = (((matrixA.M11 * matrixB.M13) + (matrixA.M12 * matrixB.M23)) + (matrixA.M13 * matrixB.M33)) + (matrixA.M14 * matrixB.M43);
+        float m14 = (((matrixA.M11 * matrixB.M14) + (matrixA.M12 * matrixB.M24)) + (matrixA.M13 * matrixB.M34)) + (matrixA.M14 * matrixB.M44);
+        float m21 = (((matrixA.M21 * matrixB.M11) + (matrixA.M22 * matrixB.M21)) + (matrixA.M23 * matrixB.M31)) + (matrixA.M24 * matrixB.M41);
+        float m22 = (((matrixA.M21 * matrixB.M12) + (matrixA.M22 * matrixB.M22)) + (matrixA.M23 * matrixB.M32)) + (matrixA.M24 * matrixB.M42);
+        float m23 = (((matrixA.M21 * matrixB.M13) + (matrixA.M22 * matrixB.M23)) + (matrixA.M23 * matrixB.M33)) + (matrixA.M24 * matrixB.M43);
+        float m24 = (((matrixA.M21 * matrixB.M14) + (matrixA.M22 * matrixB.M24)) + (matrixA.M23 * matrixB.M34)) + (matrixA.M24 * matrixB.M44);
+        float m31 = (((matrixA.M31 * matrixB.M11) + (matrixA.M32 * matrixB.M21)) + (matrixA.M33 * matrixB.M31)) + (matrixA.M34 * matrixB.M41);
+        float m32 = (((matrixA.M31 * matrixB.M12) + (matrixA.M32 * matrixB.M22)) + (matrixA.M33 * matrixB.M32)) + (matrixA.M34 * matrixB.M42);
+        float m33 = (((matrixA.M31 * matrixB.M13) + (matrixA.M32 * matrixB.M23)) + (matrixA.M33 * matrixB.M33)) + (matrixA.M34 * matrixB.M43);
+        float m34 = (((matrixA.M31 * matrixB.M14) + (matrixA.M32 * matrixB.M24)) + (matrixA.M33 * matrixB.M34)) + (matrixA.M34 * matrixB.M44);
+        float m41 = (((matrixA.M41 * matrixB.M11) + (matrixA.M42 * matrixB.M21)) + (matrixA.M43 * matrixB.M31)) + (matrixA.M44 * matrixB.M41);
+        float m42 = (((matrixA.M41 * matrixB.M12) + (matrixA.M42 * matrixB.M22)) + (matrixA.M43 * matrixB.M32)) + (matrixA.M44 * matrixB.M42);
+        float m43 = (((matrixA.M41 * matrixB.M13) + (matrixA.M42 * matrixB.M23)) + (matrixA.M43 * matrixB.M33)) + (matrixA.M44 * matrixB.M43);
+       	float m44 = (((matrixA.M41 * matrixB.M14) + (matrixA.M42 * matrixB.M24)) + (matrixA.M43 * matrixB.M34)) + (matrixA.M44 * matrixB.M44);
        	
-       	this.M11 = m11;
-       	this.M12 = m12;
-       	this.M13 = m13;
-       	this.M14 = m14;
-       	this.M21 = m21;
-       	this.M22 = m22;
-       	this.M23 = m23;
-       	this.M24 = m24;
-		this.M31 = m31;
-		this.M32 = m32;
-		this.M33 = m33;
-		this.M34 = m34;
-		this.M41 = m41;
-		this.M42 = m42;
-		this.M43 = m43;
-		this.M44 = m44;
+       	result.M11 = m11;
+       	result.M12 = m12;
+       	result.M13 = m13;
+       	result.M14 = m14;
+       	result.M21 = m21;
+       	result.M22 = m22;
+       	result.M23 = m23;
+       	result.M24 = m24;
+		result.M31 = m31;
+		result.M32 = m32;
+		result.M33 = m33;
+		result.M34 = m34;
+		result.M41 = m41;
+		result.M42 = m42;
+		result.M43 = m43;
+		result.M44 = m44;
 	}
 	
 	/**
@@ -803,8 +1272,8 @@ public class Matrix {
 	 * @return Return a new matrix.
 	 */
 	public static Matrix multiply(Matrix matrixA, Matrix matrixB) {
-		Matrix matrix = new Matrix(matrixA);
-		matrix.multiply(matrixB);
+		Matrix matrix = new Matrix();
+		multiplyTo(matrixA, matrixB, matrix);
 		return matrix;
 	}
 	
@@ -816,24 +1285,35 @@ public class Matrix {
 	 * @return A new matrix.
 	 */
 	public static Matrix multiply(Matrix matrixA, Matrix matrixB, Matrix matrixC) {
-		Matrix multMatrix = new Matrix(matrixA);
-		multMatrix.multiply(matrixB);
-		multMatrix.multiply(matrixC);
+		Matrix multMatrix = new Matrix();
+		multiply(matrixA, matrixB, matrixC, multMatrix);
 		return multMatrix;
 	}
 	
+	/**
+	 * Multiply three matrix.
+	 * @param matrixA
+	 * @param matrixB
+	 * @param matrixC
+	 * @param result The matrix that receives the result, it can be one of the operands.
+	 */
+	public static void multiply(Matrix matrixA, Matrix matrixB, Matrix matrixC, Matrix result) {
+		if (result == matrixC) {
+			multiplyTo(matrixB, matrixC, result);
+			multiplyTo(matrixA, result, result);
+		}
+		else {
+			multiplyTo(matrixA, matrixB, result);
+			multiplyTo(result, matrixC, result);
+		}
+	}
+	
 	/**
 	 * Subtract a matrix to this matrix.
 	 * @param matrix A matrix to add.
 	 */
 	public void subtract(Matrix matrix) {
-		float [] mValues = this.toArray();
-		float [] eValues = matrix.toArray();
-		
-		for(int i = 0; i < 16; i++) {
-			mValues[i] -= eValues[i];
-		}
-		this.set(mValues);
+		subtract(this, matrix, this);
 	}
 	
 	/**
@@ -843,11 +1323,194 @@ public class Matrix {
 	 * @return Return a new matrix.
 	 */
 	public static Matrix subtract(Matrix matA, Matrix matB) {
-		Matrix mat = new Matrix(matA);
-		mat.subtract(matB);
+		Matrix mat = new Matrix();
+		subtract(matA, matB, mat);
 		return mat;
 	}
 	
+	/**
+	 * Subtract two matrix.
+	 * @param matA A matrix.
+	 * @param matB Another matrix to use to subtract with the first matrix.
+	 * @param result The matrix that receives the result, it can be one of the operands.
+	 */
+	public static void subtract(Matrix matA, Matrix matB, Matrix result) {
+		result.M11 = matA.M11 - matB.M11; result.M12 = matA.M12 - matB.M12; result.M13 = matA.M13 - matB.M13; result.M14 = matA.M14 - matB.M14;
+		result.M21 = matA.M21 - matB.M21; result.M22 = matA.M22 - matB.M22; result.M23 = matA.M23 - matB.M23; result.M24 = matA.M24 - matB.M24;
+		result.M31 = matA.M31 - matB.M31; result.M32 = matA.M32 - matB.M32; result.M33 = matA.M33 - matB.M33; result.M34 = matA.M34 - matB.M34;
+		result.M41 = matA.M41 - matB.M41; result.M42 = matA.M42 - matB.M42; result.M43 = matA.M43 - matB.M43; result.M44 = matA.M44 - matB.M44;
+	}
+	
+	// ---
+	// --- Batch transforms
+	// ---
+	
+	/**
+	 * Transform packed positions by this matrix (w = 1, no perspective divide).
+	 * Each position uses 3 floats (x, y, z), stride is the number of floats between two positions.
+	 * The source and the destination can be the same array with the same offset and stride.
+	 * @param source The source positions.
+	 * @param sourceOffset Index of the first position in the source.
+	 * @param sourceStride Number of floats between two positions in the source (3 or more).
+	 * @param destination The array that receives the transformed positions.
+	 * @param destinationOffset Index of the first position in the destination.
+	 * @param destinationStride Number of floats between two positions in the destination (3 or more).
+	 * @param count The number of positions to transform.
+	 */
+	public void transform(float[] source, int sourceOffset, int sourceStride, float[] destination, int destinationOffset, int destinationStride, int count) {
+		float m11 = this.M11, m12 = this.M12, m13 = this.M13;
+		float m21 = this.M21, m22 = this.M22, m23 = this.M23;
+		float m31 = this.M31, m32 = this.M32, m33 = this.M33;
+		float m41 = this.M41, m42 = this.M42, m43 = this.M43;
+		
+		for (int i = 0, s = sourceOffset, d = destinationOffset; i < count; i++, s += sourceStride, d += destinationStride) {
+			float x = source[s];
+			float y = source[s + 1];
+			float z = source[s + 2];
+			destination[d] = (x * m11) + (y * m21) + (z * m31) + m41;
+			destination[d + 1] = (x * m12) + (y * m22) + (z * m32) + m42;
+			destination[d + 2] = (x * m13) + (y * m23) + (z * m33) + m43;
+		}
+	}
+	
+	/**
+	 * Transform packed normals by this matrix, the translation is ignored.
+	 * Same layout as transform(float[], int, int, float[], int, int, int).
+	 */
+	public void transformNormal(float[] source, int sourceOffset, int sourceStride, float[] destination, int destinationOffset, int destinationStride, int count) {
+		float m11 = this.M11, m12 = this.M12, m13 = this.M13;
+		float m21 = this.M21, m22 = this.M22, m23 = this.M23;
+		float m31 = this.M31, m32 = this.M32, m33 = this.M33;
+		
+		for (int i = 0, s = sourceOffset, d = destinationOffset; i < count; i++, s += sourceStride, d += destinationStride) {
+			float x = source[s];
+			float y = source[s + 1];
+			float z = source[s + 2];
+			destination[d] = (x * m11) + (y * m21) + (z * m31);
+			destination[d + 1] = (x * m12) + (y * m22) + (z * m32);
+			destination[d + 2] = (x * m13) + (y * m23) + (z * m33);
+		}
+	}
+	
+	/**
+	 * Transform packed positions by this matrix with the perspective divide, like Vector3.transformCoordinate.
+	 * Same layout as transform(float[], int, int, float[], int, int, int).
+	 */
+	public void transformCoordinate(float[] source, int sourceOffset, int sourceStride, float[] destination, int destinationOffset, int destinationStride, int count) {
+		float m11 = this.M11, m12 = this.M12, m13 = this.M13, m14 = this.M14;
+		float m21 = this.M21, m22 = this.M22, m23 = this.M23, m24 = this.M24;
+		float m31 = this.M31, m32 = this.M32, m33 = this.M33, m34 = this.M34;
+		float m41 = this.M41, m42 = this.M42, m43 = this.M43, m44 = this.M44;
+		
+		for (int i = 0, s = sourceOffset, d = destinationOffset; i < count; i++, s += sourceStride, d += destinationStride) {
+			float x = source[s];
+			float y = source[s + 1];
+			float z = source[s + 2];
+			float w = 1.0f / ((x * m14) + (y * m24) + (z * m34) + m44);
+			destination[d] = ((x * m11) + (y * m21) + (z * m31) + m41) * w;
+			destination[d + 1] = ((x * m12) + (y * m22) + (z * m32) + m42) * w;
+			destination[d + 2] = ((x * m13) + (y * m23) + (z * m33) + m43) * w;
+		}
+	}
+	
+	/**
+	 * Transform packed positions (x, y, z and w = 1) into homogeneous coordinates (x, y, z, w) 
+	 * without the perspective divide, like Vector4.transform(Vector3, Matrix, Vector4). 
+	 * The destination stride must be 4 or more.
+	 * Same layout as transform(float[], int, int, float[], int, int, int).
+	 */
+	public void transformHomogeneous(float[] source, int sourceOffset, int sourceStride, float[] destination, int destinationOffset, int destinationStride, int count) {
+		float m11 = this.M11, m12 = this.M12, m13 = this.M13, m14 = this.M14;
+		float m21 = this.M21, m22 = this.M22, m23 = this.M23, m24 = this.M24;
+		float m31 = this.M31, m32 = this.M32, m33 = this.M33, m34 = this.M34;
+		float m41 = this.M41, m42 = this.M42, m43 = this.M43, m44 = this.M44;
+		
+		for (int i = 0, s = sourceOffset, d = destinationOffset; i < count; i++, s += sourceStride, d += destinationStride) {
+			float x = source[s];
+			float y = source[s + 1];
+			float z = source[s + 2];
+			destination[d] = (x * m11) + (y * m21) + (z * m31) + m41;
+			destination[d + 1] = (x * m12) + (y * m22) + (z * m32) + m42;
+			destination[d + 2] = (x * m13) + (y * m23) + (z * m33) + m43;
+			destination[d + 3] = (x * m14) + (y * m24) + (z * m34) + m44;
+		}
+	}
+	
+	/**
+	 * Transform packed positions by a world view projection matrix then map them to a viewport.
+	 * X and Y are in pixels (Y goes down) and Z keeps the projected depth, it's the vertex stage of the software renderer.
+	 * Same layout as transform(float[], int, int, float[], int, int, int).
+	 * @param width The width of the viewport.
+	 * @param height The height of the viewport.
+	 */
+	public void transformToViewport(float[] source, int sourceOffset, int sourceStride, float[] destination, int destinationOffset, int destinationStride, int count, float width, float height) {
+		float m11 = this.M11, m12 = this.M12, m13 = this.M13, m14 = this.M14;
+		float m21 = this.M21, m22 = this.M22, m23 = this.M23, m24 = this.M24;
+		float m31 = this.M31, m32 = this.M32, m33 = this.M33, m34 = this.M34;
+		float m41 = this.M41, m42 = this.M42, m43 = this.M43, m44 = this.M44;
+		float halfWidth = width / 2.0f;
+		float halfHeight = height / 2.0f;
+		
+		for (int i = 0, s = sourceOffset, d = destinationOffset; i < count; i++, s += sourceStride, d += destinationStride) {
+			float x = source[s];
+			float y = source[s + 1];
+			float z = source[s + 2];
+			float w = 1.0f / ((x * m14) + (y * m24) + (z * m34) + m44);
+			destination[d] = (((x * m11) + (y * m21) + (z * m31) + m41) * w) * width + halfWidth;
+			destination[d + 1] = -(((x * m12) + (y * m22) + (z * m32) + m42) * w) * height + halfHeight;
+			destination[d + 2] = ((x * m13) + (y * m23) + (z * m33) + m43) * w;
+		}
+	}
+	
+	/**
+	 * Transform positions stored in separated arrays (structure of arrays) by this matrix, w = 1 and no perspective divide.
+	 * The loop only reads and writes consecutive floats so the JIT compiler can vectorize it with SIMD instructions.
+	 * The result arrays must be different from the source arrays.
+	 * @param x The X coordinates.
+	 * @param y The Y coordinates.
+	 * @param z The Z coordinates.
+	 * @param offset Index of the first position.
+	 * @param count The number of positions to transform.
+	 * @param resultX The array that receives the X coordinates.
+	 * @param resultY The array that receives the Y coordinates.
+	 * @param resultZ The array that receives the Z coordinates.
+	 */
+	public void transform(float[] x, float[] y, float[] z, int offset, int count, float[] resultX, float[] resultY, float[] resultZ) {
+		float m11 = this.M11, m12 = this.M12, m13 = this.M13;
+		float m21 = this.M21, m22 = this.M22, m23 = this.M23;
+		float m31 = this.M31, m32 = this.M32, m33 = this.M33;
+		float m41 = this.M41, m42 = this.M42, m43 = this.M43;
+		int end = offset + count;
+		
+		for (int i = offset; i < end; i++) {
+			resultX[i] = (x[i] * m11) + (y[i] * m21) + (z[i] * m31) + m41;
+			resultY[i] = (x[i] * m12) + (y[i] * m22) + (z[i] * m32) + m42;
+			resultZ[i] = (x[i] * m13) + (y[i] * m23) + (z[i] * m33) + m43;
+		}
+	}
+	
+	/**
+	 * Transform positions stored in separated arrays (structure of arrays) by this matrix with the perspective divide.
+	 * The inverse of the W of each position (1 / w) is written in resultW, it's the value interpolated for a perspective
+	 * correct rasterization. The result arrays must be different from the source arrays.
+	 * @see #transform(float[], float[], float[], int, int, float[], float[], float[])
+	 */
+	public void transformCoordinate(float[] x, float[] y, float[] z, int offset, int count, float[] resultX, float[] resultY, float[] resultZ, float[] resultW) {
+		float m11 = this.M11, m12 = this.M12, m13 = this.M13, m14 = this.M14;
+		float m21 = this.M21, m22 = this.M22, m23 = this.M23, m24 = this.M24;
+		float m31 = this.M31, m32 = this.M32, m33 = this.M33, m34 = this.M34;
+		float m41 = this.M41, m42 = this.M42, m43 = this.M43, m44 = this.M44;
+		int end = offset + count;
+		
+		for (int i = offset; i < end; i++) {
+			float w = 1.0f / ((x[i] * m14) + (y[i] * m24) + (z[i] * m34) + m44);
+			resultX[i] = ((x[i] * m11) + (y[i] * m21) + (z[i] * m31) + m41) * w;
+			resultY[i] = ((x[i] * m12) + (y[i] * m22) + (z[i] * m32) + m42) * w;
+			resultZ[i] = ((x[i] * m13) + (y[i] * m23) + (z[i] * m33) + m43) * w;
+			resultW[i] = w;
+		}
+	}
+	
 	public String toString() {
 		float[] values = this.toArray();
 		StringBuilder builder = new StringBuilder();
@@ -0,0 +1,108 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.framework;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A small helper to split a range of work (rows, bands, particles, ...) across all the cores.
+ * Worker threads are daemon threads so they never keep the game alive.
+ * @author Yannick
+ */
+public final class Parallel {
+	private static ExecutorService executor;
+	private static int workerCount = Runtime.getRuntime().availableProcessors();
+	
+	private Parallel() { }
+	
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(workerCount, new ThreadFactory() {
+				private int counter = 0;
+				
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "Atlantis-Parallel-" + (counter++));
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+	
+	/**
+	 * Gets the number of worker threads.
+	 * @return Return the number of workers used to split a range.
+	 */
+	public static int getWorkerCount() {
+		return workerCount;
+	}
+	
+	/**
+	 * Run a task over [start, end[ by splitting it into one chunk per worker. The call blocks until all chunks are done.
+	 * Small ranges (less than minChunkSize items per worker) are executed on the calling thread.
+	 * @param start The first index (inclusive).
+	 * @param end The last index (exclusive).
+	 * @param minChunkSize The minimum number of items a chunk must contains to be worth a thread.
+	 * @param task The task to execute.
+	 */
+	public static void forRange(int start, int end, int minChunkSize, final IParallelTask task) {
+		int count = end - start;
+		int chunks = Math.min(workerCount, count / Math.max(1, minChunkSize));
+		
+		if (chunks <= 1) {
+			if (count > 0) {
+				task.run(start, end);
+			}
+			return;
+		}
+		
+		int chunkSize = (count + chunks - 1) / chunks;
+		ArrayList<Future<Object>> futures = new ArrayList<Future<Object>>(chunks);
+		ExecutorService service = getExecutor();
+		
+		for (int i = start + chunkSize; i < end; i += chunkSize) {
+			final int chunkStart = i;
+			final int chunkEnd = Math.min(i + chunkSize, end);
+			futures.add(service.submit(new Callable<Object>() {
+				@Override
+				public Object call() {
+					task.run(chunkStart, chunkEnd);
+					return null;
+				}
+			}));
+		}
+		
+		// The calling thread works too.
+		task.run(start, Math.min(start + chunkSize, end));
+		
+		for (int i = 0, l = futures.size(); i < l; i++) {
+			try {
+				futures.get(i).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			}
+		}
+	}
+	
+	/**
+	 * Run a task over [start, end[ by splitting it into one chunk per worker.
+	 * @param start The first index (inclusive).
+	 * @param end The last index (exclusive).
+	 * @param task The task to execute.
+	 */
+	public static void forRange(int start, int end, IParallelTask task) {
+		forRange(start, end, 1, task);
+	}
+}
@@ -19,10 +19,79 @@ public class Plane {
 		Vector3 cross = Vector3.cross(ab, ac);
 		
 		this.normal = Vector3.normalize(cross);
-		this.D = -Vector3.dot(cross, a);
+		this.D = -Vector3.dot(this.normal, a);
 	}
 	
 	public Plane(float a, float b, float c, float d) {
 		this(new Vector3(a, b, c), d);
 	}
+	
+	/**
+	 * Gets the signed distance between a point and the plane, if the normal is normalized.
+	 * @param point A point.
+	 * @return Return a positive value if the point is in front of the plane.
+	 */
+	public float dotCoordinate(Vector3 point) {
+		return (this.normal.x * point.x) + (this.normal.y * point.y) + (this.normal.z * point.z) + this.D;
+	}
+	
+	public float dotNormal(Vector3 vector) {
+		return (this.normal.x * vector.x) + (this.normal.y * vector.y) + (this.normal.z * vector.z);
+	}
+	
+	/**
+	 * Normalize the normal of the plane and scale D by the same factor.
+	 */
+	public void normalize() {
+		float length = (float)Math.sqrt((this.normal.x * this.normal.x) + (this.normal.y * this.normal.y) + (this.normal.z * this.normal.z));
+		if (length > 0.0f) {
+			float factor = 1.0f / length;
+			this.normal.x *= factor;
+			this.normal.y *= factor;
+			this.normal.z *= factor;
+			this.D *= factor;
+		}
+	}
+	
+	/**
+	 * Test a sphere against the plane.
+	 * @param sphere A sphere.
+	 * @return Return 0 if the sphere is in front of the plane, 1 if it's behind and 2 if it intersects.
+	 */
+	public int intersects(BoundingSphere sphere) {
+		float distance = this.dotCoordinate(sphere.center);
+		
+		if (distance > sphere.radius) {
+			return 0;
+		}
+		else if (distance < -sphere.radius) {
+			return 1;
+		}
+		
+		return 2;
+	}
+	
+	public String toString() {
+		return "Normal: " + this.normal.toString() + " D: " + this.D;
+	}
+	
+	// ---
+	// --- Getters and setters
+	// ---
+	
+	public Vector3 getNormal() {
+		return this.normal;
+	}
+	
+	public void setNormal(Vector3 normal) {
+		this.normal = normal;
+	}
+	
+	public float getD() {
+		return this.D;
+	}
+	
+	public void setD(float d) {
+		this.D = d;
+	}
 }
@@ -28,7 +28,7 @@ public class Quaternion {
 	}
 	
 	public Quaternion(Quaternion quaternion) {
-		this(quaternion.x, quaternion.y, quaternion.z, quaternion.z);
+		this(quaternion.x, quaternion.y, quaternion.z, quaternion.w);
 	}
 	
 	public Quaternion(float x, float y, float z, float w) {
@@ -38,6 +38,28 @@ public class Quaternion {
 		this.w = w;
 	}
 	
+	/**
+	 * Sets the values of the quaternion.
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param w
+	 */
+	public void set(float x, float y, float z, float w) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.w = w;
+	}
+	
+	/**
+	 * Copy the values of a quaternion.
+	 * @param quaternion The quaternion to copy.
+	 */
+	public void set(Quaternion quaternion) {
+		this.set(quaternion.x, quaternion.y, quaternion.z, quaternion.w);
+	}
+	
 	public void add(Quaternion quaternion) {
 		this.x += quaternion.x;
 		this.y += quaternion.y;
@@ -51,6 +73,19 @@ public class Quaternion {
 		return result;
 	}
 	
+	/**
+	 * Add two quaternions.
+	 * @param quaternion1
+	 * @param quaternion2
+	 * @param result The quaternion that receives the result, it can be one of the operands.
+	 */
+	public static void add(Quaternion quaternion1, Quaternion quaternion2, Quaternion result) {
+		result.x = quaternion1.x + quaternion2.x;
+		result.y = quaternion1.y + quaternion2.y;
+		result.z = quaternion1.z + quaternion2.z;
+		result.w = quaternion1.w + quaternion2.w;
+	}
+	
 	public void conjugate() {
 		this.x *= -1;
 		this.y *= -1;
@@ -63,6 +98,15 @@ public class Quaternion {
 		return result;
 	}
 	
+	/**
+	 * Conjugate a quaternion.
+	 * @param quaternion
+	 * @param result The quaternion that receives the result, it can be the operand.
+	 */
+	public static void conjugate(Quaternion quaternion, Quaternion result) {
+		result.set(-quaternion.x, -quaternion.y, -quaternion.z, quaternion.w);
+	}
+	
 	/**
 	 * Create a quaternion with three rotations
 	 * @param yaw Value of yaw rotation (Y)
@@ -72,31 +116,57 @@ public class Quaternion {
 	 */
 	public static Quaternion createFromYawPitchRoll(float yaw, float pitch, float roll) {
 		Quaternion result = new Quaternion();
-		
+		createFromYawPitchRoll(yaw, pitch, roll, result);
+		return result;
+	}
+	
+	/**
+	 * Create a quaternion with three rotations
+	 * @param yaw Value of yaw rotation (Y)
+	 * @param pitch Value of pitch rotation (X)
+	 * @param roll Value of roll rotation (Z)
+	 * @param result The quaternion that receives the rotation.
+	 */
+	public static void createFromYawPitchRoll(float yaw, float pitch, float roll, Quaternion result) {
 		float halfYaw = yaw * 0.5f;
 		float halfPitch = pitch * 0.5f;
 		float halfRoll = roll * 0.5f;
 		
-		float sinYaw = (float)Math.sin(halfYaw);
-		float cosYaw = (float)Math.cos(halfYaw);	
-		float sinPitch = (float)Math.sin(halfPitch);
-		float cosPitch = (float)Math.cos(halfPitch);	
-		float sinRoll = (float)Math.sin(halfRoll);
-		float cosRoll = (float)Math.cos(halfRoll);
+		ScratchPool pool = ScratchPool.get();
+		int mark = pool.mark();
+		Vector2 sinCos = pool.vector2();
+		MathHelper.sinCos(halfYaw, sinCos);
+		float sinYaw = sinCos.y;
+		float cosYaw = sinCos.x;
+		MathHelper.sinCos(halfPitch, sinCos);
+		float sinPitch = sinCos.y;
+		float cosPitch = sinCos.x;
+		MathHelper.sinCos(halfRoll, sinCos);
+		float sinRoll = sinCos.y;
+		float cosRoll = sinCos.x;
+		pool.reset(mark);
 		
 		result.x = (cosYaw * sinPitch * cosRoll) + (sinYaw * cosPitch * sinRoll);
 		result.y = (sinYaw * cosPitch * cosRoll) - (cosYaw * sinPitch * sinRoll);
 		result.z = (cosYaw * cosPitch * sinRoll) - (sinYaw * sinPitch * cosRoll);
 		result.w = (cosYaw * cosPitch * cosRoll) - (sinYaw * sinPitch * sinRoll);
-		
-		return result;
 	}
 	
 	public static Quaternion createFromRotationMatrix(Matrix matrix) {
+		Quaternion result = new Quaternion();
+		createFromRotationMatrix(matrix, result);
+		return result;
+	}
+	
+	/**
+	 * Create a quaternion from the rotation of a matrix.
+	 * @param matrix A rotation matrix.
+	 * @param result The quaternion that receives the rotation.
+	 */
+	public static void createFromRotationMatrix(Matrix matrix, Quaternion result) {
 		float sqrt;
         float half;
         float scale = matrix.M11 + matrix.M22 + matrix.M33;
-        Quaternion result = new Quaternion();
         
         if (scale > 0.0f)
         {
@@ -138,7 +208,5 @@ public class Quaternion {
             result.z = 0.5f * sqrt;
             result.w = (matrix.M12 - matrix.M21) * half;
         }
-        
-        return result;
 	}
 }
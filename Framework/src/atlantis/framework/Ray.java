@@ -1,30 +1,331 @@
 package atlantis.framework;
 
+/**
+ * A ray with a position and a direction. The intersection methods return the distance along the ray in units
+ * of the direction, so it's the distance in world units when the direction is normalized, or -1 if the ray
+ * misses the volume. The batch methods test the ray against packed arrays of boxes or triangles and keep
+ * the closest hit in a RayHit.
+ */
 public class Ray {
+	private static final float Epsilon = 1e-7f;
+	// The smallest sine of the angle between the ray and a triangle, below the ray is parallel to the triangle.
+	private static final float ParallelEpsilon = 1e-6f;
+
 	protected Vector3 direction;
 	protected Vector3 position;
-	
+	// The hit of the single triangle test, reused between the calls.
+	private RayHit triangleHit;
+
+	public Ray() {
+		this(new Vector3(), new Vector3(0, 0, 1));
+	}
+
 	public Ray(Vector3 position, Vector3 direction) {
 		this.direction = direction;
 		this.position = position;
+		this.triangleHit = new RayHit();
 	}
 
 	public boolean equals(Ray other) {
 		return this.position.equals(other.position) && this.direction.equals(other.direction);
 	}
-	
+
+	/**
+	 * Gets the point at a distance along the ray.
+	 * @param distance A distance returned by an intersection test.
+	 * @param result The vector that receives the point.
+	 */
+	public void getPoint(float distance, Vector3 result) {
+		result.x = this.position.x + this.direction.x * distance;
+		result.y = this.position.y + this.direction.y * distance;
+		result.z = this.position.z + this.direction.z * distance;
+	}
+
+	/**
+	 * Gets the distance between the ray and a box with the slab method.
+	 * @param box A bounding box.
+	 * @return Return the distance along the ray, 0 if the ray starts in the box, or -1 if the ray misses the box.
+	 */
 	public float intersects(BoundingBox box) {
-		return 0;
+		return this.intersectsBox(box.min.x, box.min.y, box.min.z, box.max.x, box.max.y, box.max.z,
+				1.0f / this.direction.x, 1.0f / this.direction.y, 1.0f / this.direction.z, Float.POSITIVE_INFINITY);
 	}
-	
+
+	/**
+	 * Gets the distance between the ray and a frustum, the ray is clipped by the planes of the frustum.
+	 * @param frustrum A bounding frustum.
+	 * @return Return the distance along the ray, 0 if the ray starts in the frustum, or -1 if the ray misses it.
+	 */
 	public float intersects(BoundingFrustrum frustrum) {
-		return 0;
+		Plane[] planes = frustrum.getPlanes();
+		float near = 0.0f;
+		float far = Float.POSITIVE_INFINITY;
+
+		for (int i = 0; i < planes.length; i++) {
+			float distance = planes[i].dotCoordinate(this.position);
+			float speed = planes[i].dotNormal(this.direction);
+
+			if (speed == 0.0f) {
+				// Parallel to the plane, the ray is outside if its position is.
+				if (distance < 0.0f) {
+					return -1;
+				}
+				continue;
+			}
+
+			float t = -distance / speed;
+
+			// The normals point inside, the ray enters the half space when it moves along the normal.
+			if (speed > 0.0f) {
+				if (t > near) {
+					near = t;
+				}
+			}
+			else if (t < far) {
+				far = t;
+			}
+
+			if (near > far) {
+				return -1;
+			}
+		}
+
+		return near;
 	}
-	
+
+	/**
+	 * Gets the distance between the ray and a sphere.
+	 * @param sphere A bounding sphere.
+	 * @return Return the distance along the ray, 0 if the ray starts in the sphere, or -1 if the ray misses the sphere.
+	 */
 	public float intersects(BoundingSphere sphere) {
-		return 0;
+		float dx = sphere.center.x - this.position.x;
+		float dy = sphere.center.y - this.position.y;
+		float dz = sphere.center.z - this.position.z;
+		float distanceSquared = (dx * dx) + (dy * dy) + (dz * dz);
+		float radiusSquared = sphere.radius * sphere.radius;
+
+		if (distanceSquared <= radiusSquared) {
+			return 0;
+		}
+
+		float a = (this.direction.x * this.direction.x) + (this.direction.y * this.direction.y) + (this.direction.z * this.direction.z);
+		float b = (dx * this.direction.x) + (dy * this.direction.y) + (dz * this.direction.z);
+
+		// The sphere is behind the position.
+		if (b < 0.0f || a == 0.0f) {
+			return -1;
+		}
+
+		float discriminant = (b * b) - a * (distanceSquared - radiusSquared);
+
+		if (discriminant < 0.0f) {
+			return -1;
+		}
+
+		return (b - (float)Math.sqrt(discriminant)) / a;
+	}
+
+	/**
+	 * Gets the distance between the ray and a plane.
+	 * @param plane A plane.
+	 * @return Return the distance along the ray, or -1 if the ray is parallel to the plane or moves away from it.
+	 */
+	public float intersects(Plane plane) {
+		float speed = plane.dotNormal(this.direction);
+
+		if (Math.abs(speed) < Epsilon) {
+			return -1;
+		}
+
+		float t = -plane.dotCoordinate(this.position) / speed;
+
+		return t >= 0.0f ? t : -1;
+	}
+
+	/**
+	 * Gets the distance between the ray and a triangle with the Moller-Trumbore algorithm.
+	 * Both sides of the triangle can be hit. It doesn't allocate, so a ray can't be tested from several threads at once.
+	 * @param a The first vertex of the triangle.
+	 * @param b The second vertex of the triangle.
+	 * @param c The third vertex of the triangle.
+	 * @return Return the distance along the ray, or -1 if the ray misses the triangle.
+	 */
+	public float intersects(Vector3 a, Vector3 b, Vector3 c) {
+		RayHit hit = this.triangleHit;
+		hit.reset();
+		return this.intersectsTriangle(a.x, a.y, a.z, b.x, b.y, b.z, c.x, c.y, c.z, 0, hit) ? hit.distance : -1;
+	}
+
+	/**
+	 * Test the ray against packed boxes. Only the boxes closer than the distance of the hit are tested,
+	 * call hit.reset() before a new query.
+	 * @param boxes An array of boxes, 6 floats per box: the minimum then the maximum.
+	 * @param offset The index of the first box.
+	 * @param count The number of boxes.
+	 * @param hit The closest hit, the index is the index of the box.
+	 * @return Return true if a closer box is hit.
+	 */
+	public boolean intersectsBoxes(float[] boxes, int offset, int count, RayHit hit) {
+		float inverseX = 1.0f / this.direction.x;
+		float inverseY = 1.0f / this.direction.y;
+		float inverseZ = 1.0f / this.direction.z;
+		boolean found = false;
+
+		for (int i = offset, l = offset + count, p = offset * 6; i < l; i++, p += 6) {
+			float t = this.intersectsBox(boxes[p], boxes[p + 1], boxes[p + 2], boxes[p + 3], boxes[p + 4], boxes[p + 5],
+					inverseX, inverseY, inverseZ, hit.distance);
+
+			if (t >= 0.0f && t < hit.distance) {
+				hit.index = i;
+				hit.distance = t;
+				hit.u = 0.0f;
+				hit.v = 0.0f;
+				found = true;
+			}
+		}
+
+		return found;
+	}
+
+	/**
+	 * Test the ray against packed triangles. Only the triangles closer than the distance of the hit are tested,
+	 * call hit.reset() before a new query.
+	 * @param triangles An array of triangles, 9 floats per triangle: the positions of the 3 vertices.
+	 * @param offset The index of the first triangle.
+	 * @param count The number of triangles.
+	 * @param hit The closest hit, the index is the index of the triangle.
+	 * @return Return true if a closer triangle is hit.
+	 */
+	public boolean intersectsTriangles(float[] triangles, int offset, int count, RayHit hit) {
+		boolean found = false;
+
+		for (int i = offset, l = offset + count, p = offset * 9; i < l; i++, p += 9) {
+			found |= this.intersectsTriangle(triangles, p, p + 3, p + 6, i, hit);
+		}
+
+		return found;
+	}
+
+	/**
+	 * Test the ray against indexed triangles. Only the triangles closer than the distance of the hit are tested,
+	 * call hit.reset() before a new query.
+	 * @param positions An array of positions, 3 floats per vertex.
+	 * @param indices An array of indices, 3 vertex indices per triangle.
+	 * @param offset The index of the first triangle.
+	 * @param count The number of triangles.
+	 * @param hit The closest hit, the index is the index of the triangle.
+	 * @return Return true if a closer triangle is hit.
+	 */
+	public boolean intersectsTriangles(float[] positions, int[] indices, int offset, int count, RayHit hit) {
+		boolean found = false;
+
+		for (int i = offset, l = offset + count, p = offset * 3; i < l; i++, p += 3) {
+			found |= this.intersectsTriangle(positions, indices[p] * 3, indices[p + 1] * 3, indices[p + 2] * 3, i, hit);
+		}
+
+		return found;
 	}
-	
+
+	/**
+	 * The slab test, the inverse of the direction is computed once by the caller.
+	 * The comparisons ignore the NaN of an axis parallel to the ray when the position is on a side of the box.
+	 * @return Return the distance to the box or -1 if it's missed or further than the maximum distance.
+	 */
+	float intersectsBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ,
+			float inverseX, float inverseY, float inverseZ, float maxDistance) {
+		float near = 0.0f;
+		float far = maxDistance;
+
+		float t1 = (minX - this.position.x) * inverseX;
+		float t2 = (maxX - this.position.x) * inverseX;
+		if (t1 > t2) { float t = t1; t1 = t2; t2 = t; }
+		if (t1 > near) { near = t1; }
+		if (t2 < far) { far = t2; }
+
+		t1 = (minY - this.position.y) * inverseY;
+		t2 = (maxY - this.position.y) * inverseY;
+		if (t1 > t2) { float t = t1; t1 = t2; t2 = t; }
+		if (t1 > near) { near = t1; }
+		if (t2 < far) { far = t2; }
+
+		t1 = (minZ - this.position.z) * inverseZ;
+		t2 = (maxZ - this.position.z) * inverseZ;
+		if (t1 > t2) { float t = t1; t1 = t2; t2 = t; }
+		if (t1 > near) { near = t1; }
+		if (t2 < far) { far = t2; }
+
+		return near <= far ? near : -1;
+	}
+
+	/**
+	 * The Moller-Trumbore test of a triangle whose vertices are stored in an array.
+	 * @param positions An array of positions.
+	 * @param a The index of the first vertex in the array.
+	 * @param b The index of the second vertex in the array.
+	 * @param c The index of the third vertex in the array.
+	 * @param index The index of the triangle, stored in the hit.
+	 * @param hit The closest hit, it's updated if the triangle is closer.
+	 * @return Return true if the triangle is hit and closer than the hit.
+	 */
+	boolean intersectsTriangle(float[] positions, int a, int b, int c, int index, RayHit hit) {
+		return this.intersectsTriangle(positions[a], positions[a + 1], positions[a + 2], positions[b], positions[b + 1], positions[b + 2],
+				positions[c], positions[c + 1], positions[c + 2], index, hit);
+	}
+
+	/**
+	 * The Moller-Trumbore test of a triangle given by the coordinates of its vertices.
+	 * @return Return true if the triangle is hit and closer than the hit.
+	 */
+	private boolean intersectsTriangle(float ax, float ay, float az, float bx, float by, float bz, float cx, float cy, float cz,
+			int index, RayHit hit) {
+		float e1x = bx - ax, e1y = by - ay, e1z = bz - az;
+		float e2x = cx - ax, e2y = cy - ay, e2z = cz - az;
+		float dx = this.direction.x, dy = this.direction.y, dz = this.direction.z;
+
+		float px = (dy * e2z) - (dz * e2y);
+		float py = (dz * e2x) - (dx * e2z);
+		float pz = (dx * e2y) - (dy * e2x);
+		float determinant = (e1x * px) + (e1y * py) + (e1z * pz);
+
+		// The ray is parallel to the triangle. The determinant grows with the lengths of the edges and of the direction,
+		// it's compared to their product so the test doesn't depend on the scale of the scene.
+		float scale = ((e1x * e1x) + (e1y * e1y) + (e1z * e1z)) * ((e2x * e2x) + (e2y * e2y) + (e2z * e2z)) * ((dx * dx) + (dy * dy) + (dz * dz));
+
+		if (determinant * determinant <= ParallelEpsilon * ParallelEpsilon * scale) {
+			return false;
+		}
+
+		float inverse = 1.0f / determinant;
+		float tx = this.position.x - ax, ty = this.position.y - ay, tz = this.position.z - az;
+		float u = ((tx * px) + (ty * py) + (tz * pz)) * inverse;
+
+		if (u < 0.0f || u > 1.0f) {
+			return false;
+		}
+
+		float qx = (ty * e1z) - (tz * e1y);
+		float qy = (tz * e1x) - (tx * e1z);
+		float qz = (tx * e1y) - (ty * e1x);
+		float v = ((dx * qx) + (dy * qy) + (dz * qz)) * inverse;
+
+		if (v < 0.0f || u + v > 1.0f) {
+			return false;
+		}
+
+		float t = ((e2x * qx) + (e2y * qy) + (e2z * qz)) * inverse;
+
+		if (t < 0.0f || t >= hit.distance) {
+			return false;
+		}
+
+		hit.index = index;
+		hit.distance = t;
+		hit.u = u;
+		hit.v = v;
+		return true;
+	}
+
 	public String toString() {
 		return "Position: " + this.position.toString() + " Direction: " + this.direction.toString();
 	}
@@ -0,0 +1,53 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.framework;
+
+/**
+ * The result of a ray query against a batch of boxes or triangles. The queries only keep a hit that is closer
+ * than the current distance, so the same hit can be passed to several queries to find the closest of all.
+ * @author Yannick
+ */
+public class RayHit {
+	/**
+	 * The index of the box or triangle that is hit, -1 if nothing is hit.
+	 */
+	public int index;
+
+	/**
+	 * The distance along the ray, in units of the ray direction.
+	 */
+	public float distance;
+
+	/**
+	 * The barycentric coordinates of the hit on a triangle, the weight of the first vertex is 1 - u - v.
+	 */
+	public float u;
+	public float v;
+
+	public RayHit() {
+		this.reset();
+	}
+
+	/**
+	 * Clear the hit before a new query.
+	 */
+	public void reset() {
+		this.index = -1;
+		this.distance = Float.POSITIVE_INFINITY;
+		this.u = 0.0f;
+		this.v = 0.0f;
+	}
+
+	/**
+	 * Indicates if something is hit.
+	 * @return Return true if a box or a triangle is hit.
+	 */
+	public boolean hasHit() {
+		return this.index >= 0;
+	}
+
+	public String toString() {
+		return "Index: " + this.index + " Distance: " + this.distance + " U: " + this.u + " V: " + this.v;
+	}
+}
@@ -0,0 +1,283 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.framework;
+
+/**
+ * A pool of temporary math objects for the current thread. Hot code borrows vectors, matrices, rectangles
+ * and points instead of creating them, then releases them all at once with a mark and a reset.
+ * Nothing is allocated once the pool has grown to the needs of a frame.
+ * <pre>
+ * ScratchPool pool = ScratchPool.get();
+ * int mark = pool.mark();
+ * Matrix viewProjection = pool.matrix();
+ * Matrix.multiplyTo(view, projection, viewProjection);
+ * ...
+ * pool.reset(mark);
+ * </pre>
+ * The content of a borrowed object is undefined, it must be set before being read. A borrowed object must
+ * not be kept after the reset of its scope. The game loop resets the pool of its thread after each frame,
+ * so a scope left open by an exception doesn't grow the pool forever.
+ * In debug mode the released objects are filled with NaN, and the pool checks that scopes are reset in order
+ * and that it's only used by its thread.
+ * @author Yannick
+ */
+public final class ScratchPool {
+	private static final ThreadLocal<ScratchPool> pools = new ThreadLocal<ScratchPool>() {
+		@Override
+		protected ScratchPool initialValue() {
+			return new ScratchPool();
+		}
+	};
+
+	private static boolean debug = false;
+
+	private final Thread owner;
+	private final Pool<Vector2> vector2s;
+	private final Pool<Vector3> vector3s;
+	private final Pool<Vector4> vector4s;
+	private final Pool<Matrix> matrices;
+	private final Pool<Rectangle> rectangles;
+	private final Pool<Point> points;
+	private final Pool<?>[] allPools;
+	// The top of each pool for each mark.
+	private int[] marks;
+	private int markCount;
+
+	/**
+	 * A stack of objects of one type, the objects under the top are borrowed.
+	 */
+	private static abstract class Pool<T> {
+		private Object[] items = new Object[16];
+		private int top = 0;
+
+		protected abstract T create();
+
+		protected abstract void poison(T item);
+
+		@SuppressWarnings("unchecked")
+		public T borrow() {
+			if (this.top == this.items.length) {
+				Object[] items = new Object[this.items.length * 2];
+				System.arraycopy(this.items, 0, items, 0, this.items.length);
+				this.items = items;
+			}
+
+			Object item = this.items[this.top];
+			if (item == null) {
+				item = this.create();
+				this.items[this.top] = item;
+			}
+			this.top++;
+			return (T)item;
+		}
+
+		@SuppressWarnings("unchecked")
+		public void release(int top) {
+			if (debug) {
+				for (int i = top; i < this.top; i++) {
+					this.poison((T)this.items[i]);
+				}
+			}
+			this.top = top;
+		}
+	}
+
+	private ScratchPool() {
+		this.owner = Thread.currentThread();
+		this.vector2s = new Pool<Vector2>() {
+			protected Vector2 create() { return new Vector2(); }
+			protected void poison(Vector2 item) { item.x = item.y = Float.NaN; }
+		};
+		this.vector3s = new Pool<Vector3>() {
+			protected Vector3 create() { return new Vector3(); }
+			protected void poison(Vector3 item) { item.x = item.y = item.z = Float.NaN; }
+		};
+		this.vector4s = new Pool<Vector4>() {
+			protected Vector4 create() { return new Vector4(); }
+			protected void poison(Vector4 item) { item.x = item.y = item.z = item.w = Float.NaN; }
+		};
+		this.matrices = new Pool<Matrix>() {
+			protected Matrix create() { return new Matrix(); }
+			protected void poison(Matrix item) { item.setZero(); item.M11 = item.M22 = item.M33 = item.M44 = Float.NaN; }
+		};
+		this.rectangles = new Pool<Rectangle>() {
+			protected Rectangle create() { return new Rectangle(); }
+			protected void poison(Rectangle item) { item.x = item.y = item.width = item.height = Integer.MIN_VALUE; }
+		};
+		this.points = new Pool<Point>() {
+			protected Point create() { return new Point(); }
+			protected void poison(Point item) { item.x = item.y = Integer.MIN_VALUE; }
+		};
+		this.allPools = new Pool<?>[] { this.vector2s, this.vector3s, this.vector4s, this.matrices, this.rectangles, this.points };
+		this.marks = new int[this.allPools.length * 8];
+		this.markCount = 0;
+	}
+
+	/**
+	 * Gets the pool of the current thread.
+	 * @return Return the scratch pool of the current thread.
+	 */
+	public static ScratchPool get() {
+		return pools.get();
+	}
+
+	/**
+	 * Start a scope, the objects borrowed after the mark are released by reset(mark).
+	 * @return Return the mark of the scope.
+	 */
+	public int mark() {
+		this.checkThread();
+
+		int length = this.allPools.length;
+		if ((this.markCount + 1) * length > this.marks.length) {
+			int[] marks = new int[this.marks.length * 2];
+			System.arraycopy(this.marks, 0, marks, 0, this.marks.length);
+			this.marks = marks;
+		}
+
+		for (int i = 0, offset = this.markCount * length; i < length; i++) {
+			this.marks[offset + i] = this.allPools[i].top;
+		}
+
+		return this.markCount++;
+	}
+
+	/**
+	 * Release the objects borrowed since a mark. The scopes opened after this mark are closed too,
+	 * in debug mode it's an error because one of them was not reset.
+	 * @param mark A value returned by mark().
+	 */
+	public void reset(int mark) {
+		this.checkThread();
+
+		if (mark < 0 || mark >= this.markCount) {
+			throw new IllegalStateException("The mark " + mark + " is not an open scope of the scratch pool");
+		}
+
+		if (debug && mark != this.markCount - 1) {
+			throw new IllegalStateException("Leak in the scratch pool, " + (this.markCount - 1 - mark) + " inner scope(s) were not reset");
+		}
+
+		int length = this.allPools.length;
+		for (int i = 0, offset = mark * length; i < length; i++) {
+			this.allPools[i].release(this.marks[offset + i]);
+		}
+
+		this.markCount = mark;
+	}
+
+	/**
+	 * Release all the borrowed objects, it's called at the end of a frame.
+	 * In debug mode it's an error if a scope is still open.
+	 */
+	public void reset() {
+		this.checkThread();
+
+		if (debug && this.markCount > 0) {
+			throw new IllegalStateException("Leak in the scratch pool, " + this.markCount + " scope(s) were not reset at the end of the frame");
+		}
+
+		for (int i = 0; i < this.allPools.length; i++) {
+			this.allPools[i].release(0);
+		}
+
+		this.markCount = 0;
+	}
+
+	private void checkThread() {
+		if (debug && Thread.currentThread() != this.owner) {
+			throw new IllegalStateException("The scratch pool of " + this.owner.getName() + " is used by " + Thread.currentThread().getName());
+		}
+	}
+
+	// ---
+	// --- Borrow methods
+	// ---
+
+	public Vector2 vector2() {
+		this.checkThread();
+		return this.vector2s.borrow();
+	}
+
+	public Vector2 vector2(float x, float y) {
+		Vector2 vector = this.vector2();
+		vector.x = x;
+		vector.y = y;
+		return vector;
+	}
+
+	public Vector3 vector3() {
+		this.checkThread();
+		return this.vector3s.borrow();
+	}
+
+	public Vector3 vector3(float x, float y, float z) {
+		Vector3 vector = this.vector3();
+		vector.set(x, y, z);
+		return vector;
+	}
+
+	public Vector4 vector4() {
+		this.checkThread();
+		return this.vector4s.borrow();
+	}
+
+	public Vector4 vector4(float x, float y, float z, float w) {
+		Vector4 vector = this.vector4();
+		vector.set(x, y, z, w);
+		return vector;
+	}
+
+	public Matrix matrix() {
+		this.checkThread();
+		return this.matrices.borrow();
+	}
+
+	public Rectangle rectangle() {
+		this.checkThread();
+		return this.rectangles.borrow();
+	}
+
+	public Point point() {
+		this.checkThread();
+		return this.points.borrow();
+	}
+
+	// ---
+	// --- Getters and setters
+	// ---
+
+	/**
+	 * Gets the number of objects borrowed from this pool.
+	 * @return Return the number of borrowed objects of all types.
+	 */
+	public int getBorrowedCount() {
+		int count = 0;
+		for (int i = 0; i < this.allPools.length; i++) {
+			count += this.allPools[i].top;
+		}
+		return count;
+	}
+
+	/**
+	 * Gets the number of scopes that are not reset.
+	 * @return Return the number of open scopes.
+	 */
+	public int getScopeCount() {
+		return this.markCount;
+	}
+
+	/**
+	 * Enable the checks of the scratch pools: released objects are filled with NaN, scopes must be reset
+	 * in order and a pool can't be used by another thread.
+	 * @param enabled Sets to true to enable the checks.
+	 */
+	public static void setDebug(boolean enabled) {
+		debug = enabled;
+	}
+
+	public static boolean isDebug() {
+		return debug;
+	}
+}
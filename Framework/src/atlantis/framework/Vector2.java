@@ -107,6 +107,17 @@ public class Vector2 {
 		return vec;
 	}
 	
+	/**
+	 * Add two vectors.
+	 * @param vec1 A vector 
+	 * @param vec2 Another vector
+	 * @param result The vector that receives the result, it can be one of the operands.
+	 */
+	public static void add(Vector2 vec1, Vector2 vec2, Vector2 result) {
+		result.x = vec1.x + vec2.x;
+		result.y = vec1.y + vec2.y;
+	}
+	
 	/**
 	 * Subtract a value to vector
 	 * @param value
@@ -137,6 +148,17 @@ public class Vector2 {
 		return vec;
 	}
 	
+	/**
+	 * Subtract two vectors.
+	 * @param vec1 A vector 
+	 * @param vec2 Another vector
+	 * @param result The vector that receives the result, it can be one of the operands.
+	 */
+	public static void subtract(Vector2 vec1, Vector2 vec2, Vector2 result) {
+		result.x = vec1.x - vec2.x;
+		result.y = vec1.y - vec2.y;
+	}
+	
 	/**
 	 * Multiply (scalar) a value to vector
 	 * @param value
@@ -167,6 +189,28 @@ public class Vector2 {
 		return vec;
 	}
 	
+	/**
+	 * Multiply two vectors.
+	 * @param vec1 A vector 
+	 * @param vec2 Another vector
+	 * @param result The vector that receives the result, it can be one of the operands.
+	 */
+	public static void multiply(Vector2 vec1, Vector2 vec2, Vector2 result) {
+		result.x = vec1.x * vec2.x;
+		result.y = vec1.y * vec2.y;
+	}
+	
+	/**
+	 * Multiply a vector by a value.
+	 * @param vector A vector
+	 * @param value A value
+	 * @param result The vector that receives the result, it can be the operand.
+	 */
+	public static void multiply(Vector2 vector, float value, Vector2 result) {
+		result.x = vector.x * value;
+		result.y = vector.y * value;
+	}
+	
 	/**
 	 * Divide a value to vector
 	 * @param value
@@ -203,6 +247,17 @@ public class Vector2 {
 		return vec;
 	}
 	
+	/**
+	 * Divide two vectors, a coordinate divided by 0 is unchanged.
+	 * @param vec1 A vector 
+	 * @param vec2 Another vector
+	 * @param result The vector that receives the result, it can be one of the operands.
+	 */
+	public static void divide(Vector2 vec1, Vector2 vec2, Vector2 result) {
+		result.x = (vec2.x != 0) ? vec1.x / vec2.x : vec1.x;
+		result.y = (vec2.y != 0) ? vec1.y / vec2.y : vec1.y;
+	}
+	
 	// ---
 	// --- Advanced operations
 	// ---
@@ -225,8 +280,7 @@ public class Vector2 {
 	 * @return Return a new vector.
 	 */
 	public static double distance(Vector2 vec1, Vector2 vec2) {
-		Vector2 vec = new Vector2(vec1);
-		return vec.distance(vec2);
+		return vec1.distance(vec2);
 	}
 	
 	/**
@@ -255,10 +309,23 @@ public class Vector2 {
 	 * @return
 	 */
 	public static Vector2 lerp(Vector2 vec1, Vector2 vec2, float amount) {
-		Vector2 vector2 = new Vector2(MathHelper.lerp(vec1.x, vec2.x, amount), MathHelper.lerp(vec2.y, vec2.y, amount));
+		Vector2 vector2 = new Vector2();
+		lerp(vec1, vec2, amount, vector2);
 		return vector2;
 	}
 	
+	/**
+	 * Performs a linear interpolation between to vectors.
+	 * @param vec1
+	 * @param vec2
+	 * @param amount
+	 * @param result The vector that receives the result, it can be one of the operands.
+	 */
+	public static void lerp(Vector2 vec1, Vector2 vec2, float amount, Vector2 result) {
+		result.x = MathHelper.lerp(vec1.x, vec2.x, amount);
+		result.y = MathHelper.lerp(vec1.y, vec2.y, amount);
+	}
+	
 	/**
 	 * Gets a vector of the minimum of the two vectors.
 	 * @param vec1
@@ -267,11 +334,21 @@ public class Vector2 {
 	 */
 	public static Vector2 min(Vector2 vec1, Vector2 vec2) {
 		Vector2 vector2 = new Vector2();
-		vector2.x = (vec1.x < vec2.x) ? vec1.x : vec2.x;
-		vector2.y = (vec1.y < vec2.y) ? vec1.y : vec2.y;
+		min(vec1, vec2, vector2);
 		return vector2;
 	}
 	
+	/**
+	 * Gets a vector of the minimum of the two vectors.
+	 * @param vec1 A vector 
+	 * @param vec2 Another vector
+	 * @param result The vector that receives the result, it can be one of the operands.
+	 */
+	public static void min(Vector2 vec1, Vector2 vec2, Vector2 result) {
+		result.x = (vec1.x < vec2.x) ? vec1.x : vec2.x;
+		result.y = (vec1.y < vec2.y) ? vec1.y : vec2.y;
+	}
+	
 	/**
 	 * Gets a vector of the maximum of the two vectors.
 	 * @param vec1
@@ -280,11 +357,21 @@ public class Vector2 {
 	 */
 	public static Vector2 max(Vector2 vec1, Vector2 vec2) {
 		Vector2 vector2 = new Vector2();
-		vector2.x = (vec1.x > vec2.x) ? vec1.x : vec2.x;
-		vector2.y = (vec1.y > vec2.y) ? vec1.y : vec2.y;
+		max(vec1, vec2, vector2);
 		return vector2;
 	}
 	
+	/**
+	 * Gets a vector of the maximum of the two vectors.
+	 * @param vec1 A vector 
+	 * @param vec2 Another vector
+	 * @param result The vector that receives the result, it can be one of the operands.
+	 */
+	public static void max(Vector2 vec1, Vector2 vec2, Vector2 result) {
+		result.x = (vec1.x > vec2.x) ? vec1.x : vec2.x;
+		result.y = (vec1.y > vec2.y) ? vec1.y : vec2.y;
+	}
+	
 	/**
 	 * Negage the vector.
 	 */
@@ -305,11 +392,21 @@ public class Vector2 {
 		return vec;
 	}
 	
+	/**
+	 * Negage a vector.
+	 * @param vector A vector to negate.
+	 * @param result The vector that receives the result, it can be the operand.
+	 */
+	public static void negate(Vector2 vector, Vector2 result) {
+		result.x = -vector.x;
+		result.y = -vector.y;
+	}
+	
 	/**
 	 * Normalize vector
 	 */
 	public void normalize() {
-		double denominator = (Math.sqrt(this.x * this.x) + (this.y * this.y));
+		double denominator = Math.sqrt((this.x * this.x) + (this.y * this.y));
 		if (denominator != 0) {
 			double value = 1 / denominator;
 			this.x *= value;
@@ -328,6 +425,16 @@ public class Vector2 {
 		return vec;
 	}
 	
+	/**
+	 * Normalize a vector.
+	 * @param vector A vector to normalize.
+	 * @param result The vector that receives the result, it can be the operand.
+	 */
+	public static void normalize(Vector2 vector, Vector2 result) {
+		result.set(vector);
+		result.normalize();
+	}
+	
 	// ---
 	// --- Conversion methods.
 	// ---
@@ -358,6 +465,15 @@ public class Vector2 {
 		this.y = y;
 	}
 	
+	/**
+	 * Copy the values of a vector.
+	 * @param vector The vector to copy.
+	 */
+	public void set(Vector2 vector) {
+		this.x = vector.x;
+		this.y = vector.y;
+	}
+	
 	/*
      * Gets the angle value between to vectors
      * @param vb
@@ -374,9 +490,20 @@ public class Vector2 {
       * @return A new the position to iso position.
       */
     public static Vector2 toIso(float x, float y) {
+        Vector2 result = new Vector2();
+        toIso(x, y, result);
+        return result;
+    }
+    
+    /**
+     * Gets a transformed position from a standard plan to isometric plan.
+     * @param x The coordinate on X axis on screen.
+     * @param y The coordinate on Y axis on screen.
+     * @param result The vector that receives the iso position.
+     */
+    public static void toIso(float x, float y, Vector2 result) {
         float vy = (2 * y - x) / 2;
         float vx = (x + vy);
-    
-        return new Vector2(vx, vy);
+        result.set(vx, vy);
     }
 }
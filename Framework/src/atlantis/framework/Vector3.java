@@ -149,6 +149,18 @@ public class Vector3 {
 		return result;
 	}
 	
+	/**
+	 * Add two vectors.
+	 * @param vec1
+	 * @param vec2
+	 * @param result The vector that receives the result, it can be one of the operands.
+	 */
+	public static void add(Vector3 vec1, Vector3 vec2, Vector3 result) {
+		result.x = vec1.x + vec2.x;
+		result.y = vec1.y + vec2.y;
+		result.z = vec1.z + vec2.z;
+	}
+	
 	/**
 	 * Subtract a value to the current vector.
 	 * @param value The value to Subtract.
@@ -190,6 +202,18 @@ public class Vector3 {
 		return result;
 	}
 	
+	/**
+	 * Subtract two vectors.
+	 * @param vec1
+	 * @param vec2
+	 * @param result The vector that receives the result, it can be one of the operands.
+	 */
+	public static void subtract(Vector3 vec1, Vector3 vec2, Vector3 result) {
+		result.x = vec1.x - vec2.x;
+		result.y = vec1.y - vec2.y;
+		result.z = vec1.z - vec2.z;
+	}
+	
 	/**
 	 * divide a value to the current vector.
 	 * @param value The value to divide.
@@ -243,6 +267,18 @@ public class Vector3 {
 		return vec;
 	}
 	
+	/**
+	 * Divide two vectors, a coordinate divided by 0 is unchanged.
+	 * @param vec1
+	 * @param vec2
+	 * @param result The vector that receives the result, it can be one of the operands.
+	 */
+	public static void divide(Vector3 vec1, Vector3 vec2, Vector3 result) {
+		result.x = (vec2.x != 0) ? vec1.x / vec2.x : vec1.x;
+		result.y = (vec2.y != 0) ? vec1.y / vec2.y : vec1.y;
+		result.z = (vec2.z != 0) ? vec1.z / vec2.z : vec1.z;
+	}
+	
 	/**
 	 * multiply a value to the current vector.
 	 * @param value The value to multiply.
@@ -290,6 +326,30 @@ public class Vector3 {
 		return vec;
 	}
 	
+	/**
+	 * Multiply two vectors.
+	 * @param vec1
+	 * @param vec2
+	 * @param result The vector that receives the result, it can be one of the operands.
+	 */
+	public static void multiply(Vector3 vec1, Vector3 vec2, Vector3 result) {
+		result.x = vec1.x * vec2.x;
+		result.y = vec1.y * vec2.y;
+		result.z = vec1.z * vec2.z;
+	}
+	
+	/**
+	 * Multiply a vector by a value.
+	 * @param vector
+	 * @param value
+	 * @param result The vector that receives the result, it can be the operand.
+	 */
+	public static void multiply(Vector3 vector, float value, Vector3 result) {
+		result.x = vector.x * value;
+		result.y = vector.y * value;
+		result.z = vector.z * value;
+	}
+	
 	// ---
 	// --- Advanced methods
 	// ---
@@ -302,12 +362,25 @@ public class Vector3 {
 	 */
 	public static Vector3 cross(Vector3 vec1, Vector3 vec2) {
 		Vector3 vector = new Vector3();
-		vector.x = (vec1.y * vec2.z) - (vec2.y * vec1.z);
-		vector.y = -((vec1.x * vec2.z) - (vec2.x * vec1.z));
-		vector.z = (vec1.x * vec2.y) - (vec2.x * vec1.y);
+		cross(vec1, vec2, vector);
 		return vector;
 	}
 	
+	/**
+	 * Calculates the cross products of two vectors.
+	 * @param vec1 Fist vector to use.
+	 * @param vec2 Second vector to use.
+	 * @param result The vector that receives the result, it can be one of the operands.
+	 */
+	public static void cross(Vector3 vec1, Vector3 vec2, Vector3 result) {
+		float x = (vec1.y * vec2.z) - (vec2.y * vec1.z);
+		float y = -((vec1.x * vec2.z) - (vec2.x * vec1.z));
+		float z = (vec1.x * vec2.y) - (vec2.x * vec1.y);
+		result.x = x;
+		result.y = y;
+		result.z = z;
+	}
+	
 	/**
 	 * Gets the distance between two vectors.
 	 * @param vector
@@ -364,13 +437,24 @@ public class Vector3 {
 	 * @return Return a interpolated Vector3.
 	 */
 	public static Vector3 lerp(Vector3 vec1, Vector3 vec2, float amount) {
-		Vector3 vector = new Vector3(
-				MathHelper.lerp(vec1.x, vec2.x, amount), 
-				MathHelper.lerp(vec1.y, vec2.y, amount),
-				MathHelper.lerp(vec1.z, vec2.z, amount));
+		Vector3 vector = new Vector3();
+		lerp(vec1, vec2, amount, vector);
 		return vector;
 	}
 	
+	/**
+	 * Linearly interpolates between two vectors.
+	 * @param vec1 First vector
+	 * @param vec2 Second vector
+	 * @param amount Value between 0 and 1 indicating the weight of vec2.
+	 * @param result The vector that receives the result, it can be one of the operands.
+	 */
+	public static void lerp(Vector3 vec1, Vector3 vec2, float amount, Vector3 result) {
+		result.x = MathHelper.lerp(vec1.x, vec2.x, amount);
+		result.y = MathHelper.lerp(vec1.y, vec2.y, amount);
+		result.z = MathHelper.lerp(vec1.z, vec2.z, amount);
+	}
+	
 	/**
 	 * Gets a vector of the minimum of the two vectors.
 	 * @param vec1
@@ -379,12 +463,22 @@ public class Vector3 {
 	 */
 	public static Vector3 min(Vector3 vec1, Vector3 vec2) {
 		Vector3 vector = new Vector3();
-		vector.x = (vec1.x < vec2.x) ? vec1.x : vec2.x;
-		vector.y = (vec1.y < vec2.y) ? vec1.y : vec2.y;
-		vector.z = (vec1.z < vec2.z) ? vec1.z : vec2.z;
+		min(vec1, vec2, vector);
 		return vector;
 	}
 	
+	/**
+	 * Gets a vector of the minimum of the two vectors.
+	 * @param vec1
+	 * @param vec2
+	 * @param result The vector that receives the result, it can be one of the operands.
+	 */
+	public static void min(Vector3 vec1, Vector3 vec2, Vector3 result) {
+		result.x = (vec1.x < vec2.x) ? vec1.x : vec2.x;
+		result.y = (vec1.y < vec2.y) ? vec1.y : vec2.y;
+		result.z = (vec1.z < vec2.z) ? vec1.z : vec2.z;
+	}
+	
 	/**
 	 * Gets a vector of the maximum of the two vectors.
 	 * @param vec1
@@ -393,12 +487,22 @@ public class Vector3 {
 	 */
 	public static Vector3 max(Vector3 vec1, Vector3 vec2) {
 		Vector3 vector = new Vector3();
-		vector.x = (vec1.x > vec2.x) ? vec1.x : vec2.x;
-		vector.y = (vec1.y > vec2.y) ? vec1.y : vec2.y;
-		vector.z = (vec1.z > vec2.z) ? vec1.z : vec2.z;
+		max(vec1, vec2, vector);
 		return vector;
 	}
 	
+	/**
+	 * Gets a vector of the maximum of the two vectors.
+	 * @param vec1
+	 * @param vec2
+	 * @param result The vector that receives the result, it can be one of the operands.
+	 */
+	public static void max(Vector3 vec1, Vector3 vec2, Vector3 result) {
+		result.x = (vec1.x > vec2.x) ? vec1.x : vec2.x;
+		result.y = (vec1.y > vec2.y) ? vec1.y : vec2.y;
+		result.z = (vec1.z > vec2.z) ? vec1.z : vec2.z;
+	}
+	
 	/**
 	 * Negage the vector.
 	 */
@@ -419,11 +523,25 @@ public class Vector3 {
 		return vec;
 	}
 	
+	/**
+	 * Negate a vector.
+	 * @param vector
+	 * @param result The vector that receives the result, it can be the operand.
+	 */
+	public static void negate(Vector3 vector, Vector3 result) {
+		result.x = -vector.x;
+		result.y = -vector.y;
+		result.z = -vector.z;
+	}
+	
 	/**
 	 * Normalize vector
 	 */
 	public void normalize() {
-		float factor = (float)distance(this, new Vector3());
+		double dx = this.x;
+		double dy = this.y;
+		double dz = this.z;
+		float factor = (float)Math.sqrt((dx * dx) + (dy * dy) + (dz * dz));
 		
 		if (factor != 0) {
 			factor = 1.0f / factor;
@@ -442,6 +560,16 @@ public class Vector3 {
 		return result;
 	}
 	
+	/**
+	 * Normalize a vector.
+	 * @param vector A vector to normalize.
+	 * @param result The vector that receives the result, it can be the operand.
+	 */
+	public static void normalize(Vector3 vector, Vector3 result) {
+		result.set(vector);
+		result.normalize();
+	}
+	
 	/**
 	 * Gets a transformed Vector3 from a position and a matrix.
 	 * @param position
@@ -449,15 +577,69 @@ public class Vector3 {
 	 * @return A tranformed vector.
 	 */
 	public static Vector3 transform(Vector3 position, Matrix matrix) {
-		Vector3 vector = new Vector3(
-			(position.x * matrix.M11) + (position.y * matrix.M21) + (position.z * matrix.M31) + matrix.M41,
-	        (position.x * matrix.M12) + (position.y * matrix.M22) + (position.z * matrix.M32) + matrix.M42,
-	        (position.x * matrix.M13) + (position.y * matrix.M23) + (position.z * matrix.M33) + matrix.M43 
-		);
-		
+		Vector3 vector = new Vector3();
+		transform(position, matrix, vector);
+		return vector;
+	}
+	
+	/**
+	 * Gets a transformed Vector3 from a position and a matrix.
+	 * @param position
+	 * @param matrix
+	 * @param result The vector that receives the result, it can be the position.
+	 */
+	public static void transform(Vector3 position, Matrix matrix, Vector3 result) {
+		float x = (position.x * matrix.M11) + (position.y * matrix.M21) + (position.z * matrix.M31) + matrix.M41;
+		float y = (position.x * matrix.M12) + (position.y * matrix.M22) + (position.z * matrix.M32) + matrix.M42;
+		float z = (position.x * matrix.M13) + (position.y * matrix.M23) + (position.z * matrix.M33) + matrix.M43;
+		result.x = x;
+		result.y = y;
+		result.z = z;
+	}
+	
+	/**
+	 * Transform this vector by a matrix.
+	 * @param matrix
+	 */
+	public void transform(Matrix matrix) {
+		transform(this, matrix, this);
+	}
+	
+	/**
+	 * Gets a transformed normal from a normal and a matrix. The translation of the matrix is ignored.
+	 * @param normal
+	 * @param matrix
+	 * @return A transformed normal.
+	 */
+	public static Vector3 transformNormal(Vector3 normal, Matrix matrix) {
+		Vector3 vector = new Vector3();
+		transformNormal(normal, matrix, vector);
 		return vector;
 	}
 	
+	/**
+	 * Gets a transformed normal from a normal and a matrix. The translation of the matrix is ignored.
+	 * @param normal
+	 * @param matrix
+	 * @param result The vector that receives the result, it can be the normal.
+	 */
+	public static void transformNormal(Vector3 normal, Matrix matrix, Vector3 result) {
+		float x = (normal.x * matrix.M11) + (normal.y * matrix.M21) + (normal.z * matrix.M31);
+		float y = (normal.x * matrix.M12) + (normal.y * matrix.M22) + (normal.z * matrix.M32);
+		float z = (normal.x * matrix.M13) + (normal.y * matrix.M23) + (normal.z * matrix.M33);
+		result.x = x;
+		result.y = y;
+		result.z = z;
+	}
+	
+	/**
+	 * Transform this normal by a matrix. The translation of the matrix is ignored.
+	 * @param matrix
+	 */
+	public void transformNormal(Matrix matrix) {
+		transformNormal(this, matrix, this);
+	}
+	
 	/**
 	 * Gets an homogeneous transformed vector from a position and a matrix.
 	 * @param position
@@ -465,12 +647,33 @@ public class Vector3 {
 	 * @return A tranformed vector.
 	 */
 	public static Vector3 transformCoordinate(Vector3 position, Matrix transform) {
-		 Vector4 vector = new Vector4();
-         vector.x = (position.x * transform.M11) + (position.y * transform.M21) + (position.z * transform.M31) + transform.M41;
-         vector.y = (position.x * transform.M12) + (position.y * transform.M22) + (position.z * transform.M32) + transform.M42;
-         vector.z = (position.x * transform.M13) + (position.y * transform.M23) + (position.z * transform.M33) + transform.M43;
-         vector.w = 1.0f / ((position.x * transform.M14) + (position.y * transform.M24) + (position.z * transform.M34) + transform.M44);
-         return new Vector3(vector.x * vector.w, vector.y * vector.w, vector.z * vector.w);
+		Vector3 vector = new Vector3();
+		transformCoordinate(position, transform, vector);
+		return vector;
+	}
+	
+	/**
+	 * Gets an homogeneous transformed vector from a position and a matrix.
+	 * @param position
+	 * @param matrix
+	 * @param result The vector that receives the result, it can be the position.
+	 */
+	public static void transformCoordinate(Vector3 position, Matrix transform, Vector3 result) {
+		float x = (position.x * transform.M11) + (position.y * transform.M21) + (position.z * transform.M31) + transform.M41;
+		float y = (position.x * transform.M12) + (position.y * transform.M22) + (position.z * transform.M32) + transform.M42;
+		float z = (position.x * transform.M13) + (position.y * transform.M23) + (position.z * transform.M33) + transform.M43;
+		float w = 1.0f / ((position.x * transform.M14) + (position.y * transform.M24) + (position.z * transform.M34) + transform.M44);
+		result.x = x * w;
+		result.y = y * w;
+		result.z = z * w;
+	}
+	
+	/**
+	 * Homogeneous transform of this vector by a matrix.
+	 * @param matrix
+	 */
+	public void transformCoordinate(Matrix matrix) {
+		transformCoordinate(this, matrix, this);
 	}
 	
 	/**
@@ -484,6 +687,16 @@ public class Vector3 {
 		this.y = y;
 		this.z = z;
 	}
+	
+	/**
+	 * Copy the coordinates of a vector.
+	 * @param vector The vector to copy.
+	 */
+	public void set(Vector3 vector) {
+		this.x = vector.x;
+		this.y = vector.y;
+		this.z = vector.z;
+	}
 
 	public String toString() {
 		return "x: " + this.x + " y: " + this.y + " z: " + this.z;
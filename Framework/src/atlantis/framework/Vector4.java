@@ -56,4 +56,53 @@ public class Vector4 {
 		vector.lerp(vec2, amount);
 		return vector;
 	}
+	
+	/**
+	 * Linearly interpolates between two vectors.
+	 * @param vec1 First vector
+	 * @param vec2 Second vector
+	 * @param amount Value between 0 and 1 indicating the weight of vec2.
+	 * @param result The vector that receives the result, it can be one of the operands.
+	 */
+	public static void lerp(Vector4 vec1, Vector4 vec2, float amount, Vector4 result) {
+		result.x = MathHelper.lerp(vec1.x, vec2.x, amount);
+		result.y = MathHelper.lerp(vec1.y, vec2.y, amount);
+		result.z = MathHelper.lerp(vec1.z, vec2.z, amount);
+		result.w = MathHelper.lerp(vec1.w, vec2.w, amount);
+	}
+	
+	/**
+	 * Gets the transformed coordinates of a position without the homogeneous divide (clip coordinates).
+	 * @param position A position.
+	 * @param matrix A transform matrix.
+	 * @param result The vector that receives the result.
+	 */
+	public static void transform(Vector3 position, Matrix matrix, Vector4 result) {
+		result.x = (position.x * matrix.M11) + (position.y * matrix.M21) + (position.z * matrix.M31) + matrix.M41;
+		result.y = (position.x * matrix.M12) + (position.y * matrix.M22) + (position.z * matrix.M32) + matrix.M42;
+		result.z = (position.x * matrix.M13) + (position.y * matrix.M23) + (position.z * matrix.M33) + matrix.M43;
+		result.w = (position.x * matrix.M14) + (position.y * matrix.M24) + (position.z * matrix.M34) + matrix.M44;
+	}
+	
+	/**
+	 * Sets the values of the vector.
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param w
+	 */
+	public void set(float x, float y, float z, float w) {
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		this.w = w;
+	}
+	
+	/**
+	 * Copy the values of a vector.
+	 * @param vector The vector to copy.
+	 */
+	public void set(Vector4 vector) {
+		this.set(vector.x, vector.y, vector.z, vector.w);
+	}
 }
@@ -8,6 +8,8 @@ import java.util.HashMap;
 import atlantis.framework.audio.Song;
 import atlantis.framework.audio.SoundEffect;
 import atlantis.framework.graphics.Texture2D;
+import atlantis.framework.graphics.TextureAtlas;
+import atlantis.framework.graphics.TextureRegion;
 
 /**
  * A content manager for load images and sounds
@@ -15,6 +17,7 @@ import atlantis.framework.graphics.Texture2D;
  */
 public class ContentManager {
 	protected HashMap<String, Object> assets;
+	protected HashMap<String, TextureRegion> regions;
 	protected String rootDirectory;
 	protected int loadType;
 	
@@ -23,6 +26,7 @@ public class ContentManager {
 	 */
 	public ContentManager() {
 		this.assets = new HashMap<String, Object>();
+		this.regions = new HashMap<String, TextureRegion>();
 		this.rootDirectory = "Content";
 		this.loadType = 1;
 	}
@@ -44,6 +48,65 @@ public class ContentManager {
 		return image;
 	}
 	
+	/**
+	 * Load an image as a region. The images packed by createAtlas are regions of the atlas pages,
+	 * the other images are loaded by loadTexture and the region covers the whole texture.
+	 * @param assetName The name of the image.
+	 * @return Return a region of a texture.
+	 */
+	public TextureRegion loadTextureRegion(String assetName) {
+		TextureRegion region = this.regions.get(assetName);
+		
+		if (region == null) {
+			region = new TextureRegion(this.loadTexture(assetName));
+			this.regions.put(assetName, region);
+		}
+		
+		return region;
+	}
+	
+	/**
+	 * Pack images in a texture atlas with pages of 1024x1024 pixels, a padding of 2 pixels and an extrusion of 1 pixel.
+	 * @param assetNames The names of the images.
+	 * @return Return the atlas.
+	 * @see #createAtlas(String[], int, int, int)
+	 */
+	public TextureAtlas createAtlas(String[] assetNames) {
+		return this.createAtlas(assetNames, 1024, 2, 1);
+	}
+	
+	/**
+	 * Pack images in a texture atlas. From now loadTextureRegion returns the regions of the atlas for these images,
+	 * so the sprites that use them share the pages. It's done once, when the content is loaded.
+	 * @param assetNames The names of the images.
+	 * @param pageSize The maximum width and height of a page.
+	 * @param padding The number of empty pixels between two images.
+	 * @param extrude The number of times the edges of an image are repeated around it.
+	 * @return Return the atlas.
+	 */
+	public TextureAtlas createAtlas(String[] assetNames, int pageSize, int padding, int extrude) {
+		TextureAtlas atlas = new TextureAtlas(pageSize, pageSize, padding, extrude);
+		
+		for (String assetName : assetNames) {
+			// The images that are already loaded are reused, the others are only loaded to be packed.
+			Texture2D texture = (Texture2D) this.assets.get(assetName);
+			
+			if (texture == null) {
+				texture = Texture2D.createFromPath(this.rootDirectory + "/" + assetName, this.loadType);
+			}
+			
+			atlas.add(assetName, texture);
+		}
+		
+		atlas.pack();
+		
+		for (String assetName : assetNames) {
+			this.regions.put(assetName, atlas.getRegion(assetName));
+		}
+		
+		return atlas;
+	}
+	
 	/**
 	 * Load an sound from the content folder. If the sound isn't already loaded
 	 * it is loaded and added to the collection of assets.
@@ -0,0 +1,230 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.framework.graphics;
+
+import atlantis.framework.Rectangle;
+
+/**
+ * The areas of a render target that changed since the last frame. An added rectangle is clipped to the render
+ * target and merged with the rectangles it overlaps, or with the ones that are close enough to be drawn together,
+ * so the regions never overlap and a pixel is drawn once per frame. When the list is full, a new rectangle is
+ * merged with the region that grows the least, and when the regions cover most of the render target they're
+ * replaced by the whole render target.
+ * @author Yannick
+ */
+public class DirtyRegions {
+	private static final int MaxRegions = 16;
+	// Two rectangles are merged when their union is at most that number of pixels larger than them.
+	private static final int MergeSlack = 32 * 32;
+
+	protected int width;
+	protected int height;
+	protected Rectangle[] regions;
+	protected int count;
+	protected boolean fullScreen;
+
+	/**
+	 * Create an empty list of regions.
+	 * @param width The width of the render target.
+	 * @param height The height of the render target.
+	 */
+	public DirtyRegions(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.regions = new Rectangle[MaxRegions];
+
+		for (int i = 0; i < MaxRegions; i++) {
+			this.regions[i] = new Rectangle();
+		}
+
+		this.clear();
+	}
+
+	/**
+	 * Add a changed area.
+	 * @param x The left of the area.
+	 * @param y The top of the area.
+	 * @param width The width of the area.
+	 * @param height The height of the area.
+	 */
+	public void add(int x, int y, int width, int height) {
+		if (this.fullScreen) {
+			return;
+		}
+
+		int left = Math.max(0, x);
+		int top = Math.max(0, y);
+		int right = Math.min(this.width, x + width);
+		int bottom = Math.min(this.height, y + height);
+
+		if (left >= right || top >= bottom) {
+			return;
+		}
+
+		boolean merged = true;
+
+		// A merged rectangle is larger, it can now overlap the regions already tested.
+		while (merged) {
+			merged = false;
+
+			for (int i = 0; i < this.count && !merged; i++) {
+				Rectangle region = this.regions[i];
+				int unionLeft = Math.min(left, region.x);
+				int unionTop = Math.min(top, region.y);
+				int unionRight = Math.max(right, region.x + region.width);
+				int unionBottom = Math.max(bottom, region.y + region.height);
+				long unionArea = (long)(unionRight - unionLeft) * (unionBottom - unionTop);
+				long areas = (long)(right - left) * (bottom - top) + (long)region.width * region.height;
+				boolean overlaps = left < region.x + region.width && region.x < right && top < region.y + region.height && region.y < bottom;
+
+				if (overlaps || unionArea <= areas + MergeSlack) {
+					left = unionLeft;
+					top = unionTop;
+					right = unionRight;
+					bottom = unionBottom;
+					this.removeAt(i);
+					merged = true;
+				}
+			}
+
+			if (!merged && this.count == MaxRegions) {
+				int best = this.getCheapestMerge(left, top, right, bottom);
+				Rectangle region = this.regions[best];
+				left = Math.min(left, region.x);
+				top = Math.min(top, region.y);
+				right = Math.max(right, region.x + region.width);
+				bottom = Math.max(bottom, region.y + region.height);
+				this.removeAt(best);
+				merged = true;
+			}
+		}
+
+		this.regions[this.count++].set(left, top, right - left, bottom - top);
+
+		// Beyond half of the render target, a single region is cheaper than the overhead of the clips.
+		if (this.getArea() * 2 >= (long)this.width * this.height) {
+			this.invalidate();
+		}
+	}
+
+	/**
+	 * Add a changed area.
+	 * @param rectangle The area.
+	 */
+	public void add(Rectangle rectangle) {
+		this.add(rectangle.x, rectangle.y, rectangle.width, rectangle.height);
+	}
+
+	/**
+	 * Gets the region that grows the least to contain a rectangle.
+	 */
+	private int getCheapestMerge(int left, int top, int right, int bottom) {
+		int best = 0;
+		long bestGrowth = Long.MAX_VALUE;
+
+		for (int i = 0; i < this.count; i++) {
+			Rectangle region = this.regions[i];
+			long unionArea = (long)(Math.max(right, region.x + region.width) - Math.min(left, region.x))
+					* (Math.max(bottom, region.y + region.height) - Math.min(top, region.y));
+			long growth = unionArea - (long)region.width * region.height;
+
+			if (growth < bestGrowth) {
+				best = i;
+				bestGrowth = growth;
+			}
+		}
+
+		return best;
+	}
+
+	/**
+	 * Remove a region, the last region takes its place.
+	 */
+	private void removeAt(int index) {
+		Rectangle removed = this.regions[index];
+		this.regions[index] = this.regions[this.count - 1];
+		this.regions[this.count - 1] = removed;
+		this.count--;
+	}
+
+	/**
+	 * Mark the whole render target as changed.
+	 */
+	public void invalidate() {
+		this.regions[0].set(0, 0, this.width, this.height);
+		this.count = 1;
+		this.fullScreen = true;
+	}
+
+	/**
+	 * Remove all the regions, it's done once the frame is presented.
+	 */
+	public void clear() {
+		this.count = 0;
+		this.fullScreen = false;
+	}
+
+	/**
+	 * Indicates whether a rectangle intersects a region.
+	 * @param left The left of the rectangle.
+	 * @param top The top of the rectangle.
+	 * @param right The right of the rectangle.
+	 * @param bottom The bottom of the rectangle.
+	 * @return Return true if a part of the rectangle has to be drawn.
+	 */
+	public boolean intersects(float left, float top, float right, float bottom) {
+		for (int i = 0; i < this.count; i++) {
+			Rectangle region = this.regions[i];
+
+			if (left < region.x + region.width && right > region.x && top < region.y + region.height && bottom > region.y) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	// ---
+	// --- Getters and setters
+	// ---
+
+	/**
+	 * Gets the number of regions.
+	 * @return Return the number of regions, 0 when nothing changed.
+	 */
+	public int getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Gets a region, it's valid until the next change of the list.
+	 * @param index The index of the region, between 0 and getCount() - 1.
+	 * @return Return the region.
+	 */
+	public Rectangle get(int index) {
+		return this.regions[index];
+	}
+
+	/**
+	 * Gets the number of pixels of the regions.
+	 * @return Return the sum of the areas of the regions.
+	 */
+	public long getArea() {
+		long area = 0;
+
+		for (int i = 0; i < this.count; i++) {
+			area += (long)this.regions[i].width * this.regions[i].height;
+		}
+
+		return area;
+	}
+
+	public boolean isEmpty() {
+		return this.count == 0;
+	}
+
+	public boolean isFullScreen() {
+		return this.fullScreen;
+	}
+}
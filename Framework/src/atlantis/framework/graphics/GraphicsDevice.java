@@ -3,21 +3,77 @@
 // file 'LICENSE', which is part of this source code package.
 package atlantis.framework.graphics;
 
+import java.awt.Color;
 import java.awt.Graphics;
 
+import atlantis.framework.Rectangle;
+
 /**
  * The graphics device is response to create the main render target and must manage all draw call.
+ * <p>
+ * In dirty region mode, only the areas that changed since the last frame are cleared, drawn and presented. 
+ * The changed areas must be added before the frame is cleared (see addDirtyRegion), the sprite batches then 
+ * only draw in these regions and the window only repaints them. The mode is disabled by default.
  * @author Yannick
  */
 public final class GraphicsDevice {
 	protected RenderTarget2D mainRenderTarget;
 	protected int width;
 	protected int height;
+	protected DirtyRegions dirtyRegions;
+	protected boolean dirtyRegionsEnabled;
 	
 	public GraphicsDevice(int width, int height) {
 		this.mainRenderTarget = new RenderTarget2D(width, height);
 		this.width = width;
 		this.height = height;
+		this.dirtyRegions = new DirtyRegions(width, height);
+		this.dirtyRegionsEnabled = false;
+	}
+	
+	/**
+	 * Fill the main render target with a color, it's done once per frame before drawing.
+	 * The color replaces the pixels, it can be transparent. In dirty region mode, only the dirty regions are filled.
+	 * @param color The color to use.
+	 */
+	public void clear(Color color) {
+		if (this.dirtyRegionsEnabled) {
+			for (int i = 0, l = this.dirtyRegions.getCount(); i < l; i++) {
+				this.mainRenderTarget.clear(color, this.dirtyRegions.get(i));
+			}
+		}
+		else {
+			this.mainRenderTarget.clear(color);
+		}
+	}
+	
+	/**
+	 * Add an area that changed since the last frame, it's redrawn and presented by the next frame.
+	 * It's ignored when the dirty region mode is disabled.
+	 * @param x The left of the area.
+	 * @param y The top of the area.
+	 * @param width The width of the area.
+	 * @param height The height of the area.
+	 */
+	public void addDirtyRegion(int x, int y, int width, int height) {
+		if (this.dirtyRegionsEnabled) {
+			this.dirtyRegions.add(x, y, width, height);
+		}
+	}
+	
+	/**
+	 * Add an area that changed since the last frame, it's redrawn and presented by the next frame.
+	 * @param rectangle The area.
+	 */
+	public void addDirtyRegion(Rectangle rectangle) {
+		this.addDirtyRegion(rectangle.x, rectangle.y, rectangle.width, rectangle.height);
+	}
+	
+	/**
+	 * Mark the whole render target as changed, the next frame is fully redrawn.
+	 */
+	public void invalidate() {
+		this.dirtyRegions.invalidate();
 	}
 	
 	/**
@@ -51,4 +107,25 @@ public final class GraphicsDevice {
 	public int getHeight() {
 		return height;
 	}
+	
+	/**
+	 * Gets the areas changed since the last frame.
+	 * @return Return the dirty regions, they're cleared once the frame is presented.
+	 */
+	public DirtyRegions getDirtyRegions() {
+		return this.dirtyRegions;
+	}
+	
+	public boolean isDirtyRegionsEnabled() {
+		return this.dirtyRegionsEnabled;
+	}
+	
+	/**
+	 * Enable or disable the dirty region mode. The next frame is fully redrawn.
+	 * @param enabled Sets to true to only redraw the dirty regions.
+	 */
+	public void setDirtyRegionsEnabled(boolean enabled) {
+		this.dirtyRegionsEnabled = enabled;
+		this.dirtyRegions.invalidate();
+	}
 }
@@ -0,0 +1,192 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.framework.graphics;
+
+import java.util.ArrayList;
+
+import atlantis.framework.Rectangle;
+
+/**
+ * A bin packer that places rectangles in a fixed area with the MaxRects algorithm. The packer keeps the list of
+ * the maximal free rectangles, they can overlap. A new rectangle is placed in the free rectangle where it leaves
+ * the shortest side (best short side fit), then every free rectangle it overlaps is split and the free rectangles
+ * contained in another one are removed.
+ * @author Yannick
+ */
+public class MaxRectsPacker {
+	protected int width;
+	protected int height;
+	protected int usedWidth;
+	protected int usedHeight;
+	protected int usedArea;
+	protected ArrayList<Rectangle> freeRectangles;
+	private ArrayList<Rectangle> newRectangles;
+
+	/**
+	 * Create an empty packer.
+	 * @param width The width of the area.
+	 * @param height The height of the area.
+	 */
+	public MaxRectsPacker(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.freeRectangles = new ArrayList<Rectangle>();
+		this.newRectangles = new ArrayList<Rectangle>();
+		this.clear();
+	}
+
+	/**
+	 * Remove all the rectangles.
+	 */
+	public void clear() {
+		this.freeRectangles.clear();
+		this.freeRectangles.add(new Rectangle(0, 0, this.width, this.height));
+		this.usedWidth = 0;
+		this.usedHeight = 0;
+		this.usedArea = 0;
+	}
+
+	/**
+	 * Place a rectangle.
+	 * @param width The width of the rectangle.
+	 * @param height The height of the rectangle.
+	 * @param result The rectangle that receives the position and the size.
+	 * @return Return true if the rectangle is placed, false if there isn't enough space.
+	 */
+	public boolean insert(int width, int height, Rectangle result) {
+		Rectangle best = null;
+		int bestShortSide = Integer.MAX_VALUE;
+		int bestLongSide = Integer.MAX_VALUE;
+
+		for (int i = 0, l = this.freeRectangles.size(); i < l; i++) {
+			Rectangle free = this.freeRectangles.get(i);
+
+			if (free.width >= width && free.height >= height) {
+				int leftoverX = free.width - width;
+				int leftoverY = free.height - height;
+				int shortSide = Math.min(leftoverX, leftoverY);
+				int longSide = Math.max(leftoverX, leftoverY);
+
+				if (shortSide < bestShortSide || (shortSide == bestShortSide && longSide < bestLongSide)) {
+					best = free;
+					bestShortSide = shortSide;
+					bestLongSide = longSide;
+				}
+			}
+		}
+
+		if (best == null) {
+			return false;
+		}
+
+		result.set(best.x, best.y, width, height);
+		this.place(result);
+		return true;
+	}
+
+	/**
+	 * Split the free rectangles that overlap a new rectangle.
+	 */
+	private void place(Rectangle used) {
+		ArrayList<Rectangle> free = this.freeRectangles;
+
+		for (int i = free.size() - 1; i >= 0; i--) {
+			Rectangle rectangle = free.get(i);
+
+			if (rectangle.intersects(used)) {
+				// The parts of the free rectangle on each side of the used rectangle stay free.
+				if (used.x > rectangle.x) {
+					this.newRectangles.add(new Rectangle(rectangle.x, rectangle.y, used.x - rectangle.x, rectangle.height));
+				}
+				if (used.getRight() < rectangle.getRight()) {
+					this.newRectangles.add(new Rectangle(used.getRight(), rectangle.y, rectangle.getRight() - used.getRight(), rectangle.height));
+				}
+				if (used.y > rectangle.y) {
+					this.newRectangles.add(new Rectangle(rectangle.x, rectangle.y, rectangle.width, used.y - rectangle.y));
+				}
+				if (used.getBottom() < rectangle.getBottom()) {
+					this.newRectangles.add(new Rectangle(rectangle.x, used.getBottom(), rectangle.width, rectangle.getBottom() - used.getBottom()));
+				}
+
+				free.set(i, free.get(free.size() - 1));
+				free.remove(free.size() - 1);
+			}
+		}
+
+		this.prune();
+		free.addAll(this.newRectangles);
+		this.newRectangles.clear();
+
+		this.usedWidth = Math.max(this.usedWidth, used.getRight());
+		this.usedHeight = Math.max(this.usedHeight, used.getBottom());
+		this.usedArea += used.width * used.height;
+	}
+
+	/**
+	 * Remove the new free rectangles contained in another free rectangle. The old free rectangles are maximal
+	 * and the new ones are parts of the removed rectangles, so an old rectangle is never inside a new one.
+	 */
+	private void prune() {
+		ArrayList<Rectangle> free = this.freeRectangles;
+		ArrayList<Rectangle> created = this.newRectangles;
+
+		for (int i = created.size() - 1; i >= 0; i--) {
+			Rectangle rectangle = created.get(i);
+			boolean contained = false;
+
+			for (int j = 0, l = free.size(); j < l && !contained; j++) {
+				contained = isContained(rectangle, free.get(j));
+			}
+
+			for (int j = 0, l = created.size(); j < l && !contained; j++) {
+				// Of two equal rectangles, the last one is removed.
+				contained = j != i && isContained(rectangle, created.get(j)) && (j < i || !isContained(created.get(j), rectangle));
+			}
+
+			if (contained) {
+				created.remove(i);
+			}
+		}
+	}
+
+	private static boolean isContained(Rectangle a, Rectangle b) {
+		return a.x >= b.x && a.y >= b.y && a.getRight() <= b.getRight() && a.getBottom() <= b.getBottom();
+	}
+
+	// ---
+	// --- Getters and setters
+	// ---
+
+	public int getWidth() {
+		return this.width;
+	}
+
+	public int getHeight() {
+		return this.height;
+	}
+
+	/**
+	 * Gets the width used by the rectangles, from the left of the area.
+	 * @return Return the right of the rightmost rectangle.
+	 */
+	public int getUsedWidth() {
+		return this.usedWidth;
+	}
+
+	/**
+	 * Gets the height used by the rectangles, from the top of the area.
+	 * @return Return the bottom of the lowest rectangle.
+	 */
+	public int getUsedHeight() {
+		return this.usedHeight;
+	}
+
+	/**
+	 * Gets the part of the area covered by the rectangles.
+	 * @return Return a value between 0 and 1.
+	 */
+	public float getOccupancy() {
+		return this.usedArea / (float)(this.width * this.height);
+	}
+}
@@ -4,21 +4,28 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+import atlantis.framework.Rectangle;
 
 /**
- * A render target 2D is a back buffer image.
+ * A render target 2D is a back buffer image. Its pixels are premultiplied ARGB integers,
+ * they can be written directly by a software renderer (see getPixels).
  * @author Yannick
  */
 public class RenderTarget2D extends BufferedImage {
 	protected Graphics graphics;
 	protected DataBuffer dataBuffer;
 	protected int bufferSize;
+	protected int[] pixels;
 	
 	public RenderTarget2D(int width, int height) {
-		super(width, height, BufferedImage.TYPE_4BYTE_ABGR);
+		super(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
 		this.graphics = this.getGraphics();
 		this.dataBuffer = this.getRaster().getDataBuffer();
 		this.bufferSize = this.dataBuffer.getSize();
+		this.pixels = ((DataBufferInt)this.dataBuffer).getData();
 	}
 
 	/**
@@ -26,20 +33,45 @@ public class RenderTarget2D extends BufferedImage {
 	 * @param color Color to use.
 	 */
 	public void clear(Color color) {
-		int alpha = color.getAlpha();
-		int blue = color.getBlue();
-		int green = color.getGreen();
-		int red = color.getRed();
+		Arrays.fill(this.pixels, SpriteBlitter.premultiply(color.getRGB()));
+	}
+	
+	/**
+	 * Clear a part of the back buffer with the specified color
+	 * @param color Color to use.
+	 * @param rectangle The area to clear, inside the back buffer.
+	 */
+	public void clear(Color color, Rectangle rectangle) {
+		int value = SpriteBlitter.premultiply(color.getRGB());
+		int width = this.getWidth();
 		
-		for (int i = 0; i < this.bufferSize; i += 4) {
-			this.dataBuffer.setElem(i, alpha);
-			this.dataBuffer.setElem(i + 1, blue);
-			this.dataBuffer.setElem(i + 2, green);
-			this.dataBuffer.setElem(i + 3, red);
+		for (int y = rectangle.y, bottom = rectangle.y + rectangle.height; y < bottom; y++) {
+			int start = y * width + rectangle.x;
+			Arrays.fill(this.pixels, start, start + rectangle.width, value);
 		}
 	}
 	
 	public void draw(Graphics graphics) {
 		graphics.drawImage(this, 0, 0, this.getWidth(), this.getHeight(), null);
 	}
-}
\ No newline at end of file
+	
+	/**
+	 * Draw a part of the back buffer at the same position.
+	 * @param graphics The graphics context.
+	 * @param x The left of the part.
+	 * @param y The top of the part.
+	 * @param width The width of the part.
+	 * @param height The height of the part.
+	 */
+	public void draw(Graphics graphics, int x, int y, int width, int height) {
+		graphics.drawImage(this, x, y, x + width, y + height, x, y, x + width, y + height, null);
+	}
+	
+	/**
+	 * Gets the pixels of the back buffer, a premultiplied ARGB integer (0xAARRGGBB) per pixel, row by row.
+	 * @return Return the array used by the image, the changes are visible on the next draw.
+	 */
+	public int[] getPixels() {
+		return this.pixels;
+	}
+}
@@ -4,29 +4,73 @@
 package atlantis.framework.graphics;
 
 import java.awt.Color;
-import java.awt.Font;
 import java.awt.Graphics2D;
-import java.awt.image.BufferedImage;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.awt.geom.AffineTransform;
+import java.util.Arrays;
 
+import atlantis.framework.IParallelTask;
+import atlantis.framework.Parallel;
 import atlantis.framework.Rectangle;
 import atlantis.framework.Vector2;
 
 /**
- * A sprite batch is responsible to draw image and text on screen.
+ * A sprite batch is responsible to draw image and text on screen. The operations are drawn
+ * directly on the render target of the graphics device, the device must be cleared once per frame
+ * before drawing (see GraphicsDevice.clear), so several batches can be drawn on the same frame.
+ * <p>
+ * The sprites are drawn by Java2D or, when the software rendering is enabled, by the SpriteBlitter
+ * directly into the pixels of the render target. The color of a sprite is an ARGB tint (0xAARRGGBB) where
+ * white keeps the colors of the texture, it's only applied by the software rendering.
+ * <p>
+ * The sprites outside of the viewport, the render target by default, are rejected by the draw calls
+ * before they're stored and sorted. The bounds of a rotated sprite are the bounds of its rotated rectangle.
+ * <p>
+ * When the dirty region mode of the graphics device is enabled, the sprites outside of the dirty regions are rejected 
+ * too and the others are only drawn inside the dirty regions, a region at a time.
  * @author Yannick
  */
 public class SpriteBatch {
+	private static final int InitialCapacity = 64;
+	private static final int NoSource = -1;
+	private static final int NoTint = 0xFFFFFFFF;
+	// The software rendering is split in bands of rows when the sprites cover more pixels than that.
+	private static final int ParallelArea = 256 * 256;
+	private static final int MinBandHeight = 32;
+	
 	protected GraphicsDevice graphicsDevice;
 	protected Graphics2D graphics2D;
 	protected boolean beginStarted;
 	protected boolean readyToBatch;
-	protected Font previousFont;
-	protected Color previousColor;
-	protected ArrayList<BatchOperation> batchOperations;
+	protected int sortMode;
+	protected boolean softwareRendering;
+	protected boolean bilinearFiltering;
+	protected Rectangle viewport;
+	protected boolean cullingEnabled;
+	protected int submittedCount;
+	protected int culledCount;
 	private Rectangle tempRectangle;
+	private Rectangle tempSourceRectangle;
+	private AffineTransform defaultTransform;
+	private AffineTransform spriteTransform;
+	private int[] batchOrder;
+	private int bandLeft;
+	private int bandRight;
+	private IParallelTask bandTask;
+	
+	// The command buffer: a value per sprite, 4 values per rectangle.
+	protected int spriteCount;
+	protected Texture2D[] textures;
+	protected int[] destinations;
+	protected int[] sources;
+	protected int[] colors;
+	protected float[] rotations;
+	protected float[] origins;
+	protected int[] effects;
+	protected float[] depths;
+	private long[] sortEntries;
+	private long[] sortBuffer;
+	private int[] order;
+	private int[] radixCounts;
 	
 	/**
 	 * Create a spriteBatch.
@@ -34,12 +78,40 @@ public class SpriteBatch {
 	 */
 	public SpriteBatch(GraphicsDevice graphics) {
 		this.graphicsDevice = graphics;
+		// The render target of the device never changes, its graphics context is created once.
+		this.graphics2D = graphics.getRenderTarget().createGraphics();
 		this.beginStarted = false;
 		this.readyToBatch = false;
-		this.batchOperations = new ArrayList<BatchOperation>();
+		this.sortMode = SpriteSortMode.FrontToBack;
+		this.spriteCount = 0;
+		this.textures = new Texture2D[InitialCapacity];
+		this.destinations = new int[InitialCapacity * 4];
+		this.sources = new int[InitialCapacity * 4];
+		this.colors = new int[InitialCapacity];
+		this.rotations = new float[InitialCapacity];
+		this.origins = new float[InitialCapacity * 2];
+		this.effects = new int[InitialCapacity];
+		this.depths = new float[InitialCapacity];
+		this.sortEntries = new long[InitialCapacity];
+		this.sortBuffer = new long[InitialCapacity];
+		this.order = new int[InitialCapacity];
+		this.radixCounts = new int[4 * 256];
 		this.tempRectangle = Rectangle.Empty();
-		this.previousColor = Color.WHITE;
-		this.previousFont = null;
+		this.tempSourceRectangle = Rectangle.Empty();
+		this.defaultTransform = this.graphics2D.getTransform();
+		this.spriteTransform = new AffineTransform();
+		this.softwareRendering = false;
+		this.bilinearFiltering = false;
+		this.viewport = new Rectangle(0, 0, graphics.getWidth(), graphics.getHeight());
+		this.cullingEnabled = true;
+		this.submittedCount = 0;
+		this.culledCount = 0;
+		this.bandTask = new IParallelTask() {
+			@Override
+			public void run(int start, int end) {
+				drawSoftwareRows(batchOrder, bandLeft, start, bandRight, end);
+			}
+		};
 	}
 	
 	/**
@@ -71,7 +143,7 @@ public class SpriteBatch {
 	 * @param destRectangle
 	 */
 	public void draw(Texture2D texture, Rectangle destRectangle) {
-		this.draw(texture, destRectangle, null, Color.TRANSLUCENT, 0.0f);
+		this.draw(texture, destRectangle, null, NoTint, 0.0f);
 	}
 	
 	public void draw(Texture2D texture, Vector2 position, Rectangle sourceRectangle, int color, int rotation, float layerDepth) {
@@ -93,28 +165,320 @@ public class SpriteBatch {
 	}
 	
 	public void draw(Texture2D texture, Rectangle destRectangle, Rectangle sourceRectangle, int color, float rotation, float layerDepth) {
-		if (this.beginStarted) {
-			batchOperations.add(new BatchOperation(texture, destRectangle, sourceRectangle, color, rotation, layerDepth));
+		this.draw(texture, destRectangle, sourceRectangle, color, rotation, null, SpriteEffect.None, layerDepth);
+	}
+	
+	/**
+	 * Draw a texture2D to screen.
+	 * @param texture The texture2D to use.
+	 * @param destRectangle The destination rectangle, its position is the position of the origin on screen.
+	 * @param sourceRectangle The source rectangle, or null for the whole texture.
+	 * @param color The tint, an ARGB color (0xAARRGGBB), white to keep the colors of the texture.
+	 * @param rotation The rotation around the origin, in radians.
+	 * @param origin The center of the rotation in the source rectangle, in pixels, or null for the top left corner.
+	 * @param effects The flips, a combination of SpriteEffect values.
+	 * @param layerDepth The depth between 0 (front) and 1 (back).
+	 */
+	public void draw(Texture2D texture, Rectangle destRectangle, Rectangle sourceRectangle, int color, float rotation, Vector2 origin, int effects, float layerDepth) {
+		if (!this.beginStarted) {
+			return;
+		}
+		
+		this.submittedCount++;
+		
+		if (this.cullingEnabled && !this.isVisible(texture, destRectangle, sourceRectangle, rotation, origin)) {
+			this.culledCount++;
+			return;
+		}
+		
+		if (this.spriteCount == this.textures.length) {
+			this.grow();
+		}
+		
+		// The values are copied, the rectangles can be reused by the caller.
+		int index = this.spriteCount++;
+		int p = index * 4;
+		this.textures[index] = texture;
+		this.destinations[p] = destRectangle.x;
+		this.destinations[p + 1] = destRectangle.y;
+		this.destinations[p + 2] = destRectangle.width;
+		this.destinations[p + 3] = destRectangle.height;
+		
+		if (sourceRectangle != null) {
+			this.sources[p] = sourceRectangle.x;
+			this.sources[p + 1] = sourceRectangle.y;
+			this.sources[p + 2] = sourceRectangle.width;
+			this.sources[p + 3] = sourceRectangle.height;
+		}
+		else {
+			this.sources[p + 2] = NoSource;
+		}
+		
+		this.colors[index] = color;
+		this.rotations[index] = rotation;
+		this.origins[index * 2] = (origin != null) ? origin.x : 0.0f;
+		this.origins[index * 2 + 1] = (origin != null) ? origin.y : 0.0f;
+		this.effects[index] = effects;
+		this.depths[index] = layerDepth;
+	}
+
+	/**
+	 * Indicates whether the bounds of a sprite intersect the viewport.
+	 */
+	private boolean isVisible(Texture2D texture, Rectangle destRectangle, Rectangle sourceRectangle, float rotation, Vector2 origin) {
+		float left = destRectangle.x;
+		float top = destRectangle.y;
+		float right = left + destRectangle.width;
+		float bottom = top + destRectangle.height;
+		
+		if (origin != null || rotation != 0.0f) {
+			int sourceWidth = (sourceRectangle != null) ? sourceRectangle.width : texture.getWidth();
+			int sourceHeight = (sourceRectangle != null) ? sourceRectangle.height : texture.getHeight();
+			
+			if (sourceWidth <= 0 || sourceHeight <= 0) {
+				return false;
+			}
+			
+			// The corners relative to the position, once the origin is moved to the position.
+			float scaleX = destRectangle.width / (float)sourceWidth;
+			float scaleY = destRectangle.height / (float)sourceHeight;
+			float x0 = (origin != null) ? -origin.x * scaleX : 0.0f;
+			float y0 = (origin != null) ? -origin.y * scaleY : 0.0f;
+			float x1 = x0 + destRectangle.width;
+			float y1 = y0 + destRectangle.height;
+			
+			if (rotation != 0.0f) {
+				float cos = (float)Math.cos(rotation);
+				float sin = (float)Math.sin(rotation);
+				// The extent of the rotated rectangle on each axis is the sum of the extents of its rotated corners.
+				float minX = Math.min(cos * x0, cos * x1) + Math.min(-sin * y0, -sin * y1);
+				float maxX = Math.max(cos * x0, cos * x1) + Math.max(-sin * y0, -sin * y1);
+				float minY = Math.min(sin * x0, sin * x1) + Math.min(cos * y0, cos * y1);
+				float maxY = Math.max(sin * x0, sin * x1) + Math.max(cos * y0, cos * y1);
+				x0 = minX;
+				x1 = maxX;
+				y0 = minY;
+				y1 = maxY;
+			}
+			
+			right = left + x1;
+			bottom = top + y1;
+			left += x0;
+			top += y0;
+		}
+		
+		float minX = Math.min(left, right);
+		float maxX = Math.max(left, right);
+		float minY = Math.min(top, bottom);
+		float maxY = Math.max(top, bottom);
+		Rectangle viewport = this.viewport;
+		
+		if (minX >= viewport.x + viewport.width || maxX <= viewport.x || minY >= viewport.y + viewport.height || maxY <= viewport.y) {
+			return false;
+		}
+		
+		// The areas that didn't change keep the pixels of the last frame.
+		return !this.graphicsDevice.isDirtyRegionsEnabled() || this.graphicsDevice.getDirtyRegions().intersects(minX, minY, maxX, maxY);
+	}
+	
+	/**
+	 * Draw a region of a texture, like an image of a texture atlas, to screen.
+	 * @param region The region to draw.
+	 * @param destRectangle The destination rectangle, its position is the position of the origin on screen.
+	 * @param color The tint, an ARGB color (0xAARRGGBB), white to keep the colors of the texture.
+	 * @param rotation The rotation around the origin, in radians.
+	 * @param origin The center of the rotation in the region, in pixels, or null for the top left corner.
+	 * @param effects The flips, a combination of SpriteEffect values.
+	 * @param layerDepth The depth between 0 (front) and 1 (back).
+	 */
+	public void draw(TextureRegion region, Rectangle destRectangle, int color, float rotation, Vector2 origin, int effects, float layerDepth) {
+		this.draw(region.texture, destRectangle, region.getSourceRectangle(null, this.tempSourceRectangle), color, rotation, origin, effects, layerDepth);
+	}
+
+	/**
+	 * Draw a set of quads of the same texture in one call, like the particles of a particle system. A quad is the
+	 * source rectangle scaled to a square, centered on its position and tinted by its color, without rotation.
+	 * The arrays are read during the call, the caller can change them once it returns.
+	 * @param texture The texture of the quads.
+	 * @param sourceRectangle The source rectangle, or null for the whole texture.
+	 * @param positions The centers of the quads, 2 values per quad (x, y).
+	 * @param sizes The sizes of the quads in pixels, a value per quad.
+	 * @param colors The tints, an ARGB color (0xAARRGGBB) per quad.
+	 * @param count The number of quads.
+	 * @param layerDepth The depth of the quads between 0 (front) and 1 (back).
+	 */
+	public void drawQuads(Texture2D texture, Rectangle sourceRectangle, float[] positions, float[] sizes, int[] colors, int count, float layerDepth) {
+		if (!this.beginStarted) {
+			return;
+		}
+		
+		this.submittedCount += count;
+		
+		while (this.spriteCount + count > this.textures.length) {
+			this.grow();
+		}
+		
+		Rectangle viewport = this.viewport;
+		DirtyRegions dirtyRegions = this.graphicsDevice.isDirtyRegionsEnabled() ? this.graphicsDevice.getDirtyRegions() : null;
+		int viewportRight = viewport.x + viewport.width;
+		int viewportBottom = viewport.y + viewport.height;
+		int sourceX = 0, sourceY = 0, sourceWidth = NoSource, sourceHeight = 0;
+		
+		if (sourceRectangle != null) {
+			sourceX = sourceRectangle.x;
+			sourceY = sourceRectangle.y;
+			sourceWidth = sourceRectangle.width;
+			sourceHeight = sourceRectangle.height;
+		}
+		
+		for (int i = 0; i < count; i++) {
+			int size = (int)sizes[i];
+			int x = Math.round(positions[i * 2] - size * 0.5f);
+			int y = Math.round(positions[i * 2 + 1] - size * 0.5f);
+			
+			// The quads are axis aligned, the culling is a test of their rectangles.
+			if (this.cullingEnabled && (size <= 0 || (colors[i] >>> 24) == 0 
+					|| x >= viewportRight || x + size <= viewport.x || y >= viewportBottom || y + size <= viewport.y
+					|| (dirtyRegions != null && !dirtyRegions.intersects(x, y, x + size, y + size)))) {
+				this.culledCount++;
+				continue;
+			}
+			
+			int index = this.spriteCount++;
+			int p = index * 4;
+			this.textures[index] = texture;
+			this.destinations[p] = x;
+			this.destinations[p + 1] = y;
+			this.destinations[p + 2] = size;
+			this.destinations[p + 3] = size;
+			this.sources[p] = sourceX;
+			this.sources[p + 1] = sourceY;
+			this.sources[p + 2] = sourceWidth;
+			this.sources[p + 3] = sourceHeight;
+			this.colors[index] = colors[i];
+			this.rotations[index] = 0.0f;
+			this.origins[index * 2] = 0.0f;
+			this.origins[index * 2 + 1] = 0.0f;
+			this.effects[index] = SpriteEffect.None;
+			this.depths[index] = layerDepth;
 		}
 	}
 
+	/**
+	 * Draw a text, its glyphs are drawn like the sprites with a layer depth of 1. Like the sprites, the text
+	 * is only drawn between begin and end, a call outside of a batch draws nothing.
+	 * @param spriteFont The font.
+	 * @param text The text.
+	 * @param x The position of the text on X axis.
+	 * @param y The position of the baseline on Y axis.
+	 * @param color The color of the text.
+	 */
 	public void drawString(SpriteFont spriteFont, String text, int x, int y, Color color) {
-		this.graphics2D = (Graphics2D)this.graphicsDevice.getGraphics();
+		this.drawString(spriteFont, text, x, y, color.getRGB(), 1.0f);
+	}
+	
+	/**
+	 * Draw a text, a StringBuilder can be reused to draw a counter without allocation. The text is only
+	 * drawn between begin and end, a call outside of a batch draws nothing.
+	 * @param spriteFont The font.
+	 * @param text The text.
+	 * @param x The position of the text on X axis.
+	 * @param y The position of the baseline on Y axis.
+	 * @param color The color of the text, an ARGB color (0xAARRGGBB).
+	 * @param layerDepth The depth between 0 (front) and 1 (back).
+	 */
+	public void drawString(SpriteFont spriteFont, CharSequence text, float x, float y, int color, float layerDepth) {
+		if (!this.beginStarted) {
+			return;
+		}
+		
+		// The software backend tints the white glyphs, the colored pages are only made for Java2D.
+		Texture2D[] pages = spriteFont.getGlyphPages(this.softwareRendering ? NoTint : color);
+		int tint = this.softwareRendering ? color : NoTint;
+		int penX = Math.round(x);
+		int penY = Math.round(y);
+		char previous = 0;
 		
-		this.previousColor = this.graphics2D.getColor();
-		this.previousFont = this.graphics2D.getFont();
+		for (int i = 0, l = text.length(); i < l; i++) {
+			char c = spriteFont.getGlyphCharacter(text.charAt(i));
+			
+			if (i > 0) {
+				penX += spriteFont.getKerning(previous, c);
+			}
+			
+			this.drawGlyph(spriteFont, pages, c, penX, penY, tint, layerDepth);
+			penX += spriteFont.advances[c];
+			previous = c;
+		}
+	}
+	
+	/**
+	 * Draw a part of an array of characters, only between begin and end like the other texts.
+	 * @param spriteFont The font.
+	 * @param text The characters.
+	 * @param offset The index of the first character.
+	 * @param length The number of characters.
+	 * @param x The position of the text on X axis.
+	 * @param y The position of the baseline on Y axis.
+	 * @param color The color of the text, an ARGB color (0xAARRGGBB).
+	 * @param layerDepth The depth between 0 (front) and 1 (back).
+	 */
+	public void drawString(SpriteFont spriteFont, char[] text, int offset, int length, float x, float y, int color, float layerDepth) {
+		if (!this.beginStarted) {
+			return;
+		}
 		
-		this.graphics2D.setColor(color);
-		this.graphics2D.setFont(spriteFont.font);
+		// The software backend tints the white glyphs, the colored pages are only made for Java2D.
+		Texture2D[] pages = spriteFont.getGlyphPages(this.softwareRendering ? NoTint : color);
+		int tint = this.softwareRendering ? color : NoTint;
+		int penX = Math.round(x);
+		int penY = Math.round(y);
+		char previous = 0;
 		
-		// TODO : Make SpriteBatch inherit from BufferedImage or Texture2D
-		this.graphics2D.drawString(text, x, y);
+		for (int i = offset, l = offset + length; i < l; i++) {
+			char c = spriteFont.getGlyphCharacter(text[i]);
+			
+			if (i > offset) {
+				penX += spriteFont.getKerning(previous, c);
+			}
+			
+			this.drawGlyph(spriteFont, pages, c, penX, penY, tint, layerDepth);
+			penX += spriteFont.advances[c];
+			previous = c;
+		}
+	}
+	
+	/**
+	 * Queue the quad of a glyph, the blank characters have no quad.
+	 */
+	private void drawGlyph(SpriteFont spriteFont, Texture2D[] pages, char c, int penX, int penY, int tint, float layerDepth) {
+		int b = c * 4;
+		int width = spriteFont.glyphBounds[b + 2];
+		int height = spriteFont.glyphBounds[b + 3];
 		
-		this.graphics2D.setColor(this.previousColor);
-		this.graphics2D.setFont(this.previousFont);
+		if (width > 0) {
+			this.tempRectangle.set(penX + spriteFont.glyphOffsets[c * 2], penY + spriteFont.glyphOffsets[c * 2 + 1], width, height);
+			this.tempSourceRectangle.set(spriteFont.glyphBounds[b], spriteFont.glyphBounds[b + 1], width, height);
+			this.draw(pages[spriteFont.glyphPageIndices[c]], this.tempRectangle, this.tempSourceRectangle, tint, 0.0f, null, SpriteEffect.None, layerDepth);
+		}
 	}
 	
+	/**
+	 * Start a batch, the sprites are sorted by increasing layer depth.
+	 */
 	public void begin() {
+		this.begin(SpriteSortMode.FrontToBack);
+	}
+	
+	/**
+	 * Start a batch.
+	 * @param sortMode The order of the sprites, a value of SpriteSortMode.
+	 */
+	public void begin(int sortMode) {
+		this.sortMode = sortMode;
+		this.spriteCount = 0;
+		this.submittedCount = 0;
+		this.culledCount = 0;
 		this.beginStarted = true;
 	}
 	
@@ -127,79 +491,355 @@ public class SpriteBatch {
 	}
 	
 	protected void processBatch() {
-		int width = this.graphicsDevice.getWidth();
-		int height = this.graphicsDevice.getHeight();
-		BatchOperation operation = null;
-		
-		BufferedImage render = new BufferedImage(width, height, BufferedImage.TYPE_4BYTE_ABGR);
-		this.graphics2D = (Graphics2D)render.getGraphics();
-		this.graphics2D.clearRect(0, 0, width, height);
-		Collections.sort(batchOperations, new ComparatorBatchOperation());
-		
-		for (int i = 0, l = batchOperations.size(); i < l; i++) {
-			operation = batchOperations.get(i);
-			this.graphics2D.rotate(operation.rotation);
-			
-			if (operation.sourceRectangle != null) {
-				this.graphics2D.drawImage(batchOperations.get(i).texture, 
-						operation.destinationRectangle.x, 
-						operation.destinationRectangle.y, 
-						operation.destinationRectangle.getRight(), 
-						operation.destinationRectangle.getBottom(), 
-						operation.sourceRectangle.x, 
-						operation.sourceRectangle.y, 
-						operation.sourceRectangle.getRight(), 
-						operation.sourceRectangle.getBottom(),
-						null);
-			}
-			else {
-				this.graphics2D.drawImage(batchOperations.get(i).texture, 
-						operation.destinationRectangle.x, 
-						operation.destinationRectangle.y, 
-						operation.destinationRectangle.getWidth(), 
-						operation.destinationRectangle.getHeight(),
-						null);
+		int count = this.spriteCount;
+		int[] order = this.sort();
+		
+		if (this.graphicsDevice.isDirtyRegionsEnabled() && !this.graphicsDevice.getDirtyRegions().isFullScreen()) {
+			DirtyRegions dirtyRegions = this.graphicsDevice.getDirtyRegions();
+			
+			// The regions don't overlap, so a sprite drawn in several regions blends once per pixel.
+			for (int i = 0, l = dirtyRegions.getCount(); i < l && count > 0; i++) {
+				Rectangle region = dirtyRegions.get(i);
+				
+				if (this.softwareRendering) {
+					this.drawSoftware(order, region.x, region.y, region.x + region.width, region.y + region.height);
+				}
+				else {
+					this.graphics2D.setClip(region.x, region.y, region.width, region.height);
+					this.drawJava2D(order);
+					this.graphics2D.setClip(null);
+				}
 			}
 		}
+		else if (this.softwareRendering) {
+			RenderTarget2D renderTarget = this.graphicsDevice.getRenderTarget();
+			this.drawSoftware(order, 0, 0, renderTarget.getWidth(), renderTarget.getHeight());
+		}
+		else {
+			this.drawJava2D(order);
+		}
 		
-		this.graphicsDevice.getGraphics().drawImage(render, 0, 0, width, height, null);
-		batchOperations.clear();
+		// Release the textures of the frame.
+		for (int i = 0; i < count; i++) {
+			this.textures[i] = null;
+		}
+		this.spriteCount = 0;
 	}
-}
-
-/**
- * A batch operation
- * @author Yannick
- */
-class BatchOperation {
-	public Texture2D texture;
-	public Rectangle destinationRectangle;
-	public Rectangle sourceRectangle;
-	public int color;
-	public float rotation;
-	public float depth;
-	
-	public BatchOperation(Texture2D texture, Rectangle destRectangle, Rectangle srcRectangle, int color, float rotation, float depth) {
-		this.texture = texture;
-		this.destinationRectangle = destRectangle;
-		this.sourceRectangle = srcRectangle;
-		this.color = color;
-		this.rotation = rotation;
-		this.depth = depth;
+	
+	/**
+	 * Draw the sprites with the graphics context of the render target.
+	 * @param order The sprite indices in drawing order, or null for the order of the draw calls.
+	 */
+	protected void drawJava2D(int[] order) {
+		Graphics2D graphics = this.graphics2D;
+		
+		for (int k = 0, l = this.spriteCount; k < l; k++) {
+			int i = (order != null) ? order[k] : k;
+			int p = i * 4;
+			Texture2D texture = this.textures[i];
+			int x = this.destinations[p];
+			int y = this.destinations[p + 1];
+			int width = this.destinations[p + 2];
+			int height = this.destinations[p + 3];
+			float originX = this.origins[i * 2];
+			float originY = this.origins[i * 2 + 1];
+			
+			if (this.rotations[i] == 0.0f && this.effects[i] == SpriteEffect.None && originX == 0.0f && originY == 0.0f) {
+				if (this.sources[p + 2] != NoSource) {
+					graphics.drawImage(texture, 
+							x, y, x + width, y + height, 
+							this.sources[p], this.sources[p + 1], this.sources[p] + this.sources[p + 2], this.sources[p + 1] + this.sources[p + 3],
+							null);
+				}
+				else {
+					graphics.drawImage(texture, x, y, width, height, null);
+				}
+				continue;
+			}
+			
+			int sx = 0, sy = 0, sw = texture.getWidth(), sh = texture.getHeight();
+			if (this.sources[p + 2] != NoSource) {
+				sx = this.sources[p];
+				sy = this.sources[p + 1];
+				sw = this.sources[p + 2];
+				sh = this.sources[p + 3];
+			}
+			
+			if (sw <= 0 || sh <= 0) {
+				continue;
+			}
+			
+			// The source rectangle is drawn at the origin of the sprite space: from the screen, 
+			// move to the position, rotate, scale to the destination size and move to the origin.
+			AffineTransform transform = this.spriteTransform;
+			transform.setTransform(this.defaultTransform);
+			transform.translate(x, y);
+			transform.rotate(this.rotations[i]);
+			transform.scale(width / (double)sw, height / (double)sh);
+			transform.translate(-originX, -originY);
+			
+			// The flips swap the bounds of the source rectangle.
+			int sx1 = sx, sx2 = sx + sw, sy1 = sy, sy2 = sy + sh;
+			if ((this.effects[i] & SpriteEffect.FlipHorizontaly) != 0) {
+				sx1 = sx2;
+				sx2 = sx;
+			}
+			if ((this.effects[i] & SpriteEffect.FlipVerticaly) != 0) {
+				sy1 = sy2;
+				sy2 = sy;
+			}
+			
+			graphics.setTransform(transform);
+			graphics.drawImage(texture, 0, 0, sw, sh, sx1, sy1, sx2, sy2, null);
+			graphics.setTransform(this.defaultTransform);
+		}
 	}
-}
-
-class ComparatorBatchOperation implements Comparator<BatchOperation> {
-	@Override
-	public int compare(BatchOperation batch1, BatchOperation batch2) {
-		if (batch1.depth < batch2.depth) {
-			return -1;
+	
+	/**
+	 * Draw the sprites with the software blitter inside a clip rectangle. The batches that cover a large area are 
+	 * split in bands of rows, each band draws all the sprites in order on its own rows.
+	 * @param order The sprite indices in drawing order, or null for the order of the draw calls.
+	 * @param left The first column (inclusive).
+	 * @param top The first row (inclusive).
+	 * @param right The last column (exclusive).
+	 * @param bottom The last row (exclusive).
+	 */
+	protected void drawSoftware(int[] order, int left, int top, int right, int bottom) {
+		long area = 0;
+		
+		for (int i = 0, l = this.spriteCount; i < l; i++) {
+			// The pixels of the textures are converted before the bands are drawn.
+			this.textures[i].getPremultipliedPixels();
+			area += Math.abs((long)this.destinations[i * 4 + 2] * this.destinations[i * 4 + 3]);
 		}
-		else if (batch1.depth > batch2.depth) {
-			return 1;
+		
+		if (area >= ParallelArea) {
+			this.batchOrder = order;
+			this.bandLeft = left;
+			this.bandRight = right;
+			Parallel.forRange(top, bottom, MinBandHeight, this.bandTask);
+			this.batchOrder = null;
 		}
 		else {
-			return 0;
+			this.drawSoftwareRows(order, left, top, right, bottom);
+		}
+	}
+	
+	/**
+	 * Draw the sprites with the software blitter on a band of rows.
+	 * @param order The sprite indices in drawing order, or null for the order of the draw calls.
+	 * @param left The first column (inclusive).
+	 * @param top The first row (inclusive).
+	 * @param right The last column (exclusive).
+	 * @param bottom The last row (exclusive).
+	 */
+	protected void drawSoftwareRows(int[] order, int left, int top, int right, int bottom) {
+		RenderTarget2D renderTarget = this.graphicsDevice.getRenderTarget();
+		int[] pixels = renderTarget.getPixels();
+		int width = renderTarget.getWidth();
+		
+		for (int k = 0, l = this.spriteCount; k < l; k++) {
+			int i = (order != null) ? order[k] : k;
+			int p = i * 4;
+			Texture2D texture = this.textures[i];
+			int sx = 0, sy = 0, sw = texture.getWidth(), sh = texture.getHeight();
+			
+			if (this.sources[p + 2] != NoSource) {
+				sx = this.sources[p];
+				sy = this.sources[p + 1];
+				sw = this.sources[p + 2];
+				sh = this.sources[p + 3];
+			}
+			
+			SpriteBlitter.blit(pixels, width, left, top, right, bottom, 
+					texture.getPremultipliedPixels(), texture.getWidth(), sx, sy, sw, sh,
+					this.destinations[p], this.destinations[p + 1], this.destinations[p + 2], this.destinations[p + 3],
+					this.rotations[i], this.origins[i * 2], this.origins[i * 2 + 1], this.colors[i], this.effects[i], this.bilinearFiltering);
+		}
+	}
+	
+	/**
+	 * Sort the sprites with a stable radix sort. Each sprite has a packed entry, its 32 bits key then its index, 
+	 * and the entries are sorted by the bytes of the key, a byte per pass. The index keeps the order of the draw
+	 * calls between equal keys. The passes where all the keys have the same byte are skipped, so a batch with
+	 * a single depth isn't reordered.
+	 * @return Return the sprite indices in drawing order, or null for the order of the draw calls.
+	 */
+	protected int[] sort() {
+		int count = this.spriteCount;
+		
+		if (this.sortMode == SpriteSortMode.Deferred || count < 2) {
+			return null;
+		}
+		
+		long[] entries = this.sortEntries;
+		int[] counts = this.radixCounts;
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = 0;
+		}
+		
+		for (int i = 0; i < count; i++) {
+			int key;
+			
+			if (this.sortMode == SpriteSortMode.Texture) {
+				key = this.textures[i].getId();
+			}
+			else {
+				// The bits of a float are ordered like unsigned integers once the negative values are flipped.
+				int bits = Float.floatToIntBits(this.depths[i]);
+				key = bits ^ ((bits >> 31) | 0x80000000);
+				
+				if (this.sortMode == SpriteSortMode.BackToFront) {
+					key = ~key;
+				}
+			}
+			
+			entries[i] = ((long)key << 32) | i;
+			counts[key & 0xFF]++;
+			counts[256 + ((key >>> 8) & 0xFF)]++;
+			counts[512 + ((key >>> 16) & 0xFF)]++;
+			counts[768 + (key >>> 24)]++;
 		}
+		
+		long[] buffer = this.sortBuffer;
+		boolean sorted = false;
+		
+		for (int pass = 0; pass < 4; pass++) {
+			int base = pass * 256;
+			int shift = 32 + pass * 8;
+			
+			// All the keys have the same byte, this pass doesn't change the order.
+			if (counts[base + (int)((entries[0] >>> shift) & 0xFF)] == count) {
+				continue;
+			}
+			
+			for (int i = 0, offset = 0; i < 256; i++) {
+				int bucket = counts[base + i];
+				counts[base + i] = offset;
+				offset += bucket;
+			}
+			
+			for (int i = 0; i < count; i++) {
+				long entry = entries[i];
+				buffer[counts[base + (int)((entry >>> shift) & 0xFF)]++] = entry;
+			}
+			
+			long[] swap = entries;
+			entries = buffer;
+			buffer = swap;
+			sorted = true;
+		}
+		
+		this.sortEntries = entries;
+		this.sortBuffer = buffer;
+		
+		if (!sorted) {
+			return null;
+		}
+		
+		int[] order = this.order;
+		for (int i = 0; i < count; i++) {
+			order[i] = (int)entries[i];
+		}
+		return order;
+	}
+	
+	/**
+	 * Double the capacity of the command buffer.
+	 */
+	private void grow() {
+		int capacity = this.textures.length * 2;
+		this.textures = Arrays.copyOf(this.textures, capacity);
+		this.destinations = Arrays.copyOf(this.destinations, capacity * 4);
+		this.sources = Arrays.copyOf(this.sources, capacity * 4);
+		this.colors = Arrays.copyOf(this.colors, capacity);
+		this.rotations = Arrays.copyOf(this.rotations, capacity);
+		this.origins = Arrays.copyOf(this.origins, capacity * 2);
+		this.effects = Arrays.copyOf(this.effects, capacity);
+		this.depths = Arrays.copyOf(this.depths, capacity);
+		this.sortEntries = new long[capacity];
+		this.sortBuffer = new long[capacity];
+		this.order = new int[capacity];
+	}
+	
+	// ---
+	// --- Getters and setters
+	// ---
+	
+	/**
+	 * Gets the number of sprites drawn since the call to begin.
+	 * @return Return the number of sprites in the batch.
+	 */
+	public int getSpriteCount() {
+		return this.spriteCount;
+	}
+	
+	public int getSortMode() {
+		return this.sortMode;
+	}
+	
+	/**
+	 * Gets the number of sprites submitted by the draw calls since the call to begin, drawn or culled.
+	 * @return Return the number of draw calls of the batch.
+	 */
+	public int getSubmittedCount() {
+		return this.submittedCount;
+	}
+	
+	/**
+	 * Gets the number of sprites rejected because they're outside of the viewport since the call to begin.
+	 * @return Return the number of culled sprites of the batch.
+	 */
+	public int getCulledCount() {
+		return this.culledCount;
+	}
+	
+	public Rectangle getViewport() {
+		return this.viewport;
+	}
+	
+	/**
+	 * Sets the area where the sprites are visible, the sprites outside are culled.
+	 * @param viewport A rectangle on the render target, it's copied.
+	 */
+	public void setViewport(Rectangle viewport) {
+		this.viewport.set(viewport.x, viewport.y, viewport.width, viewport.height);
+	}
+	
+	public boolean isCullingEnabled() {
+		return this.cullingEnabled;
+	}
+	
+	/**
+	 * Enable or disable the culling of the sprites outside of the viewport (enabled by default).
+	 * @param cullingEnabled Sets to false to store all the sprites.
+	 */
+	public void setCullingEnabled(boolean cullingEnabled) {
+		this.cullingEnabled = cullingEnabled;
+	}
+	
+	public boolean isSoftwareRendering() {
+		return this.softwareRendering;
+	}
+	
+	/**
+	 * Sets the backend used to draw the sprites: the software blitter or Java2D (the default).
+	 * The software rendering applies the tint colors, it should be changed between two batches.
+	 * @param softwareRendering Sets to true to use the software blitter.
+	 */
+	public void setSoftwareRendering(boolean softwareRendering) {
+		this.softwareRendering = softwareRendering;
+	}
+	
+	public boolean isBilinearFiltering() {
+		return this.bilinearFiltering;
+	}
+	
+	/**
+	 * Sets the filter of the scaled and rotated sprites for the software rendering.
+	 * @param bilinearFiltering Sets to true to use a bilinear filter, false to take the nearest pixel (the default).
+	 */
+	public void setBilinearFiltering(boolean bilinearFiltering) {
+		this.bilinearFiltering = bilinearFiltering;
 	}
 }
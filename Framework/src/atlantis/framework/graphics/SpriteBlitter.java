@@ -0,0 +1,341 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.framework.graphics;
+
+/**
+ * A software blitter that draws sprites from an array of premultiplied ARGB pixels to another one, without Java2D.
+ * A sprite is a source rectangle mapped to a destination rectangle, rotated around an origin, tinted by a color and
+ * flipped by a sprite effect. Each destination pixel is mapped back to the texture (inverse mapping), only the pixels
+ * covered by the sprite are visited and the span of each row is computed once, so the inner loop has no test.
+ * <p>
+ * The blending is a premultiplied source over. The methods are static and only write the pixels inside the clip,
+ * so several threads can blit the same sprites to different bands of the target.
+ * @author Yannick
+ */
+public final class SpriteBlitter {
+	private static final int FixedShift = 16;
+	private static final float FixedOne = 1 << FixedShift;
+	private static final int NoTint = 0xFFFFFFFF;
+
+	private SpriteBlitter() { }
+
+	/**
+	 * Blit a sprite.
+	 * @param target The premultiplied ARGB pixels of the target.
+	 * @param targetWidth The width of the target.
+	 * @param clipLeft The first column of the target to draw (inclusive).
+	 * @param clipTop The first row of the target to draw (inclusive).
+	 * @param clipRight The last column of the target to draw (exclusive).
+	 * @param clipBottom The last row of the target to draw (exclusive).
+	 * @param source The premultiplied ARGB pixels of the texture.
+	 * @param sourceWidth The width of the texture.
+	 * @param sx The left of the source rectangle.
+	 * @param sy The top of the source rectangle.
+	 * @param sw The width of the source rectangle.
+	 * @param sh The height of the source rectangle.
+	 * @param dx The position of the origin on the target, on X axis.
+	 * @param dy The position of the origin on the target, on Y axis.
+	 * @param dw The width of the sprite on the target.
+	 * @param dh The height of the sprite on the target.
+	 * @param rotation The rotation around the origin, in radians.
+	 * @param originX The origin in the source rectangle, on X axis.
+	 * @param originY The origin in the source rectangle, on Y axis.
+	 * @param color The tint, an ARGB color (0xAARRGGBB), white to keep the colors of the texture.
+	 * @param effects The flips, a combination of SpriteEffect values.
+	 * @param bilinear Sets to true to use a bilinear filter, false to take the nearest pixel.
+	 */
+	public static void blit(int[] target, int targetWidth, int clipLeft, int clipTop, int clipRight, int clipBottom,
+			int[] source, int sourceWidth, int sx, int sy, int sw, int sh,
+			float dx, float dy, float dw, float dh, float rotation, float originX, float originY,
+			int color, int effects, boolean bilinear) {
+
+		if (sw <= 0 || sh <= 0 || dw == 0.0f || dh == 0.0f || (color >>> 24) == 0) {
+			return;
+		}
+
+		float scaleX = dw / sw;
+		float scaleY = dh / sh;
+		float cos = 1.0f;
+		float sin = 0.0f;
+
+		if (rotation != 0.0f) {
+			cos = (float)Math.cos(rotation);
+			sin = (float)Math.sin(rotation);
+		}
+
+		// The corners of the sprite on the target give the rows and columns to visit.
+		float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY;
+
+		for (int corner = 0; corner < 4; corner++) {
+			float lx = ((corner & 1) * sw - originX) * scaleX;
+			float ly = ((corner >> 1) * sh - originY) * scaleY;
+			float x = dx + cos * lx - sin * ly;
+			float y = dy + sin * lx + cos * ly;
+			minX = Math.min(minX, x);
+			minY = Math.min(minY, y);
+			maxX = Math.max(maxX, x);
+			maxY = Math.max(maxY, y);
+		}
+
+		// A pixel is drawn when its center is inside the sprite.
+		int targetHeight = target.length / targetWidth;
+		int left = Math.max(Math.max(0, clipLeft), (int)Math.ceil(minX - 0.5f));
+		int right = Math.min(Math.min(targetWidth, clipRight), (int)Math.ceil(maxX - 0.5f));
+		int top = Math.max(Math.max(0, clipTop), (int)Math.ceil(minY - 0.5f));
+		int bottom = Math.min(Math.min(targetHeight, clipBottom), (int)Math.ceil(maxY - 0.5f));
+
+		if (left >= right || top >= bottom) {
+			return;
+		}
+
+		// The inverse mapping, from a point of the target to a point of the source rectangle.
+		float dudx = cos / scaleX;
+		float dudy = sin / scaleX;
+		float dvdx = -sin / scaleY;
+		float dvdy = cos / scaleY;
+		float u0 = originX - (dx * dudx + dy * dudy);
+		float v0 = originY - (dx * dvdx + dy * dvdy);
+
+		if ((effects & SpriteEffect.FlipHorizontaly) != 0) {
+			u0 = sw - u0;
+			dudx = -dudx;
+			dudy = -dudy;
+		}
+
+		if ((effects & SpriteEffect.FlipVerticaly) != 0) {
+			v0 = sh - v0;
+			dvdx = -dvdx;
+			dvdy = -dvdy;
+		}
+
+		boolean tinted = color != NoTint;
+		int tintAlpha = color >>> 24;
+		int tintRed = multiply((color >> 16) & 0xFF, tintAlpha);
+		int tintGreen = multiply((color >> 8) & 0xFF, tintAlpha);
+		int tintBlue = multiply(color & 0xFF, tintAlpha);
+		// The part of the source rectangle outside of the texture isn't drawn.
+		int minU = Math.max(0, -sx);
+		int minV = Math.max(0, -sy);
+		int maxU = Math.min(sw, sourceWidth - sx) - 1;
+		int maxV = Math.min(sh, source.length / sourceWidth - sy) - 1;
+
+		if (minU > maxU || minV > maxV) {
+			return;
+		}
+
+		// Without rotation, u only depends on the column and v on the row: the columns are the same on all the rows.
+		boolean axisAligned = dudy == 0.0f && dvdx == 0.0f;
+		int alignedStart = 0;
+		int alignedEnd = 0;
+
+		if (axisAligned) {
+			float u = u0 + 0.5f * dudx;
+			float start = left;
+			float end = right;
+
+			if (dudx > 0.0f) {
+				start = Math.max(start, (minU - u) / dudx);
+				end = Math.min(end, (maxU + 1 - u) / dudx);
+			}
+			else if (dudx < 0.0f) {
+				start = Math.max(start, (maxU + 1 - u) / dudx);
+				end = Math.min(end, (minU - u) / dudx);
+			}
+			else if (minU - u > 0.0f || maxU + 1 - u <= 0.0f) {
+				return;
+			}
+
+			alignedStart = (int)Math.ceil(start);
+			alignedEnd = (int)Math.ceil(end);
+		}
+
+		for (int y = top; y < bottom; y++) {
+			float centerY = y + 0.5f;
+			// The coordinates at the center of the column 0 of the row.
+			float u = u0 + 0.5f * dudx + centerY * dudy;
+			float v = v0 + 0.5f * dvdx + centerY * dvdy;
+			int x;
+			int xEnd;
+
+			if (axisAligned) {
+				if (v < minV || v >= maxV + 1) {
+					continue;
+				}
+
+				x = alignedStart;
+				xEnd = alignedEnd;
+			}
+			else {
+				// Restrict the row to the columns where minU <= u <= maxU + 1 and minV <= v <= maxV + 1.
+				float start = left;
+				float end = right;
+				float lowU = minU - u;
+				float highU = maxU + 1 - u;
+				float lowV = minV - v;
+				float highV = maxV + 1 - v;
+
+				if (dudx > 0.0f) {
+					start = Math.max(start, lowU / dudx);
+					end = Math.min(end, highU / dudx);
+				}
+				else if (dudx < 0.0f) {
+					start = Math.max(start, highU / dudx);
+					end = Math.min(end, lowU / dudx);
+				}
+				else if (lowU > 0.0f || highU <= 0.0f) {
+					continue;
+				}
+
+				if (dvdx > 0.0f) {
+					start = Math.max(start, lowV / dvdx);
+					end = Math.min(end, highV / dvdx);
+				}
+				else if (dvdx < 0.0f) {
+					start = Math.max(start, highV / dvdx);
+					end = Math.min(end, lowV / dvdx);
+				}
+				else if (lowV > 0.0f || highV <= 0.0f) {
+					continue;
+				}
+
+				x = (int)Math.ceil(start);
+				xEnd = (int)Math.ceil(end);
+			}
+
+			if (x >= xEnd) {
+				continue;
+			}
+
+			int p = y * targetWidth + x;
+			int pEnd = y * targetWidth + xEnd;
+
+			if (bilinear) {
+				// The samples are between the pixel centers, the 4 neighbours are clamped to the source rectangle.
+				int fu = (int)((u + x * dudx - 0.5f) * FixedOne);
+				int fv = (int)((v + x * dvdx - 0.5f) * FixedOne);
+				int stepU = (int)(dudx * FixedOne);
+				int stepV = (int)(dvdx * FixedOne);
+
+				for (; p < pEnd; p++, fu += stepU, fv += stepV) {
+					int iu = fu >> FixedShift;
+					int iv = fv >> FixedShift;
+					int u1 = clamp(iu + 1, minU, maxU);
+					int v1 = clamp(iv + 1, minV, maxV);
+					int row0 = (sy + clamp(iv, minV, maxV)) * sourceWidth + sx;
+					int row1 = (sy + v1) * sourceWidth + sx;
+					iu = clamp(iu, minU, maxU);
+
+					int weightU = (fu >> 8) & 0xFF;
+					int weightV = (fv >> 8) & 0xFF;
+					int top0 = lerp(source[row0 + iu], source[row0 + u1], weightU);
+					int bottom0 = lerp(source[row1 + iu], source[row1 + u1], weightU);
+					int texel = lerp(top0, bottom0, weightV);
+
+					if (tinted) {
+						texel = tint(texel, tintAlpha, tintRed, tintGreen, tintBlue);
+					}
+
+					target[p] = blend(texel, target[p]);
+				}
+			}
+			else {
+				int fu = (int)((u + x * dudx) * FixedOne);
+				int fv = (int)((v + x * dvdx) * FixedOne);
+				int stepU = (int)(dudx * FixedOne);
+				int stepV = (int)(dvdx * FixedOne);
+
+				for (; p < pEnd; p++, fu += stepU, fv += stepV) {
+					int iu = clamp(fu >> FixedShift, minU, maxU);
+					int iv = clamp(fv >> FixedShift, minV, maxV);
+					int texel = source[(sy + iv) * sourceWidth + sx + iu];
+
+					if (tinted) {
+						texel = tint(texel, tintAlpha, tintRed, tintGreen, tintBlue);
+					}
+
+					target[p] = blend(texel, target[p]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Convert a straight ARGB pixel to a premultiplied ARGB pixel.
+	 * @param color An ARGB color (0xAARRGGBB).
+	 * @return Return the color with its components multiplied by its alpha.
+	 */
+	public static int premultiply(int color) {
+		int alpha = color >>> 24;
+
+		if (alpha == 255) {
+			return color;
+		}
+		else if (alpha == 0) {
+			return 0;
+		}
+
+		return (alpha << 24) | scale(color & 0x00FFFFFF, alpha);
+	}
+
+	/**
+	 * Draw a premultiplied pixel over another one.
+	 */
+	private static int blend(int source, int destination) {
+		int alpha = source >>> 24;
+
+		if (alpha == 255) {
+			return source;
+		}
+		else if (alpha == 0) {
+			return destination;
+		}
+
+		// The components of a premultiplied pixel are lower than its alpha, the sum can't overflow.
+		return source + scale(destination, 255 - alpha);
+	}
+
+	/**
+	 * Multiply the 4 components of a pixel by a factor between 0 and 255, two components at a time.
+	 */
+	private static int scale(int color, int factor) {
+		int redBlue = (color & 0x00FF00FF) * factor + 0x00800080;
+		redBlue = ((redBlue + ((redBlue >>> 8) & 0x00FF00FF)) >>> 8) & 0x00FF00FF;
+		int alphaGreen = ((color >>> 8) & 0x00FF00FF) * factor + 0x00800080;
+		alphaGreen = (alphaGreen + ((alphaGreen >>> 8) & 0x00FF00FF)) & 0xFF00FF00;
+		return alphaGreen | redBlue;
+	}
+
+	/**
+	 * Interpolate two pixels, the weight of the second one is between 0 and 255.
+	 */
+	private static int lerp(int a, int b, int weight) {
+		int inverse = 256 - weight;
+		int redBlue = (((a & 0x00FF00FF) * inverse + (b & 0x00FF00FF) * weight) >>> 8) & 0x00FF00FF;
+		int alphaGreen = (((a >>> 8) & 0x00FF00FF) * inverse + ((b >>> 8) & 0x00FF00FF) * weight) & 0xFF00FF00;
+		return alphaGreen | redBlue;
+	}
+
+	/**
+	 * Multiply a premultiplied pixel by a premultiplied tint.
+	 */
+	private static int tint(int color, int alpha, int red, int green, int blue) {
+		return (multiply(color >>> 24, alpha) << 24)
+				| (multiply((color >> 16) & 0xFF, red) << 16)
+				| (multiply((color >> 8) & 0xFF, green) << 8)
+				| multiply(color & 0xFF, blue);
+	}
+
+	/**
+	 * Multiply two components between 0 and 255, the result is rounded and between 0 and 255.
+	 */
+	private static int multiply(int a, int b) {
+		int value = a * b + 128;
+		return (value + (value >> 8)) >> 8;
+	}
+
+	private static int clamp(int value, int min, int max) {
+		return value < min ? min : (value > max ? max : value);
+	}
+}
@@ -4,49 +4,100 @@
 package atlantis.framework.graphics;
 
 import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.font.LineMetrics;
+import java.awt.font.TextAttribute;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import atlantis.framework.Vector2;
 
 /**
- * Define a drawable text.
+ * Define a drawable text. The glyphs of the characters from 32 to 255 are drawn once in a glyph atlas,
+ * white on transparent, with their metrics. A sprite batch draws a text as a quad per glyph, the other
+ * characters are drawn with the glyph of '?'. The software backend tints the glyphs, Java2D draws them in a
+ * color by using a colored copy of the atlas, made the first time the color is used.
  * @author Yannick
  */
 public class SpriteFont {
+	protected static final int FirstCharacter = 32;
+	protected static final int CharacterCount = 256;
+	protected static final char DefaultCharacter = '?';
+	// The kerning is known for the pairs of ASCII characters, it's computed the first time a pair is drawn.
+	private static final int KerningCount = 128;
+	private static final short UnknownKerning = Short.MIN_VALUE;
+	private static final int MaxColors = 8;
+
 	protected Font font;
 	protected Font tempOldFont;
 	protected int textSize;
 	protected int textFormat;
 	protected String fontName;
-	
+
+	// The glyphs: a position in the atlas, a size, an offset from the pen on the baseline and an advance.
+	protected boolean glyphsCreated;
+	protected TextureAtlas glyphAtlas;
+	protected Texture2D[] glyphPages;
+	protected int[] glyphPageIndices;
+	protected int[] glyphBounds;
+	protected int[] glyphOffsets;
+	protected int[] advances;
+	protected int ascent;
+	protected int lineSpacing;
+	private short[] kernings;
+	private Font kerningFont;
+	private FontRenderContext renderContext;
+	private char[] pair;
+
+	// The colored copies of the pages, the least recently created is replaced.
+	private int[] colors;
+	private Texture2D[][] colorPages;
+	private int colorCount;
+	private int nextColor;
+
 	/**
 	 * Create a spriteFont
 	 */
 	public SpriteFont() {
 		this("Arial", 12, Font.PLAIN);
 	}
-	
+
 	public SpriteFont(int textSize) {
 		this("Arial", textSize, Font.PLAIN);
 	}
-	
+
 	public SpriteFont(String fontName, int textSize) {
 		this(fontName, textSize, Font.PLAIN);
 	}
-	
+
 	public SpriteFont(String fontName, int textSize, int textFormat) {
 		this.fontName = fontName;
 		this.textFormat = textFormat;
 		this.textSize = textSize;
 		this.font = new Font(this.fontName, this.textFormat, this.textSize);
 		this.tempOldFont = null;
+		this.glyphsCreated = false;
+		this.pair = new char[2];
+		this.colors = new int[MaxColors];
+		this.colorPages = new Texture2D[MaxColors][];
 	}
-	
+
 	/**
 	 * Sets a font
 	 * @param font A font to use.
 	 */
 	public void setFont(Font font) {
 		this.font = font;
+		this.glyphsCreated = false;
 	}
-	
+
 	/**
 	 * Change the font used to rendering the text.
 	 * @param fontName The font name to use.
@@ -59,11 +110,221 @@ public class SpriteFont {
 		this.textSize = textSize;
 		this.createFont();
 	}
-	
+
 	/**
 	 * Create a font with local values.
 	 */
 	private void createFont() {
 		this.font = new Font(this.fontName, this.textFormat, this.textSize);
+		this.glyphsCreated = false;
+	}
+
+	/**
+	 * Draw the glyphs in the atlas and measure them. It's done by the first draw or measure of a text.
+	 */
+	protected void createGlyphs() {
+		this.renderContext = new FontRenderContext(null, true, false);
+		this.glyphAtlas = new TextureAtlas(512, 512, 1, 0);
+		this.glyphPageIndices = new int[CharacterCount];
+		this.glyphBounds = new int[CharacterCount * 4];
+		this.glyphOffsets = new int[CharacterCount * 2];
+		this.advances = new int[CharacterCount];
+
+		char[] character = new char[1];
+		String[] names = new String[CharacterCount];
+
+		for (int c = FirstCharacter; c < CharacterCount; c++) {
+			character[0] = (char)c;
+			GlyphVector glyph = this.font.createGlyphVector(this.renderContext, character);
+			Rectangle bounds = glyph.getPixelBounds(this.renderContext, 0, 0);
+			this.advances[c] = Math.round(glyph.getGlyphMetrics(0).getAdvanceX());
+			this.glyphOffsets[c * 2] = bounds.x;
+			this.glyphOffsets[c * 2 + 1] = bounds.y;
+
+			if (bounds.width > 0 && bounds.height > 0) {
+				BufferedImage image = new BufferedImage(bounds.width, bounds.height, BufferedImage.TYPE_INT_ARGB);
+				Graphics2D graphics = image.createGraphics();
+				graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+				graphics.drawGlyphVector(glyph, -bounds.x, -bounds.y);
+				graphics.dispose();
+
+				names[c] = String.valueOf((char)c);
+				this.glyphAtlas.add(names[c], image);
+			}
+		}
+
+		this.glyphAtlas.pack();
+		this.glyphPages = new Texture2D[this.glyphAtlas.getPageCount()];
+
+		for (int i = 0; i < this.glyphPages.length; i++) {
+			this.glyphPages[i] = this.glyphAtlas.getPage(i);
+		}
+
+		for (int c = FirstCharacter; c < CharacterCount; c++) {
+			TextureRegion region = (names[c] != null) ? this.glyphAtlas.getRegion(names[c]) : null;
+
+			if (region != null) {
+				for (int i = 0; i < this.glyphPages.length; i++) {
+					if (this.glyphPages[i] == region.texture) {
+						this.glyphPageIndices[c] = i;
+					}
+				}
+
+				this.glyphBounds[c * 4] = region.x;
+				this.glyphBounds[c * 4 + 1] = region.y;
+				this.glyphBounds[c * 4 + 2] = region.width;
+				this.glyphBounds[c * 4 + 3] = region.height;
+			}
+		}
+
+		LineMetrics metrics = this.font.getLineMetrics("Ag", this.renderContext);
+		this.ascent = Math.round(metrics.getAscent());
+		this.lineSpacing = Math.round(metrics.getHeight());
+
+		Map<TextAttribute, Object> attributes = new HashMap<TextAttribute, Object>();
+		attributes.put(TextAttribute.KERNING, TextAttribute.KERNING_ON);
+		this.kerningFont = this.font.deriveFont(attributes);
+		this.kernings = new short[KerningCount * KerningCount];
+		Arrays.fill(this.kernings, UnknownKerning);
+
+		this.colorCount = 0;
+		this.nextColor = 0;
+		this.glyphsCreated = true;
+	}
+
+	/**
+	 * Gets the character drawn for a character: itself, or the default character if it has no glyph.
+	 * @param c A character.
+	 * @return Return a character between 32 and 255.
+	 */
+	protected char getGlyphCharacter(char c) {
+		return (c >= FirstCharacter && c < CharacterCount) ? c : DefaultCharacter;
+	}
+
+	/**
+	 * Gets the space between two characters added to the advance of the first one.
+	 * @param first The first character.
+	 * @param second The second character.
+	 * @return Return the kerning in pixels, often 0 or negative.
+	 */
+	public int getKerning(char first, char second) {
+		if (first >= KerningCount || second >= KerningCount) {
+			return 0;
+		}
+
+		if (!this.glyphsCreated) {
+			this.createGlyphs();
+		}
+
+		int index = first * KerningCount + second;
+		short kerning = this.kernings[index];
+
+		if (kerning == UnknownKerning) {
+			this.pair[0] = first;
+			this.pair[1] = second;
+			GlyphVector glyphs = this.kerningFont.layoutGlyphVector(this.renderContext, this.pair, 0, 2, Font.LAYOUT_LEFT_TO_RIGHT);
+			kerning = (short)Math.round(glyphs.getGlyphPosition(1).getX() - this.advances[first]);
+			this.kernings[index] = kerning;
+		}
+
+		return kerning;
+	}
+
+	/**
+	 * Gets the pages of the atlas with the glyphs drawn in a color. The white pages are the atlas itself, the other
+	 * colors are copies kept for the last colors used, so the software backend tints the white pages instead.
+	 * @param color An ARGB color (0xAARRGGBB).
+	 * @return Return the colored pages.
+	 */
+	protected Texture2D[] getGlyphPages(int color) {
+		if (!this.glyphsCreated) {
+			this.createGlyphs();
+		}
+
+		if (color == 0xFFFFFFFF) {
+			return this.glyphPages;
+		}
+
+		for (int i = 0; i < this.colorCount; i++) {
+			if (this.colors[i] == color) {
+				return this.colorPages[i];
+			}
+		}
+
+		Texture2D[] pages = new Texture2D[this.glyphPages.length];
+		int alpha = color >>> 24;
+		int rgb = color & 0x00FFFFFF;
+
+		for (int i = 0; i < pages.length; i++) {
+			Texture2D page = this.glyphPages[i];
+			// The pages are in the format of the display, premultiplied or not the alpha is the same.
+			int[] source = ((DataBufferInt)page.getRaster().getDataBuffer()).getData();
+			int[] destination = new int[source.length];
+			pages[i] = new Texture2D(page.getWidth(), page.getHeight(), Texture2D.getDisplayType());
+
+			// The glyphs are white, the coverage is in the alpha.
+			for (int p = 0; p < source.length; p++) {
+				int coverage = (source[p] >>> 24) * alpha / 255;
+				destination[p] = (coverage << 24) | rgb;
+			}
+
+			pages[i].setPixels(destination);
+		}
+
+		int slot = this.colorCount < MaxColors ? this.colorCount++ : this.nextColor++ % MaxColors;
+		this.colors[slot] = color;
+		this.colorPages[slot] = pages;
+		return pages;
+	}
+
+	/**
+	 * Measure a text on one line.
+	 * @param text The text to measure.
+	 * @param result The vector that receives the width and the height of the line.
+	 * @return Return the result vector.
+	 */
+	public Vector2 measureString(CharSequence text, Vector2 result) {
+		if (!this.glyphsCreated) {
+			this.createGlyphs();
+		}
+
+		int width = 0;
+		char previous = 0;
+
+		for (int i = 0, l = text.length(); i < l; i++) {
+			char c = this.getGlyphCharacter(text.charAt(i));
+			width += this.advances[c] + (i > 0 ? this.getKerning(previous, c) : 0);
+			previous = c;
+		}
+
+		result.x = width;
+		result.y = this.lineSpacing;
+		return result;
+	}
+
+	public Font getFont() {
+		return this.font;
+	}
+
+	/**
+	 * Gets the distance between the baseline and the top of the highest characters.
+	 * @return Return the ascent in pixels.
+	 */
+	public int getAscent() {
+		if (!this.glyphsCreated) {
+			this.createGlyphs();
+		}
+		return this.ascent;
+	}
+
+	/**
+	 * Gets the distance between the baselines of two lines.
+	 * @return Return the line spacing in pixels.
+	 */
+	public int getLineSpacing() {
+		if (!this.glyphsCreated) {
+			this.createGlyphs();
+		}
+		return this.lineSpacing;
 	}
 }
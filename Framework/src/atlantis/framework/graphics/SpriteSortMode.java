@@ -0,0 +1,31 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.framework.graphics;
+
+/**
+ * The order used by a sprite batch to draw its sprites. The sorts are stable, sprites with the same key
+ * are drawn in the order of the draw calls. The layer depth is between 0 (front) and 1 (back).
+ * @author Yannick
+ */
+public final class SpriteSortMode {
+	/**
+	 * The sprites are drawn in the order of the draw calls.
+	 */
+	public static final int Deferred = 0;
+
+	/**
+	 * The sprites are grouped by texture.
+	 */
+	public static final int Texture = 1;
+
+	/**
+	 * The sprites are sorted by decreasing layer depth.
+	 */
+	public static final int BackToFront = 2;
+
+	/**
+	 * The sprites are sorted by increasing layer depth.
+	 */
+	public static final int FrontToBack = 3;
+}
@@ -3,47 +3,96 @@
 // file 'LICENSE', which is part of this source code package.
 package atlantis.framework.graphics;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.imageio.ImageIO;
 
 /**
- * A texture 2D
+ * A texture 2D. The textures created from images use the format of the display (see getDisplayType) so
+ * Java2D draws them without converting their pixels.
  * @author Yannick
  */
 public class Texture2D extends BufferedImage {
+	private static final AtomicInteger nextId = new AtomicInteger();
+	private static int displayType = -1;
+	
+	protected final int id = nextId.getAndIncrement();
 	protected DataBuffer dataBuffer;
 	protected int bufferSize;
+	protected int[] premultipliedPixels;
 	
 	public Texture2D() {
-		this(1, 1, BufferedImage.TYPE_4BYTE_ABGR);
+		this(1, 1, getDisplayType());
 	}
 	
+	/**
+	 * Create a white texture.
+	 * @param width The width of the texture.
+	 * @param height The height of the texture.
+	 * @param type The type of the image, getDisplayType() is the fastest to draw.
+	 */
 	public Texture2D(int width, int height, int type) {
+		this(width, height, type, true);
+	}
+	
+	/**
+	 * Create a texture, white or transparent when its pixels are written next.
+	 */
+	private Texture2D(int width, int height, int type, boolean white) {
 		super(width, height, type);
 		this.dataBuffer = this.getRaster().getDataBuffer();
 		this.bufferSize = this.dataBuffer.getSize();
 		
-		for (int i = 0; i < this.bufferSize; i++) {
-			this.dataBuffer.setElem(i, 255);
+		if (!white) {
+			return;
+		}
+		else if (this.dataBuffer instanceof DataBufferInt) {
+			Arrays.fill(((DataBufferInt)this.dataBuffer).getData(), 0xFFFFFFFF);
+		}
+		else if (this.dataBuffer instanceof DataBufferByte) {
+			Arrays.fill(((DataBufferByte)this.dataBuffer).getData(), (byte)255);
+		}
+		else {
+			for (int i = 0; i < this.bufferSize; i++) {
+				this.dataBuffer.setElem(i, 255);
+			}
 		}
 	}
 	
+	/**
+	 * Create a texture in the format of the display from an image of any type.
+	 * @param image The image to convert.
+	 */
 	public Texture2D(BufferedImage image) {
-		super(image.getWidth(), image.getHeight(), BufferedImage.TYPE_4BYTE_ABGR);
-		Graphics graphics = this.createGraphics();
-		graphics.drawImage(image, 0, 0, image.getWidth(), image.getHeight(), null);
+		super(image.getWidth(), image.getHeight(), getDisplayType());
+		this.dataBuffer = this.getRaster().getDataBuffer();
+		this.bufferSize = this.dataBuffer.getSize();
+		// The pixels replace the empty texture, a conversion without blending.
+		Graphics2D graphics = this.createGraphics();
+		graphics.setComposite(AlphaComposite.Src);
+		graphics.drawImage(image, 0, 0, null);
 		graphics.dispose();
 	}
 	
 	public Texture2D(DataBuffer dataBuffer, int width, int height, int type) {
 		super(width, height, type);
+		this.dataBuffer = this.getRaster().getDataBuffer();
+		this.bufferSize = this.dataBuffer.getSize();
 		this.setData(dataBuffer);
 	}
 	
@@ -52,10 +101,73 @@ public class Texture2D extends BufferedImage {
 		return createFromImage(image);
 	}
 	
+	/**
+	 * Create a texture in the format of the display. An image already in that format is copied in one block, the
+	 * bytes of a TYPE_4BYTE_ABGR image (the loaded PNG files) are packed in one pass and the other images are
+	 * converted by Java2D, once instead of on each draw.
+	 * @param image The image to copy.
+	 * @return Return a new texture.
+	 */
 	public static Texture2D createFromImage(BufferedImage image) {
-		Texture2D texture = new Texture2D(image.getWidth(), image.getHeight(), image.getType());
-		texture.setData(image.getRaster().getDataBuffer());
-		return texture;
+		int type = getDisplayType();
+		int width = image.getWidth();
+		int height = image.getHeight();
+		DataBuffer buffer = image.getRaster().getDataBuffer();
+		
+		if (image.getType() == type && buffer.getSize() == width * height) {
+			Texture2D texture = new Texture2D(width, height, type, false);
+			texture.setData(buffer);
+			return texture;
+		}
+		else if (image.getType() == BufferedImage.TYPE_4BYTE_ABGR && buffer.getSize() == width * height * 4) {
+			Texture2D texture = new Texture2D(width, height, type, false);
+			int[] pixels = ((DataBufferInt)texture.dataBuffer).getData();
+			
+			// The bytes are read in blocks as 0xAABBGGRR integers, then the red and the blue are swapped.
+			ByteBuffer.wrap(((DataBufferByte)buffer).getData(), buffer.getOffset(), pixels.length * 4).asIntBuffer().get(pixels);
+			
+			if (type == BufferedImage.TYPE_INT_ARGB_PRE) {
+				for (int i = 0; i < pixels.length; i++) {
+					int color = pixels[i];
+					pixels[i] = SpriteBlitter.premultiply((color & 0xFF00FF00) | ((color >> 16) & 0xFF) | ((color & 0xFF) << 16));
+				}
+			}
+			else {
+				for (int i = 0; i < pixels.length; i++) {
+					int color = pixels[i];
+					pixels[i] = (color & 0xFF00FF00) | ((color >> 16) & 0xFF) | ((color & 0xFF) << 16);
+				}
+			}
+			
+			return texture;
+		}
+		
+		return new Texture2D(image);
+	}
+	
+	/**
+	 * Gets the type of image that the display draws without conversion, the one of an image created by the default
+	 * graphics configuration or TYPE_INT_ARGB_PRE, the format of the render targets, when there's no display. The
+	 * types without integer pixels are replaced by TYPE_INT_ARGB_PRE.
+	 * @return Return TYPE_INT_ARGB or TYPE_INT_ARGB_PRE.
+	 */
+	public static int getDisplayType() {
+		if (displayType < 0) {
+			int type = BufferedImage.TYPE_INT_ARGB_PRE;
+			
+			if (!GraphicsEnvironment.isHeadless()) {
+				BufferedImage image = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+						.getDefaultConfiguration().createCompatibleImage(1, 1, Transparency.TRANSLUCENT);
+				
+				if (image.getType() == BufferedImage.TYPE_INT_ARGB) {
+					type = BufferedImage.TYPE_INT_ARGB;
+				}
+			}
+			
+			displayType = type;
+		}
+		
+		return displayType;
 	}
 	
 	/**
@@ -87,11 +199,22 @@ public class Texture2D extends BufferedImage {
 	 * @return Return an array that contains the structure of the texture;
 	 */
 	public int[] getTexData() {
-		DataBuffer buffer = this.getRaster().getDataBuffer();
-		int [] data = new int[buffer.getSize()];
+		int [] data = new int[this.bufferSize];
 		
-		for (int i = 0, l = buffer.getSize(); i < l; i++) {
-			data[i] = buffer.getElem(i);
+		if (this.dataBuffer instanceof DataBufferInt) {
+			System.arraycopy(((DataBufferInt)this.dataBuffer).getData(), 0, data, 0, this.bufferSize);
+		}
+		else if (this.dataBuffer instanceof DataBufferByte) {
+			byte[] bytes = ((DataBufferByte)this.dataBuffer).getData();
+			
+			for (int i = 0; i < this.bufferSize; i++) {
+				data[i] = bytes[i] & 0xFF;
+			}
+		}
+		else {
+			for (int i = 0; i < this.bufferSize; i++) {
+				data[i] = this.dataBuffer.getElem(i);
+			}
 		}
 		
 		return data;
@@ -100,27 +223,88 @@ public class Texture2D extends BufferedImage {
 	/**
 	 * Sets data into the texture.
 	 * @param data An array of data to inject.
-	 * @throws Exception The array of data must have the same size of texture data.
+	 * @return Return false if the array of data doesn't have the size of the texture data.
 	 */
 	public boolean setData(int[] data) {
-		DataBuffer buffer = this.getRaster().getDataBuffer();
-		if (data.length == buffer.getSize()) {
-			for (int i = 0, l = buffer.getSize(); i < l; i++) {
-				buffer.setElem(i, data[i]);
+		if (data.length != this.bufferSize) {
+			return false;
+		}
+		
+		if (this.dataBuffer instanceof DataBufferInt) {
+			System.arraycopy(data, 0, ((DataBufferInt)this.dataBuffer).getData(), 0, this.bufferSize);
+		}
+		else if (this.dataBuffer instanceof DataBufferByte) {
+			byte[] bytes = ((DataBufferByte)this.dataBuffer).getData();
+			
+			for (int i = 0; i < this.bufferSize; i++) {
+				bytes[i] = (byte)data[i];
 			}
-			return true;
 		}
-		return false;
+		else {
+			for (int i = 0; i < this.bufferSize; i++) {
+				this.dataBuffer.setElem(i, data[i]);
+			}
+		}
+		
+		this.premultipliedPixels = null;
+		return true;
 	}
 	
+	/**
+	 * Sets data into the texture from a buffer with the same layout.
+	 * @param buffer The buffer to copy.
+	 * @return Return false if the buffer doesn't have the size of the texture data.
+	 */
 	public boolean setData(DataBuffer buffer) {
-		if (buffer.getSize() == this.bufferSize) {
+		if (buffer.getSize() != this.bufferSize) {
+			return false;
+		}
+		
+		if (buffer instanceof DataBufferInt && this.dataBuffer instanceof DataBufferInt) {
+			System.arraycopy(((DataBufferInt)buffer).getData(), buffer.getOffset(), ((DataBufferInt)this.dataBuffer).getData(), 0, this.bufferSize);
+		}
+		else if (buffer instanceof DataBufferByte && this.dataBuffer instanceof DataBufferByte) {
+			System.arraycopy(((DataBufferByte)buffer).getData(), buffer.getOffset(), ((DataBufferByte)this.dataBuffer).getData(), 0, this.bufferSize);
+		}
+		else {
 			for (int i = 0; i < this.bufferSize; i++) {
 				this.dataBuffer.setElem(i, buffer.getElem(i));
 			}
-			return true;
 		}
-		return false;
+		
+		this.premultipliedPixels = null;
+		return true;
+	}
+	
+	/**
+	 * Sets the pixels of the texture from ARGB integers, they're converted to the type of the texture.
+	 * @param pixels An array of width * height ARGB colors (0xAARRGGBB), row by row.
+	 * @return Return false if the array doesn't have a pixel per texel.
+	 */
+	public boolean setPixels(int[] pixels) {
+		int width = this.getWidth();
+		int height = this.getHeight();
+		
+		if (pixels.length != width * height) {
+			return false;
+		}
+		
+		if (this.getType() == BufferedImage.TYPE_INT_ARGB) {
+			System.arraycopy(pixels, 0, ((DataBufferInt)this.dataBuffer).getData(), 0, pixels.length);
+		}
+		else if (this.getType() == BufferedImage.TYPE_INT_ARGB_PRE) {
+			int[] data = ((DataBufferInt)this.dataBuffer).getData();
+			
+			for (int i = 0; i < pixels.length; i++) {
+				data[i] = SpriteBlitter.premultiply(pixels[i]);
+			}
+		}
+		else {
+			this.setRGB(0, 0, width, height, pixels, 0, width);
+		}
+		
+		this.premultipliedPixels = null;
+		return true;
 	}
 	
 	public static Color[] getData(BufferedImage image) {
@@ -153,7 +337,10 @@ public class Texture2D extends BufferedImage {
         int v = Math.abs((int)(tv * this.getHeight()) % this.getHeight());
         int position = (u + v * this.getWidth()) * 4;
         
-        if (this.getType() == BufferedImage.TYPE_4BYTE_ABGR || this.getType() == BufferedImage.TYPE_4BYTE_ABGR_PRE) {
+        if (this.dataBuffer instanceof DataBufferInt) {
+        	return new Color(this.getPackedColorUV(tu, tv), true);
+        }
+        else if (this.getType() == BufferedImage.TYPE_4BYTE_ABGR || this.getType() == BufferedImage.TYPE_4BYTE_ABGR_PRE) {
 	        int alpha = dataBuffer.getElem(position);
 	        int blue = dataBuffer.getElem(position + 1);
 	        int green = dataBuffer.getElem(position + 2);
@@ -164,7 +351,92 @@ public class Texture2D extends BufferedImage {
         
         return Color.white;
 	}
+
+	/**
+	 * Gets the color at the UV coordinates packed into an ARGB integer. Unlike getColorUV
+	 * it doesn't allocate any object so it can be used in per pixel loops.
+	 * @param tu The U coordinate.
+	 * @param tv The V coordinate.
+	 * @return Return an ARGB color (0xAARRGGBB), white if the surface type is not supported.
+	 */
+	public int getPackedColorUV(float tu, float tv) {
+		int u = Math.abs((int)(tu * this.getWidth()) % this.getWidth());
+        int v = Math.abs((int)(tv * this.getHeight()) % this.getHeight());
+        int position = (u + v * this.getWidth()) * 4;
+
+        if (this.getType() == BufferedImage.TYPE_INT_ARGB || this.getType() == BufferedImage.TYPE_INT_RGB) {
+        	int color = ((DataBufferInt)this.dataBuffer).getElem(position >> 2);
+        	return this.getType() == BufferedImage.TYPE_INT_RGB ? color | 0xFF000000 : color;
+        }
+        else if (this.getType() == BufferedImage.TYPE_INT_ARGB_PRE) {
+        	return unpremultiply(((DataBufferInt)this.dataBuffer).getElem(position >> 2));
+        }
+        else if (this.getType() == BufferedImage.TYPE_4BYTE_ABGR || this.getType() == BufferedImage.TYPE_4BYTE_ABGR_PRE) {
+        	return (dataBuffer.getElem(position) << 24)
+        			| (dataBuffer.getElem(position + 3) << 16)
+        			| (dataBuffer.getElem(position + 2) << 8)
+        			| dataBuffer.getElem(position + 1);
+        }
+
+        return 0xFFFFFFFF;
+	}
+
+	/**
+	 * Gets the pixels of the texture as premultiplied ARGB integers (0xAARRGGBB), row by row, for the software
+	 * blitter. The array is created on the first call and kept until the data of the texture changes with setData,
+	 * call invalidatePixels after drawing on the texture with a graphics context.
+	 * @return Return a cached array of width * height pixels, it must not be modified.
+	 */
+	public int[] getPremultipliedPixels() {
+		int[] pixels = this.premultipliedPixels;
+		
+		if (pixels == null) {
+			// The pixels of a texture in the format of the render targets are used as they are.
+			if (this.getType() == BufferedImage.TYPE_INT_ARGB_PRE && this.bufferSize == this.getWidth() * this.getHeight()) {
+				pixels = ((DataBufferInt)this.dataBuffer).getData();
+			}
+			else {
+				if (this.getType() == BufferedImage.TYPE_INT_ARGB && this.bufferSize == this.getWidth() * this.getHeight()) {
+					pixels = ((DataBufferInt)this.dataBuffer).getData().clone();
+				}
+				else {
+					pixels = this.getRGB(0, 0, this.getWidth(), this.getHeight(), null, 0, this.getWidth());
+				}
+				
+				for (int i = 0; i < pixels.length; i++) {
+					pixels[i] = SpriteBlitter.premultiply(pixels[i]);
+				}
+			}
+			
+			this.premultipliedPixels = pixels;
+		}
+		
+		return pixels;
+	}
+	
+	/**
+	 * Convert a premultiplied ARGB pixel to a straight ARGB pixel.
+	 */
+	private static int unpremultiply(int color) {
+		int alpha = color >>> 24;
+		
+		if (alpha == 255 || alpha == 0) {
+			return alpha == 0 ? 0 : color;
+		}
+		
+		int red = Math.min(255, ((color >> 16) & 0xFF) * 255 / alpha);
+		int green = Math.min(255, ((color >> 8) & 0xFF) * 255 / alpha);
+		int blue = Math.min(255, (color & 0xFF) * 255 / alpha);
+		return (alpha << 24) | (red << 16) | (green << 8) | blue;
+	}
 	
+	/**
+	 * Release the cached pixels, they're created again by the next call to getPremultipliedPixels.
+	 */
+	public void invalidatePixels() {
+		this.premultipliedPixels = null;
+	}
+
 	/**
 	 * Gets the size of the data array.
 	 * @return Return the size of the buffer array.
@@ -176,4 +448,12 @@ public class Texture2D extends BufferedImage {
 	public int getSurfaceType() {
 		return this.getType();
 	}
+	
+	/**
+	 * Gets the unique identifier of the texture, the sprite batch uses it to group the sprites by texture.
+	 * @return Return an identifier, from 0 in the order of creation.
+	 */
+	public int getId() {
+		return this.id;
+	}
 }
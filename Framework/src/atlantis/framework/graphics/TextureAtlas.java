@@ -0,0 +1,228 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.framework.graphics;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+
+import atlantis.framework.Rectangle;
+
+/**
+ * A texture atlas packs many small images in a few large textures, the pages. Each image becomes a region
+ * of a page, so the sprites of a level share the same textures and a sprite batch sorted by texture draws
+ * them together. The images are placed with a MaxRects packer, the largest first.
+ * <p>
+ * The images are separated by a padding and their borders are extruded: the pixels of the edges are repeated
+ * around the image, so a scaled or filtered sprite never samples the pixels of its neighbours.
+ * @author Yannick
+ */
+public class TextureAtlas {
+	protected int pageWidth;
+	protected int pageHeight;
+	protected int padding;
+	protected int extrude;
+	protected ArrayList<Texture2D> pages;
+	protected HashMap<String, TextureRegion> regions;
+	private ArrayList<String> pendingNames;
+	private ArrayList<BufferedImage> pendingImages;
+
+	/**
+	 * Create an empty atlas with pages of 1024x1024 pixels, a padding of 2 pixels and an extrusion of 1 pixel.
+	 */
+	public TextureAtlas() {
+		this(1024, 1024, 2, 1);
+	}
+
+	/**
+	 * Create an empty atlas.
+	 * @param pageWidth The maximum width of a page.
+	 * @param pageHeight The maximum height of a page.
+	 * @param padding The number of empty pixels between two images.
+	 * @param extrude The number of times the edges of an image are repeated around it.
+	 */
+	public TextureAtlas(int pageWidth, int pageHeight, int padding, int extrude) {
+		this.pageWidth = pageWidth;
+		this.pageHeight = pageHeight;
+		this.padding = padding;
+		this.extrude = extrude;
+		this.pages = new ArrayList<Texture2D>();
+		this.regions = new HashMap<String, TextureRegion>();
+		this.pendingNames = new ArrayList<String>();
+		this.pendingImages = new ArrayList<BufferedImage>();
+	}
+
+	/**
+	 * Add an image to pack, it's packed by the next call to pack.
+	 * @param name The name of the region.
+	 * @param image The image.
+	 */
+	public void add(String name, BufferedImage image) {
+		this.pendingNames.add(name);
+		this.pendingImages.add(image);
+	}
+
+	/**
+	 * Pack the images added since the last call in new pages. The pages are cropped to the space used by their images,
+	 * an image larger than a page has its own page.
+	 */
+	public void pack() {
+		final ArrayList<BufferedImage> images = this.pendingImages;
+		int count = images.size();
+		int border = this.extrude * 2 + this.padding;
+		Integer[] order = new Integer[count];
+
+		for (int i = 0; i < count; i++) {
+			order[i] = i;
+		}
+
+		// The largest images first, the small ones fill the holes.
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				BufferedImage imageA = images.get(a);
+				BufferedImage imageB = images.get(b);
+				int sideA = Math.max(imageA.getWidth(), imageA.getHeight());
+				int sideB = Math.max(imageB.getWidth(), imageB.getHeight());
+				if (sideA != sideB) {
+					return sideB - sideA;
+				}
+				return imageB.getWidth() * imageB.getHeight() - imageA.getWidth() * imageA.getHeight();
+			}
+		});
+
+		ArrayList<MaxRectsPacker> packers = new ArrayList<MaxRectsPacker>();
+		int[] imagePages = new int[count];
+		Rectangle[] cells = new Rectangle[count];
+
+		for (int k = 0; k < count; k++) {
+			int i = order[k];
+			int width = images.get(i).getWidth() + border;
+			int height = images.get(i).getHeight() + border;
+			cells[i] = new Rectangle();
+			imagePages[i] = -1;
+
+			for (int p = 0, l = packers.size(); p < l && imagePages[i] < 0; p++) {
+				if (packers.get(p).insert(width, height, cells[i])) {
+					imagePages[i] = p;
+				}
+			}
+
+			if (imagePages[i] < 0) {
+				MaxRectsPacker packer = new MaxRectsPacker(Math.max(this.pageWidth, width), Math.max(this.pageHeight, height));
+				packer.insert(width, height, cells[i]);
+				imagePages[i] = packers.size();
+				packers.add(packer);
+			}
+		}
+
+		for (int p = 0, l = packers.size(); p < l; p++) {
+			MaxRectsPacker packer = packers.get(p);
+			// The padding after the last column and the last row is cropped.
+			int width = Math.max(1, packer.getUsedWidth() - this.padding);
+			int height = Math.max(1, packer.getUsedHeight() - this.padding);
+			int[] pixels = new int[width * height];
+
+			for (int i = 0; i < count; i++) {
+				if (imagePages[i] == p) {
+					this.copy(images.get(i), pixels, width, height, cells[i].x, cells[i].y);
+				}
+			}
+
+			// The pixels are already ARGB integers, they're copied in one pass in the format of the display.
+			Texture2D page = new Texture2D(width, height, Texture2D.getDisplayType());
+			page.setPixels(pixels);
+
+			for (int i = 0; i < count; i++) {
+				if (imagePages[i] == p) {
+					BufferedImage image = images.get(i);
+					this.regions.put(this.pendingNames.get(i), new TextureRegion(page, cells[i].x + this.extrude, cells[i].y + this.extrude, image.getWidth(), image.getHeight()));
+				}
+			}
+
+			this.pages.add(page);
+		}
+
+		this.pendingNames.clear();
+		this.pendingImages.clear();
+	}
+
+	/**
+	 * Copy an image and its extruded edges in the pixels of a page.
+	 */
+	private void copy(BufferedImage image, int[] pixels, int pageWidth, int pageHeight, int x, int y) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		int extrude = this.extrude;
+		int[] row = new int[width + extrude * 2];
+		int[] source = image.getRGB(0, 0, width, height, null, 0, width);
+
+		for (int j = -extrude; j < height + extrude; j++) {
+			int sourceRow = Math.min(Math.max(j, 0), height - 1) * width;
+			System.arraycopy(source, sourceRow, row, extrude, width);
+
+			for (int i = 0; i < extrude; i++) {
+				row[i] = source[sourceRow];
+				row[extrude + width + i] = source[sourceRow + width - 1];
+			}
+
+			int destinationY = y + extrude + j;
+			int length = Math.min(row.length, pageWidth - x);
+			if (destinationY < pageHeight && length > 0) {
+				System.arraycopy(row, 0, pixels, destinationY * pageWidth + x, length);
+			}
+		}
+	}
+
+	/**
+	 * Gets a packed region.
+	 * @param name The name of the image.
+	 * @return Return the region of the image or null if it's not packed.
+	 */
+	public TextureRegion getRegion(String name) {
+		return this.regions.get(name);
+	}
+
+	/**
+	 * Indicates whether an image is packed in the atlas.
+	 * @param name The name of the image.
+	 * @return Return true if the atlas has a region for this name.
+	 */
+	public boolean contains(String name) {
+		return this.regions.containsKey(name);
+	}
+
+	// ---
+	// --- Getters and setters
+	// ---
+
+	public int getPageCount() {
+		return this.pages.size();
+	}
+
+	public Texture2D getPage(int index) {
+		return this.pages.get(index);
+	}
+
+	/**
+	 * Gets the names of the packed images.
+	 * @return Return a new list of names.
+	 */
+	public ArrayList<String> getRegionNames() {
+		ArrayList<String> names = new ArrayList<String>(this.regions.keySet());
+		Collections.sort(names);
+		return names;
+	}
+
+	public int getPadding() {
+		return this.padding;
+	}
+
+	public int getExtrude() {
+		return this.extrude;
+	}
+}
@@ -0,0 +1,67 @@
+// AtlantisEngine.java - Copyright (C) Yannick Comte.
+// This file is subject to the terms and conditions defined in
+// file 'LICENSE', which is part of this source code package.
+package atlantis.framework.graphics;
+
+import atlantis.framework.Rectangle;
+
+/**
+ * A region of a texture, like an image packed in a page of a texture atlas. It's a handle: the pixels
+ * stay in the texture and the sprites are drawn with the region as source rectangle.
+ * @author Yannick
+ */
+public class TextureRegion {
+	public Texture2D texture;
+	public int x;
+	public int y;
+	public int width;
+	public int height;
+
+	/**
+	 * Create a region that covers a whole texture.
+	 * @param texture The texture.
+	 */
+	public TextureRegion(Texture2D texture) {
+		this(texture, 0, 0, texture.getWidth(), texture.getHeight());
+	}
+
+	/**
+	 * Create a region.
+	 * @param texture The texture that contains the region.
+	 * @param x The left of the region in the texture.
+	 * @param y The top of the region in the texture.
+	 * @param width The width of the region.
+	 * @param height The height of the region.
+	 */
+	public TextureRegion(Texture2D texture, int x, int y, int width, int height) {
+		this.texture = texture;
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Gets the source rectangle of a part of the region.
+	 * @param rectangle A rectangle relative to the region, or null for the whole region.
+	 * @param result The rectangle that receives the position in the texture.
+	 * @return Return the result rectangle.
+	 */
+	public Rectangle getSourceRectangle(Rectangle rectangle, Rectangle result) {
+		if (rectangle != null) {
+			result.set(this.x + rectangle.x, this.y + rectangle.y, rectangle.width, rectangle.height);
+		}
+		else {
+			result.set(this.x, this.y, this.width, this.height);
+		}
+		return result;
+	}
+
+	/**
+	 * Indicates whether the region covers its whole texture.
+	 * @return Return true if the region is the texture.
+	 */
+	public boolean isWholeTexture() {
+		return this.x == 0 && this.y == 0 && this.width == this.texture.getWidth() && this.height == this.texture.getHeight();
+	}
+}
@@ -6,6 +6,7 @@ package atlantis.framework.platform;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Rectangle;
 import java.util.ArrayList;
 
 import javax.swing.JPanel;
@@ -37,13 +38,28 @@ public class JPanelRenderer extends JPanel implements IWindowRenderer {
 	public void paintComponent(Graphics graphics) {
 		super.paintComponent(graphics);
 		
+		// Only the repainted area is drawn, the whole panel or the dirty regions of a frame
+		Rectangle clip = graphics.getClipBounds();
+		int x = (clip != null) ? clip.x : 0;
+		int y = (clip != null) ? clip.y : 0;
+		int width = (clip != null) ? clip.width : getWidth();
+		int height = (clip != null) ? clip.height : getHeight();
+		
 		// Clear the screen
 		graphics.setColor(clearColor);
-		graphics.fillRect(0, 0, getWidth(), getHeight());
+		graphics.fillRect(x, y, width, height);
 		
 		// Draw all render target objects
 		for (int i = 0; i < this.renderTargetCount; i++) {
-			this.renderTargets.get(i).draw(graphics);
+			RenderTarget2D renderTarget = this.renderTargets.get(i);
+			int left = Math.max(x, 0);
+			int top = Math.max(y, 0);
+			int right = Math.min(x + width, renderTarget.getWidth());
+			int bottom = Math.min(y + height, renderTarget.getHeight());
+			
+			if (right > left && bottom > top) {
+				renderTarget.draw(graphics, left, top, right - left, bottom - top);
+			}
 		}
 	}
 	
@@ -1,5 +1,7 @@
 package atlantis.samples.applet;
 
+import java.awt.Color;
+
 import atlantis.engine.Application;
 import atlantis.engine.graphics.Sprite;
 import atlantis.framework.DrawableGameComponent;
@@ -74,6 +76,7 @@ public class SpriteComponent extends DrawableGameComponent {
 	
 	public void draw(GameTime gameTime) {
 		super.draw(gameTime);
+		this.game.graphicsDevice().clear(Color.black);
 		this.spriteBatch.begin();
 		this.background.draw(gameTime, spriteBatch);
 		this.tree.draw(gameTime, spriteBatch);
@@ -30,6 +30,8 @@ public class GameState extends State {
 	private Sprite tempSearchSprite;
 	private SpriteFont scoreCounter;
 	private SpriteFont timeCounter;
+	private StringBuilder scoreText;
+	private StringBuilder timeText;
 	private int playerScore;
 	private int timeRemaining;
 	private int elapsedTime;
@@ -55,6 +57,8 @@ public class GameState extends State {
 		// Text
 		this.scoreCounter = new SpriteFont(Font.SANS_SERIF, 16, Font.BOLD);
 		this.timeCounter = new SpriteFont(Font.SANS_SERIF, 16, Font.BOLD);
+		this.scoreText = new StringBuilder();
+		this.timeText = new StringBuilder();
 		
 		// For prevent garbage collection in loop
 		tempSearchSprite = null;
@@ -88,6 +92,17 @@ public class GameState extends State {
 			this.soundEffects.put(name, content.loadSound("Sounds/" + name + ".wav"));
 		}
 		
+		// The tiles and the gems are small images, the sprites of the level share a texture atlas.
+		String[] tileNames = {
+			"BlockA0", "BlockA1", "BlockA2", "BlockA3", "BlockA4", "BlockA5", "BlockA6",
+			"Exit", "Platform", "Gem", "YellowGem"
+		};
+		
+		for (int i = 0; i < tileNames.length; i++) {
+			tileNames[i] = "img/Tiles/" + tileNames[i] + ".png";
+		}
+		content.createAtlas(tileNames);
+		
 		this.level.loadLevel(content, this.scene);
 		
 		this.player.loadContent(content);
@@ -139,7 +154,7 @@ public class GameState extends State {
 				}
 			}
 			
-			this.player.updatePhysics(this.level.getBlocksSize(), this.level.getBlocks());
+			this.player.updatePhysics(this.level.getTileMap());
 			
 			if (this.player.getY() > Application.height) {
 				if (!this.overlays[1].isActive()) {
@@ -180,7 +195,16 @@ public class GameState extends State {
 	public void draw(GameTime gameTime) {
 		super.draw(gameTime);
 		
-		this.spriteBatch.drawString(this.scoreCounter, "SCORE: " + this.playerScore, 10, 20, Color.YELLOW);
-		this.spriteBatch.drawString(this.timeCounter, "TIME: " + this.timeRemaining, 10, 40, Color.YELLOW);
+		// The texts are built in the same builders each frame.
+		this.scoreText.setLength(0);
+		this.scoreText.append("SCORE: ").append(this.playerScore);
+		this.timeText.setLength(0);
+		this.timeText.append("TIME: ").append(this.timeRemaining);
+		
+		// The texts are drawn over the scene, by a second batch.
+		this.spriteBatch.begin();
+		this.spriteBatch.drawString(this.scoreCounter, this.scoreText, 10, 20, Color.YELLOW.getRGB(), 1.0f);
+		this.spriteBatch.drawString(this.timeCounter, this.timeText, 10, 40, Color.YELLOW.getRGB(), 1.0f);
+		this.spriteBatch.end();
 	}
 }
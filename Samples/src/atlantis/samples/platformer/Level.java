@@ -11,20 +11,23 @@ import org.json.JSONObject;
 
 import atlantis.engine.graphics.Sprite;
 import atlantis.engine.graphics.SpriteGroup;
+import atlantis.engine.graphics.TileMap;
 import atlantis.framework.Vector2;
 import atlantis.framework.content.ContentManager;
 
 public final class Level {
 	private static Random random = new Random();
+	private static final int TileWidth = 40;
+	private static final int TileHeight = 32;
+	private static final int BlockCount = 6;
 	private int width;
 	private int height;
 	private int levelId;
 	private Sprite[] layers;
-	private ArrayList<Sprite> blocks;
+	private TileMap tileMap;
 	private ArrayList<Sprite> items;
 	private ArrayList<Sprite> monsters;
 	private Vector2 startPosition;
-	private int blocksSize;
 	private int itemsSize;
 	private int monstersSize;
 	private boolean loaded;
@@ -34,10 +37,6 @@ public final class Level {
 		this.layers = new Sprite[3];
 		this.startPosition = Vector2.Zero();
 		
-		// Blocks
-		this.blocks = new ArrayList<Sprite>();
-		this.blocksSize = 0;
-		
 		// Items
 		this.items = new ArrayList<Sprite>();
 		this.itemsSize = 0;
@@ -80,12 +79,24 @@ public final class Level {
 					scene.add(layer);
 				}
 				
-				// 2 - Create the level
+				// 2 - Create the level, the blocks and the platforms are tiles of a tile map
 				JSONArray jsonLevel = json.getJSONArray("level");
 				JSONArray row = null;
 				Sprite sprite = null;
 				String assetName = "";
 				
+				this.height = jsonLevel.length();
+				this.width = jsonLevel.getJSONArray(0).length();
+				this.tileMap = new TileMap(this.width, this.height, TileWidth, TileHeight);
+				this.tileMap.setName("blocks");
+				
+				int[] blockTiles = new int[BlockCount];
+				for (int i = 0; i < BlockCount; i++) {
+					blockTiles[i] = this.tileMap.addTileType(content.loadTextureRegion("img/Tiles/BlockA" + i + ".png"), true);
+				}
+				int platformTile = this.tileMap.addTileType(content.loadTextureRegion("img/Tiles/Platform.png"), true);
+				scene.add(this.tileMap);
+				
 				for (int y = 0, ly = jsonLevel.length(); y < ly; y++) {
 					row = jsonLevel.getJSONArray(y);
 					
@@ -97,27 +108,27 @@ public final class Level {
 						if (id == 1) {
 							this.startPosition = new Vector2(x, y);
 						}
-						// Blocks and items case
-						else if (id >= 2 && id <= 4) {
+						// Exit case
+						else if (id == 2) {
 							assetName = getAssetName(id);
 							sprite = new Sprite("img/Tiles/" + assetName + ".png");
 							sprite.loadContent(content);
-							sprite.setPosition(x * 40, y * 32);
+							sprite.setPosition(x * TileWidth, y * TileHeight);
+							sprite.setName("exit");
 							scene.add(sprite);
-						
-							if (id == 2) {
-								sprite.setName("exit");
-								this.items.add(sprite);
-							}
-							else {
-								sprite.setName("block");
-								this.blocks.add(sprite);
-							}
+							this.items.add(sprite);
+						}
+						// Blocks case
+						else if (id == 3) {
+							this.tileMap.setTile(x, y, blockTiles[random.nextInt(BlockCount)]);
+						}
+						else if (id == 4) {
+							this.tileMap.setTile(x, y, platformTile);
 						}
 						else if (id == 5 || id == 6) { 
 							sprite = new Gem(id);
 							sprite.loadContent(content);
-							sprite.setPosition(x * 40, y * 32);
+							sprite.setPosition(x * TileWidth, y * TileHeight);
 							scene.add(sprite);
 							this.items.add(sprite);
 						}
@@ -133,11 +144,13 @@ public final class Level {
 					}
 				}
 				
-				this.blocksSize = this.blocks.size();
+				// The chunks of tiles are drawn once, before the first frame
+				this.tileMap.loadContent(content);
+				
 				this.itemsSize = this.items.size();
 				this.monstersSize = this.monsters.size();
 			
-				Monster.setBlocks(this.blocks);
+				Monster.setTileMap(this.tileMap);
 			} 
 			catch (IOException e) {
 				System.out.println("[Level] Can't load level " + this.levelId);
@@ -162,7 +175,6 @@ public final class Level {
 		String assetName = "";
 		switch (id) {
 			case 2: assetName = "Exit"; break;
-			case 3: assetName = getRandomBlockName(); break;
 			case 4: assetName = "Platform"; break;
 			case 5: assetName = "Gem"; break;
 			case 6: assetName = "YellowGem"; break;
@@ -174,14 +186,6 @@ public final class Level {
 		return assetName;
 	}
 	
-	/**
-	 * Gets a random block name.
-	 * @return
-	 */
-	private String getRandomBlockName() {
-		return ("BlockA" + random.nextInt(6)).toString();
-	}
-	
 	// ---
 	// --- Read only getters
 	// ---
@@ -197,8 +201,8 @@ public final class Level {
 		return levelId;
 	}
 
-	public final ArrayList<Sprite> getBlocks() {
-		return blocks;
+	public final TileMap getTileMap() {
+		return tileMap;
 	}
 
 	public final ArrayList<Sprite> getItems() {
@@ -217,10 +221,6 @@ public final class Level {
 	// --- Safe getters to gets collections size.
 	// ---
 	
-	public final int getBlocksSize() {
-		return blocksSize;
-	}
-
 	public final int getItemsSize() {
 		return itemsSize;
 	}
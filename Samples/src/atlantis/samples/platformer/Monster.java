@@ -1,14 +1,14 @@
 package atlantis.samples.platformer;
 
-import java.util.ArrayList;
 import java.util.Random;
 
 import atlantis.engine.graphics.Sprite;
+import atlantis.engine.graphics.TileMap;
 import atlantis.framework.GameTime;
 import atlantis.framework.content.ContentManager;
 
 public class Monster extends Sprite {
-	private static Sprite[] levelBlocks;
+	private static TileMap levelTiles;
 	private final static Random random = new Random();
 	private final static int timeBeforeCheckNextAction = 3500;
 	private long elapsedTime;
@@ -39,11 +39,8 @@ public class Monster extends Sprite {
 		this.getNextAction();
 	}
 	
-	public static void setBlocks(ArrayList<Sprite> blocks) {
-		levelBlocks = new Sprite[blocks.size()];
-		for (int i = 0, l = blocks.size(); i < l; i++) {
-			levelBlocks[i] = blocks.get(i);
-		}
+	public static void setTileMap(TileMap tileMap) {
+		levelTiles = tileMap;
 	}
 	
 	public void update(GameTime gameTime) {
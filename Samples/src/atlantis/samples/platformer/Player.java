@@ -1,11 +1,10 @@
 package atlantis.samples.platformer;
 
-import java.util.ArrayList;
-
 import atlantis.engine.Application;
-import atlantis.engine.graphics.Collider2;
 import atlantis.engine.graphics.Sprite;
+import atlantis.engine.graphics.TileMap;
 import atlantis.framework.GameTime;
+import atlantis.framework.Rectangle;
 import atlantis.framework.Vector2;
 import atlantis.framework.audio.SoundEffect;
 import atlantis.framework.content.ContentManager;
@@ -23,6 +22,8 @@ public final class Player extends Sprite {
 	private boolean canMove;
 	private float gravity;
 	private float speed;
+	private Rectangle collisionArea;
+	private Rectangle block;
 	
 	public Player() {
 		super("img/Player.png");
@@ -39,6 +40,10 @@ public final class Player extends Sprite {
 		this.jumpHeight = 125;
 		this.jumpSpeed = 2.5f;
 		this.initialJumpPosition = Vector2.Zero();
+		
+		// Collisions
+		this.collisionArea = new Rectangle();
+		this.block = new Rectangle();
 	}
 	
 	/**
@@ -114,31 +119,29 @@ public final class Player extends Sprite {
 	
 	/**
 	 * Update physics of the player by using a gravity on it.
-	 * @param blocksSize Size of the collection of blocks.
-	 * @param blocks Blocks that can be collided.
+	 * @param tileMap The tiles that can be collided.
 	 */
-	public void updatePhysics(int blocksSize, ArrayList<Sprite> blocks) {
+	public void updatePhysics(TileMap tileMap) {
 		if (this.movementState != MovementState.JumpingUp) {
 			this.setY((int) (this.getY() + this.gravity));
 		}
 		
-		int i = 0;
-		boolean collide = false;
-	
-		while(i < blocksSize && collide == false) {
-			if (Collider2.rectangleCollide(this, blocks.get(i))) {
-				if(this.position.y < blocks.get(i).getY() && this.movementState == MovementState.JumpingUp) {
-						this.movementState = MovementState.JumpingDown;
-						this.setY(blocks.get(i).getBoundingRectangle().getBottom());
-						collide = true;
-				} 
-				else {
-					collide = true;
-					this.setY(blocks.get(i).getY() - this.getHeight());
-					this.movementState = MovementState.Walking;
-				}
+		// A block collides when its top left corner is inside the player, so the cells touched by
+		// the player without their first column and row. Only these cells are tested. A player smaller than
+		// a tile gives a negative size, the range of cells is then the cells whose corner is in the player, or none.
+		Rectangle area = this.collisionArea;
+		area.set(this.rectangle.x + tileMap.getTileWidth() - 1, this.rectangle.y + tileMap.getTileHeight() - 1, 
+				this.rectangle.width - tileMap.getTileWidth() + 1, this.rectangle.height - tileMap.getTileHeight() + 1);
+		
+		if (tileMap.findSolidTile(area, this.block)) {
+			if(this.position.y < this.block.y && this.movementState == MovementState.JumpingUp) {
+				this.movementState = MovementState.JumpingDown;
+				this.setY(this.block.getBottom());
+			} 
+			else {
+				this.setY(this.block.y - this.getHeight());
+				this.movementState = MovementState.Walking;
 			}
-			i++;
 		}
 	}
 	
@@ -95,6 +95,18 @@ public class BaseDemo3D extends Game {
 		else if (keyboardState.isKeyDown(KeyEvent.VK_F4))
 			this.renderer.getLight().setEnabled(true);
 		
+		if (keyboardState.isKeyDown(KeyEvent.VK_F6))
+			this.renderer.setDeferred(true);
+		
+		else if (keyboardState.isKeyDown(KeyEvent.VK_F7))
+			this.renderer.setDeferred(false);
+		
+		if (keyboardState.isKeyDown(KeyEvent.VK_F8))
+			this.renderer.setSpanBufferEnabled(true);
+		
+		else if (keyboardState.isKeyDown(KeyEvent.VK_F9))
+			this.renderer.setSpanBufferEnabled(false);
+		
         
         if (keyboardState.isKeyDown(KeyEvent.VK_F5)) {
         	System.out.println("Position: " + camera.position.toString());
@@ -0,0 +1,95 @@
+package atlantis.samples.soft3d;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import atlantis.engine.graphics3d.geometry.Terrain;
+import atlantis.engine.graphics3d.geometry.TerrainGeometry;
+import atlantis.framework.GameTime;
+
+public class HeightmapTerrain extends BaseDemo3D {
+	protected Terrain terrain;
+
+	public HeightmapTerrain() {
+		super("AtlantisEngine.java - 3D serie : Heightmap Terrain");
+		this.camera.position.set(128.0f, 50.0f, -30.0f);
+		this.camera.rotation.set(-0.4f, (float)Math.PI, 0.0f);
+		this.moveSpeed = 0.05f;
+		this.renderer.getLight().setEnabled(true);
+	}
+
+	public void loadContent() {
+		TerrainGeometry geometry = new TerrainGeometry(createHeightmap(257, 42), 1.0f, 24.0f);
+		this.terrain = new Terrain(geometry, 16, 4, 24.0f);
+		this.terrain.setColor(new Color(96, 160, 64));
+	}
+
+	/**
+	 * Create a heightmap with a few octaves of value noise.
+	 * @param size The size of the image.
+	 * @param seed The seed of the noise.
+	 * @return Return a grayscale image.
+	 */
+	public static BufferedImage createHeightmap(int size, long seed) {
+		Random random = new Random(seed);
+		float[] heights = new float[size * size];
+		float amplitude = 1.0f;
+		float total = 0.0f;
+
+		for (int cells = 4; cells <= 64; cells *= 2) {
+			float[] lattice = new float[(cells + 1) * (cells + 1)];
+			for (int i = 0; i < lattice.length; i++) {
+				lattice[i] = random.nextFloat();
+			}
+
+			for (int y = 0; y < size; y++) {
+				for (int x = 0; x < size; x++) {
+					float fx = (float)x * cells / size;
+					float fy = (float)y * cells / size;
+					int cx = (int)fx;
+					int cy = (int)fy;
+					float tx = fx - cx;
+					float ty = fy - cy;
+					tx = tx * tx * (3 - 2 * tx);
+					ty = ty * ty * (3 - 2 * ty);
+
+					float a = lattice[cx + cy * (cells + 1)];
+					float b = lattice[cx + 1 + cy * (cells + 1)];
+					float c = lattice[cx + (cy + 1) * (cells + 1)];
+					float d = lattice[cx + 1 + (cy + 1) * (cells + 1)];
+					float top = a + (b - a) * tx;
+					float bottom = c + (d - c) * tx;
+					heights[x + y * size] += (top + (bottom - top) * ty) * amplitude;
+				}
+			}
+
+			total += amplitude;
+			amplitude *= 0.5f;
+		}
+
+		BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				int value = Math.min(255, (int)(heights[x + y * size] / total * 255.0f));
+				image.setRGB(x, y, (value << 16) | (value << 8) | value);
+			}
+		}
+		return image;
+	}
+
+	public void draw(GameTime gameTime) {
+		this.components.draw(gameTime);
+		renderer.render(this.graphicsDevice().getGraphics(), camera, terrain);
+		this.graphicsDevice().getRenderTarget().getGraphics().drawString("FPS: " + gameTime.getFPS(), 20, 20);
+		this.graphicsDevice().getRenderTarget().getGraphics().drawString("Chunks: " + terrain.getVisibleChunkCount() + " Triangles: " + terrain.getVisibleTriangleCount(), 20, 40);
+	}
+
+	/**
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		HeightmapTerrain game = new HeightmapTerrain();
+		game.run();
+	}
+}
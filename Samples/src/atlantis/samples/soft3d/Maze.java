@@ -4,7 +4,7 @@ import java.awt.Color;
 import java.util.ArrayList;
 
 import atlantis.engine.graphics3d.Mesh;
-import atlantis.engine.graphics3d.geometry.CubeGeometry;
+import atlantis.engine.graphics3d.geometry.GeometryCache;
 import atlantis.engine.graphics3d.geometry.PlaneGeometry;
 
 public class Maze extends BaseDemo3D {
@@ -15,7 +15,15 @@ public class Maze extends BaseDemo3D {
 		this.camera.position.set(-21.56f, 51.60f, 86.7f);
 		this.camera.rotation.set(-0.58f, -0.4f, 0f);
 		
-		this.level = new int [][] {
+		this.level = createLevel();
+	}
+	
+	/**
+	 * Create the default level. 1 is the floor, other values are walls.
+	 * @return Return the level grid.
+	 */
+	public static int[][] createLevel() {
+		return new int [][] {
 			{2, 2, 2, 2, 2, 1, 2, 2, 2, 2},
 			{2, 1, 1, 1, 1, 1, 1, 1, 1, 2},
 			{2, 1, 1, 1, 2, 2, 1, 1, 2, 2},
@@ -32,8 +40,17 @@ public class Maze extends BaseDemo3D {
 	}
 	
 	public void loadContent() {
-		int width = this.level[0].length;
-		int depth = this.level.length;
+		this.meshes = createMeshes(this.level);
+	}
+	
+	/**
+	 * Create the ground and the walls of a level.
+	 * @param level The level grid.
+	 * @return Return the meshes of the level.
+	 */
+	public static Mesh[] createMeshes(int[][] level) {
+		int width = level[0].length;
+		int depth = level.length;
 		
 		ArrayList<Mesh> mazeMeshes = new ArrayList<Mesh>();
 		
@@ -45,7 +62,7 @@ public class Maze extends BaseDemo3D {
 		
 		for (int y = 0; y < depth; y++) {
 			for (int x = 0; x < width; x++) {
-				switch (this.level[y][x]) {
+				switch (level[y][x]) {
 				case 1: break;
 				case 2: mazeMeshes.add(createCubeWall(x, y, 1, 1, 2, Color.CYAN)); break;
 				case 6: mazeMeshes.add(createCubeWall(x, y, 1, 0.3f, 2, Color.red)); break;
@@ -56,14 +73,14 @@ public class Maze extends BaseDemo3D {
 			}
 		}
 		
-		this.meshes = new Mesh[mazeMeshes.size()];
-		mazeMeshes.toArray(this.meshes);
+		Mesh[] meshes = new Mesh[mazeMeshes.size()];
+		mazeMeshes.toArray(meshes);
+		return meshes;
 	}
 	
-	private Mesh createCubeWall(float x, float z, float sx, float sy, float sz, Color color) {
+	private static Mesh createCubeWall(float x, float z, float sx, float sy, float sz, Color color) {
 		int blockSize = 2;
-		CubeGeometry wallGeo = new CubeGeometry();
-		Mesh wallMesh = new Mesh("wall", wallGeo);
+		Mesh wallMesh = new Mesh("wall", GeometryCache.getCube());
 		wallMesh.getPosition().set(x * blockSize, 0, z * blockSize);
 		wallMesh.setFacesColor(color);
 		
@@ -1,5 +1,6 @@
 package atlantis.samples.sprite;
 
+import java.awt.Color;
 import java.awt.event.KeyEvent;
 
 import atlantis.engine.graphics.Sprite;
@@ -83,6 +84,7 @@ public class SpriteGame extends Game {
 	
 	public void draw(GameTime gameTime) {
 		super.draw(gameTime);
+		this.graphicsDevice().clear(Color.black);
 		this.spriteBatch.begin();
 		this.background.draw(gameTime, this.spriteBatch);
 		this.tree.draw(gameTime, this.spriteBatch);
@@ -0,0 +1,141 @@
+package atlantis.test;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Random;
+
+import atlantis.engine.graphics.Sprite;
+import atlantis.engine.graphics.SpriteGroup;
+import atlantis.framework.graphics.GraphicsDevice;
+import atlantis.framework.graphics.SpriteBatch;
+import atlantis.framework.graphics.Texture2D;
+
+/**
+ * Draw a board of static tiles with a few moving, blinking and tinted gems, like a board game state, once with
+ * a full redraw per frame and once in dirty region mode. The frames of both modes are compared pixel by pixel,
+ * then the time per frame and the part of the screen redrawn are printed for Java2D and the software blitter.
+ * It runs without a window from the Samples directory (java -Djava.awt.headless=true atlantis.test.DirtyRegionBenchmark).
+ * @author Yannick
+ */
+public class DirtyRegionBenchmark {
+	private static final int Width = 800;
+	private static final int Height = 600;
+	private static final int GemCount = 6;
+	private static final int Frames = 300;
+	private static final String[] TileNames = { "BlockA0", "BlockA1", "BlockA2", "BlockA3", "BlockA4", "BlockA5", "BlockA6", "Platform" };
+
+	public static void main(String[] args) {
+		Texture2D[] tiles = new Texture2D[TileNames.length];
+		for (int i = 0; i < tiles.length; i++) {
+			tiles[i] = Texture2D.createFromPath("Content/Platformer/img/Tiles/" + TileNames[i] + ".png", 1);
+		}
+		Texture2D gem = Texture2D.createFromPath("Content/Platformer/img/Tiles/Gem.png", 1);
+
+		String[] backends = { "Java2D", "Software" };
+		for (int backend = 0; backend < backends.length; backend++) {
+			GraphicsDevice fullDevice = new GraphicsDevice(Width, Height);
+			GraphicsDevice dirtyDevice = new GraphicsDevice(Width, Height);
+			dirtyDevice.setDirtyRegionsEnabled(true);
+			SpriteBatch fullBatch = new SpriteBatch(fullDevice);
+			SpriteBatch dirtyBatch = new SpriteBatch(dirtyDevice);
+			fullBatch.setSoftwareRendering(backend == 1);
+			dirtyBatch.setSoftwareRendering(backend == 1);
+			SpriteGroup fullScene = createScene(tiles, gem);
+			SpriteGroup dirtyScene = createScene(tiles, gem);
+
+			long fullTime = 0;
+			long dirtyTime = 0;
+			long dirtyArea = 0;
+			int differences = 0;
+
+			for (int k = 0; k < Frames * 2; k++) {
+				animate(fullScene, k);
+				animate(dirtyScene, k);
+
+				long start = System.nanoTime();
+				drawFrame(fullDevice, fullBatch, fullScene);
+				long middle = System.nanoTime();
+				long area = drawFrame(dirtyDevice, dirtyBatch, dirtyScene);
+				long end = System.nanoTime();
+
+				if (!Arrays.equals(fullDevice.getRenderTarget().getPixels(), dirtyDevice.getRenderTarget().getPixels())) {
+					differences++;
+				}
+
+				// The first half warms up.
+				if (k >= Frames) {
+					fullTime += middle - start;
+					dirtyTime += end - middle;
+					dirtyArea += area;
+				}
+			}
+
+			System.out.println(String.format("%s, %d frames, %d different frames", backends[backend], Frames, differences));
+			System.out.println(String.format("  %-14s %8.3f ms per frame", "full redraw", fullTime / 1000000.0 / Frames));
+			System.out.println(String.format("  %-14s %8.3f ms per frame, %.1f%% of the screen redrawn", "dirty regions",
+					dirtyTime / 1000000.0 / Frames, dirtyArea * 100.0 / Frames / (Width * Height)));
+		}
+	}
+
+	/**
+	 * A board of tiles, then the gems over it.
+	 */
+	private static SpriteGroup createScene(Texture2D[] tiles, Texture2D gem) {
+		Random random = new Random(42);
+		SpriteGroup scene = new SpriteGroup();
+
+		for (int y = 0; y < Height; y += tiles[0].getHeight()) {
+			for (int x = 0; x < Width; x += tiles[0].getWidth()) {
+				scene.add(createSprite(tiles[random.nextInt(tiles.length)], x, y));
+			}
+		}
+
+		for (int i = 0; i < GemCount; i++) {
+			scene.add(createSprite(gem, 100 + i * 100, 100 + i * 60));
+		}
+
+		return scene;
+	}
+
+	private static Sprite createSprite(Texture2D texture, int x, int y) {
+		Sprite sprite = new Sprite();
+		sprite.setTexture(texture);
+		sprite.setPosition(x, y);
+		sprite.setAssetLoaded(true);
+		return sprite;
+	}
+
+	/**
+	 * The first gems move, the next one blinks and the last one changes its tint.
+	 */
+	private static void animate(SpriteGroup scene, int frame) {
+		int first = scene.count() - GemCount;
+
+		for (int i = 0; i < GemCount - 2; i++) {
+			Sprite sprite = scene.getEntities().get(first + i);
+			sprite.setPosition(100 + i * 100 + (int)(40 * Math.sin(frame * 0.05 + i)), 100 + i * 60 + (int)(40 * Math.cos(frame * 0.05 + i)));
+		}
+
+		scene.getEntities().get(first + GemCount - 2).setVisible((frame / 20) % 2 == 0);
+		scene.getEntities().get(first + GemCount - 1).setColor((frame / 10) % 2 == 0 ? 0xFFFFFFFF : 0xFFFF8080);
+	}
+
+	/**
+	 * Draw a frame like the state manager and the game loop.
+	 * @return Return the number of pixels redrawn.
+	 */
+	private static long drawFrame(GraphicsDevice device, SpriteBatch batch, SpriteGroup scene) {
+		if (device.isDirtyRegionsEnabled()) {
+			scene.reportChanges(device);
+		}
+
+		device.clear(Color.black);
+		batch.begin();
+		scene.draw(null, batch);
+		batch.end();
+
+		long area = device.isDirtyRegionsEnabled() ? device.getDirtyRegions().getArea() : Width * Height;
+		device.getDirtyRegions().clear();
+		return area;
+	}
+}
@@ -0,0 +1,135 @@
+package atlantis.test;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Random;
+
+import atlantis.engine.graphics3d.Camera;
+import atlantis.engine.graphics3d.GridVisibility;
+import atlantis.engine.graphics3d.Mesh;
+import atlantis.engine.graphics3d.Renderer;
+import atlantis.engine.graphics3d.geometry.GeometryCache;
+
+/**
+ * Render a generated 200x200 dungeon with and without the grid visibility, from several points of view
+ * at eye level. The render time must follow the number of visible cells, not the size of the map.
+ * @author Yannick
+ */
+public class GridVisibilityBenchmark {
+	private static final int Width = 640;
+	private static final int Height = 480;
+	private static final int Size = 200;
+	private static final int Frames = 5;
+
+	public static void main(String[] args) {
+		int[][] level = createDungeon(new Random(42));
+
+		ArrayList<Mesh> walls = new ArrayList<Mesh>();
+		GridVisibility visibility = GridVisibility.createFromLevel(level, 2, -1, -1, new int[] { 2 });
+		visibility.setWallHeight(1);
+
+		for (int z = 0; z < Size; z++) {
+			for (int x = 0; x < Size; x++) {
+				if (level[z][x] == 2) {
+					Mesh wall = new Mesh("wall", GeometryCache.getCube());
+					wall.getPosition().set(x * 2, 0, z * 2);
+					wall.setFacesColor(Color.CYAN);
+					walls.add(wall);
+					visibility.addMesh(wall);
+				}
+			}
+		}
+
+		Mesh[] meshes = new Mesh[walls.size()];
+		walls.toArray(meshes);
+
+		Renderer renderer = new Renderer(Width, Height);
+		renderer.getLight().setEnabled(false);
+		BufferedImage image = new BufferedImage(Width, Height, BufferedImage.TYPE_INT_ARGB);
+		Random random = new Random(7);
+
+		System.out.println(meshes.length + " walls");
+
+		for (int view = 0; view < 8; view++) {
+			int x, z;
+			do {
+				x = random.nextInt(Size);
+				z = random.nextInt(Size);
+			} while (level[z][x] != 1);
+
+			Camera camera = new Camera();
+			camera.position.set(x * 2 + 0.3f, 0, z * 2 - 0.2f);
+			camera.rotation.set(0, random.nextFloat() * 6.28f, 0);
+
+			double allTime = run(renderer, image, camera, meshes, null);
+			double visibleTime = run(renderer, image, camera, meshes, visibility);
+
+			System.out.println(String.format("view %d: all meshes %.2f ms, %d visible cells and %d meshes %.2f ms",
+					view, allTime, visibility.getVisibleCellCount(), visibility.getVisibleMeshCount(), visibleTime));
+		}
+	}
+
+	private static double run(Renderer renderer, BufferedImage image, Camera camera, Mesh[] meshes, GridVisibility visibility) {
+		Graphics graphics = image.getGraphics();
+		long start = System.nanoTime();
+
+		for (int i = 0; i < Frames; i++) {
+			renderer.clear(Color.black);
+			if (visibility != null) {
+				renderer.render(graphics, camera, visibility);
+			}
+			else {
+				renderer.render(graphics, camera, meshes);
+			}
+		}
+
+		return (System.nanoTime() - start) / (Frames * 1000000.0);
+	}
+
+	/**
+	 * Carve random rooms linked by corridors into a full grid of walls (2), the floor is 1.
+	 */
+	private static int[][] createDungeon(Random random) {
+		int[][] level = new int[Size][Size];
+		int previousX = -1;
+		int previousZ = -1;
+
+		for (int z = 0; z < Size; z++) {
+			for (int x = 0; x < Size; x++) {
+				level[z][x] = 2;
+			}
+		}
+
+		for (int room = 0; room < 150; room++) {
+			int w = 3 + random.nextInt(8);
+			int d = 3 + random.nextInt(8);
+			int x = 1 + random.nextInt(Size - w - 2);
+			int z = 1 + random.nextInt(Size - d - 2);
+
+			for (int i = z; i < z + d; i++) {
+				for (int j = x; j < x + w; j++) {
+					level[i][j] = 1;
+				}
+			}
+
+			int centerX = x + w / 2;
+			int centerZ = z + d / 2;
+
+			if (previousX != -1) {
+				for (int j = Math.min(previousX, centerX); j <= Math.max(previousX, centerX); j++) {
+					level[previousZ][j] = 1;
+				}
+				for (int i = Math.min(previousZ, centerZ); i <= Math.max(previousZ, centerZ); i++) {
+					level[i][centerX] = 1;
+				}
+			}
+
+			previousX = centerX;
+			previousZ = centerZ;
+		}
+
+		return level;
+	}
+}
@@ -0,0 +1,84 @@
+package atlantis.test;
+
+import java.util.Random;
+
+import atlantis.framework.MathHelper;
+import atlantis.framework.Vector2;
+
+/**
+ * Compare the fast trigonometry of MathHelper with java.lang.Math: maximum error and time per call.
+ * @author Yannick
+ */
+public class MathHelperBenchmark {
+	private static final int Count = 1 << 16;
+	private static final int Iterations = 200;
+	private static final String[] Names = { "Math.sin", "MathHelper.fastSin", "Math.sin + Math.cos", "MathHelper.fastSinCos",
+		"1 / Math.sqrt", "MathHelper.fastInverseSqrt", "Math.atan2", "MathHelper.fastAtan2" };
+
+	private static float[] angles = new float[Count];
+	private static float[] values = new float[Count];
+	private static float[] ys = new float[Count];
+	private static float[] xs = new float[Count];
+	private static Vector2 sinCos = new Vector2();
+	private static float sink;
+
+	public static void main(String[] args) {
+		Random random = new Random(42);
+		for (int i = 0; i < Count; i++) {
+			angles[i] = (random.nextFloat() * 2.0f - 1.0f) * 100.0f;
+			values[i] = random.nextFloat() * 1000.0f + 0.001f;
+			ys[i] = random.nextFloat() * 2.0f - 1.0f;
+			xs[i] = random.nextFloat() * 2.0f - 1.0f;
+		}
+
+		float sinError = 0.0f, sqrtError = 0.0f, atanError = 0.0f;
+		for (int i = 0; i < Count; i++) {
+			MathHelper.fastSinCos(angles[i], sinCos);
+			sinError = Math.max(sinError, Math.abs(MathHelper.fastSin(angles[i]) - (float)Math.sin(angles[i])));
+			sinError = Math.max(sinError, Math.abs(MathHelper.fastCos(angles[i]) - (float)Math.cos(angles[i])));
+			sinError = Math.max(sinError, Math.abs(sinCos.x - (float)Math.cos(angles[i])));
+			sinError = Math.max(sinError, Math.abs(sinCos.y - (float)Math.sin(angles[i])));
+			float inverseSqrt = (float)(1.0 / Math.sqrt(values[i]));
+			sqrtError = Math.max(sqrtError, Math.abs(MathHelper.fastInverseSqrt(values[i]) - inverseSqrt) / inverseSqrt);
+			atanError = Math.max(atanError, Math.abs(MathHelper.fastAtan2(ys[i], xs[i]) - (float)Math.atan2(ys[i], xs[i])));
+		}
+
+		System.out.println(String.format("Sine table of %d values, max error %.2e (bound %.2e)",
+				MathHelper.getFastTrigonometryTableSize(), sinError, MathHelper.getFastTrigonometryError()));
+		System.out.println(String.format("Inverse square root, max relative error %.2e", sqrtError));
+		System.out.println(String.format("Atan2, max error %.2e radians", atanError));
+
+		// Warm up
+		for (int k = 0; k < 20; k++) {
+			for (int test = 0; test < Names.length; test++) {
+				run(test);
+			}
+		}
+
+		for (int test = 0; test < Names.length; test++) {
+			long start = System.nanoTime();
+			for (int k = 0; k < Iterations; k++) {
+				run(test);
+			}
+			double time = (double)(System.nanoTime() - start) / ((double)Iterations * Count);
+			System.out.println(String.format("  %-28s %6.2f ns per call", Names[test], time));
+		}
+
+		System.out.println(sink != 0 ? "" : " ");
+	}
+
+	private static void run(int test) {
+		float sum = 0.0f;
+		switch (test) {
+			case 0: for (int i = 0; i < Count; i++) { sum += (float)Math.sin(angles[i]); } break;
+			case 1: for (int i = 0; i < Count; i++) { sum += MathHelper.fastSin(angles[i]); } break;
+			case 2: for (int i = 0; i < Count; i++) { sum += (float)Math.sin(angles[i]) + (float)Math.cos(angles[i]); } break;
+			case 3: for (int i = 0; i < Count; i++) { MathHelper.fastSinCos(angles[i], sinCos); sum += sinCos.x + sinCos.y; } break;
+			case 4: for (int i = 0; i < Count; i++) { sum += (float)(1.0 / Math.sqrt(values[i])); } break;
+			case 5: for (int i = 0; i < Count; i++) { sum += MathHelper.fastInverseSqrt(values[i]); } break;
+			case 6: for (int i = 0; i < Count; i++) { sum += (float)Math.atan2(ys[i], xs[i]); } break;
+			case 7: for (int i = 0; i < Count; i++) { sum += MathHelper.fastAtan2(ys[i], xs[i]); } break;
+		}
+		sink += sum;
+	}
+}
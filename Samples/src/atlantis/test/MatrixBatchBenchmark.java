@@ -0,0 +1,88 @@
+package atlantis.test;
+
+import java.util.Random;
+
+import atlantis.framework.Matrix;
+import atlantis.framework.Vector3;
+
+/**
+ * Compare the transform of positions one Vector3 at a time with the batch transforms of Matrix
+ * over packed arrays (array of structures) and separated arrays (structure of arrays).
+ * @author Yannick
+ */
+public class MatrixBatchBenchmark {
+	private static final int Count = 100000;
+	private static final int Iterations = 200;
+
+	public static void main(String[] args) {
+		Random random = new Random(42);
+		Matrix world = Matrix.createRotationYawPitchRoll(0.3f, 0.2f, 0.1f);
+		world.M41 = 5.0f;
+		world.M42 = -2.0f;
+		world.M43 = 30.0f;
+		Matrix matrix = Matrix.multiply(world, Matrix.createPerspectiveFieldOfViewRH((float)Math.PI / 4, 1.33f, 10.0f, 105.0f));
+
+		Vector3[] vectors = new Vector3[Count];
+		Vector3[] vectorResults = new Vector3[Count];
+		float[] packed = new float[Count * 3];
+		float[] packedResults = new float[Count * 3];
+		float[] x = new float[Count], y = new float[Count], z = new float[Count];
+		float[] resultX = new float[Count], resultY = new float[Count], resultZ = new float[Count], resultW = new float[Count];
+
+		for (int i = 0; i < Count; i++) {
+			vectors[i] = new Vector3(random.nextFloat() * 20 - 10, random.nextFloat() * 20 - 10, random.nextFloat() * 20 - 10);
+			vectorResults[i] = new Vector3();
+			packed[i * 3] = x[i] = vectors[i].x;
+			packed[i * 3 + 1] = y[i] = vectors[i].y;
+			packed[i * 3 + 2] = z[i] = vectors[i].z;
+		}
+
+		// Warm up, then check that the three paths give the same values.
+		for (int k = 0; k < 3; k++) {
+			transformVectors(vectors, vectorResults, matrix);
+			matrix.transformCoordinate(packed, 0, 3, packedResults, 0, 3, Count);
+			matrix.transformCoordinate(x, y, z, 0, Count, resultX, resultY, resultZ, resultW);
+		}
+
+		int different = 0;
+		for (int i = 0; i < Count; i++) {
+			Vector3 v = vectorResults[i];
+			if (v.x != packedResults[i * 3] || v.y != packedResults[i * 3 + 1] || v.z != packedResults[i * 3 + 2]) {
+				different++;
+			}
+			if (v.x != resultX[i] || v.y != resultY[i] || v.z != resultZ[i]) {
+				different++;
+			}
+		}
+		System.out.println("Different results: " + different);
+
+		long start = System.nanoTime();
+		for (int k = 0; k < Iterations; k++) {
+			transformVectors(vectors, vectorResults, matrix);
+		}
+		print("Vector3.transformCoordinate", start);
+
+		start = System.nanoTime();
+		for (int k = 0; k < Iterations; k++) {
+			matrix.transformCoordinate(packed, 0, 3, packedResults, 0, 3, Count);
+		}
+		print("Packed array", start);
+
+		start = System.nanoTime();
+		for (int k = 0; k < Iterations; k++) {
+			matrix.transformCoordinate(x, y, z, 0, Count, resultX, resultY, resultZ, resultW);
+		}
+		print("Separated arrays", start);
+	}
+
+	private static void transformVectors(Vector3[] vectors, Vector3[] results, Matrix matrix) {
+		for (int i = 0; i < vectors.length; i++) {
+			Vector3.transformCoordinate(vectors[i], matrix, results[i]);
+		}
+	}
+
+	private static void print(String name, long start) {
+		double time = (System.nanoTime() - start) / 1000000.0 / Iterations;
+		System.out.println(String.format("  %-28s %6.3f ms for %d positions", name, time, Count));
+	}
+}
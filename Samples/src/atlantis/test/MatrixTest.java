@@ -53,6 +53,9 @@ public class MatrixTest {
 		P("RotationZ", Matrix.createRotationZ((float)MathHelper.toRadians(90)));
 		P("Scale", Matrix.createScale(new Vector3(3.45f)));
 		P("Three Multiplications", Matrix.multiply(m2, m3, m4));
+		P("Scale * Rotation * Translation", Matrix.multiply(Matrix.createScale(2, 3, 4), 
+				Matrix.createRotationYawPitchRoll(0.3f, 0.2f, 0.1f), Matrix.createTranslation(1, 2, 3)));
+		P("World (fused)", Matrix.createWorld(new Vector3(2, 3, 4), 0.3f, 0.2f, 0.1f, new Vector3(1, 2, 3)));
 		P("----------", "----------");
 		P("PerspectifFOV", Matrix.createPerspectiveFieldOfView((float)(Math.PI / 4), 1.33f, 0.1f, 1.0f));
 		//P("LookAt", Matrix.createLookAt(new Vector3(25, 0, 0), new Vector3(), Vector3.getUnitY()));
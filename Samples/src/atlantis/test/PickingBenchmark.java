@@ -0,0 +1,132 @@
+package atlantis.test;
+
+import java.util.Random;
+
+import atlantis.framework.BoundingVolumeHierarchy;
+import atlantis.framework.Ray;
+import atlantis.framework.RayHit;
+import atlantis.framework.Vector3;
+
+/**
+ * Compare the picking of a triangle in a large mesh: a linear scan over Vector3 triangles, a linear scan
+ * over packed arrays and a query of a bounding volume hierarchy.
+ * @author Yannick
+ */
+public class PickingBenchmark {
+	private static final int Size = 224;
+	private static final int RayCount = 1000;
+
+	public static void main(String[] args) {
+		Random random = new Random(42);
+
+		// A bumpy grid of Size * Size quads, 2 triangles per quad.
+		int vertexCount = (Size + 1) * (Size + 1);
+		int triangleCount = Size * Size * 2;
+		float[] positions = new float[vertexCount * 3];
+		int[] indices = new int[triangleCount * 3];
+		Vector3[] vertices = new Vector3[vertexCount];
+
+		for (int z = 0, i = 0; z <= Size; z++) {
+			for (int x = 0; x <= Size; x++, i++) {
+				vertices[i] = new Vector3(x - Size / 2.0f, random.nextFloat() * 2.0f, z - Size / 2.0f);
+				positions[i * 3] = vertices[i].x;
+				positions[i * 3 + 1] = vertices[i].y;
+				positions[i * 3 + 2] = vertices[i].z;
+			}
+		}
+
+		for (int z = 0, i = 0; z < Size; z++) {
+			for (int x = 0; x < Size; x++) {
+				int a = z * (Size + 1) + x;
+				int b = a + 1;
+				int c = a + Size + 1;
+				int d = c + 1;
+				indices[i++] = a; indices[i++] = c; indices[i++] = b;
+				indices[i++] = b; indices[i++] = c; indices[i++] = d;
+			}
+		}
+
+		long start = System.nanoTime();
+		BoundingVolumeHierarchy tree = new BoundingVolumeHierarchy(positions, indices, triangleCount);
+		System.out.println(String.format("%d triangles, tree of %d nodes and %d levels built in %.1f ms",
+				triangleCount, tree.getNodeCount(), tree.getDepth(), (System.nanoTime() - start) / 1000000.0));
+
+		Ray[] rays = new Ray[RayCount];
+		for (int i = 0; i < RayCount; i++) {
+			Vector3 position = new Vector3(random.nextFloat() * 100 - 50, 60, random.nextFloat() * 100 - 50 - 80);
+			Vector3 target = new Vector3(random.nextFloat() * Size - Size / 2.0f, 0, random.nextFloat() * Size - Size / 2.0f);
+			Vector3 direction = Vector3.subtract(target, position);
+			direction.normalize();
+			rays[i] = new Ray(position, direction);
+		}
+
+		RayHit hit = new RayHit();
+		int[] linearHits = new int[RayCount];
+		int different = 0;
+
+		for (int i = 0; i < RayCount; i++) {
+			hit.reset();
+			rays[i].intersectsTriangles(positions, indices, 0, triangleCount, hit);
+			linearHits[i] = hit.index;
+
+			hit.reset();
+			tree.intersects(rays[i], hit);
+			if (hit.index != linearHits[i]) {
+				different++;
+			}
+
+			if (intersectsVectors(rays[i], vertices, indices) != linearHits[i]) {
+				different++;
+			}
+		}
+		System.out.println("Different hits: " + different);
+
+		int iterations = 3;
+		start = System.nanoTime();
+		for (int k = 0; k < iterations; k++) {
+			for (int i = 0; i < RayCount / 10; i++) {
+				intersectsVectors(rays[i], vertices, indices);
+			}
+		}
+		print("Linear scan of Vector3", start, iterations * (RayCount / 10));
+
+		start = System.nanoTime();
+		for (int k = 0; k < iterations; k++) {
+			for (int i = 0; i < RayCount / 10; i++) {
+				hit.reset();
+				rays[i].intersectsTriangles(positions, indices, 0, triangleCount, hit);
+			}
+		}
+		print("Linear scan of packed arrays", start, iterations * (RayCount / 10));
+
+		iterations = 100;
+		start = System.nanoTime();
+		for (int k = 0; k < iterations; k++) {
+			for (int i = 0; i < RayCount; i++) {
+				hit.reset();
+				tree.intersects(rays[i], hit);
+			}
+		}
+		print("Bounding volume hierarchy", start, iterations * RayCount);
+	}
+
+	private static int intersectsVectors(Ray ray, Vector3[] vertices, int[] indices) {
+		int index = -1;
+		float closest = Float.POSITIVE_INFINITY;
+
+		for (int i = 0; i < indices.length; i += 3) {
+			float distance = ray.intersects(vertices[indices[i]], vertices[indices[i + 1]], vertices[indices[i + 2]]);
+			if (distance >= 0.0f && distance < closest) {
+				closest = distance;
+				index = i / 3;
+			}
+		}
+
+		return index;
+	}
+
+	private static void print(String name, long start, int count) {
+		double time = (System.nanoTime() - start) / 1000.0 / count;
+		System.out.println(String.format("  %-30s %10.2f us per ray", name, time));
+	}
+}
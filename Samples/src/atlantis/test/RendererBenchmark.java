@@ -0,0 +1,98 @@
+package atlantis.test;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+
+import atlantis.engine.graphics3d.Camera;
+import atlantis.engine.graphics3d.Mesh;
+import atlantis.engine.graphics3d.Renderer;
+import atlantis.engine.graphics3d.importer.babylonjs.BabylonImporter;
+import atlantis.samples.soft3d.Maze;
+
+/**
+ * Compare the rendering modes of the software renderer (z-buffer, front to back sort, depth prepass, 
+ * deferred and span buffer) on the Maze and on the small Babylon scene. Run it from the Samples folder.
+ * @author Yannick
+ */
+public class RendererBenchmark {
+	private static final int Width = 800;
+	private static final int Height = 600;
+	private static final int Frames = 100;
+	private static final String[] Modes = { "z-buffer", "front to back", "depth prepass", "sort + prepass", "deferred", "span buffer" };
+
+	public static void main(String[] args) {
+		Camera mazeCamera = new Camera();
+		mazeCamera.position.set(-21.56f, 51.60f, 86.7f);
+		mazeCamera.rotation.set(-0.58f, -0.4f, 0f);
+		Mesh[] maze = Maze.createMeshes(Maze.createLevel());
+		benchmark("Maze", mazeCamera, maze);
+
+		// Worst case for the z-buffer, the farthest walls are drawn first.
+		Mesh[] reversedMaze = new Mesh[maze.length];
+		for (int i = 0; i < maze.length; i++) {
+			reversedMaze[i] = maze[maze.length - 1 - i];
+		}
+		benchmark("Maze reversed", mazeCamera, reversedMaze);
+
+		Camera sceneCamera = new Camera();
+		sceneCamera.position.set(0, 13.9f, 32.0f);
+		sceneCamera.rotation.set(-0.38f, 0.0f, 0.0f);
+		Mesh[] scene = BabylonImporter.loadBabyonScene("Content/models/smallScene.babylon");
+		for (int i = 0; i < scene.length; i++) {
+			scene[i].setFacesColor(Color.lightGray);
+		}
+		benchmark("smallScene", sceneCamera, scene);
+	}
+
+	private static void benchmark(String name, Camera camera, Mesh[] meshes) {
+		BufferedImage reference = new BufferedImage(Width, Height, BufferedImage.TYPE_INT_ARGB);
+		BufferedImage image = new BufferedImage(Width, Height, BufferedImage.TYPE_INT_ARGB);
+		Renderer renderer = new Renderer(Width, Height);
+		renderer.setStatisticsEnabled(true);
+		renderer.getLight().setEnableFlatShading(false);
+
+		System.out.println(name);
+
+		for (int mode = 0; mode < Modes.length; mode++) {
+			renderer.setSortFrontToBack(mode == 1 || mode == 3);
+			renderer.setDepthPrepass(mode == 2 || mode == 3);
+			renderer.setDeferred(mode == 4);
+			renderer.setSpanBufferEnabled(mode == 5);
+
+			double time = run(renderer, mode == 0 ? reference : image, camera, meshes);
+			int different = 0;
+
+			if (mode > 0) {
+				for (int y = 0; y < Height; y++) {
+					for (int x = 0; x < Width; x++) {
+						if (reference.getRGB(x, y) != image.getRGB(x, y)) {
+							different++;
+						}
+					}
+				}
+			}
+
+			System.out.println(String.format("  %-14s %8.2f ms, shaded %8d, written %8d, overdraw %.2f, %d different pixels",
+					Modes[mode], time, renderer.getShadedPixelCount(), renderer.getWrittenPixelCount(),
+					(float)renderer.getShadedPixelCount() / renderer.getWrittenPixelCount(), different));
+		}
+	}
+
+	private static double run(Renderer renderer, BufferedImage image, Camera camera, Mesh[] meshes) {
+		Graphics graphics = image.getGraphics();
+
+		// Warm up.
+		for (int i = 0; i < Frames / 4; i++) {
+			renderer.clear(Color.black);
+			renderer.render(graphics, camera, meshes);
+		}
+
+		long start = System.nanoTime();
+		for (int i = 0; i < Frames; i++) {
+			renderer.clear(Color.black);
+			renderer.render(graphics, camera, meshes);
+		}
+		return (System.nanoTime() - start) / (Frames * 1000000.0);
+	}
+}
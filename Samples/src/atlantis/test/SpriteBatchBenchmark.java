@@ -0,0 +1,285 @@
+package atlantis.test;
+
+import java.awt.Color;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import atlantis.framework.Rectangle;
+import atlantis.framework.Vector2;
+import atlantis.framework.graphics.GraphicsDevice;
+import atlantis.framework.graphics.SpriteBatch;
+import atlantis.framework.graphics.SpriteSortMode;
+import atlantis.framework.graphics.Texture2D;
+
+/**
+ * Draw frames like the shooter sample, a starfield, a ship, aliens and lasers, with one sprite batch per state.
+ * Print the time, the allocated bytes and the garbage collections per frame with Java2D and with the software
+ * blitter, then the time to draw a batch of rotated and scaled sprites with each backend, the time to draw a batch
+ * of sprites mostly outside of the screen with and without culling and the time to sort
+ * a batch of 10k sprites in each sort mode, checked against a stable comparison sort. It runs without a window
+ * from the Samples directory (java -Djava.awt.headless=true atlantis.test.SpriteBatchBenchmark).
+ * @author Yannick
+ */
+public class SpriteBatchBenchmark {
+	private static final int Width = 800;
+	private static final int Height = 600;
+	private static final int StateCount = 3;
+	private static final int SpriteCount = 100;
+	private static final int Frames = 500;
+	private static final int SortCount = 10000;
+	private static final int RotatedCount = 2000;
+	private static final int RotatedFrames = 100;
+	private static final int CullingCount = 10000;
+	private static final String[] SortNames = { "Deferred", "Texture", "BackToFront", "FrontToBack" };
+	
+	/**
+	 * Gives access to the order of the sprites without drawing them.
+	 */
+	private static class SortingBatch extends SpriteBatch {
+		public SortingBatch(GraphicsDevice graphics) {
+			super(graphics);
+		}
+		
+		public int[] getOrder() {
+			return this.sort();
+		}
+	}
+
+	public static void main(String[] args) {
+		GraphicsDevice device = new GraphicsDevice(Width, Height);
+		Texture2D starfield = Texture2D.createFromPath("Content/Shooter/starfield.png", 1);
+		Texture2D ship = Texture2D.createFromPath("Content/Shooter/ShipR.png", 1);
+		Texture2D alien = Texture2D.createFromPath("Content/Shooter/alien.png", 1);
+		Texture2D laser = Texture2D.createFromPath("Content/Shooter/laser.png", 1);
+		Texture2D[] textures = { alien, laser };
+
+		SpriteBatch[] batches = new SpriteBatch[StateCount];
+		for (int i = 0; i < StateCount; i++) {
+			batches[i] = new SpriteBatch(device);
+		}
+
+		Random random = new Random(42);
+		Rectangle background = new Rectangle(0, 0, Width, Height);
+		Rectangle shipRectangle = new Rectangle(50, Height / 2, 48, 48);
+		Rectangle shipSource = new Rectangle(0, 0, 48, 48);
+		Rectangle[] rectangles = new Rectangle[SpriteCount];
+		for (int i = 0; i < SpriteCount; i++) {
+			Texture2D texture = textures[i % 2];
+			rectangles[i] = new Rectangle(random.nextInt(Width), random.nextInt(Height), texture.getWidth(), texture.getHeight());
+		}
+
+		benchmarkFrames("Java2D", device, batches, textures, starfield, ship, background, shipRectangle, shipSource, rectangles);
+		
+		for (int i = 0; i < StateCount; i++) {
+			batches[i].setSoftwareRendering(true);
+		}
+		benchmarkFrames("Software", device, batches, textures, starfield, ship, background, shipRectangle, shipSource, rectangles);
+		
+		benchmarkRotated(device, alien, random);
+		benchmarkCulling(device, laser, random);
+		benchmarkSort(device, random);
+	}
+	
+	private static void benchmarkFrames(String name, GraphicsDevice device, SpriteBatch[] batches, Texture2D[] textures, Texture2D starfield, Texture2D ship,
+			Rectangle background, Rectangle shipRectangle, Rectangle shipSource, Rectangle[] rectangles) {
+		for (int i = 0; i < Frames; i++) {
+			drawFrame(device, batches, textures, starfield, ship, background, shipRectangle, shipSource, rectangles);
+		}
+
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+		long thread = Thread.currentThread().getId();
+		long collections = getCollectionCount();
+		long collectionTime = getCollectionTime();
+		long allocated = threads.getThreadAllocatedBytes(thread);
+		long start = System.nanoTime();
+
+		for (int i = 0; i < Frames; i++) {
+			drawFrame(device, batches, textures, starfield, ship, background, shipRectangle, shipSource, rectangles);
+		}
+
+		double time = (System.nanoTime() - start) / 1000000.0 / Frames;
+		allocated = threads.getThreadAllocatedBytes(thread) - allocated;
+		collections = getCollectionCount() - collections;
+		collectionTime = getCollectionTime() - collectionTime;
+
+		System.out.println(String.format("%s, %d frames of %d sprite batches with %d sprites", name, Frames, StateCount, SpriteCount + 2));
+		System.out.println(String.format("  %.3f ms per frame", time));
+		System.out.println(String.format("  %d bytes allocated per frame", allocated / Frames));
+		System.out.println(String.format("  %d garbage collections, %d ms", collections, collectionTime));
+	}
+	
+	private static void benchmarkRotated(GraphicsDevice device, Texture2D texture, Random random) {
+		Rectangle[] rectangles = new Rectangle[RotatedCount];
+		float[] rotations = new float[RotatedCount];
+		int[] colors = new int[RotatedCount];
+		Vector2 origin = new Vector2(texture.getWidth() / 2, texture.getHeight() / 2);
+		
+		for (int i = 0; i < RotatedCount; i++) {
+			int size = 16 + random.nextInt(64);
+			rectangles[i] = new Rectangle(random.nextInt(Width), random.nextInt(Height), size, size);
+			rotations[i] = random.nextFloat() * 6.28f;
+			colors[i] = 0xFF000000 | random.nextInt(0x1000000);
+		}
+		
+		SpriteBatch batch = new SpriteBatch(device);
+		String[] names = { "Java2D", "Software nearest", "Software bilinear" };
+		System.out.println(String.format("%d rotated, scaled and tinted sprites", RotatedCount));
+		
+		for (int mode = 0; mode < names.length; mode++) {
+			batch.setSoftwareRendering(mode > 0);
+			batch.setBilinearFiltering(mode == 2);
+			long time = 0;
+			
+			for (int k = 0; k < RotatedFrames * 2; k++) {
+				long start = System.nanoTime();
+				device.clear(Color.black);
+				batch.begin(SpriteSortMode.Deferred);
+				for (int i = 0; i < RotatedCount; i++) {
+					batch.draw(texture, rectangles[i], null, colors[i], rotations[i], origin, i & 3, 0.0f);
+				}
+				batch.end();
+				
+				// The first half warms up.
+				if (k >= RotatedFrames) {
+					time += System.nanoTime() - start;
+				}
+			}
+			
+			System.out.println(String.format("  %-18s %8.3f ms per frame", names[mode], time / 1000000.0 / RotatedFrames));
+		}
+	}
+	
+	private static void benchmarkCulling(GraphicsDevice device, Texture2D texture, Random random) {
+		// A level 5 times larger than the screen, like the lasers and the aliens that leave the screen.
+		Rectangle[] rectangles = new Rectangle[CullingCount];
+		for (int i = 0; i < CullingCount; i++) {
+			rectangles[i] = new Rectangle(random.nextInt(Width * 5) - Width * 2, random.nextInt(Height), texture.getWidth(), texture.getHeight());
+		}
+		
+		SpriteBatch batch = new SpriteBatch(device);
+		System.out.println(String.format("%d sprites on an area 5 times larger than the screen", CullingCount));
+		
+		for (int mode = 0; mode < 2; mode++) {
+			batch.setCullingEnabled(mode == 1);
+			long time = 0;
+			
+			for (int k = 0; k < RotatedFrames * 2; k++) {
+				long start = System.nanoTime();
+				device.clear(Color.black);
+				batch.begin();
+				for (int i = 0; i < CullingCount; i++) {
+					batch.draw(texture, rectangles[i]);
+				}
+				batch.end();
+				
+				if (k >= RotatedFrames) {
+					time += System.nanoTime() - start;
+				}
+			}
+			
+			System.out.println(String.format("  %-18s %8.3f ms per frame, %d submitted, %d culled", mode == 1 ? "Culling" : "No culling",
+					time / 1000000.0 / RotatedFrames, batch.getSubmittedCount(), batch.getCulledCount()));
+		}
+	}
+	
+	private static void benchmarkSort(GraphicsDevice device, Random random) {
+		final Texture2D[] textures = new Texture2D[16];
+		for (int i = 0; i < textures.length; i++) {
+			textures[i] = new Texture2D(4, 4, Texture2D.TYPE_4BYTE_ABGR);
+		}
+		
+		final int[] spriteTextures = new int[SortCount];
+		final float[] spriteDepths = new float[SortCount];
+		for (int i = 0; i < SortCount; i++) {
+			spriteTextures[i] = random.nextInt(textures.length);
+			spriteDepths[i] = random.nextInt(32) / 31.0f;
+		}
+		
+		SortingBatch batch = new SortingBatch(device);
+		Rectangle rectangle = new Rectangle(0, 0, 4, 4);
+		System.out.println(String.format("Sort of %d sprites", SortCount));
+		
+		for (int mode = 0; mode < SortNames.length; mode++) {
+			final int sortMode = mode;
+			int iterations = 2000;
+			int[] order = null;
+			long time = 0;
+			
+			for (int k = 0; k < iterations; k++) {
+				batch.begin(sortMode);
+				for (int i = 0; i < SortCount; i++) {
+					batch.draw(textures[spriteTextures[i]], rectangle, null, 0, 0.0f, spriteDepths[i]);
+				}
+				long start = System.nanoTime();
+				order = batch.getOrder();
+				time += System.nanoTime() - start;
+			}
+			
+			// The reference order: a stable merge sort of the indices.
+			Integer[] expected = new Integer[SortCount];
+			for (int i = 0; i < SortCount; i++) {
+				expected[i] = i;
+			}
+			Arrays.sort(expected, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer a, Integer b) {
+					switch (sortMode) {
+						case SpriteSortMode.Texture: return Integer.compare(textures[spriteTextures[a]].getId(), textures[spriteTextures[b]].getId());
+						case SpriteSortMode.BackToFront: return Float.compare(spriteDepths[b], spriteDepths[a]);
+						case SpriteSortMode.FrontToBack: return Float.compare(spriteDepths[a], spriteDepths[b]);
+						default: return 0;
+					}
+				}
+			});
+			
+			int different = 0;
+			for (int i = 0; i < SortCount; i++) {
+				if ((order != null ? order[i] : i) != expected[i]) {
+					different++;
+				}
+			}
+			
+			System.out.println(String.format("  %-12s %8.1f us, %d differences", SortNames[mode], time / 1000.0 / iterations, different));
+		}
+	}
+
+	private static void drawFrame(GraphicsDevice device, SpriteBatch[] batches, Texture2D[] textures, Texture2D starfield, Texture2D ship,
+			Rectangle background, Rectangle shipRectangle, Rectangle shipSource, Rectangle[] rectangles) {
+		device.clear(Color.black);
+
+		for (int i = 0; i < batches.length; i++) {
+			SpriteBatch batch = batches[i];
+			batch.begin();
+
+			if (i == 0) {
+				batch.draw(starfield, background);
+				batch.draw(ship, shipRectangle, shipSource, 0xFFFFFFFF, 0.0f);
+
+				for (int j = 0; j < rectangles.length; j++) {
+					batch.draw(textures[j % 2], rectangles[j]);
+				}
+			}
+
+			batch.end();
+		}
+	}
+
+	private static long getCollectionCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += bean.getCollectionCount();
+		}
+		return count;
+	}
+
+	private static long getCollectionTime() {
+		long time = 0;
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			time += bean.getCollectionTime();
+		}
+		return time;
+	}
+}
@@ -0,0 +1,75 @@
+package atlantis.test;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+
+import atlantis.framework.graphics.GraphicsDevice;
+import atlantis.framework.graphics.SpriteBatch;
+import atlantis.framework.graphics.SpriteFont;
+import atlantis.framework.graphics.SpriteSortMode;
+
+/**
+ * Compare the time to draw counters like the HUD of the platformer with Graphics2D.drawString and with the
+ * glyphs of a SpriteFont, for the Java2D and the software backends of the sprite batch. It runs without a
+ * window from the Samples directory (java -Djava.awt.headless=true atlantis.test.SpriteFontBenchmark).
+ * @author Yannick
+ */
+public class SpriteFontBenchmark {
+	private static final int LineCount = 40;
+	private static final int Frames = 500;
+
+	public static void main(String[] args) {
+		GraphicsDevice device = new GraphicsDevice(800, 600);
+		SpriteBatch batch = new SpriteBatch(device);
+		Font font = new Font(Font.SANS_SERIF, Font.BOLD, 16);
+		SpriteFont spriteFont = new SpriteFont(Font.SANS_SERIF, 16, Font.BOLD);
+		StringBuilder text = new StringBuilder();
+		int yellow = Color.YELLOW.getRGB();
+
+		System.out.println(String.format("%d counters per frame", LineCount));
+
+		long time = 0;
+		for (int k = 0; k < Frames * 2; k++) {
+			long start = System.nanoTime();
+			device.clear(Color.black);
+			Graphics2D graphics = (Graphics2D)device.getGraphics();
+			graphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			graphics.setFont(font);
+			graphics.setColor(Color.YELLOW);
+			for (int i = 0; i < LineCount; i++) {
+				graphics.drawString("SCORE: " + (k * LineCount + i), 10 + (i % 4) * 200, 20 + (i / 4) * 20);
+			}
+			if (k >= Frames) {
+				time += System.nanoTime() - start;
+			}
+		}
+		System.out.println(String.format("  %-28s %8.3f ms per frame", "Graphics2D.drawString", time / 1000000.0 / Frames));
+
+		String[] backends = { "Java2D", "Software" };
+		for (int backend = 0; backend < backends.length; backend++) {
+			batch.setSoftwareRendering(backend == 1);
+			time = 0;
+
+			for (int k = 0; k < Frames * 2; k++) {
+				long start = System.nanoTime();
+				device.clear(Color.black);
+				batch.begin(SpriteSortMode.Texture);
+				for (int i = 0; i < LineCount; i++) {
+					text.setLength(0);
+					text.append("SCORE: ").append(k * LineCount + i);
+					batch.drawString(spriteFont, text, 10 + (i % 4) * 200, 20 + (i / 4) * 20, yellow, 1.0f);
+				}
+				batch.end();
+
+				// The first half warms up.
+				if (k >= Frames) {
+					time += System.nanoTime() - start;
+				}
+			}
+
+			System.out.println(String.format("  %-28s %8.3f ms per frame", "SpriteFont " + backends[backend], time / 1000000.0 / Frames));
+		}
+	}
+}
@@ -0,0 +1,165 @@
+package atlantis.test;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Random;
+
+import atlantis.framework.Rectangle;
+import atlantis.framework.graphics.GraphicsDevice;
+import atlantis.framework.graphics.SpriteBatch;
+import atlantis.framework.graphics.SpriteBlitter;
+import atlantis.framework.graphics.SpriteSortMode;
+import atlantis.framework.graphics.Texture2D;
+import atlantis.framework.graphics.TextureAtlas;
+import atlantis.framework.graphics.TextureRegion;
+
+/**
+ * Pack the tiles of the platformer and a set of random images in texture atlases, check that the regions
+ * don't overlap and contain the pixels of the images with extruded edges, then compare the time to draw
+ * tiles from separate textures and from an atlas. It runs without a window from the Samples directory
+ * (java -Djava.awt.headless=true atlantis.test.TextureAtlasBenchmark).
+ * @author Yannick
+ */
+public class TextureAtlasBenchmark {
+	private static final int ImageCount = 500;
+	private static final int TileCount = 5000;
+	private static final int Frames = 200;
+	private static final String[] TileNames = {
+		"BlockA0", "BlockA1", "BlockA2", "BlockA3", "BlockA4", "BlockA5", "BlockA6",
+		"Exit", "Platform", "Gem", "YellowGem"
+	};
+
+	public static void main(String[] args) {
+		Texture2D[] tiles = new Texture2D[TileNames.length];
+		TextureAtlas tileAtlas = new TextureAtlas();
+		for (int i = 0; i < tiles.length; i++) {
+			tiles[i] = Texture2D.createFromPath("Content/Platformer/img/Tiles/" + TileNames[i] + ".png", 1);
+			tileAtlas.add(TileNames[i], tiles[i]);
+		}
+		tileAtlas.pack();
+		check("Platformer tiles", tileAtlas, TileNames, tiles);
+
+		// Random images with random colors, from 4 to 100 pixels.
+		Random random = new Random(42);
+		String[] names = new String[ImageCount];
+		BufferedImage[] images = new BufferedImage[ImageCount];
+		TextureAtlas atlas = new TextureAtlas(1024, 1024, 2, 1);
+		for (int i = 0; i < ImageCount; i++) {
+			names[i] = "image" + i;
+			images[i] = new BufferedImage(4 + random.nextInt(96), 4 + random.nextInt(96), BufferedImage.TYPE_INT_ARGB);
+			for (int y = 0; y < images[i].getHeight(); y++) {
+				for (int x = 0; x < images[i].getWidth(); x++) {
+					images[i].setRGB(x, y, random.nextInt());
+				}
+			}
+			atlas.add(names[i], images[i]);
+		}
+
+		long start = System.nanoTime();
+		atlas.pack();
+		System.out.println(String.format("%d random images packed in %.1f ms", ImageCount, (System.nanoTime() - start) / 1000000.0));
+		check("Random images", atlas, names, images);
+
+		benchmarkDraw(tiles, tileAtlas, random);
+	}
+
+	private static void check(String name, TextureAtlas atlas, String[] names, BufferedImage[] images) {
+		long imageArea = 0;
+		long pageArea = 0;
+		int errors = 0;
+		ArrayList<TextureRegion> regions = new ArrayList<TextureRegion>();
+
+		for (int i = 0; i < atlas.getPageCount(); i++) {
+			pageArea += atlas.getPage(i).getWidth() * atlas.getPage(i).getHeight();
+		}
+
+		for (int i = 0; i < names.length; i++) {
+			TextureRegion region = atlas.getRegion(names[i]);
+			BufferedImage image = images[i];
+			imageArea += image.getWidth() * image.getHeight();
+
+			if (region.width != image.getWidth() || region.height != image.getHeight()) {
+				errors++;
+				continue;
+			}
+
+			// The pixels of the region and of the extruded border, premultiplied whatever the format of the pages.
+			int extrude = atlas.getExtrude();
+			int[] pixels = region.texture.getPremultipliedPixels();
+			for (int y = -extrude; y < region.height + extrude; y++) {
+				for (int x = -extrude; x < region.width + extrude; x++) {
+					int expected = image.getRGB(Math.min(Math.max(x, 0), region.width - 1), Math.min(Math.max(y, 0), region.height - 1));
+					if (pixels[(region.y + y) * region.texture.getWidth() + region.x + x] != SpriteBlitter.premultiply(expected)) {
+						errors++;
+					}
+				}
+			}
+
+			// The regions and their borders are separated by the padding.
+			int gap = atlas.getPadding() + extrude * 2;
+			for (TextureRegion other : regions) {
+				if (other.texture == region.texture
+						&& region.x < other.x + other.width + gap && other.x < region.x + region.width + gap
+						&& region.y < other.y + other.height + gap && other.y < region.y + region.height + gap) {
+					errors++;
+				}
+			}
+			regions.add(region);
+		}
+
+		System.out.println(String.format("%s: %d images in %d pages, %.1f%% occupancy, %d errors",
+				name, names.length, atlas.getPageCount(), imageArea * 100.0 / pageArea, errors));
+	}
+
+	private static void benchmarkDraw(Texture2D[] tiles, TextureAtlas atlas, Random random) {
+		GraphicsDevice device = new GraphicsDevice(800, 600);
+		SpriteBatch batch = new SpriteBatch(device);
+		int[] tileIndices = new int[TileCount];
+		Rectangle[] rectangles = new Rectangle[TileCount];
+		TextureRegion[] regions = new TextureRegion[TileNames.length];
+
+		for (int i = 0; i < TileNames.length; i++) {
+			regions[i] = atlas.getRegion(TileNames[i]);
+		}
+
+		for (int i = 0; i < TileCount; i++) {
+			tileIndices[i] = random.nextInt(tiles.length);
+			rectangles[i] = new Rectangle(random.nextInt(800), random.nextInt(600), tiles[tileIndices[i]].getWidth(), tiles[tileIndices[i]].getHeight());
+		}
+
+		System.out.println(String.format("%d tiles drawn in texture order", TileCount));
+		String[] backends = { "Java2D", "Software" };
+
+		for (int backend = 0; backend < backends.length; backend++) {
+			batch.setSoftwareRendering(backend == 1);
+
+			for (int mode = 0; mode < 2; mode++) {
+				long time = 0;
+
+				for (int k = 0; k < Frames * 2; k++) {
+					long start = System.nanoTime();
+					device.clear(Color.black);
+					batch.begin(SpriteSortMode.Texture);
+					for (int i = 0; i < TileCount; i++) {
+						if (mode == 0) {
+							batch.draw(tiles[tileIndices[i]], rectangles[i], null, 0xFFFFFFFF, 0.0f, 0.0f);
+						}
+						else {
+							batch.draw(regions[tileIndices[i]], rectangles[i], 0xFFFFFFFF, 0.0f, null, 0, 0.0f);
+						}
+					}
+					batch.end();
+
+					// The first half warms up.
+					if (k >= Frames) {
+						time += System.nanoTime() - start;
+					}
+				}
+
+				System.out.println(String.format("  %-8s %-20s %8.3f ms per frame", backends[backend],
+						mode == 0 ? "separate textures" : "atlas regions", time / 1000000.0 / Frames));
+			}
+		}
+	}
+}
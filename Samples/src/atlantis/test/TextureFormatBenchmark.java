@@ -0,0 +1,155 @@
+package atlantis.test;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import atlantis.framework.graphics.GraphicsDevice;
+import atlantis.framework.graphics.SpriteBatch;
+import atlantis.framework.graphics.Texture2D;
+
+/**
+ * Compare the textures copied element by element in TYPE_4BYTE_ABGR, like Texture2D did before, with the
+ * textures in the format of the display: the time to create them from the decoded images of the samples and
+ * the time to draw a screen of them with the sprite batch. It runs without a window from the Samples directory
+ * (java -Djava.awt.headless=true atlantis.test.TextureFormatBenchmark).
+ * @author Yannick
+ */
+public class TextureFormatBenchmark {
+	private static final int Width = 800;
+	private static final int Height = 600;
+	private static final int Loads = 20;
+	private static final int Frames = 300;
+	private static final int SpriteCount = 1000;
+	private static final int MaxSpriteSize = 128;
+
+	public static void main(String[] args) throws IOException {
+		ArrayList<BufferedImage> images = new ArrayList<BufferedImage>();
+		findImages(new File("Content"), images);
+		long pixels = 0;
+		for (BufferedImage image : images) {
+			pixels += image.getWidth() * image.getHeight();
+		}
+		System.out.println(String.format("%d images, %d pixels, display type %d", images.size(), pixels, Texture2D.getDisplayType()));
+
+		Texture2D[] elementTextures = new Texture2D[images.size()];
+		Texture2D[] displayTextures = new Texture2D[images.size()];
+		long elementTime = 0;
+		long displayTime = 0;
+
+		for (int k = 0; k < Loads * 2; k++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < images.size(); i++) {
+				elementTextures[i] = createByElement(images.get(i));
+			}
+			long middle = System.nanoTime();
+			for (int i = 0; i < images.size(); i++) {
+				displayTextures[i] = Texture2D.createFromImage(images.get(i));
+			}
+			long end = System.nanoTime();
+
+			// The first half warms up.
+			if (k >= Loads) {
+				elementTime += middle - start;
+				displayTime += end - middle;
+			}
+		}
+
+		System.out.println("Creation of the textures");
+		System.out.println(String.format("  %-22s %8.3f ms", "element by element", elementTime / 1000000.0 / Loads));
+		System.out.println(String.format("  %-22s %8.3f ms", "display format", displayTime / 1000000.0 / Loads));
+
+		// The sprites are the images of the tiles and the characters, not the backgrounds.
+		ArrayList<Texture2D> elementSprites = new ArrayList<Texture2D>();
+		ArrayList<Texture2D> displaySprites = new ArrayList<Texture2D>();
+		for (int i = 0; i < images.size(); i++) {
+			if (images.get(i).getWidth() <= MaxSpriteSize && images.get(i).getHeight() <= MaxSpriteSize) {
+				elementSprites.add(elementTextures[i]);
+				displaySprites.add(displayTextures[i]);
+			}
+		}
+
+		System.out.println(String.format("Draw, %d sprites from %d images", SpriteCount, elementSprites.size()));
+		benchmarkDraw("4BYTE_ABGR", elementSprites.toArray(new Texture2D[0]));
+		benchmarkDraw("display format", displaySprites.toArray(new Texture2D[0]));
+	}
+
+	private static void findImages(File directory, ArrayList<BufferedImage> images) throws IOException {
+		File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+
+		for (File file : files) {
+			if (file.isDirectory()) {
+				findImages(file, images);
+			}
+			else if (file.getName().endsWith(".png")) {
+				BufferedImage image = ImageIO.read(file);
+				if (image != null && image.getType() != BufferedImage.TYPE_CUSTOM) {
+					images.add(image);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The previous creation of a texture, a white texture then a copy of each element of the buffer of the image.
+	 */
+	private static Texture2D createByElement(BufferedImage image) {
+		BufferedImage converted = image;
+
+		if (image.getType() != BufferedImage.TYPE_4BYTE_ABGR) {
+			converted = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_4BYTE_ABGR);
+			converted.getGraphics().drawImage(image, 0, 0, null);
+		}
+
+		Texture2D texture = new Texture2D(image.getWidth(), image.getHeight(), BufferedImage.TYPE_4BYTE_ABGR);
+		DataBuffer source = converted.getRaster().getDataBuffer();
+		DataBuffer destination = texture.getRaster().getDataBuffer();
+		for (int i = 0, l = destination.getSize(); i < l; i++) {
+			destination.setElem(i, 255);
+		}
+		for (int i = 0, l = source.getSize(); i < l; i++) {
+			destination.setElem(i, source.getElem(i));
+		}
+		return texture;
+	}
+
+	private static void benchmarkDraw(String name, Texture2D[] textures) {
+		GraphicsDevice device = new GraphicsDevice(Width, Height);
+		SpriteBatch batch = new SpriteBatch(device);
+		Random random = new Random(42);
+		int[] spriteTextures = new int[SpriteCount];
+		int[] spritePositions = new int[SpriteCount * 2];
+		for (int i = 0; i < SpriteCount; i++) {
+			spriteTextures[i] = random.nextInt(textures.length);
+			spritePositions[i * 2] = random.nextInt(Width);
+			spritePositions[i * 2 + 1] = random.nextInt(Height);
+		}
+
+		long time = 0;
+		for (int k = 0; k < Frames * 2; k++) {
+			long start = System.nanoTime();
+			device.clear(Color.black);
+			batch.begin();
+			for (int i = 0; i < SpriteCount; i++) {
+				batch.draw(textures[spriteTextures[i]], spritePositions[i * 2], spritePositions[i * 2 + 1], 0xFFFFFFFF, 0.0f, 0.0f);
+			}
+			batch.end();
+
+			// The first half warms up.
+			if (k >= Frames) {
+				time += System.nanoTime() - start;
+			}
+		}
+
+		System.out.println(String.format("  %-22s %8.3f ms per frame", name, time / 1000000.0 / Frames));
+	}
+}
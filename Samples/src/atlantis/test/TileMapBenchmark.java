@@ -0,0 +1,185 @@
+package atlantis.test;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import atlantis.engine.graphics.Sprite;
+import atlantis.engine.graphics.SpriteGroup;
+import atlantis.engine.graphics.TileMap;
+import atlantis.framework.Rectangle;
+import atlantis.framework.graphics.GraphicsDevice;
+import atlantis.framework.graphics.SpriteBatch;
+import atlantis.framework.graphics.Texture2D;
+import atlantis.framework.graphics.TextureAtlas;
+import atlantis.framework.graphics.TextureRegion;
+
+/**
+ * Build a large level of the platformer tiles twice, as a sprite per tile and as a tile map, then compare the
+ * time to draw the visible part of the level while it scrolls and the time of the collision tests of a player:
+ * a scan of all the blocks against a lookup of the touched cells. The collisions of both are checked to be the
+ * same and the frames to be identical. It runs without a window from the Samples directory
+ * (java -Djava.awt.headless=true atlantis.test.TileMapBenchmark).
+ * @author Yannick
+ */
+public class TileMapBenchmark {
+	private static final int Width = 800;
+	private static final int Height = 600;
+	private static final int Columns = 200;
+	private static final int Rows = 150;
+	private static final int TileWidth = 40;
+	private static final int TileHeight = 32;
+	private static final int Frames = 100;
+	private static final int Queries = 100000;
+	private static final String[] TileNames = { "BlockA0", "BlockA1", "BlockA2", "BlockA3", "BlockA4", "BlockA5", "Platform" };
+
+	public static void main(String[] args) {
+		TextureAtlas atlas = new TextureAtlas();
+		for (int i = 0; i < TileNames.length; i++) {
+			atlas.add(TileNames[i], Texture2D.createFromPath("Content/Platformer/img/Tiles/" + TileNames[i] + ".png", 1));
+		}
+		atlas.pack();
+
+		// A third of the cells have a tile, the same level for the sprites and the map.
+		Random random = new Random(42);
+		TileMap tileMap = new TileMap(Columns, Rows, TileWidth, TileHeight);
+		int[] tileTypes = new int[TileNames.length];
+		for (int i = 0; i < TileNames.length; i++) {
+			tileTypes[i] = tileMap.addTileType(atlas.getRegion(TileNames[i]), true);
+		}
+
+		SpriteGroup sprites = new SpriteGroup();
+		ArrayList<Sprite> blocks = new ArrayList<Sprite>();
+		for (int y = 0; y < Rows; y++) {
+			for (int x = 0; x < Columns; x++) {
+				if (random.nextInt(3) == 0) {
+					int type = random.nextInt(TileNames.length);
+					TextureRegion region = atlas.getRegion(TileNames[type]);
+					Sprite block = new Block(region, x, y);
+					sprites.add(block);
+					blocks.add(block);
+					tileMap.setTile(x, y, tileTypes[type]);
+				}
+			}
+		}
+		tileMap.loadContent(null);
+
+		System.out.println(String.format("%dx%d tiles, %d blocks", Columns, Rows, blocks.size()));
+		benchmarkDraw(sprites, tileMap);
+		benchmarkCollisions(blocks, tileMap, random);
+	}
+
+	private static void benchmarkDraw(SpriteGroup sprites, TileMap tileMap) {
+		GraphicsDevice spriteDevice = new GraphicsDevice(Width, Height);
+		GraphicsDevice mapDevice = new GraphicsDevice(Width, Height);
+		SpriteBatch spriteBatch = new SpriteBatch(spriteDevice);
+		SpriteBatch mapBatch = new SpriteBatch(mapDevice);
+		long spriteTime = 0;
+		long mapTime = 0;
+		int differences = 0;
+
+		for (int k = 0; k < Frames * 2; k++) {
+			// The level scrolls under the screen.
+			int offsetX = -(k * 37) % (Columns * TileWidth - Width);
+			int offsetY = -(k * 23) % (Rows * TileHeight - Height);
+
+			long start = System.nanoTime();
+			for (Sprite sprite : sprites.getEntities()) {
+				Block block = (Block)sprite;
+				block.setPosition(block.column * TileWidth + offsetX, block.row * TileHeight + offsetY);
+			}
+			spriteDevice.clear(Color.black);
+			spriteBatch.begin();
+			sprites.draw(null, spriteBatch);
+			spriteBatch.end();
+			long middle = System.nanoTime();
+
+			tileMap.setPosition(offsetX, offsetY);
+			mapDevice.clear(Color.black);
+			mapBatch.begin();
+			tileMap.draw(null, mapBatch);
+			mapBatch.end();
+			long end = System.nanoTime();
+
+			if (!Arrays.equals(spriteDevice.getRenderTarget().getPixels(), mapDevice.getRenderTarget().getPixels())) {
+				differences++;
+			}
+
+			// The first half warms up.
+			if (k >= Frames) {
+				spriteTime += middle - start;
+				mapTime += end - middle;
+			}
+		}
+
+		System.out.println(String.format("Draw, %d different frames", differences));
+		System.out.println(String.format("  %-20s %8.3f ms per frame", "sprite per tile", spriteTime / 1000000.0 / Frames));
+		System.out.println(String.format("  %-20s %8.3f ms per frame, %d chunks", "tile map", mapTime / 1000000.0 / Frames, tileMap.getVisibleChunkCount()));
+	}
+
+	private static void benchmarkCollisions(ArrayList<Sprite> blocks, TileMap tileMap, Random random) {
+		tileMap.setPosition(0, 0);
+		for (Sprite sprite : blocks) {
+			Block block = (Block)sprite;
+			block.setPosition(block.column * TileWidth, block.row * TileHeight);
+		}
+
+		Rectangle[] players = new Rectangle[Queries];
+		for (int i = 0; i < Queries; i++) {
+			// Some players are smaller than a tile.
+			players[i] = new Rectangle(random.nextInt(Columns * TileWidth), random.nextInt(Rows * TileHeight), 8 + random.nextInt(73), 8 + random.nextInt(73));
+		}
+
+		// The blocks collide when their top left corner is inside the player, like in the platformer.
+		long start = System.nanoTime();
+		int[] scanHits = new int[Queries];
+		for (int i = 0; i < Queries; i++) {
+			scanHits[i] = -1;
+			for (int j = 0, l = blocks.size(); j < l; j++) {
+				if (players[i].contains(blocks.get(j).getBoundingRectangle())) {
+					Rectangle block = blocks.get(j).getBoundingRectangle();
+					scanHits[i] = block.y * Columns * TileWidth + block.x;
+					break;
+				}
+			}
+		}
+		long scanTime = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		Rectangle area = new Rectangle();
+		Rectangle block = new Rectangle();
+		int errors = 0;
+		for (int i = 0; i < Queries; i++) {
+			Rectangle player = players[i];
+			area.set(player.x + TileWidth - 1, player.y + TileHeight - 1, player.width - TileWidth + 1, player.height - TileHeight + 1);
+			int hit = tileMap.findSolidTile(area, block) ? block.y * Columns * TileWidth + block.x : -1;
+			if (hit != scanHits[i]) {
+				errors++;
+			}
+		}
+		long mapTime = System.nanoTime() - start;
+
+		System.out.println(String.format("Collisions, %d queries, %d errors", Queries, errors));
+		System.out.println(String.format("  %-20s %8.3f us per query", "scan of the blocks", scanTime / 1000.0 / Queries));
+		System.out.println(String.format("  %-20s %8.3f us per query", "touched cells", mapTime / 1000.0 / Queries));
+	}
+
+	/**
+	 * A block of the level drawn from a region of the atlas, like a sprite loaded by the content manager.
+	 */
+	private static class Block extends Sprite {
+		final int column;
+		final int row;
+
+		public Block(TextureRegion region, int column, int row) {
+			this.texture = region.texture;
+			this.textureRegion = region;
+			this.rectangle.setSize(region.width, region.height);
+			this.assetLoaded = true;
+			this.column = column;
+			this.row = row;
+			this.setPosition(column * TileWidth, row * TileHeight);
+		}
+	}
+}